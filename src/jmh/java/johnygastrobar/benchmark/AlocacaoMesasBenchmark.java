@@ -0,0 +1,66 @@
+package johnygastrobar.benchmark;
+
+import johnygastrobar.model.Mesa;
+import johnygastrobar.model.SolicitacaoReserva;
+import johnygastrobar.service.AlocadorMesas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Alocação de um lote de solicitações (noite de evento) em mesas, só em memória:
+// a ocupação existente é simulada com ~1/5 dos horários de cada mesa já reservados.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlocacaoMesasBenchmark {
+
+    @Param({"200"})
+    private int solicitacoes;
+
+    @Param({"60"})
+    private int mesas;
+
+    private List<SolicitacaoReserva> lote;
+    private List<Mesa> listaMesas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(11);
+        LocalDate dia = LocalDate.now().plusDays(10);
+        String[] localizacoes = {"Salão", "Varanda", "Mezanino"};
+        listaMesas = new ArrayList<>();
+        for (int m = 1; m <= mesas; m++) {
+            listaMesas.add(new Mesa(m, 2 + 2 * random.nextInt(4), localizacoes[m % localizacoes.length]));
+        }
+        lote = new ArrayList<>();
+        for (int s = 0; s < solicitacoes; s++) {
+            lote.add(new SolicitacaoReserva("Grupo " + s, 1 + random.nextInt(8), dia,
+                    LocalTime.of(18 + random.nextInt(5), 30 * random.nextInt(2)),
+                    random.nextInt(3) == 0 ? localizacoes[random.nextInt(localizacoes.length)] : null, null));
+        }
+    }
+
+    @Benchmark
+    public Mesa[] alocarLote() throws Exception {
+        return AlocadorMesas.alocar(lote, listaMesas, (idMesa, data, hora) -> (idMesa + hora.getHour()) % 5 != 0);
+    }
+}
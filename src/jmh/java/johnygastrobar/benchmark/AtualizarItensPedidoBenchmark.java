@@ -0,0 +1,119 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Amplificação de escrita ao editar uma quantidade num pedido grande:
+// - atualizarPorDiferenca: PedidoDAO.atualizar, que grava só a linha alterada;
+// - reescreverTodasAsLinhas: o comportamento anterior (apaga todas as linhas de Pedido_Item e reinsere).
+// Além do tempo, os contadores do ContadoresJdbc trazem as linhas de Pedido/Pedido_Item escritas:
+// linhas escritas por operação = linhas / operacoes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AtualizarItensPedidoBenchmark {
+
+    @Param({"20", "80"})
+    private int linhas;
+
+    private HikariDataSource dataSource;
+    private PedidoDAO pedidoDAO;
+    private Pedido pedido;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(0);
+        new ConnectionFactory(dataSource, ContadoresJdbc.metricas());
+        pedidoDAO = new PedidoDAO();
+        pedido = new Pedido(2, null, 1, null, BigDecimal.ZERO);
+        for (int l = 1; l <= linhas; l++) {
+            pedido.adicionarItem(new PedidoItem(l, null, null, 1, new BigDecimal("10.00")));
+        }
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            pedidoDAO.inserir(pedido, conn);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public boolean atualizarPorDiferenca(ContadoresJdbc contadores) throws SQLException {
+        List<PedidoItem> gravados = copiarItens();
+        alternarQuantidadeDoMeio();
+        contadores.operacoes++;
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            return pedidoDAO.atualizar(pedido, gravados, conn);
+        }
+    }
+
+    @Benchmark
+    public int reescreverTodasAsLinhas(ContadoresJdbc contadores) throws SQLException {
+        alternarQuantidadeDoMeio();
+        contadores.operacoes++;
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE Pedido SET versao = versao + 1 WHERE id_pedido = ?")) {
+                stmt.setInt(1, pedido.getIdPedido());
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM Pedido_Item WHERE id_pedido = ?")) {
+                stmt.setInt(1, pedido.getIdPedido());
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO Pedido_Item (id_pedido, id_item, quantidade, preco_unitario) VALUES (?, ?, ?, ?)")) {
+                for (PedidoItem item : pedido.getItensDoPedido()) {
+                    stmt.setInt(1, pedido.getIdPedido());
+                    stmt.setInt(2, item.getIdItem());
+                    stmt.setInt(3, item.getQuantidade());
+                    stmt.setBigDecimal(4, item.getPrecoUnitario());
+                    stmt.addBatch();
+                }
+                return stmt.executeBatch().length;
+            }
+        }
+    }
+
+    private List<PedidoItem> copiarItens() {
+        List<PedidoItem> copia = new ArrayList<>();
+        for (PedidoItem item : pedido.getItensDoPedido()) {
+            copia.add(new PedidoItem(item.getIdItem(), null, null, item.getQuantidade(), item.getPrecoUnitario()));
+        }
+        return copia;
+    }
+
+    // Edição típica: o garçom muda a quantidade de uma linha (alterna entre 1 e 2 para o pedido não crescer).
+    private void alternarQuantidadeDoMeio() {
+        PedidoItem item = pedido.getItensDoPedido().get(linhas / 2);
+        item.setQuantidade(item.getQuantidade() == 1 ? 2 : 1);
+    }
+}
@@ -0,0 +1,209 @@
+package johnygastrobar.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.util.ConnectionFactory;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+
+// Banco H2 em memória (modo MySQL) com o schema usado pelos DAOs e uma massa de dados fixa.
+// Registra o DataSource no ConnectionFactory, como o Spring faz na aplicação.
+final class BancoBenchmark {
+
+    static final int MESAS = 30;
+    static final int ITENS = 80;
+    static final int FUNCIONARIOS = 200;
+
+    private static final String[] DDL = {
+            "CREATE TABLE Mesa (id_mesa INT AUTO_INCREMENT PRIMARY KEY, capacidade INT NOT NULL, localizacao VARCHAR(100))",
+            "CREATE TABLE Item (id_item INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL, tipo VARCHAR(50), preco DECIMAL(10,2) NOT NULL)",
+            "CREATE TABLE Funcionario (id_funcionario INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL, cpf VARCHAR(14), " +
+                    "salario DECIMAL(10,2), data_contratacao DATE, rua VARCHAR(100), numero VARCHAR(10), bairro VARCHAR(50), " +
+                    "cidade VARCHAR(50), estado VARCHAR(2), cep VARCHAR(9), id_supervisor INT)",
+            "CREATE TABLE Garcom (id_funcionario INT PRIMARY KEY, setor_atendimento VARCHAR(50))",
+            "CREATE TABLE Cozinheiro (id_funcionario INT PRIMARY KEY, espec_cul VARCHAR(50))",
+            "CREATE TABLE Bartender (id_funcionario INT PRIMARY KEY, espec_bar VARCHAR(50))",
+            "CREATE TABLE Gerente (id_funcionario INT PRIMARY KEY, nivel_acesso VARCHAR(20), limite_desconto DECIMAL(5,2))",
+            "CREATE TABLE Funcionario_Telefones (id_funcionario INT NOT NULL, numero_telefone VARCHAR(20) NOT NULL)",
+            "CREATE TABLE Dependente (id_funcionario INT NOT NULL, nome_dependente VARCHAR(100) NOT NULL, data_nascimento DATE, parentesco VARCHAR(30))",
+            "CREATE TABLE Pedido (id_pedido INT AUTO_INCREMENT PRIMARY KEY, id_garcom INT, id_gerente INT, id_mesa INT NOT NULL, " +
+                    "data_hora TIMESTAMP NOT NULL, entregue BOOLEAN NOT NULL, pago BOOLEAN NOT NULL, desconto DECIMAL(5,2), versao INT NOT NULL DEFAULT 0)",
+            "CREATE INDEX idx_pedido_data_hora_status ON Pedido (data_hora, pago, entregue)",
+            "CREATE TABLE Pedido_Item (id_pedido INT NOT NULL, id_item INT NOT NULL, quantidade INT NOT NULL, preco_unitario DECIMAL(10,2) NOT NULL)",
+            "CREATE INDEX idx_pedido_item_pedido_item ON Pedido_Item (id_pedido, id_item)",
+            "CREATE TABLE Pagamento_realiza (id_pagamento INT AUTO_INCREMENT PRIMARY KEY, id_pedido INT NOT NULL, " +
+                    "valor_total DECIMAL(10,2) NOT NULL, metodo_pagamento VARCHAR(50) NOT NULL, data_pagamento TIMESTAMP NOT NULL, " +
+                    "CONSTRAINT pagamento_realiza_id_pedido_key UNIQUE (id_pedido))",
+            "CREATE TABLE Resumo_Vendas_Dia (dia DATE NOT NULL PRIMARY KEY, pedidos_criados INT NOT NULL DEFAULT 0, " +
+                    "pedidos_pendentes INT NOT NULL DEFAULT 0, pedidos_entregues_nao_pagos INT NOT NULL DEFAULT 0, " +
+                    "pedidos_pagos_nao_entregues INT NOT NULL DEFAULT 0, pedidos_entregues_pagos INT NOT NULL DEFAULT 0, " +
+                    "unidades_vendidas INT NOT NULL DEFAULT 0, valor_itens DECIMAL(14,2) NOT NULL DEFAULT 0, " +
+                    "valor_pedidos DECIMAL(14,2) NOT NULL DEFAULT 0, pagamentos INT NOT NULL DEFAULT 0, " +
+                    "valor_pagamentos DECIMAL(14,2) NOT NULL DEFAULT 0)",
+            "CREATE TABLE Resumo_Vendas_Item_Dia (dia DATE NOT NULL, id_item INT NOT NULL, quantidade INT NOT NULL DEFAULT 0, " +
+                    "faturamento DECIMAL(14,2) NOT NULL DEFAULT 0, PRIMARY KEY (dia, id_item))",
+            "CREATE TABLE Reserva (id_reserva INT AUTO_INCREMENT PRIMARY KEY, nome_responsavel VARCHAR(100) NOT NULL, " +
+                    "numero_pessoas INT NOT NULL, id_mesa INT NOT NULL, data_reserva DATE NOT NULL, hora_reserva TIME NOT NULL, observacao VARCHAR(255))",
+            "CREATE INDEX idx_reserva_data_hora ON Reserva (data_reserva, hora_reserva)",
+            "CREATE INDEX idx_reserva_mesa_data ON Reserva (id_mesa, data_reserva)",
+            "CREATE TABLE Chave_Idempotencia (operacao VARCHAR(30) NOT NULL, chave VARCHAR(100) NOT NULL, " +
+                    "resumo_requisicao CHAR(64) NOT NULL, id_recurso INT NOT NULL, criado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (operacao, chave))"
+    };
+
+    private BancoBenchmark() {
+    }
+
+    // Cria um banco novo (nome único, para que cada trial comece do zero) com o número de pedidos pedido.
+    static HikariDataSource criar(int pedidos) throws SQLException {
+        // Sem o application.properties o Logback fica em DEBUG e o log do Hikari polui a saída do JMH.
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        HikariConfig config = new HikariConfig();
+        // LOCK_TIMEOUT acima do padrão do H2 (1 s): ConcorrenciaPedidoBenchmark disputa a mesma linha de Pedido.
+        config.setJdbcUrl("jdbc:h2:mem:bench" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        config.setMaximumPoolSize(4);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        new ConnectionFactory(dataSource);
+
+        try (Connection conn = dataSource.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                for (String ddl : DDL) {
+                    stmt.execute(ddl);
+                }
+            }
+            popular(conn, pedidos);
+        }
+        return dataSource;
+    }
+
+    // Reservas sintéticas: para cada mesa, três horários por dia (12:00, 19:00, 21:00) em dias alternados
+    // de forma pseudoaleatória, de 'diasAtras' dias antes de hoje até 'diasAFrente' dias depois.
+    static void popularReservas(HikariDataSource dataSource, int diasAtras, int diasAFrente) throws SQLException {
+        Random random = new Random(7);
+        LocalTime[] horarios = {LocalTime.of(12, 0), LocalTime.of(19, 0), LocalTime.of(21, 0)};
+        LocalDate hoje = LocalDate.now();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO Reserva (nome_responsavel, numero_pessoas, id_mesa, data_reserva, hora_reserva, observacao) " +
+                     "VALUES (?, ?, ?, ?, ?, NULL)")) {
+            conn.setAutoCommit(false);
+            int linhas = 0;
+            for (LocalDate dia = hoje.minusDays(diasAtras); !dia.isAfter(hoje.plusDays(diasAFrente)); dia = dia.plusDays(1)) {
+                for (int mesa = 1; mesa <= MESAS; mesa++) {
+                    for (LocalTime horario : horarios) {
+                        if (random.nextInt(3) == 0) {
+                            continue;
+                        }
+                        stmt.setString(1, "Cliente " + random.nextInt(5000));
+                        stmt.setInt(2, 1 + random.nextInt(6));
+                        stmt.setInt(3, mesa);
+                        stmt.setDate(4, Date.valueOf(dia));
+                        stmt.setTime(5, Time.valueOf(horario));
+                        stmt.addBatch();
+                        if (++linhas % 5000 == 0) {
+                            stmt.executeBatch();
+                        }
+                    }
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void popular(Connection conn, int pedidos) throws SQLException {
+        Random random = new Random(42);
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO Mesa (capacidade, localizacao) VALUES (?, ?)")) {
+            for (int i = 1; i <= MESAS; i++) {
+                stmt.setInt(1, 2 + i % 6);
+                stmt.setString(2, i % 2 == 0 ? "Salão" : "Varanda");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        String[] tipos = {"COMIDA", "BEBIDA", "SOBREMESA"};
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO Item (nome, tipo, preco) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= ITENS; i++) {
+                stmt.setString(1, "Item " + i);
+                stmt.setString(2, tipos[i % tipos.length]);
+                stmt.setBigDecimal(3, BigDecimal.valueOf(500 + random.nextInt(9500), 2));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement func = conn.prepareStatement("INSERT INTO Funcionario (nome, cpf, salario, data_contratacao, rua, numero, bairro, cidade, estado, cep, id_supervisor) " +
+                "VALUES (?, ?, ?, DATE '2020-01-01', 'Rua A', '10', 'Centro', 'Recife', 'PE', '50000-000', ?)");
+             PreparedStatement garcom = conn.prepareStatement("INSERT INTO Garcom (id_funcionario, setor_atendimento) VALUES (?, 'Salão')");
+             PreparedStatement cozinheiro = conn.prepareStatement("INSERT INTO Cozinheiro (id_funcionario, espec_cul) VALUES (?, 'Grelhados')");
+             PreparedStatement telefone = conn.prepareStatement("INSERT INTO Funcionario_Telefones (id_funcionario, numero_telefone) VALUES (?, ?)");
+             PreparedStatement dependente = conn.prepareStatement("INSERT INTO Dependente (id_funcionario, nome_dependente, data_nascimento, parentesco) VALUES (?, ?, DATE '2015-05-05', 'Filho')")) {
+            for (int i = 1; i <= FUNCIONARIOS; i++) {
+                func.setString(1, "Funcionario " + i);
+                func.setString(2, String.format("%011d", i));
+                func.setBigDecimal(3, new BigDecimal("2500.00"));
+                func.setObject(4, i > 1 ? 1 : null);
+                func.addBatch();
+                (i % 2 == 0 ? garcom : cozinheiro).setInt(1, i);
+                (i % 2 == 0 ? garcom : cozinheiro).addBatch();
+                for (int t = 0; t < 2; t++) {
+                    telefone.setInt(1, i);
+                    telefone.setString(2, "8199999" + String.format("%04d", i * 2 + t));
+                    telefone.addBatch();
+                }
+                dependente.setInt(1, i);
+                dependente.setString(2, "Dependente " + i);
+                dependente.addBatch();
+            }
+            func.executeBatch();
+            garcom.executeBatch();
+            cozinheiro.executeBatch();
+            telefone.executeBatch();
+            dependente.executeBatch();
+        }
+
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 12, 0);
+        try (PreparedStatement pedido = conn.prepareStatement("INSERT INTO Pedido (id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto) VALUES (?, NULL, ?, ?, ?, ?, ?)");
+             PreparedStatement item = conn.prepareStatement("INSERT INTO Pedido_Item (id_pedido, id_item, quantidade, preco_unitario) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= pedidos; i++) {
+                pedido.setInt(1, 2 * (1 + random.nextInt(FUNCIONARIOS / 2)));
+                pedido.setInt(2, 1 + random.nextInt(MESAS));
+                pedido.setTimestamp(3, Timestamp.valueOf(inicio.plusMinutes(i * 7L)));
+                pedido.setBoolean(4, random.nextBoolean());
+                pedido.setBoolean(5, random.nextBoolean());
+                pedido.setBigDecimal(6, random.nextInt(4) == 0 ? new BigDecimal("10.00") : BigDecimal.ZERO);
+                pedido.addBatch();
+                int linhas = 1 + random.nextInt(5);
+                for (int l = 0; l < linhas; l++) {
+                    item.setInt(1, i);
+                    item.setInt(2, 1 + random.nextInt(ITENS));
+                    item.setInt(3, 1 + random.nextInt(3));
+                    item.setBigDecimal(4, BigDecimal.valueOf(500 + random.nextInt(9500), 2));
+                    item.addBatch();
+                }
+            }
+            pedido.executeBatch();
+            item.executeBatch();
+        }
+
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,174 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.ChaveIdempotenciaDAO;
+import johnygastrobar.dao.ItemDAO;
+import johnygastrobar.dao.MesaDAO;
+import johnygastrobar.dao.PagamentoDAO;
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.dao.ResumoVendasDAO;
+import johnygastrobar.exception.ConflitoConcorrenciaException;
+import johnygastrobar.exception.ServiceException;
+import johnygastrobar.model.Pagamento;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+import johnygastrobar.service.CatalogoItensCache;
+import johnygastrobar.service.EventosPedidoService;
+import johnygastrobar.service.PagamentoService;
+import johnygastrobar.service.PedidoService;
+import johnygastrobar.service.QuadroPedidosAbertos;
+import johnygastrobar.service.RegistroIdempotencia;
+import johnygastrobar.service.ResumoVendasService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Custo do controle otimista do Pedido sob disputa. Cada operação é uma rodada completa sobre um pedido novo:
+// 'garcons' threads fazem ler-alterar-gravar (quantidade + 1) repetindo em caso de 409, enquanto 'caixas' threads
+// tentam pagar o mesmo pedido depois das primeiras edições. O estado final da rodada (nenhuma edição perdida,
+// um único pagamento com o valor final) é conferido por ConcorrenciaPedidoTest (src/test/java).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcorrenciaPedidoBenchmark {
+
+    private static final int EDICOES_ANTES_DO_PAGAMENTO = 20;
+    private static final int TENTATIVAS_POR_GARCOM = 200;
+
+    @Param({"8"})
+    private int garcons;
+
+    @Param({"2"})
+    private int caixas;
+
+    private HikariDataSource dataSource;
+    private PedidoService pedidoService;
+    private PagamentoService pagamentoService;
+    private EventosPedidoService eventosPedido;
+    private QuadroPedidosAbertos quadroPedidos;
+    private RegistroIdempotencia idempotencia;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(0);
+        dataSource.setMaximumPoolSize(garcons + caixas);
+        ItemDAO itemDAO = new ItemDAO();
+        PedidoDAO pedidoDAO = new PedidoDAO();
+        ResumoVendasService resumoVendas = new ResumoVendasService(new ResumoVendasDAO());
+        eventosPedido = new EventosPedidoService("BEBIDA", 1000, 1800000, 15, 256, 10000);
+        quadroPedidos = new QuadroPedidosAbertos(pedidoDAO, 0);
+        idempotencia = new RegistroIdempotencia(new ChaveIdempotenciaDAO(), 24, 10000, 0);
+        pedidoService = new PedidoService(pedidoDAO, itemDAO, new MesaDAO(), new CatalogoItensCache(itemDAO, 60),
+                resumoVendas, eventosPedido, quadroPedidos, idempotencia);
+        pagamentoService = new PagamentoService(new PagamentoDAO(), pedidoDAO, pedidoService, resumoVendas,
+                eventosPedido, quadroPedidos, idempotencia);
+        executor = Executors.newFixedThreadPool(garcons + caixas);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws Exception {
+        executor.shutdownNow();
+        eventosPedido.encerrar();
+        quadroPedidos.encerrar();
+        idempotencia.encerrar();
+        dataSource.close();
+    }
+
+    // Retorna o número de conflitos (409) da rodada.
+    @Benchmark
+    public int editarEPagar() throws Exception {
+        Pedido novo = new Pedido(2, null, 1, null, BigDecimal.ZERO);
+        novo.adicionarItem(new PedidoItem(1, null, null, 1, null));
+        novo.adicionarItem(new PedidoItem(2, null, null, 1, null));
+        int idPedido = pedidoService.criarPedido(novo).getIdPedido();
+
+        AtomicInteger edicoes = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int g = 0; g < garcons; g++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int t = 0; t < TENTATIVAS_POR_GARCOM; t++) {
+                    Pedido lido = pedidoService.buscarPedidoPorId(idPedido);
+                    if (lido.isPago()) {
+                        return null;
+                    }
+                    PedidoItem linha = lido.getItensDoPedido().get(0);
+                    linha.setQuantidade(linha.getQuantidade() + 1);
+                    try {
+                        pedidoService.atualizarPedido(lido);
+                        edicoes.incrementAndGet();
+                    } catch (ConflitoConcorrenciaException e) {
+                        conflitos.incrementAndGet();
+                    } catch (ServiceException e) {
+                        // "já foi pago": o caixa confirmou entre a leitura acima e a da edição.
+                        if (!pedidoService.buscarPedidoPorId(idPedido).isPago()) {
+                            throw e;
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int c = 0; c < caixas; c++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                while (edicoes.get() < EDICOES_ANTES_DO_PAGAMENTO) {
+                    Thread.onSpinWait();
+                }
+                while (true) {
+                    Pedido lido = pedidoService.buscarPedidoPorId(idPedido);
+                    if (lido.isPago()) {
+                        return null;
+                    }
+                    try {
+                        Pagamento pagamento = new Pagamento(idPedido, lido.getValorTotalComDesconto(), "PIX", null);
+                        pagamento.setVersaoPedido(lido.getVersao());
+                        pagamentoService.registrarPagamento(pagamento);
+                        return null;
+                    } catch (ConflitoConcorrenciaException e) {
+                        conflitos.incrementAndGet();
+                    } catch (ServiceException e) {
+                        // O outro caixa pagou primeiro (pedido já pago ou pagamento duplicado recusado).
+                        if (!pedidoService.buscarPedidoPorId(idPedido).isPago()) {
+                            throw e;
+                        }
+                    }
+                }
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+
+        return conflitos.get();
+    }
+}
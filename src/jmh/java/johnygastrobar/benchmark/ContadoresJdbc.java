@@ -0,0 +1,71 @@
+package johnygastrobar.benchmark;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import johnygastrobar.util.MetricasJdbc;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+// Contadores secundários do JMH com o que o MetricasJdbc mediu durante cada iteração: consultas executadas
+// (round-trips), linhas lidas ou afetadas e tempo total no banco. O benchmark recebe este estado como
+// parâmetro, soma 1 em operacoes por chamada e registra o DataSource com metricas().
+// O JMH soma contadores EVENTS de todas as iterações de medição: o valor por operação é
+// consultas / operacoes (idem para linhas e tempoConsultasUs).
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class ContadoresJdbc {
+
+    private static final SimpleMeterRegistry REGISTRY = new SimpleMeterRegistry();
+
+    public long operacoes;
+    public long consultas;
+    public long linhas;
+    public long tempoConsultasUs;
+
+    private long consultasNoInicio;
+    private double linhasNoInicio;
+    private double tempoNoInicioUs;
+
+    // Para o ConnectionFactory do benchmark: new ConnectionFactory(dataSource, ContadoresJdbc.metricas()).
+    static MetricasJdbc metricas() {
+        return new MetricasJdbc(REGISTRY, 1000);
+    }
+
+    @Setup(Level.Iteration)
+    public void iniciarIteracao() {
+        operacoes = 0;
+        consultas = 0;
+        linhas = 0;
+        tempoConsultasUs = 0;
+        consultasNoInicio = totalConsultas();
+        linhasNoInicio = totalLinhas();
+        tempoNoInicioUs = totalTempoUs();
+    }
+
+    @TearDown(Level.Iteration)
+    public void encerrarIteracao() {
+        consultas = totalConsultas() - consultasNoInicio;
+        linhas = Math.round(totalLinhas() - linhasNoInicio);
+        tempoConsultasUs = Math.round(totalTempoUs() - tempoNoInicioUs);
+    }
+
+    private static long totalConsultas() {
+        return REGISTRY.find("jdbc.consultas").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private static double totalLinhas() {
+        return REGISTRY.find("jdbc.linhas").summaries().stream().mapToDouble(DistributionSummary::totalAmount).sum();
+    }
+
+    private static double totalTempoUs() {
+        return REGISTRY.find("jdbc.consultas").timers().stream().mapToDouble(t -> t.totalTime(TimeUnit.MICROSECONDS)).sum();
+    }
+}
@@ -0,0 +1,107 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.ChaveIdempotenciaDAO;
+import johnygastrobar.dao.ItemDAO;
+import johnygastrobar.dao.MesaDAO;
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.dao.ResumoVendasDAO;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+import johnygastrobar.service.CatalogoItensCache;
+import johnygastrobar.service.EventosPedidoService;
+import johnygastrobar.service.PedidoService;
+import johnygastrobar.service.QuadroPedidosAbertos;
+import johnygastrobar.service.RegistroIdempotencia;
+import johnygastrobar.service.ResumoVendasService;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// PedidoService.criarPedido ponta a ponta (validação, catálogo, inserts e resumo de vendas) sobre H2,
+// com pedidos de 1, 10 e 50 linhas (itens distintos).
+// criarPedidoRepetido: reenvio de um pedido já criado com a mesma Idempotency-Key (responde da memória).
+// Os contadores do ContadoresJdbc mostram as consultas (round-trips) e o tempo no banco de cada criação:
+// o número de consultas por pedido não deve crescer com o número de linhas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriarPedidoBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int linhas;
+
+    private HikariDataSource dataSource;
+    private PedidoService pedidoService;
+    private EventosPedidoService eventosPedido;
+    private QuadroPedidosAbertos quadroPedidos;
+    private RegistroIdempotencia idempotencia;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(1000);
+        new ConnectionFactory(dataSource, ContadoresJdbc.metricas());
+        ItemDAO itemDAO = new ItemDAO();
+        eventosPedido = new EventosPedidoService("BEBIDA", 1000, 1800000, 15, 256, 10000);
+        // Sem reconciliação e sem carga: o quadro não cresce com os milhares de pedidos criados no benchmark.
+        quadroPedidos = new QuadroPedidosAbertos(new PedidoDAO(), 0);
+        idempotencia = new RegistroIdempotencia(new ChaveIdempotenciaDAO(), 24, 10000, 0);
+        pedidoService = new PedidoService(new PedidoDAO(), itemDAO, new MesaDAO(),
+                new CatalogoItensCache(itemDAO, 60), new ResumoVendasService(new ResumoVendasDAO()), eventosPedido,
+                quadroPedidos, idempotencia);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws Exception {
+        eventosPedido.encerrar();
+        quadroPedidos.encerrar();
+        idempotencia.encerrar();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Pedido criarPedido(ContadoresJdbc contadores) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Pedido pedido = new Pedido(2, null, 1 + random.nextInt(BancoBenchmark.MESAS), null, BigDecimal.ZERO);
+        int primeiro = random.nextInt(BancoBenchmark.ITENS);
+        for (int l = 0; l < linhas; l++) {
+            pedido.adicionarItem(new PedidoItem(1 + (primeiro + l) % BancoBenchmark.ITENS, null, null, 1 + random.nextInt(3), null));
+        }
+        contadores.operacoes++;
+        return pedidoService.criarPedido(pedido);
+    }
+
+    @Benchmark
+    public Pedido criarPedidoRepetido(ContadoresJdbc contadores) {
+        contadores.operacoes++;
+        return pedidoService.criarPedido(pedidoFixo(), "benchmark-repetido");
+    }
+
+    // Corpo novo a cada chamada, como um reenvio HTTP (o service completa o objeto que recebe).
+    private Pedido pedidoFixo() {
+        Pedido pedido = new Pedido(2, null, 1, null, BigDecimal.ZERO);
+        for (int l = 0; l < linhas; l++) {
+            pedido.adicionarItem(new PedidoItem(1 + l, null, null, 2, null));
+        }
+        return pedido;
+    }
+}
@@ -0,0 +1,69 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.FuncionarioDAO;
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.model.Funcionario;
+import johnygastrobar.model.Pedido;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Leitura + mapeamento ResultSet -> modelo de PedidoDAO.listarTodos e FuncionarioDAO.listarTodos/buscarPorId sobre H2.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoMapeamentoBenchmark {
+
+    @Param({"1000", "10000"})
+    private int quantidadePedidos;
+
+    private HikariDataSource dataSource;
+    private PedidoDAO pedidoDAO;
+    private FuncionarioDAO funcionarioDAO;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(quantidadePedidos);
+        pedidoDAO = new PedidoDAO();
+        funcionarioDAO = new FuncionarioDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<Pedido> pedidoListarTodos() throws Exception {
+        return pedidoDAO.listarTodos();
+    }
+
+    @Benchmark
+    public List<Funcionario> funcionarioListarTodos() throws Exception {
+        return funcionarioDAO.listarTodos();
+    }
+
+    // Funcionário 1 é cozinheiro: na sondagem antiga custava 2 SELECT 1 antes de chegar na especialização.
+    @Benchmark
+    public Funcionario funcionarioBuscarPorId() throws Exception {
+        return funcionarioDAO.buscarPorId(1);
+    }
+}
@@ -0,0 +1,123 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.dao.ResumoVendasDAO;
+import johnygastrobar.model.FacetaPedidos;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Histograma entregue x pago de um período (dashboard), com a massa fixa do BancoBenchmark (semente 42):
+// - histogramaUmaLeitura: PedidoDAO.getHistogramaStatusPorPeriodo, uma leitura do resumo diário;
+// - contagemPorPar: uma countPedidosByStatusEPeriodo por par (entregue, pago), quatro leituras do mesmo período;
+// - facetasStatus: agruparPedidosPorPeriodo(STATUS), uma passada sobre Pedido e Pedido_Item (contagem, unidades e valor);
+// - contagemPorParNoPedido: o caminho antigo, um COUNT em Pedido por par.
+// Os contadores do ContadoresJdbc mostram as consultas (passadas) e linhas lidas de cada um.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistogramaStatusBenchmark {
+
+    // 20.000 pedidos, um a cada 7 minutos a partir de 01/01/2025 (cerca de 97 dias).
+    private static final int PEDIDOS = 20000;
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final boolean[][] PARES = {{false, false}, {true, false}, {false, true}, {true, true}};
+
+    @Param({"7", "60"})
+    private int dias;
+
+    private HikariDataSource dataSource;
+    private PedidoDAO pedidoDAO;
+    private LocalDate fim;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(PEDIDOS);
+        try (Connection conn = dataSource.getConnection()) {
+            new ResumoVendasDAO().reconstruirPeriodo(INICIO, INICIO.plusDays(100), conn);
+        }
+        new ConnectionFactory(dataSource, ContadoresJdbc.metricas());
+        pedidoDAO = new PedidoDAO();
+        fim = INICIO.plusDays(dias - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Map<String, Integer> histogramaUmaLeitura(ContadoresJdbc contadores) throws SQLException {
+        contadores.operacoes++;
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            return pedidoDAO.getHistogramaStatusPorPeriodo(INICIO, fim, conn);
+        }
+    }
+
+    @Benchmark
+    public int contagemPorPar(ContadoresJdbc contadores) throws SQLException {
+        contadores.operacoes++;
+        int total = 0;
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            for (boolean[] par : PARES) {
+                total += pedidoDAO.countPedidosByStatusEPeriodo(par[0], par[1], INICIO, fim, conn);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public List<FacetaPedidos> facetasStatus(ContadoresJdbc contadores) throws SQLException {
+        contadores.operacoes++;
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            return pedidoDAO.agruparPedidosPorPeriodo(FacetaPedidos.Dimensao.STATUS, INICIO, fim, conn);
+        }
+    }
+
+    @Benchmark
+    public int contagemPorParNoPedido(ContadoresJdbc contadores) throws SQLException {
+        contadores.operacoes++;
+        int total = 0;
+        String sql = "SELECT COUNT(*) FROM Pedido WHERE entregue = ? AND pago = ? AND data_hora >= ? AND data_hora < ?";
+        try (Connection conn = ConnectionFactory.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (boolean[] par : PARES) {
+                stmt.setBoolean(1, par[0]);
+                stmt.setBoolean(2, par[1]);
+                stmt.setTimestamp(3, Timestamp.valueOf(INICIO.atStartOfDay()));
+                stmt.setTimestamp(4, Timestamp.valueOf(fim.plusDays(1).atStartOfDay()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    total += rs.getInt(1);
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,110 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.ItemDAO;
+import johnygastrobar.model.Item;
+import johnygastrobar.model.ResultadoImportacaoItens;
+import johnygastrobar.service.CatalogoItensCache;
+import johnygastrobar.service.ItemService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Troca de preços do cardápio inteiro:
+// - importarCsv: ItemService.importarItensCsv (validação em memória, INSERTs de várias linhas, uma transação
+//   e uma recarga do catálogo);
+// - atualizarItemAItem: um ItemService.atualizarItem por item, como fazia o frontend (uma transação e uma
+//   recarga do catálogo por item).
+// Cada operação alterna os preços, então todas as linhas são de fato alteradas. O relatório de importação
+// (linhas recusadas e valores gravados) é conferido por ImportacaoItensTest (src/test/java).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ImportacaoItensBenchmark {
+
+    @Param({"500", "5000"})
+    private int itens;
+
+    private HikariDataSource dataSource;
+    private ItemService itemService;
+    private List<Item> importados;
+    private boolean precoAlternado;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(0);
+        ItemDAO itemDAO = new ItemDAO();
+        itemService = new ItemService(itemDAO, new CatalogoItensCache(itemDAO, 60));
+
+        itemService.importarItensCsv(gerarCsv(false));
+        importados = new ArrayList<>();
+        for (Item item : itemService.listarTodosItens()) {
+            if (item.getNome().startsWith("Importado ")) {
+                importados.add(item);
+            }
+        }
+        if (importados.size() != itens) {
+            throw new IllegalStateException(importados.size() + " itens importados, esperados " + itens + ".");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int importarCsv() {
+        precoAlternado = !precoAlternado;
+        ResultadoImportacaoItens resultado = itemService.importarItensCsv(gerarCsv(precoAlternado));
+        if (resultado.getAtualizados() != itens) {
+            throw new IllegalStateException("Importação atualizou " + resultado.getAtualizados() + " de " + itens + " itens.");
+        }
+        return resultado.getAtualizados();
+    }
+
+    @Benchmark
+    public int atualizarItemAItem() {
+        precoAlternado = !precoAlternado;
+        int atualizados = 0;
+        for (int i = 0; i < importados.size(); i++) {
+            Item item = importados.get(i);
+            itemService.atualizarItem(new Item(item.getIdItem(), item.getNome(), item.getTipo(), preco(i, precoAlternado)));
+            atualizados++;
+        }
+        return atualizados;
+    }
+
+    // ';' e vírgula decimal, como o Excel em português exporta.
+    private String gerarCsv(boolean alternado) {
+        StringBuilder csv = new StringBuilder("nome;tipo;preco\n");
+        for (int i = 0; i < itens; i++) {
+            csv.append("Importado ").append(i).append(';').append(i % 2 == 0 ? "Prato" : "Bebida").append(';')
+                    .append(preco(i, alternado).toPlainString().replace('.', ',')).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static BigDecimal preco(int i, boolean alternado) {
+        return new BigDecimal(10 + i % 90).add(alternado ? new BigDecimal("0.50") : BigDecimal.ZERO).setScale(2);
+    }
+}
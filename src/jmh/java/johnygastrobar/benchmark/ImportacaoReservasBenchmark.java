@@ -0,0 +1,103 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.MesaDAO;
+import johnygastrobar.dao.ReservaDAO;
+import johnygastrobar.model.Reserva;
+import johnygastrobar.model.ResultadoImportacaoReservas;
+import johnygastrobar.service.IndiceReservas;
+import johnygastrobar.service.ReservaService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Planilha de reservas com mesa definida:
+// - importarEmLote: ReservaService.importarReservas (uma consulta para as agendas envolvidas, conflitos em memória,
+//   INSERTs de várias linhas numa transação);
+// - criarUmaAUma: um ReservaService.criarReserva por linha (busca da mesa, insert e commit por linha).
+// Cada operação usa dias ainda vazios, então todas as linhas são aceitas e gravadas. O relatório de importação
+// (conflitos com reserva gravada e entre linhas do lote, mesa inexistente, capacidade) é conferido por
+// ImportacaoReservasTest (src/test/java).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ImportacaoReservasBenchmark {
+
+    // 8 horários sem sobreposição (intervalos de 90 minutos) por mesa e dia.
+    private static final int HORARIOS_POR_DIA = 8;
+
+    @Param({"100", "1000"})
+    private int linhas;
+
+    private HikariDataSource dataSource;
+    private ReservaService reservaService;
+    private LocalDate proximoDia;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(0);
+        ReservaDAO reservaDAO = new ReservaDAO();
+        MesaDAO mesaDAO = new MesaDAO();
+        IndiceReservas indiceReservas = new IndiceReservas(reservaDAO, mesaDAO, 300, "11:00", "22:30", 30);
+        indiceReservas.carregarNaInicializacao();
+        reservaService = new ReservaService(reservaDAO, mesaDAO, indiceReservas);
+        proximoDia = LocalDate.now().plusDays(30);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int importarEmLote() {
+        ResultadoImportacaoReservas resultado = reservaService.importarReservas(gerarReservas());
+        if (resultado.getAceitas() != linhas) {
+            throw new IllegalStateException("Importação aceitou " + resultado.getAceitas() + " de " + linhas + " reservas.");
+        }
+        return resultado.getAceitas();
+    }
+
+    @Benchmark
+    public int criarUmaAUma() {
+        int criadas = 0;
+        for (Reserva reserva : gerarReservas()) {
+            reservaService.criarReserva(reserva);
+            criadas++;
+        }
+        return criadas;
+    }
+
+    private List<Reserva> gerarReservas() {
+        List<Reserva> reservas = new ArrayList<>(linhas);
+        int porDia = BancoBenchmark.MESAS * HORARIOS_POR_DIA;
+        for (int r = 0; r < linhas; r++) {
+            LocalDate dia = proximoDia.plusDays(r / porDia);
+            int mesa = 1 + (r % porDia) % BancoBenchmark.MESAS;
+            LocalTime hora = LocalTime.of(11, 0).plusMinutes(90L * ((r % porDia) / BancoBenchmark.MESAS));
+            reservas.add(new Reserva("Evento " + r, 2, mesa, dia, hora, null));
+        }
+        proximoDia = proximoDia.plusDays((linhas + porDia - 1) / porDia);
+        return reservas;
+    }
+}
@@ -0,0 +1,121 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.ReservaDAO;
+import johnygastrobar.model.Reserva;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ReservaDAO.inserirEmLote (INSERTs de várias linhas via InsercaoEmLote) contra o batch de um INSERT por linha.
+// No H2 em memória não há ida e volta de rede, então a diferença de tempo aqui é só de CPU; no MySQL cada
+// linha do batch sem rewriteBatchedStatements custa uma ida e volta.
+// A correção dos ids devolvidos é coberta por InsercaoEmLoteTest (src/test/java).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercaoEmLoteBenchmark {
+
+    @Param({"20", "1200"})
+    private int linhas;
+
+    private HikariDataSource dataSource;
+    private ReservaDAO reservaDAO;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(0);
+        reservaDAO = new ReservaDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int inserirComVariasLinhas() throws SQLException {
+        List<Reserva> reservas = gerarReservas("bench", linhas);
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false);
+            reservaDAO.inserirEmLote(reservas, conn);
+            conn.rollback();
+            conn.setAutoCommit(true);
+        }
+        return reservas.get(reservas.size() - 1).getIdReserva();
+    }
+
+    // O batch anterior: um INSERT por linha, com os ids lidos no fim.
+    @Benchmark
+    public int inserirComBatch() throws SQLException {
+        List<Reserva> reservas = gerarReservas("bench", linhas);
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO Reserva (nome_responsavel, numero_pessoas, id_mesa, data_reserva, hora_reserva, observacao) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                for (Reserva reserva : reservas) {
+                    stmt.setString(1, reserva.getNomeResponsavel());
+                    stmt.setInt(2, reserva.getNumeroPessoas());
+                    stmt.setInt(3, reserva.getIdMesa());
+                    stmt.setDate(4, Date.valueOf(reserva.getDataReserva()));
+                    stmt.setTime(5, Time.valueOf(reserva.getHoraReserva()));
+                    stmt.setString(6, reserva.getObservacao());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Reserva reserva : reservas) {
+                        generatedKeys.next();
+                        reserva.setIdReserva(generatedKeys.getInt(1));
+                    }
+                }
+            }
+            conn.rollback();
+            conn.setAutoCommit(true);
+        }
+        return reservas.get(reservas.size() - 1).getIdReserva();
+    }
+
+    private static List<Reserva> gerarReservas(String prefixo, int quantidade) {
+        LocalDate dia = LocalDate.now().plusDays(30);
+        List<Reserva> reservas = new ArrayList<>(quantidade);
+        for (int r = 0; r < quantidade; r++) {
+            Reserva reserva = new Reserva();
+            reserva.setNomeResponsavel(prefixo + "-" + r);
+            reserva.setNumeroPessoas(2 + r % 6);
+            reserva.setIdMesa(1 + r % BancoBenchmark.MESAS);
+            reserva.setDataReserva(dia.plusDays(r / 100));
+            reserva.setHoraReserva(LocalTime.of(12 + r % 10, 0));
+            reservas.add(reserva);
+        }
+        return reservas;
+    }
+}
@@ -0,0 +1,55 @@
+package johnygastrobar.benchmark;
+
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Cálculo de totais do pedido (BigDecimal): PedidoItem.getSubtotal e Pedido.getValorTotalComDesconto.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoCalculoBenchmark {
+
+    @Param({"3", "20"})
+    private int linhas;
+
+    private Pedido pedido;
+    private PedidoItem item;
+
+    @Setup
+    public void preparar() {
+        pedido = new Pedido(1, 2, null, 3, LocalDateTime.of(2025, 6, 1, 20, 0), false, false, new BigDecimal("10.00"));
+        for (int i = 1; i <= linhas; i++) {
+            pedido.adicionarItem(new PedidoItem(i, "Item " + i, "COMIDA", 1 + i % 3, new BigDecimal("19.90")));
+        }
+        item = pedido.getItensDoPedido().get(0);
+    }
+
+    @Benchmark
+    public BigDecimal subtotalItem() {
+        return item.getSubtotal();
+    }
+
+    @Benchmark
+    public BigDecimal valorTotalComDesconto() {
+        return pedido.getValorTotalComDesconto();
+    }
+}
@@ -0,0 +1,63 @@
+package johnygastrobar.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização JSON de List<Pedido>, como nas respostas de GET /api/pedidos.
+// O ObjectMapper reproduz a configuração padrão do Spring Boot (JavaTimeModule, datas em ISO).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoSerializacaoBenchmark {
+
+    @Param({"50", "1000"})
+    private int quantidadePedidos;
+
+    private ObjectMapper objectMapper;
+    private List<Pedido> pedidos;
+
+    @Setup
+    public void preparar() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        pedidos = new ArrayList<>();
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 1, 18, 0);
+        for (int i = 1; i <= quantidadePedidos; i++) {
+            Pedido pedido = new Pedido(i, 2, null, 1 + i % 30, inicio.plusMinutes(i), i % 2 == 0, i % 3 == 0, BigDecimal.ZERO);
+            for (int l = 1; l <= 4; l++) {
+                pedido.adicionarItem(new PedidoItem(l, "Item " + l, "COMIDA", l, new BigDecimal("24.50")));
+            }
+            pedidos.add(pedido);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws Exception {
+        return objectMapper.writeValueAsBytes(pedidos);
+    }
+}
@@ -0,0 +1,94 @@
+package johnygastrobar.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.dao.MesaDAO;
+import johnygastrobar.dao.ReservaDAO;
+import johnygastrobar.model.DisponibilidadeMesa;
+import johnygastrobar.model.Reserva;
+import johnygastrobar.service.IndiceReservas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reservas de um dia sobre 5 anos de histórico sintético (~160 mil reservas):
+// o filtro antigo em Java (listarTodos + loop) contra a consulta por período no índice (data_reserva, hora_reserva),
+// a primeira página da listagem por cursor e a disponibilidade respondida pelo IndiceReservas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservaConsultaBenchmark {
+
+    private static final int DIAS_HISTORICO = 5 * 365;
+    private static final int DIAS_A_FRENTE = 60;
+
+    private HikariDataSource dataSource;
+    private ReservaDAO reservaDAO;
+    private IndiceReservas indiceReservas;
+    private LocalDate dia;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        dataSource = BancoBenchmark.criar(0);
+        BancoBenchmark.popularReservas(dataSource, DIAS_HISTORICO, DIAS_A_FRENTE);
+        reservaDAO = new ReservaDAO();
+        indiceReservas = new IndiceReservas(reservaDAO, new MesaDAO(), 300, "11:00", "22:30", 30);
+        indiceReservas.carregarNaInicializacao();
+        dia = LocalDate.now().plusDays(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<Reserva> porDataFiltrandoEmJava() throws Exception {
+        try (Connection conn = dataSource.getConnection()) {
+            List<Reserva> filtradas = new ArrayList<>();
+            for (Reserva r : reservaDAO.listarTodos(conn)) {
+                if (r.getDataReserva().equals(dia)) {
+                    filtradas.add(r);
+                }
+            }
+            return filtradas;
+        }
+    }
+
+    @Benchmark
+    public List<Reserva> porDataConsultaPorPeriodo() throws Exception {
+        try (Connection conn = dataSource.getConnection()) {
+            return reservaDAO.listarPorPeriodo(dia, dia, null, conn);
+        }
+    }
+
+    @Benchmark
+    public List<Reserva> primeiraPaginaDoMes() throws Exception {
+        try (Connection conn = dataSource.getConnection()) {
+            return reservaDAO.listarPagina(null, dia.withDayOfMonth(1), dia.withDayOfMonth(dia.lengthOfMonth()),
+                    null, null, null, 51, conn);
+        }
+    }
+
+    @Benchmark
+    public List<DisponibilidadeMesa> disponibilidadePeloIndice() throws Exception {
+        return indiceReservas.listarDisponibilidade(dia, 2);
+    }
+}
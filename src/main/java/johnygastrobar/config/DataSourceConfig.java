@@ -0,0 +1,31 @@
+package johnygastrobar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Dois pools sobre o mesmo banco (mesma URL e credenciais de spring.datasource.*):
+// - o principal (spring.datasource.hikari.*), usado por DAOs, services e Flyway;
+// - o da exportação (exportacao.datasource.hikari.*), só para as exportações em streaming, que seguram a
+//   conexão durante todo o envio. Assim o principal mantém uma detecção de vazamento curta e as exportações
+//   não tiram conexões do restante da aplicação.
+// Declarar um DataSource desliga o do Spring Boot, então o principal é montado aqui do mesmo jeito que ele faria.
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("exportacao.datasource.hikari")
+    public HikariDataSource dataSourceExportacao(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
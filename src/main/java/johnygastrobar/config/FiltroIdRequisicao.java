@@ -0,0 +1,45 @@
+package johnygastrobar.config;
+
+import johnygastrobar.util.ContextoLog;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+// Dá a cada requisição um id de correlação (cabeçalho X-Id-Requisicao, reaproveitado se o cliente mandar um válido)
+// e o coloca no MDC: todas as linhas de log da requisição, do controller ao DAO, saem com req=<id>.
+// O mesmo id volta no cabeçalho da resposta para o frontend poder citá-lo ao reportar um erro.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FiltroIdRequisicao extends OncePerRequestFilter {
+
+    public static final String CABECALHO_ID_REQUISICAO = "X-Id-Requisicao";
+
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String id = request.getHeader(CABECALHO_ID_REQUISICAO);
+        if (id == null || !ID_VALIDO.matcher(id).matches()) {
+            id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(ContextoLog.CHAVE_ID_REQUISICAO, id);
+        response.setHeader(CABECALHO_ID_REQUISICAO, id);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(ContextoLog.CHAVE_ID_REQUISICAO);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package johnygastrobar.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Cronometra os métodos públicos dos @Service (timer servico.metodos, tags classe/metodo/excecao).
+// As rotas HTTP já são medidas pelo Spring (http.server.requests) e as consultas SQL pela MetricasJdbc;
+// com as três camadas dá para ver onde o tempo de uma requisição é gasto.
+// Chamadas de um método do service para outro do mesmo service não passam pelo proxy e não são contadas à parte.
+@Aspect
+@Component
+public class MetricasServicosAspect {
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public MetricasServicosAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * johnygastrobar.service..*(..))")
+    public Object medir(ProceedingJoinPoint chamada) throws Throwable {
+        Timer.Sample amostra = Timer.start(registry);
+        String excecao = "nenhuma";
+        try {
+            return chamada.proceed();
+        } catch (Throwable t) {
+            excecao = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            amostra.stop(Timer.builder("servico.metodos")
+                    .description("Tempo dos métodos dos services")
+                    .tag("classe", chamada.getSignature().getDeclaringType().getSimpleName())
+                    .tag("metodo", chamada.getSignature().getName())
+                    .tag("excecao", excecao)
+                    .register(registry));
+        }
+    }
+}
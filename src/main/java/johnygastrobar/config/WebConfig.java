@@ -14,6 +14,7 @@ public class WebConfig implements WebMvcConfigurer {
                 // .allowedOrigins("*") // Alternativa: permite de qualquer origem (menos seguro)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD", "PATCH") // Métodos HTTP permitidos
                 .allowedHeaders("*") // Permite todos os cabeçalhos
+                .exposedHeaders("X-Proximo-Cursor", "X-Id-Requisicao") // Cursor da paginação e id de correlação dos logs
                 .allowCredentials(true); // Permite credenciais (cookies, autenticação HTTP)
     }
 }
\ No newline at end of file
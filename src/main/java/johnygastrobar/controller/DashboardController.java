@@ -1,11 +1,14 @@
 package johnygastrobar.controller;
 
+import johnygastrobar.model.FacetaPedidos;
 import johnygastrobar.model.TopItemInfo; // Importe a classe auxiliar que criamos
+import johnygastrobar.service.DashboardService;
 import johnygastrobar.service.FeedbackPedidoService;
 import johnygastrobar.service.ItemService;
 import johnygastrobar.service.PagamentoService;
 import johnygastrobar.service.PedidoService;
 import johnygastrobar.service.ReservaService;
+import johnygastrobar.service.ResumoVendasService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -28,18 +31,35 @@ public class DashboardController {
     private final ItemService itemService;
     private final ReservaService reservaService;
     private final FeedbackPedidoService feedbackPedidoService;
+    private final ResumoVendasService resumoVendasService;
+    private final DashboardService dashboardService;
 
     @Autowired
     public DashboardController(PagamentoService pagamentoService,
                                PedidoService pedidoService,
                                ItemService itemService,
                                ReservaService reservaService,
-                               FeedbackPedidoService feedbackPedidoService) {
+                               FeedbackPedidoService feedbackPedidoService,
+                               ResumoVendasService resumoVendasService,
+                               DashboardService dashboardService) {
         this.pagamentoService = pagamentoService;
         this.pedidoService = pedidoService;
         this.itemService = itemService;
         this.reservaService = reservaService;
         this.feedbackPedidoService = feedbackPedidoService;
+        this.resumoVendasService = resumoVendasService;
+        this.dashboardService = dashboardService;
+    }
+
+    // --- RESUMO COMPLETO ---
+    // Todas as métricas abaixo num único documento, calculadas em paralelo.
+    // Métricas que falharem ou estourarem o tempo vêm como null e são listadas em "metricasIndisponiveis".
+    @GetMapping("/resumo")
+    public ResponseEntity<Map<String, Object>> getResumo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal,
+            @RequestParam(defaultValue = "5") int limite) {
+        return ResponseEntity.ok(dashboardService.getResumo(dataInicial, dataFinal, limite));
     }
 
     // --- MÉTRICAS FINANCEIRAS ---
@@ -107,6 +127,16 @@ public class DashboardController {
         return ResponseEntity.ok(contagens);
     }
 
+    // Facetas de pedidos do período agrupadas por uma dimensão: status (padrão), mesa, garcom, dia ou hora.
+    // Ex: GET /api/dashboard/pedidos/facetas?dimensao=mesa&dataInicial=2025-06-01&dataFinal=2025-06-30
+    @GetMapping("/pedidos/facetas")
+    public ResponseEntity<List<FacetaPedidos>> getFacetasPedidos(
+            @RequestParam(defaultValue = "status") String dimensao,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
+        return ResponseEntity.ok(pedidoService.getFacetasPedidos(dimensao, dataInicial, dataFinal));
+    }
+
     // --- MÉTRICAS DE RESERVAS ---
     @GetMapping("/reservas/hoje")
     public ResponseEntity<Map<String, Integer>> getMetricasReservasHoje() {
@@ -149,4 +179,19 @@ public class DashboardController {
 
         return ResponseEntity.ok(metricas);
     }
-}
\ No newline at end of file
+
+    // --- MANUTENÇÃO DOS RESUMOS DE VENDAS ---
+    // Recalcula os resumos diários a partir dos pedidos e pagamentos (ex: após correções feitas direto no banco).
+    // Sem datas, reconstrói todo o histórico.
+    @PostMapping("/resumos/reconstruir")
+    public ResponseEntity<Void> reconstruirResumosVendas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
+        if (dataInicial == null && dataFinal == null) {
+            resumoVendasService.reconstruirHistoricoCompleto();
+        } else {
+            resumoVendasService.reconstruirPeriodo(dataInicial, dataFinal);
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
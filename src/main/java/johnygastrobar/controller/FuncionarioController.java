@@ -3,6 +3,8 @@ package johnygastrobar.controller;
 import johnygastrobar.model.Funcionario;
 import johnygastrobar.service.FuncionarioService;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +16,8 @@ import java.util.List;
 @RequestMapping("/api/funcionarios")
 public class FuncionarioController {
 
+    private static final Logger log = LoggerFactory.getLogger(FuncionarioController.class);
+
     private final FuncionarioService funcionarioService;
 
     @Autowired
@@ -37,10 +41,11 @@ public class FuncionarioController {
         return ResponseEntity.ok(funcionario);
     }
 
+    // Listagem resumida (sem telefones e dependentes). Para incluí-los: ?expand=telefones,dependentes
     @GetMapping
-    public ResponseEntity<List<Funcionario>> listarTodosFuncionarios() {
+    public ResponseEntity<List<Funcionario>> listarTodosFuncionarios(@RequestParam(required = false) String expand) {
         // A lógica de try-catch para ServiceException foi movida.
-        List<Funcionario> funcionarios = funcionarioService.listarTodosFuncionarios();
+        List<Funcionario> funcionarios = funcionarioService.listarTodosFuncionarios(expand);
         return ResponseEntity.ok(funcionarios);
     }
 
@@ -48,7 +53,7 @@ public class FuncionarioController {
     public ResponseEntity<Funcionario> atualizarFuncionario(@PathVariable int id, @RequestBody Funcionario funcionario) {
         if (funcionario.getId() != 0 && funcionario.getId() != id) {
 
-            System.err.println("Conflito de ID na atualização: ID da URL=" + id + ", ID do corpo=" + funcionario.getId() + ". Usando ID da URL.");
+            log.warn("Conflito de ID na atualização: ID da URL={}, ID do corpo={}. Usando ID da URL.", id, funcionario.getId());
         }
         funcionario.setId(id);
 
@@ -1,11 +1,13 @@
 package johnygastrobar.controller;
 
 import johnygastrobar.model.Item;
+import johnygastrobar.model.ResultadoImportacaoItens;
 import johnygastrobar.service.ItemService;
 // As exceções são tratadas pelo GlobalExceptionHandler
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,6 +32,20 @@ public class ItemController {
         return new ResponseEntity<>(novoItem, HttpStatus.CREATED);
     }
 
+    // Importação do cardápio em lote: cria ou atualiza os itens numa única transação e relata as linhas recusadas
+    // Ex: POST /api/itens/importacao  [{"idItem": 3, "nome": "Chopp", "tipo": "Bebida", "preco": 12.90}, {"nome": "Caldo verde", "tipo": "Prato", "preco": 18.00}]
+    @PostMapping(value = "/importacao", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoImportacaoItens> importarItens(@RequestBody List<Item> itens) {
+        return ResponseEntity.ok(itemService.importarItens(itens));
+    }
+
+    // A mesma importação a partir de uma planilha exportada como CSV (Content-Type: text/csv)
+    // Ex: id_item;nome;tipo;preco  /  3;Chopp;Bebida;12,90  /  ;Caldo verde;Prato;18,00
+    @PostMapping(value = "/importacao", consumes = "text/csv")
+    public ResponseEntity<ResultadoImportacaoItens> importarItensCsv(@RequestBody String csv) {
+        return ResponseEntity.ok(itemService.importarItensCsv(csv));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Item> buscarItemPorId(@PathVariable int id) {
         Item item = itemService.buscarItemPorId(id);
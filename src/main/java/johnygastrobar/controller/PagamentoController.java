@@ -22,10 +22,12 @@ public class PagamentoController {
     }
 
     @PostMapping
-    public ResponseEntity<Pagamento> registrarPagamento(@RequestBody Pagamento pagamento) {
+    public ResponseEntity<Pagamento> registrarPagamento(@RequestBody Pagamento pagamento,
+                                                        @RequestHeader(value = PedidoController.CABECALHO_IDEMPOTENCIA, required = false) String chaveIdempotencia) {
         // O PagamentoService.registrarPagamento já lida com a criação do pagamento
         // e a atualização do status do pedido relacionado (marcando-o como pago).
-        Pagamento novoPagamento = pagamentoService.registrarPagamento(pagamento);
+        // Com Idempotency-Key, uma repetição devolve o pagamento registrado da primeira vez.
+        Pagamento novoPagamento = pagamentoService.registrarPagamento(pagamento, chaveIdempotencia);
         return new ResponseEntity<>(novoPagamento, HttpStatus.CREATED);
     }
 
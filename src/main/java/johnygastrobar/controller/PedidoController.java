@@ -1,42 +1,107 @@
 package johnygastrobar.controller;
 
+import johnygastrobar.model.ItemNaoEntregue;
+import johnygastrobar.model.PaginaPedidos;
 import johnygastrobar.model.Pedido;
+import johnygastrobar.service.EventosPedidoService;
+import johnygastrobar.service.ExportacaoPedidoService;
 import johnygastrobar.service.PedidoService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/pedidos")
 public class PedidoController {
 
+    public static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    public static final String CABECALHO_IDEMPOTENCIA = "Idempotency-Key";
+
     private final PedidoService pedidoService;
+    private final ExportacaoPedidoService exportacaoPedidoService;
+    private final EventosPedidoService eventosPedidoService;
 
     @Autowired
-    public PedidoController(PedidoService pedidoService) {
+    public PedidoController(PedidoService pedidoService, ExportacaoPedidoService exportacaoPedidoService,
+                            EventosPedidoService eventosPedidoService) {
         this.pedidoService = pedidoService;
+        this.exportacaoPedidoService = exportacaoPedidoService;
+        this.eventosPedidoService = eventosPedidoService;
     }
 
+    // Com Idempotency-Key, repetir a requisição (ex.: tablet reenviando após queda do Wi-Fi)
+    // devolve o pedido criado da primeira vez.
     @PostMapping
-    public ResponseEntity<Pedido> criarPedido(@RequestBody Pedido pedido) {
-        Pedido novoPedido = pedidoService.criarPedido(pedido);
+    public ResponseEntity<Pedido> criarPedido(@RequestBody Pedido pedido,
+                                              @RequestHeader(value = CABECALHO_IDEMPOTENCIA, required = false) String chaveIdempotencia) {
+        Pedido novoPedido = pedidoService.criarPedido(pedido, chaveIdempotencia);
         return new ResponseEntity<>(novoPedido, HttpStatus.CREATED);
     }
 
+    // Exportação do histórico completo em streaming (NDJSON ou CSV), sem carregar tudo em memória.
+    // Ex: GET /api/pedidos/exportar?formato=csv&dataInicial=2025-01-01&dataFinal=2025-12-31
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarPedidos(
+            @RequestParam(required = false, defaultValue = ExportacaoPedidoService.FORMATO_NDJSON) String formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
+        String formatoValido = exportacaoPedidoService.validarFormato(formato);
+        exportacaoPedidoService.validarPeriodo(dataInicial, dataFinal);
+        MediaType tipo = ExportacaoPedidoService.FORMATO_CSV.equals(formatoValido)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson");
+        StreamingResponseBody corpo = saida -> exportacaoPedidoService.exportarPedidos(formatoValido, dataInicial, dataFinal, saida);
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pedidos." + formatoValido + "\"")
+                .body(corpo);
+    }
+
+    // Canal Server-Sent Events para as telas da cozinha/bar (ver EventosPedidoService).
+    // Ao reconectar, o EventSource do navegador envia Last-Event-ID e recebe só os eventos perdidos.
+    // Ex: GET /api/pedidos/eventos?estacao=BAR
+    @GetMapping(path = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinarEventos(
+            @RequestParam(required = false, defaultValue = "TODAS") String estacao,
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return eventosPedidoService.assinar(eventosPedidoService.converterEstacao(estacao), ultimoEventoId);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Pedido> buscarPedidoPorId(@PathVariable int id) {
         Pedido pedido = pedidoService.buscarPedidoPorId(id);
         return ResponseEntity.ok(pedido);
     }
 
+    // Listagem paginada por cursor. O corpo continua sendo a lista de pedidos da página;
+    // o cursor da próxima página vem no cabeçalho X-Proximo-Cursor (ausente na última página).
+    // Ex: GET /api/pedidos?limit=50&status=PENDENTE&idMesa=3&dataInicial=2025-06-01&dataFinal=2025-06-30
     @GetMapping
-    public ResponseEntity<List<Pedido>> listarTodosPedidos() {
-        List<Pedido> pedidos = pedidoService.listarTodosPedidos();
-        return ResponseEntity.ok(pedidos);
+    public ResponseEntity<List<Pedido>> listarTodosPedidos(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer idMesa,
+            @RequestParam(required = false) Integer idGarcom,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
+        PaginaPedidos pagina = pedidoService.listarPedidosPaginado(limit, cursor, idMesa, idGarcom, status, dataInicial, dataFinal);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.getProximoCursor() != null) {
+            resposta.header(CABECALHO_PROXIMO_CURSOR, pagina.getProximoCursor());
+        }
+        return resposta.body(pagina.getPedidos());
     }
 
     @GetMapping("/nao-pagos")
@@ -45,6 +110,19 @@ public class PedidoController {
         return ResponseEntity.ok(pedidos);
     }
 
+    // Pedidos não pagos (entregues ou não) do quadro em memória; idMesa filtra a conta de uma mesa.
+    // Ex: GET /api/pedidos/abertos?idMesa=3
+    @GetMapping("/abertos")
+    public ResponseEntity<List<Pedido>> listarPedidosAbertos(@RequestParam(required = false) Integer idMesa) {
+        return ResponseEntity.ok(pedidoService.listarPedidosAbertos(idMesa));
+    }
+
+    // Quantidade de cada item que ainda falta entregar, somando os pedidos em aberto.
+    @GetMapping("/abertos/itens-nao-entregues")
+    public ResponseEntity<List<ItemNaoEntregue>> listarItensNaoEntregues() {
+        return ResponseEntity.ok(pedidoService.listarItensNaoEntregues());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Pedido> atualizarPedido(@PathVariable int id, @RequestBody Pedido pedido) {
         pedido.setIdPedido(id);
@@ -52,6 +130,15 @@ public class PedidoController {
         return ResponseEntity.ok(pedidoAtualizado);
     }
 
+    // Adiciona (quantidade > 0) ou retira (quantidade < 0) unidades de um item na conta aberta, sem reenviar
+    // o pedido inteiro. Corpo: {"idItem": 5, "quantidade": 2}. versao (opcional) exige que o pedido não tenha mudado.
+    @PatchMapping("/{id}/itens")
+    public ResponseEntity<Pedido> alterarItemDoPedido(@PathVariable int id, @RequestBody Pedido.PedidoItem alteracao,
+                                                      @RequestParam(required = false) Integer versao) {
+        Pedido pedidoAtualizado = pedidoService.alterarItemDoPedido(id, alteracao.getIdItem(), alteracao.getQuantidade(), versao);
+        return ResponseEntity.ok(pedidoAtualizado);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletarPedido(@PathVariable int id) {
         pedidoService.deletarPedido(id);
@@ -1,6 +1,11 @@
 package johnygastrobar.controller;
 
+import johnygastrobar.model.DisponibilidadeMesa;
+import johnygastrobar.model.PaginaReservas;
 import johnygastrobar.model.Reserva;
+import johnygastrobar.model.ResultadoImportacaoReservas;
+import johnygastrobar.model.ResultadoLoteReservas;
+import johnygastrobar.model.SolicitacaoReserva;
 import johnygastrobar.service.ReservaService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,27 +34,64 @@ public class ReservaController {
         return new ResponseEntity<>(novaReserva, HttpStatus.CREATED);
     }
 
+    // Alocação em lote: recebe solicitações sem mesa e devolve as reservas criadas e as que não couberam
+    // Ex: POST /api/reservas/lote  [{"nomeResponsavel": "Ana", "numeroPessoas": 4, "dataReserva": "2025-12-31", "horaReserva": "20:00"}]
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteReservas> criarReservasEmLote(@RequestBody List<SolicitacaoReserva> solicitacoes) {
+        ResultadoLoteReservas resultado = reservaService.criarReservasEmLote(solicitacoes);
+        return new ResponseEntity<>(resultado, HttpStatus.CREATED);
+    }
+
+    // Importação de reservas com mesa já definida (planilha de evento): grava as que não conflitam e relata linha a linha
+    // Ex: POST /api/reservas/importacao  [{"nomeResponsavel": "Ana", "numeroPessoas": 4, "idMesa": 3, "dataReserva": "2025-12-31", "horaReserva": "20:00"}]
+    @PostMapping("/importacao")
+    public ResponseEntity<ResultadoImportacaoReservas> importarReservas(@RequestBody List<Reserva> reservas) {
+        ResultadoImportacaoReservas resultado = reservaService.importarReservas(reservas);
+        return new ResponseEntity<>(resultado, HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Reserva> buscarReservaPorId(@PathVariable int id) {
         Reserva reserva = reservaService.buscarReservaPorId(id);
         return ResponseEntity.ok(reserva);
     }
 
+    // Listagem paginada por cursor, em ordem cronológica. O corpo é a lista de reservas da página;
+    // o cursor da próxima página vem no cabeçalho X-Proximo-Cursor (ausente na última página).
+    // Ex: GET /api/reservas?limit=50&idMesa=3&dataInicial=2025-06-01&dataFinal=2025-06-30
     @GetMapping
-    public ResponseEntity<List<Reserva>> listarTodasReservas() {
-        List<Reserva> reservas = reservaService.listarTodasReservas();
-        return ResponseEntity.ok(reservas);
+    public ResponseEntity<List<Reserva>> listarTodasReservas(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer idMesa,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicial,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinal) {
+        PaginaReservas pagina = reservaService.listarReservasPaginado(limit, cursor, idMesa, dataInicial, dataFinal);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.getProximoCursor() != null) {
+            resposta.header(PedidoController.CABECALHO_PROXIMO_CURSOR, pagina.getProximoCursor());
+        }
+        return resposta.body(pagina.getReservas());
     }
 
-    // Endpoint para listar reservas por data específica
-    // Ex: GET /api/reservas/por-data?data=2025-12-31
+    // Endpoint para listar reservas por data específica, opcionalmente de uma mesa
+    // Ex: GET /api/reservas/por-data?data=2025-12-31&idMesa=3
     @GetMapping("/por-data")
     public ResponseEntity<List<Reserva>> listarReservasPorData(
-            @RequestParam("data") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
-        List<Reserva> reservas = reservaService.listarReservasPorData(data);
+            @RequestParam("data") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            @RequestParam(required = false) Integer idMesa) {
+        List<Reserva> reservas = reservaService.listarReservasPorData(data, idMesa);
         return ResponseEntity.ok(reservas);
     }
 
+    // Horários livres de todas as mesas numa data, opcionalmente só as que comportam 'pessoas'
+    // Ex: GET /api/reservas/disponibilidade?data=2025-12-31&pessoas=4
+    @GetMapping("/disponibilidade")
+    public ResponseEntity<List<DisponibilidadeMesa>> listarDisponibilidade(
+            @RequestParam("data") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            @RequestParam(value = "pessoas", defaultValue = "0") int pessoas) {
+        return ResponseEntity.ok(reservaService.listarDisponibilidade(data, pessoas));
+    }
 
     @PutMapping("/{id}")
     public ResponseEntity<Reserva> atualizarReserva(@PathVariable int id, @RequestBody Reserva reserva) {
@@ -3,6 +3,8 @@ package johnygastrobar.dao;
 import johnygastrobar.model.Autoriza;
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Connection;
@@ -18,6 +20,8 @@ import java.util.List;
 @Repository
 public class AutorizaDAO {
 
+    private static final Logger log = LoggerFactory.getLogger(AutorizaDAO.class);
+
     public Autoriza inserir(Autoriza autoriza, Connection conn) throws SQLException {
         String sql = "INSERT INTO Autoriza (id_pedido, id_gerente, data_autorizacao, observacao_autorizacao) VALUES (?, ?, ?, ?)";
         try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -39,7 +43,7 @@ public class AutorizaDAO {
                 }
             }
         }
-        System.out.println("Autorização ID " + autoriza.getIdAutorizacao() + " inserida para Pedido ID " + autoriza.getIdPedido());
+        log.debug("Autorização ID {} inserida para Pedido ID {}", autoriza.getIdAutorizacao(), autoriza.getIdPedido());
         return autoriza;
     }
 
@@ -54,7 +58,7 @@ public class AutorizaDAO {
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Autorização ID " + autoriza.getIdAutorizacao() + " atualizada.");
+                log.debug("Autorização ID {} atualizada.", autoriza.getIdAutorizacao());
             }
             return affectedRows > 0;
         }
@@ -66,7 +70,7 @@ public class AutorizaDAO {
             stmt.setInt(1, idAutorizacao);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Autorização ID " + idAutorizacao + " deletada.");
+                log.debug("Autorização ID {} deletada.", idAutorizacao);
             }
             return affectedRows > 0;
         }
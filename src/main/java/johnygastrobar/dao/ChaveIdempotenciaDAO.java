@@ -0,0 +1,77 @@
+package johnygastrobar.dao;
+
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Tabela Chave_Idempotencia (migração V5): chave do cliente -> recurso criado pela primeira requisição.
+@Repository
+public class ChaveIdempotenciaDAO {
+
+    // Chave já gravada, com o resumo do corpo da requisição original e o id do recurso criado.
+    public static final class ChaveGravada {
+        private final String resumoRequisicao;
+        private final int idRecurso;
+        private final LocalDateTime criadoEm;
+
+        public ChaveGravada(String resumoRequisicao, int idRecurso, LocalDateTime criadoEm) {
+            this.resumoRequisicao = resumoRequisicao;
+            this.idRecurso = idRecurso;
+            this.criadoEm = criadoEm;
+        }
+
+        public String getResumoRequisicao() { return resumoRequisicao; }
+        public int getIdRecurso() { return idRecurso; }
+        public LocalDateTime getCriadoEm() { return criadoEm; }
+    }
+
+    // Grava a chave na transação de quem criou o recurso. Uma segunda transação com a mesma chave
+    // espera a primeira terminar (chave primária) e recebe erro de chave duplicada se ela confirmar.
+    public void inserir(String operacao, String chave, String resumoRequisicao, int idRecurso, Connection conn) throws SQLException {
+        String sql = "INSERT INTO Chave_Idempotencia (operacao, chave, resumo_requisicao, id_recurso) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, operacao);
+            stmt.setString(2, chave);
+            stmt.setString(3, resumoRequisicao);
+            stmt.setInt(4, idRecurso);
+            stmt.executeUpdate();
+        }
+    }
+
+    public ChaveGravada buscar(String operacao, String chave, Connection conn) throws SQLException {
+        String sql = "SELECT resumo_requisicao, id_recurso, criado_em FROM Chave_Idempotencia WHERE operacao = ? AND chave = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, operacao);
+            stmt.setString(2, chave);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ChaveGravada(rs.getString("resumo_requisicao"), rs.getInt("id_recurso"),
+                            rs.getTimestamp("criado_em").toLocalDateTime());
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean deletar(String operacao, String chave, Connection conn) throws SQLException {
+        String sql = "DELETE FROM Chave_Idempotencia WHERE operacao = ? AND chave = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, operacao);
+            stmt.setString(2, chave);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public int removerCriadasAntesDe(LocalDateTime limite, Connection conn) throws SQLException {
+        String sql = "DELETE FROM Chave_Idempotencia WHERE criado_em < ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(limite));
+            return stmt.executeUpdate();
+        }
+    }
+}
@@ -2,7 +2,10 @@ package johnygastrobar.dao;
 
 import johnygastrobar.model.FeedbackPedido;
 import johnygastrobar.util.ConnectionFactory;
+import johnygastrobar.util.PrazoConsulta;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal; // Para as médias
@@ -14,7 +17,6 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
-import java.sql.Date; // Para LocalDate
 import java.time.LocalDate; // Para os novos métodos
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -23,6 +25,8 @@ import java.util.List;
 @Repository
 public class FeedbackPedidoDAO {
 
+    private static final Logger log = LoggerFactory.getLogger(FeedbackPedidoDAO.class);
+
     public FeedbackPedido inserir(FeedbackPedido feedback, Connection conn) throws SQLException {
         String sql = "INSERT INTO Feedback_Pedido (id_pedido, id_mesa, nome_cliente_feedback, nota_comida, nota_atendimento, comentario_texto, data_feedback) VALUES (?, ?, ?, ?, ?, ?, ?)";
         try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -47,7 +51,7 @@ public class FeedbackPedidoDAO {
                 }
             }
         }
-        System.out.println("Feedback ID " + feedback.getIdFeedback() + " inserido para Pedido ID " + feedback.getIdPedido());
+        log.debug("Feedback ID {} inserido para Pedido ID {}", feedback.getIdFeedback(), feedback.getIdPedido());
         return feedback;
     }
 
@@ -65,7 +69,7 @@ public class FeedbackPedidoDAO {
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Feedback ID " + feedback.getIdFeedback() + " atualizado.");
+                log.debug("Feedback ID {} atualizado.", feedback.getIdFeedback());
             }
             return affectedRows > 0;
         }
@@ -77,7 +81,7 @@ public class FeedbackPedidoDAO {
             stmt.setInt(1, idFeedback);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Feedback ID " + idFeedback + " deletado.");
+                log.debug("Feedback ID {} deletado.", idFeedback);
             }
             return affectedRows > 0;
         }
@@ -169,11 +173,14 @@ public class FeedbackPedidoDAO {
     }
 
     // --- NOVOS MÉTODOS PARA DASHBOARD ---
+    // Período meio-aberto [dataInicial, dataFinal + 1 dia) direto sobre data_feedback, para usar o índice
+    // idx_feedback_data (DATE(data_feedback) obrigaria a varrer a tabela inteira).
     public BigDecimal avgNotaComidaPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
-        String sql = "SELECT AVG(CAST(nota_comida AS DECIMAL(10,2))) FROM Feedback_Pedido WHERE DATE(data_feedback) BETWEEN ? AND ?";
+        String sql = "SELECT AVG(CAST(nota_comida AS DECIMAL(10,2))) FROM Feedback_Pedido WHERE data_feedback >= ? AND data_feedback < ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(dataInicial));
-            stmt.setDate(2, Date.valueOf(dataFinal));
+            PrazoConsulta.aplicar(stmt);
+            stmt.setTimestamp(1, Timestamp.valueOf(dataInicial.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(dataFinal.plusDays(1).atStartOfDay()));
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     BigDecimal avg = rs.getBigDecimal(1);
@@ -185,10 +192,11 @@ public class FeedbackPedidoDAO {
     }
 
     public BigDecimal avgNotaAtendimentoPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
-        String sql = "SELECT AVG(CAST(nota_atendimento AS DECIMAL(10,2))) FROM Feedback_Pedido WHERE DATE(data_feedback) BETWEEN ? AND ?";
+        String sql = "SELECT AVG(CAST(nota_atendimento AS DECIMAL(10,2))) FROM Feedback_Pedido WHERE data_feedback >= ? AND data_feedback < ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(dataInicial));
-            stmt.setDate(2, Date.valueOf(dataFinal));
+            PrazoConsulta.aplicar(stmt);
+            stmt.setTimestamp(1, Timestamp.valueOf(dataInicial.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(dataFinal.plusDays(1).atStartOfDay()));
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     BigDecimal avg = rs.getBigDecimal(1);
@@ -200,10 +208,11 @@ public class FeedbackPedidoDAO {
     }
 
     public int countFeedbacksPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
-        String sql = "SELECT COUNT(id_feedback) FROM Feedback_Pedido WHERE DATE(data_feedback) BETWEEN ? AND ?";
+        String sql = "SELECT COUNT(id_feedback) FROM Feedback_Pedido WHERE data_feedback >= ? AND data_feedback < ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(dataInicial));
-            stmt.setDate(2, Date.valueOf(dataFinal));
+            PrazoConsulta.aplicar(stmt);
+            stmt.setTimestamp(1, Timestamp.valueOf(dataInicial.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(dataFinal.plusDays(1).atStartOfDay()));
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     return rs.getInt(1);
@@ -2,7 +2,10 @@ package johnygastrobar.dao;
 
 import johnygastrobar.model.*;
 import johnygastrobar.util.ConnectionFactory;
+import johnygastrobar.util.InsercaoEmLote;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal; // IMPORT ADICIONADO
@@ -17,25 +20,28 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Repository
 public class FuncionarioDAO {
 
+    private static final Logger log = LoggerFactory.getLogger(FuncionarioDAO.class);
+
     // --- MÉTODOS AUXILIARES PARA TELEFONES (sem alteração de tipo aqui) ---
     private void inserirTelefones(int idFuncionario, List<String> telefones, Connection conn) throws SQLException {
         if (telefones == null || telefones.isEmpty()) return;
-        String sql = "INSERT INTO Funcionario_Telefones (id_funcionario, numero_telefone) VALUES (?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            for (String telefone : telefones) {
-                if (telefone != null && !telefone.trim().isEmpty()) {
-                    stmt.setInt(1, idFuncionario);
-                    stmt.setString(2, telefone.trim());
-                    stmt.addBatch();
-                }
+        List<String> validos = new ArrayList<>();
+        for (String telefone : telefones) {
+            if (telefone != null && !telefone.trim().isEmpty()) {
+                validos.add(telefone.trim());
             }
-            stmt.executeBatch();
         }
+        InsercaoEmLote.inserir("INSERT INTO Funcionario_Telefones (id_funcionario, numero_telefone)", 2, validos,
+                (stmt, i, telefone) -> {
+                    stmt.setInt(i, idFuncionario);
+                    stmt.setString(i + 1, telefone);
+                }, conn);
     }
 
     private void deletarTelefones(int idFuncionario, Connection conn) throws SQLException {
@@ -60,22 +66,44 @@ public class FuncionarioDAO {
         return telefones;
     }
 
-    // --- MÉTODOS AUXILIARES PARA DEPENDENTES (sem alteração de tipo aqui) ---
-    private void inserirDependentes(int idFuncionario, List<Dependente> dependentes, Connection conn) throws SQLException {
-        if (dependentes == null || dependentes.isEmpty()) return;
-        String sql = "INSERT INTO Dependente (id_funcionario, nome_dependente, data_nascimento, parentesco) VALUES (?, ?, ?, ?)";
+    // Carrega os telefones de vários funcionários numa única consulta e distribui em memória.
+    private void carregarTelefonesEmLote(Map<Integer, Funcionario> funcionariosPorId, Connection conn) throws SQLException {
+        if (funcionariosPorId.isEmpty()) return;
+        String sql = "SELECT id_funcionario, numero_telefone FROM Funcionario_Telefones WHERE id_funcionario IN (" +
+                placeholders(funcionariosPorId.size()) + ")";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            for (Dependente dep : dependentes) {
-                stmt.setInt(1, idFuncionario);
-                stmt.setString(2, dep.getNomeDependente());
-                stmt.setDate(3, dep.getDataNascimento() != null ? Date.valueOf(dep.getDataNascimento()) : null);
-                stmt.setString(4, dep.getParentesco());
-                stmt.addBatch();
+            int indice = 1;
+            for (Integer id : funcionariosPorId.keySet()) {
+                stmt.setInt(indice++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    funcionariosPorId.get(rs.getInt("id_funcionario")).getTelefones().add(rs.getString("numero_telefone"));
+                }
             }
-            stmt.executeBatch();
         }
     }
 
+    private static String placeholders(int quantidade) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < quantidade; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    // --- MÉTODOS AUXILIARES PARA DEPENDENTES (sem alteração de tipo aqui) ---
+    private void inserirDependentes(int idFuncionario, List<Dependente> dependentes, Connection conn) throws SQLException {
+        if (dependentes == null || dependentes.isEmpty()) return;
+        InsercaoEmLote.inserir("INSERT INTO Dependente (id_funcionario, nome_dependente, data_nascimento, parentesco)", 4, dependentes,
+                (stmt, i, dep) -> {
+                    stmt.setInt(i, idFuncionario);
+                    stmt.setString(i + 1, dep.getNomeDependente());
+                    stmt.setDate(i + 2, dep.getDataNascimento() != null ? Date.valueOf(dep.getDataNascimento()) : null);
+                    stmt.setString(i + 3, dep.getParentesco());
+                }, conn);
+    }
+
     private void deletarDependentes(int idFuncionario, Connection conn) throws SQLException {
         String sql = "DELETE FROM Dependente WHERE id_funcionario = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -104,27 +132,160 @@ public class FuncionarioDAO {
         return dependentes;
     }
 
-    // --- IDENTIFICAR TIPO DE FUNCIONÁRIO (sem alteração) ---
-    public String getTipoFuncionario(int idFuncionario, Connection conn) throws SQLException {
-        if (checkIfExistsInSpecialization(idFuncionario, "Garcom", conn)) return "Garcom";
-        if (checkIfExistsInSpecialization(idFuncionario, "Cozinheiro", conn)) return "Cozinheiro";
-        if (checkIfExistsInSpecialization(idFuncionario, "Bartender", conn)) return "Bartender";
-        if (checkIfExistsInSpecialization(idFuncionario, "Gerente", conn)) return "Gerente";
-        if (checkIfExistsInSpecialization(idFuncionario, "Funcionario", conn)) return "FuncionarioBase";
-        return null;
+    // Carrega os dependentes de vários funcionários numa única consulta e distribui em memória.
+    private void carregarDependentesEmLote(Map<Integer, Funcionario> funcionariosPorId, Connection conn) throws SQLException {
+        if (funcionariosPorId.isEmpty()) return;
+        String sql = "SELECT id_funcionario, nome_dependente, data_nascimento, parentesco FROM Dependente WHERE id_funcionario IN (" +
+                placeholders(funcionariosPorId.size()) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int indice = 1;
+            for (Integer id : funcionariosPorId.keySet()) {
+                stmt.setInt(indice++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int idFuncionario = rs.getInt("id_funcionario");
+                    Date dataNascSql = rs.getDate("data_nascimento");
+                    funcionariosPorId.get(idFuncionario).getDependentes().add(new Dependente(
+                            idFuncionario,
+                            rs.getString("nome_dependente"),
+                            dataNascSql != null ? dataNascSql.toLocalDate() : null,
+                            rs.getString("parentesco")
+                    ));
+                }
+            }
+        }
+    }
+
+    // --- CARGA POLIMÓRFICA ---
+    // Funcionario + as quatro especializações num único SELECT com LEFT JOINs. A coluna tipo_funcionario
+    // segue a mesma precedência de antes (Garcom, Cozinheiro, Bartender, Gerente; senão FuncionarioBase).
+    private static final String SQL_FUNCIONARIO_POLIMORFICO = "SELECT f.id_funcionario, f.nome, f.cpf, f.salario, f.data_contratacao, " +
+            "f.rua, f.numero, f.bairro, f.cidade, f.estado, f.cep, f.id_supervisor, s.nome AS nome_supervisor, " +
+            "g.setor_atendimento, c.espec_cul, b.espec_bar, ge.nivel_acesso, ge.limite_desconto, " +
+            "CASE WHEN g.id_funcionario IS NOT NULL THEN 'Garcom' " +
+            "WHEN c.id_funcionario IS NOT NULL THEN 'Cozinheiro' " +
+            "WHEN b.id_funcionario IS NOT NULL THEN 'Bartender' " +
+            "WHEN ge.id_funcionario IS NOT NULL THEN 'Gerente' " +
+            "ELSE 'FuncionarioBase' END AS tipo_funcionario " +
+            "FROM Funcionario f " +
+            "LEFT JOIN Funcionario s ON f.id_supervisor = s.id_funcionario " +
+            "LEFT JOIN Garcom g ON g.id_funcionario = f.id_funcionario " +
+            "LEFT JOIN Cozinheiro c ON c.id_funcionario = f.id_funcionario " +
+            "LEFT JOIN Bartender b ON b.id_funcionario = f.id_funcionario " +
+            "LEFT JOIN Gerente ge ON ge.id_funcionario = f.id_funcionario";
+
+    // Monta a subclasse concreta a partir de uma linha de SQL_FUNCIONARIO_POLIMORFICO.
+    private Funcionario mapearFuncionario(ResultSet rs) throws SQLException {
+        int id = rs.getInt("id_funcionario");
+        String nome = rs.getString("nome");
+        String cpf = rs.getString("cpf");
+        BigDecimal salario = rs.getBigDecimal("salario");
+        Date sqlDataContratacao = rs.getDate("data_contratacao");
+        LocalDate dataContratacao = (sqlDataContratacao != null) ? sqlDataContratacao.toLocalDate() : null;
+        String rua = rs.getString("rua");
+        String numero = rs.getString("numero");
+        String bairro = rs.getString("bairro");
+        String cidade = rs.getString("cidade");
+        String estado = rs.getString("estado");
+        String cep = rs.getString("cep");
+        Integer idSupervisor = (Integer) rs.getObject("id_supervisor");
+
+        Funcionario func;
+        switch (rs.getString("tipo_funcionario")) {
+            case "Garcom":
+                func = new Garcom(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, rs.getString("setor_atendimento"));
+                break;
+            case "Cozinheiro":
+                func = new Cozinheiro(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, rs.getString("espec_cul"));
+                break;
+            case "Bartender":
+                func = new Bartender(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, rs.getString("espec_bar"));
+                break;
+            case "Gerente":
+                func = new Gerente(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, rs.getString("nivel_acesso"), rs.getBigDecimal("limite_desconto"));
+                break;
+            default:
+                func = new Funcionario(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor);
+        }
+        func.setNomeSupervisor(rs.getString("nome_supervisor"));
+        return func;
     }
 
-    private boolean checkIfExistsInSpecialization(int idFuncionario, String tableName, Connection conn) throws SQLException {
-        String sql = "SELECT 1 FROM " + tableName + " WHERE id_funcionario = ?";
+    // --- IDENTIFICAR TIPO DE FUNCIONÁRIO ---
+    // Uma consulta só (antes eram até cinco SELECT 1, uma por tabela).
+    public String getTipoFuncionario(int idFuncionario, Connection conn) throws SQLException {
+        String sql = "SELECT CASE WHEN g.id_funcionario IS NOT NULL THEN 'Garcom' " +
+                "WHEN c.id_funcionario IS NOT NULL THEN 'Cozinheiro' " +
+                "WHEN b.id_funcionario IS NOT NULL THEN 'Bartender' " +
+                "WHEN ge.id_funcionario IS NOT NULL THEN 'Gerente' " +
+                "ELSE 'FuncionarioBase' END " +
+                "FROM Funcionario f " +
+                "LEFT JOIN Garcom g ON g.id_funcionario = f.id_funcionario " +
+                "LEFT JOIN Cozinheiro c ON c.id_funcionario = f.id_funcionario " +
+                "LEFT JOIN Bartender b ON b.id_funcionario = f.id_funcionario " +
+                "LEFT JOIN Gerente ge ON ge.id_funcionario = f.id_funcionario " +
+                "WHERE f.id_funcionario = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, idFuncionario);
             try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next();
+                return rs.next() ? rs.getString(1) : null;
             }
         }
     }
 
-    // --- OPERAÇÕES CRUD ATUALIZADAS PARA BigDecimal ---
+    private static final String SQL_PAPEIS = "SELECT f.id_funcionario, ge.limite_desconto, " +
+            "CASE WHEN g.id_funcionario IS NOT NULL THEN 'Garcom' " +
+            "WHEN c.id_funcionario IS NOT NULL THEN 'Cozinheiro' " +
+            "WHEN b.id_funcionario IS NOT NULL THEN 'Bartender' " +
+            "WHEN ge.id_funcionario IS NOT NULL THEN 'Gerente' " +
+            "ELSE 'FuncionarioBase' END AS tipo_funcionario " +
+            "FROM Funcionario f " +
+            "LEFT JOIN Garcom g ON g.id_funcionario = f.id_funcionario " +
+            "LEFT JOIN Cozinheiro c ON c.id_funcionario = f.id_funcionario " +
+            "LEFT JOIN Bartender b ON b.id_funcionario = f.id_funcionario " +
+            "LEFT JOIN Gerente ge ON ge.id_funcionario = f.id_funcionario";
+
+    // Papel de cada funcionário (id -> tipo e, para gerentes, limite de desconto), para o índice em memória.
+    public Map<Integer, PapelFuncionario> listarPapeis(Connection conn) throws SQLException {
+        Map<Integer, PapelFuncionario> papeis = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_PAPEIS)) {
+            while (rs.next()) {
+                papeis.put(rs.getInt("id_funcionario"), lerPapel(rs));
+            }
+        }
+        return papeis;
+    }
+
+    // Papel de um funcionário (null se não existir), para confirmar no banco o que o índice não confirmou.
+    public PapelFuncionario buscarPapel(int idFuncionario, Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_PAPEIS + " WHERE f.id_funcionario = ?")) {
+            stmt.setInt(1, idFuncionario);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? lerPapel(rs) : null;
+            }
+        }
+    }
+
+    private static PapelFuncionario lerPapel(ResultSet rs) throws SQLException {
+        String tipo = rs.getString("tipo_funcionario");
+        return new PapelFuncionario(tipo, "Gerente".equals(tipo) ? rs.getBigDecimal("limite_desconto") : null);
+    }
+
+    // Tipo do funcionário e, se for gerente, seu limite de desconto.
+    public static final class PapelFuncionario {
+        private final String tipo;
+        private final BigDecimal limiteDesconto;
+
+        public PapelFuncionario(String tipo, BigDecimal limiteDesconto) {
+            this.tipo = tipo;
+            this.limiteDesconto = limiteDesconto;
+        }
+
+        public String getTipo() { return tipo; }
+        public BigDecimal getLimiteDesconto() { return limiteDesconto; }
+    }
 
     public Funcionario inserir(Funcionario funcionario, Connection conn) throws SQLException {
         String sqlFuncionario = "INSERT INTO Funcionario (nome, cpf, salario, data_contratacao, rua, numero, bairro, cidade, estado, cep, id_supervisor) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
@@ -196,91 +357,25 @@ public class FuncionarioDAO {
         inserirTelefones(idGerado, funcionario.getTelefones(), conn);
         inserirDependentes(idGerado, funcionario.getDependentes(), conn);
 
-        System.out.println("Funcionário ID " + idGerado + " do tipo " + funcionario.getClass().getSimpleName() + " inserido.");
+        log.debug("Funcionário ID {} do tipo {} inserido.", idGerado, funcionario.getClass().getSimpleName());
         return funcionario;
     }
 
+    // Subclasse concreta, telefones e dependentes em três consultas no total.
     public Funcionario buscarPorId(int idFuncionario, Connection conn) throws SQLException {
         Funcionario funcionario = null;
-        String sqlBase = "SELECT f.id_funcionario, f.nome, f.cpf, f.salario, f.data_contratacao, " +
-                "f.rua, f.numero, f.bairro, f.cidade, f.estado, f.cep, " +
-                "f.id_supervisor, s.nome AS nome_supervisor " +
-                "FROM Funcionario f LEFT JOIN Funcionario s ON f.id_supervisor = s.id_funcionario " +
-                "WHERE f.id_funcionario = ?";
-
-        try (PreparedStatement stmtBase = conn.prepareStatement(sqlBase)) {
-            stmtBase.setInt(1, idFuncionario);
-            try (ResultSet rsBase = stmtBase.executeQuery()) {
-                if (rsBase.next()) {
-                    int id = rsBase.getInt("f.id_funcionario");
-                    String nome = rsBase.getString("f.nome");
-                    String cpf = rsBase.getString("f.cpf");
-                    BigDecimal salario = rsBase.getBigDecimal("f.salario"); // ALTERADO para getBigDecimal
-                    Date sqlDataContratacao = rsBase.getDate("f.data_contratacao");
-                    LocalDate dataContratacao = (sqlDataContratacao != null) ? sqlDataContratacao.toLocalDate() : null;
-                    String rua = rsBase.getString("f.rua");
-                    String numero = rsBase.getString("f.numero");
-                    String bairro = rsBase.getString("f.bairro");
-                    String cidade = rsBase.getString("f.cidade");
-                    String estado = rsBase.getString("f.estado");
-                    String cep = rsBase.getString("f.cep");
-                    Integer idSupervisor = (Integer) rsBase.getObject("f.id_supervisor");
-                    String nomeSupervisor = rsBase.getString("nome_supervisor");
-
-                    String tipo = getTipoFuncionario(id, conn);
-
-                    if ("Garcom".equals(tipo)) {
-                        String sqlEsp = "SELECT setor_atendimento FROM Garcom WHERE id_funcionario = ?";
-                        try (PreparedStatement stmtEsp = conn.prepareStatement(sqlEsp)) {
-                            stmtEsp.setInt(1, id);
-                            try (ResultSet rsEsp = stmtEsp.executeQuery()) {
-                                if (rsEsp.next()) {
-                                    funcionario = new Garcom(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, rsEsp.getString("setor_atendimento"));
-                                }
-                            }
-                        }
-                    } else if ("Cozinheiro".equals(tipo)) {
-                        String sqlEsp = "SELECT espec_cul FROM Cozinheiro WHERE id_funcionario = ?";
-                        try (PreparedStatement stmtEsp = conn.prepareStatement(sqlEsp)) {
-                            stmtEsp.setInt(1, id);
-                            try (ResultSet rsEsp = stmtEsp.executeQuery()) {
-                                if (rsEsp.next()) {
-                                    funcionario = new Cozinheiro(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, rsEsp.getString("espec_cul"));
-                                }
-                            }
-                        }
-                    } else if ("Bartender".equals(tipo)) {
-                        String sqlEsp = "SELECT espec_bar FROM Bartender WHERE id_funcionario = ?";
-                        try (PreparedStatement stmtEsp = conn.prepareStatement(sqlEsp)) {
-                            stmtEsp.setInt(1, id);
-                            try (ResultSet rsEsp = stmtEsp.executeQuery()) {
-                                if (rsEsp.next()) {
-                                    funcionario = new Bartender(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, rsEsp.getString("espec_bar"));
-                                }
-                            }
-                        }
-                    } else if ("Gerente".equals(tipo)) {
-                        String sqlEsp = "SELECT nivel_acesso, limite_desconto FROM Gerente WHERE id_funcionario = ?";
-                        try (PreparedStatement stmtEsp = conn.prepareStatement(sqlEsp)) {
-                            stmtEsp.setInt(1, id);
-                            try (ResultSet rsEsp = stmtEsp.executeQuery()) {
-                                if (rsEsp.next()) {
-                                    funcionario = new Gerente(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, rsEsp.getString("nivel_acesso"), rsEsp.getBigDecimal("limite_desconto")); // ALTERADO para getBigDecimal
-                                }
-                            }
-                        }
-                    } else {
-                        funcionario = new Funcionario(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor);
-                    }
-
-                    if (funcionario != null) {
-                        funcionario.setNomeSupervisor(nomeSupervisor);
-                        funcionario.setTelefones(getTelefonesPorIdFuncionario(id, conn));
-                        funcionario.setDependentes(getDependentesPorIdFuncionario(id, conn));
-                    }
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_FUNCIONARIO_POLIMORFICO + " WHERE f.id_funcionario = ?")) {
+            stmt.setInt(1, idFuncionario);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    funcionario = mapearFuncionario(rs);
                 }
             }
         }
+        if (funcionario != null) {
+            funcionario.setTelefones(getTelefonesPorIdFuncionario(idFuncionario, conn));
+            funcionario.setDependentes(getDependentesPorIdFuncionario(idFuncionario, conn));
+        }
         return funcionario;
     }
 
@@ -290,79 +385,31 @@ public class FuncionarioDAO {
         }
     }
 
-    // Classe auxiliar interna para dados do Gerente em listarTodos
-    private static class GerenteData {
-        String nivelAcesso;
-        BigDecimal limiteDesconto; // ALTERADO para BigDecimal
-        GerenteData(String nivel, BigDecimal limite) { this.nivelAcesso = nivel; this.limiteDesconto = limite; }
+    public List<Funcionario> listarTodos() throws SQLException {
+        return listarTodos(true, true);
     }
 
-    public List<Funcionario> listarTodos() throws SQLException {
+    // Lista todos os funcionários com um número fixo de consultas, independente de quantos forem:
+    // funcionário + especialização (1) e, se pedidos, telefones (1) e dependentes (1).
+    // Quando telefones/dependentes não são pedidos (listagem resumida), os campos ficam nulos.
+    public List<Funcionario> listarTodos(boolean incluirTelefones, boolean incluirDependentes) throws SQLException {
         List<Funcionario> funcionarios = new ArrayList<>();
-        Map<Integer, String> setoresGarcom = new HashMap<>();
-        Map<Integer, String> especCulinarias = new HashMap<>();
-        Map<Integer, String> especBares = new HashMap<>();
-        Map<Integer, GerenteData> dadosGerente = new HashMap<>();
+        Map<Integer, Funcionario> funcionariosPorId = new LinkedHashMap<>();
 
         try (Connection conn = ConnectionFactory.getConnection()) {
-            try (Statement stmt = conn.createStatement()) {
-                try (ResultSet rs = stmt.executeQuery("SELECT id_funcionario, setor_atendimento FROM Garcom")) {
-                    while (rs.next()) setoresGarcom.put(rs.getInt("id_funcionario"), rs.getString("setor_atendimento"));
-                }
-                try (ResultSet rs = stmt.executeQuery("SELECT id_funcionario, espec_cul FROM Cozinheiro")) {
-                    while (rs.next()) especCulinarias.put(rs.getInt("id_funcionario"), rs.getString("espec_cul"));
-                }
-                try (ResultSet rs = stmt.executeQuery("SELECT id_funcionario, espec_bar FROM Bartender")) {
-                    while (rs.next()) especBares.put(rs.getInt("id_funcionario"), rs.getString("espec_bar"));
-                }
-                try (ResultSet rs = stmt.executeQuery("SELECT id_funcionario, nivel_acesso, limite_desconto FROM Gerente")) {
-                    while (rs.next()) dadosGerente.put(rs.getInt("id_funcionario"), new GerenteData(rs.getString("nivel_acesso"), rs.getBigDecimal("limite_desconto"))); // ALTERADO para getBigDecimal
-                }
-            }
-
-            String sqlBase = "SELECT f.id_funcionario, f.nome, f.cpf, f.salario, f.data_contratacao, " +
-                    "f.rua, f.numero, f.bairro, f.cidade, f.estado, f.cep, " +
-                    "f.id_supervisor, s.nome AS nome_supervisor " +
-                    "FROM Funcionario f LEFT JOIN Funcionario s ON f.id_supervisor = s.id_funcionario ORDER BY f.nome";
-            try (PreparedStatement stmtBase = conn.prepareStatement(sqlBase);
-                 ResultSet rsBase = stmtBase.executeQuery()) {
-
-                while (rsBase.next()) {
-                    int id = rsBase.getInt("f.id_funcionario");
-                    String nome = rsBase.getString("f.nome");
-                    String cpf = rsBase.getString("f.cpf");
-                    BigDecimal salario = rsBase.getBigDecimal("f.salario"); // ALTERADO para getBigDecimal
-                    Date sqlDataContratacao = rsBase.getDate("f.data_contratacao");
-                    LocalDate dataContratacao = (sqlDataContratacao != null) ? sqlDataContratacao.toLocalDate() : null;
-                    String rua = rsBase.getString("f.rua");
-                    String numero = rsBase.getString("f.numero");
-                    String bairro = rsBase.getString("f.bairro");
-                    String cidade = rsBase.getString("f.cidade");
-                    String estado = rsBase.getString("f.estado");
-                    String cep = rsBase.getString("f.cep");
-                    Integer idSupervisor = (Integer) rsBase.getObject("f.id_supervisor");
-                    String nomeSupervisor = rsBase.getString("nome_supervisor");
-
-                    Funcionario func;
-                    if (setoresGarcom.containsKey(id)) {
-                        func = new Garcom(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, setoresGarcom.get(id));
-                    } else if (especCulinarias.containsKey(id)) {
-                        func = new Cozinheiro(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, especCulinarias.get(id));
-                    } else if (especBares.containsKey(id)) {
-                        func = new Bartender(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, especBares.get(id));
-                    } else if (dadosGerente.containsKey(id)) {
-                        GerenteData gd = dadosGerente.get(id);
-                        func = new Gerente(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor, gd.nivelAcesso, gd.limiteDesconto);
-                    } else {
-                        func = new Funcionario(id, nome, cpf, salario, dataContratacao, rua, numero, bairro, cidade, estado, cep, idSupervisor);
-                    }
-
-                    func.setNomeSupervisor(nomeSupervisor);
-                    func.setTelefones(getTelefonesPorIdFuncionario(id, conn));
-                    func.setDependentes(getDependentesPorIdFuncionario(id, conn));
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_FUNCIONARIO_POLIMORFICO + " ORDER BY f.nome");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Funcionario func = mapearFuncionario(rs);
+                    if (!incluirTelefones) func.omitirTelefones();
+                    if (!incluirDependentes) func.omitirDependentes();
                     funcionarios.add(func);
+                    funcionariosPorId.put(func.getId(), func);
                 }
             }
+
+            if (incluirTelefones) carregarTelefonesEmLote(funcionariosPorId, conn);
+            if (incluirDependentes) carregarDependentesEmLote(funcionariosPorId, conn);
         }
         return funcionarios;
     }
@@ -449,7 +496,7 @@ public class FuncionarioDAO {
         deletarDependentes(funcionario.getId(), conn);
         inserirDependentes(funcionario.getId(), funcionario.getDependentes(), conn);
 
-        System.out.println("Funcionário ID " + funcionario.getId() + " atualizado completamente.");
+        log.debug("Funcionário ID {} atualizado completamente.", funcionario.getId());
         return funcionario;
     }
 
@@ -479,7 +526,7 @@ public class FuncionarioDAO {
             if (affectedRows == 0) {
                 throw new SQLException("Funcionário com ID " + id + " não encontrado para atualizar salário.");
             }
-            System.out.println("Salário do funcionário ID " + id + " atualizado.");
+            log.debug("Salário do funcionário ID {} atualizado.", id);
         }
     }
 
@@ -497,7 +544,7 @@ public class FuncionarioDAO {
             if (affectedRows == 0) {
                 throw new SQLException("Funcionário com ID " + id + " não encontrado para atualizar endereço.");
             }
-            System.out.println("Endereço do funcionário ID " + id + " atualizado.");
+            log.debug("Endereço do funcionário ID {} atualizado.", id);
         }
     }
 
@@ -509,7 +556,7 @@ public class FuncionarioDAO {
             if (affectedRows == 0) {
                 throw new SQLException("Funcionário com ID " + idFuncionario + " não encontrado para deleção.");
             }
-            System.out.println("Funcionário ID " + idFuncionario + " deletado.");
+            log.debug("Funcionário ID {} deletado.", idFuncionario);
         }
     }
 
@@ -3,7 +3,11 @@ package johnygastrobar.dao;
 import johnygastrobar.model.Item;
 import johnygastrobar.model.TopItemInfo; // IMPORT ADICIONADO
 import johnygastrobar.util.ConnectionFactory;
+import johnygastrobar.util.InsercaoEmLote;
+import johnygastrobar.util.PrazoConsulta;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
@@ -15,11 +19,18 @@ import java.sql.Statement;
 import java.sql.Date; // Para LocalDate
 import java.time.LocalDate; // Para os novos métodos
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Repository
 public class ItemDAO {
 
+    private static final Logger log = LoggerFactory.getLogger(ItemDAO.class);
+
     public Item inserir(Item item, Connection conn) throws SQLException {
         String sql = "INSERT INTO Item (nome, tipo, preco) VALUES (?, ?, ?)";
         try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -40,7 +51,7 @@ public class ItemDAO {
                 }
             }
         }
-        System.out.println("Item '" + item.getNome() + "' inserido com ID: " + item.getIdItem());
+        log.debug("Item '{}' inserido com ID: {}", item.getNome(), item.getIdItem());
         return item;
     }
 
@@ -54,19 +65,63 @@ public class ItemDAO {
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Item ID " + item.getIdItem() + " atualizado.");
+                log.debug("Item ID {} atualizado.", item.getIdItem());
             }
             return affectedRows > 0;
         }
     }
 
+    // Insere vários itens com INSERTs de várias linhas e preenche os ids gerados (na mesma ordem da lista).
+    public void inserirEmLote(List<Item> itens, Connection conn) throws SQLException {
+        if (itens.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = InsercaoEmLote.inserirComChaves("INSERT INTO Item (nome, tipo, preco)", 3, itens,
+                (stmt, i, item) -> {
+                    stmt.setString(i, item.getNome());
+                    stmt.setString(i + 1, item.getTipo());
+                    stmt.setBigDecimal(i + 2, item.getPreco());
+                }, conn);
+        for (int i = 0; i < itens.size(); i++) {
+            itens.get(i).setIdItem(ids.get(i));
+        }
+        log.debug("{} itens inseridos em lote.", itens.size());
+    }
+
+    // Atualiza vários itens existentes num único lote de UPDATEs (executeBatch).
+    // Retorna os ids que não existiam mais (0 linhas afetadas, ex.: deletados por outra transação depois
+    // da leitura do chamador): UPDATE nunca recria um item removido.
+    public Set<Integer> atualizarEmLote(List<Item> itens, Connection conn) throws SQLException {
+        Set<Integer> naoEncontrados = new LinkedHashSet<>();
+        if (itens.isEmpty()) {
+            return naoEncontrados;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE Item SET nome = ?, tipo = ?, preco = ? WHERE id_item = ?")) {
+            for (Item item : itens) {
+                stmt.setString(1, item.getNome());
+                stmt.setString(2, item.getTipo());
+                stmt.setBigDecimal(3, item.getPreco());
+                stmt.setInt(4, item.getIdItem());
+                stmt.addBatch();
+            }
+            int[] afetadas = stmt.executeBatch();
+            for (int i = 0; i < afetadas.length; i++) {
+                if (afetadas[i] == 0) {
+                    naoEncontrados.add(itens.get(i).getIdItem());
+                }
+            }
+        }
+        log.debug("{} itens atualizados em lote ({} não encontrados).", itens.size() - naoEncontrados.size(), naoEncontrados.size());
+        return naoEncontrados;
+    }
+
     public boolean deletar(int idItem, Connection conn) throws SQLException {
         String sql = "DELETE FROM Item WHERE id_item = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, idItem);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Item ID " + idItem + " deletado.");
+                log.debug("Item ID {} deletado.", idItem);
             }
             return affectedRows > 0;
         }
@@ -97,6 +152,42 @@ public class ItemDAO {
         }
     }
 
+    // Busca vários itens do catálogo em uma única consulta (WHERE id_item IN (...)).
+    // Usado na criação/atualização de pedidos para não fazer um SELECT por linha do pedido.
+    // IDs não encontrados simplesmente não aparecem no mapa retornado.
+    public Map<Integer, Item> buscarPorIds(Collection<Integer> idsItens, Connection conn) throws SQLException {
+        Map<Integer, Item> itens = new HashMap<>();
+        if (idsItens == null || idsItens.isEmpty()) {
+            return itens;
+        }
+        Set<Integer> idsDistintos = new LinkedHashSet<>(idsItens);
+
+        StringBuilder sql = new StringBuilder("SELECT id_item, nome, tipo, preco FROM Item WHERE id_item IN (");
+        for (int i = 0; i < idsDistintos.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int indice = 1;
+            for (Integer idItem : idsDistintos) {
+                stmt.setInt(indice++, idItem);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Item item = new Item(
+                            rs.getInt("id_item"),
+                            rs.getString("nome"),
+                            rs.getString("tipo"),
+                            rs.getBigDecimal("preco")
+                    );
+                    itens.put(item.getIdItem(), item);
+                }
+            }
+        }
+        return itens;
+    }
+
     public List<Item> listarTodos(Connection conn) throws SQLException {
         List<Item> lista = new ArrayList<>();
         String sql = "SELECT id_item, nome, tipo, preco FROM Item ORDER BY nome";
@@ -124,15 +215,16 @@ public class ItemDAO {
 
     public List<TopItemInfo> getTopItensMaisVendidosPorQuantidade(LocalDate dataInicial, LocalDate dataFinal, int limite, Connection conn) throws SQLException {
         List<TopItemInfo> topItens = new ArrayList<>();
-        String sql = "SELECT i.nome, SUM(pi.quantidade) as total_quantidade " +
-                "FROM Pedido_Item pi " +
-                "JOIN Item i ON pi.id_item = i.id_item " +
-                "JOIN Pedido p ON pi.id_pedido = p.id_pedido " +
-                "WHERE DATE(p.data_hora) BETWEEN ? AND ? " +
+        // Lê do resumo diário por item (Resumo_Vendas_Item_Dia) em vez de varrer Pedido_Item.
+        String sql = "SELECT i.nome, SUM(r.quantidade) as total_quantidade " +
+                "FROM Resumo_Vendas_Item_Dia r " +
+                "JOIN Item i ON r.id_item = i.id_item " +
+                "WHERE r.dia BETWEEN ? AND ? " +
                 "GROUP BY i.id_item, i.nome " +
                 "ORDER BY total_quantidade DESC " +
                 "LIMIT ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
             stmt.setDate(1, Date.valueOf(dataInicial));
             stmt.setDate(2, Date.valueOf(dataFinal));
             stmt.setInt(3, limite);
@@ -147,15 +239,15 @@ public class ItemDAO {
 
     public List<TopItemInfo> getTopItensMaisRentaveis(LocalDate dataInicial, LocalDate dataFinal, int limite, Connection conn) throws SQLException {
         List<TopItemInfo> topItens = new ArrayList<>();
-        String sql = "SELECT i.nome, SUM(pi.quantidade * pi.preco_unitario) as faturamento_total " +
-                "FROM Pedido_Item pi " +
-                "JOIN Item i ON pi.id_item = i.id_item " +
-                "JOIN Pedido p ON pi.id_pedido = p.id_pedido " +
-                "WHERE DATE(p.data_hora) BETWEEN ? AND ? " +
+        String sql = "SELECT i.nome, SUM(r.faturamento) as faturamento_total " +
+                "FROM Resumo_Vendas_Item_Dia r " +
+                "JOIN Item i ON r.id_item = i.id_item " +
+                "WHERE r.dia BETWEEN ? AND ? " +
                 "GROUP BY i.id_item, i.nome " +
                 "ORDER BY faturamento_total DESC " +
                 "LIMIT ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
             stmt.setDate(1, Date.valueOf(dataInicial));
             stmt.setDate(2, Date.valueOf(dataFinal));
             stmt.setInt(3, limite);
@@ -3,6 +3,8 @@ package johnygastrobar.dao;
 import johnygastrobar.model.Mesa;
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository; // IMPORT ADICIONADO
 
 import java.sql.Connection;
@@ -11,11 +13,18 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Repository // ANOTAÇÃO ADICIONADA
 public class MesaDAO {
 
+    private static final Logger log = LoggerFactory.getLogger(MesaDAO.class);
+
     public Mesa inserir(Mesa mesa, Connection conn) throws SQLException {
         String sql = "INSERT INTO Mesa (capacidade, localizacao) VALUES (?, ?)";
         try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -35,7 +44,7 @@ public class MesaDAO {
                 }
             }
         }
-        System.out.println("Mesa ID " + mesa.getIdMesa() + " inserida. Localização: " + mesa.getLocalizacao());
+        log.debug("Mesa ID {} inserida. Localização: {}", mesa.getIdMesa(), mesa.getLocalizacao());
         return mesa;
     }
 
@@ -48,7 +57,7 @@ public class MesaDAO {
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Mesa ID " + mesa.getIdMesa() + " atualizada.");
+                log.debug("Mesa ID {} atualizada.", mesa.getIdMesa());
             }
             return affectedRows > 0;
         }
@@ -60,7 +69,7 @@ public class MesaDAO {
             stmt.setInt(1, idMesa);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Mesa ID " + idMesa + " deletada.");
+                log.debug("Mesa ID {} deletada.", idMesa);
             }
             // Considerar lançar exceção se a mesa não for encontrada para deleção
             // if (affectedRows == 0) {
@@ -88,6 +97,41 @@ public class MesaDAO {
         return mesa;
     }
 
+    // Lê as mesas com SELECT ... FOR UPDATE, em ordem de id (duas transações nunca travam as mesmas mesas em ordens
+    // diferentes). Quem grava reservas trava antes a mesa: gravações na mesma mesa, mesmo vindas de outra instância,
+    // ficam em fila até o commit, e a checagem de conflito feita depois enxerga as reservas já confirmadas.
+    // IDs não encontrados não aparecem no mapa retornado.
+    public Map<Integer, Mesa> bloquearParaReserva(Collection<Integer> idsMesas, Connection conn) throws SQLException {
+        Map<Integer, Mesa> mesas = new HashMap<>();
+        if (idsMesas.isEmpty()) {
+            return mesas;
+        }
+        Set<Integer> idsDistintos = new LinkedHashSet<>(idsMesas);
+        StringBuilder sql = new StringBuilder("SELECT id_mesa, capacidade, localizacao FROM Mesa WHERE id_mesa IN (");
+        for (int i = 0; i < idsDistintos.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY id_mesa FOR UPDATE");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int indice = 1;
+            for (Integer idMesa : idsDistintos) {
+                stmt.setInt(indice++, idMesa);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Mesa mesa = new Mesa(
+                            rs.getInt("id_mesa"),
+                            rs.getInt("capacidade"),
+                            rs.getString("localizacao")
+                    );
+                    mesas.put(mesa.getIdMesa(), mesa);
+                }
+            }
+        }
+        return mesas;
+    }
+
     public Mesa buscarPorId(int idMesa) throws SQLException {
         try (Connection conn = ConnectionFactory.getConnection()) {
             return buscarPorId(idMesa, conn);
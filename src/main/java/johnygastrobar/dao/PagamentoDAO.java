@@ -2,7 +2,10 @@ package johnygastrobar.dao;
 
 import johnygastrobar.model.Pagamento;
 import johnygastrobar.util.ConnectionFactory;
+import johnygastrobar.util.PrazoConsulta;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
@@ -20,6 +23,8 @@ import java.util.List;
 @Repository
 public class PagamentoDAO {
 
+    private static final Logger log = LoggerFactory.getLogger(PagamentoDAO.class);
+
     public Pagamento inserir(Pagamento pagamento, Connection conn) throws SQLException {
         String sql = "INSERT INTO Pagamento_realiza (id_pedido, valor_total, metodo_pagamento, data_pagamento) VALUES (?, ?, ?, ?)";
         try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -41,7 +46,7 @@ public class PagamentoDAO {
                 }
             }
         }
-        System.out.println("Pagamento ID " + pagamento.getIdPagamento() + " inserido para o Pedido ID " + pagamento.getIdPedido());
+        log.debug("Pagamento ID {} inserido para o Pedido ID {}", pagamento.getIdPagamento(), pagamento.getIdPedido());
         return pagamento;
     }
 
@@ -56,7 +61,7 @@ public class PagamentoDAO {
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Pagamento ID " + pagamento.getIdPagamento() + " atualizado.");
+                log.debug("Pagamento ID {} atualizado.", pagamento.getIdPagamento());
             }
             return affectedRows > 0;
         }
@@ -68,7 +73,7 @@ public class PagamentoDAO {
             stmt.setInt(1, idPagamento);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Pagamento ID " + idPagamento + " deletado.");
+                log.debug("Pagamento ID {} deletado.", idPagamento);
             }
             return affectedRows > 0;
         }
@@ -151,9 +156,11 @@ public class PagamentoDAO {
     }
 
     // MÉTODO ADICIONADO PARA O DASHBOARD
+    // Lê do resumo diário (Resumo_Vendas_Dia), mantido pelo PagamentoService a cada pagamento registrado.
     public BigDecimal sumValorTotalPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
-        String sql = "SELECT SUM(valor_total) FROM Pagamento_realiza WHERE DATE(data_pagamento) BETWEEN ? AND ?";
+        String sql = "SELECT SUM(valor_pagamentos) FROM Resumo_Vendas_Dia WHERE dia BETWEEN ? AND ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
             stmt.setDate(1, Date.valueOf(dataInicial));
             stmt.setDate(2, Date.valueOf(dataFinal));
             try (ResultSet rs = stmt.executeQuery()) {
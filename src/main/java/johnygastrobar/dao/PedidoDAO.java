@@ -1,11 +1,17 @@
 package johnygastrobar.dao;
 
+import johnygastrobar.model.FacetaPedidos;
 import johnygastrobar.model.Pedido;
 import johnygastrobar.model.Pedido.PedidoItem;
 import johnygastrobar.util.ConnectionFactory;
+import johnygastrobar.util.InsercaoEmLote;
+import johnygastrobar.util.PrazoConsulta;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -18,6 +24,7 @@ import java.sql.Date; // Para conversão de LocalDate
 import java.time.LocalDate; // Para os novos métodos
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -25,29 +32,94 @@ import java.util.HashMap;
 @Repository
 public class PedidoDAO {
 
-    private void inserirItensDoPedido(Pedido pedido, Connection conn) throws SQLException {
-        if (pedido.getItensDoPedido() == null || pedido.getItensDoPedido().isEmpty()) {
+    private static final Logger log = LoggerFactory.getLogger(PedidoDAO.class);
+
+    // Todas as linhas num único INSERT de várias linhas (ver InsercaoEmLote).
+    private void inserirItensDoPedido(int idPedido, List<PedidoItem> itens, Connection conn) throws SQLException {
+        if (itens == null || itens.isEmpty()) {
             return;
         }
-        String sql = "INSERT INTO Pedido_Item (id_pedido, id_item, quantidade, preco_unitario) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            for (PedidoItem item : pedido.getItensDoPedido()) {
-                stmt.setInt(1, pedido.getIdPedido());
-                stmt.setInt(2, item.getIdItem());
-                stmt.setInt(3, item.getQuantidade());
-                stmt.setBigDecimal(4, item.getPrecoUnitario());
-                stmt.addBatch();
+        InsercaoEmLote.inserir("INSERT INTO Pedido_Item (id_pedido, id_item, quantidade, preco_unitario)", 4, itens,
+                (stmt, i, item) -> {
+                    stmt.setInt(i, idPedido);
+                    stmt.setInt(i + 1, item.getIdItem());
+                    stmt.setInt(i + 2, item.getQuantidade());
+                    stmt.setBigDecimal(i + 3, item.getPrecoUnitario());
+                }, conn);
+    }
+
+    private static Map<Integer, List<PedidoItem>> agruparPorItem(List<PedidoItem> itens) {
+        Map<Integer, List<PedidoItem>> porItem = new LinkedHashMap<>();
+        if (itens != null) {
+            for (PedidoItem item : itens) {
+                porItem.computeIfAbsent(item.getIdItem(), k -> new ArrayList<>()).add(item);
             }
-            stmt.executeBatch();
         }
+        return porItem;
     }
 
-    private void deletarItensDoPedido(int idPedido, Connection conn) throws SQLException {
-        String sql = "DELETE FROM Pedido_Item WHERE id_pedido = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, idPedido);
-            stmt.executeUpdate();
+    // Grava só a diferença entre as linhas gravadas do pedido e as novas, comparando por id_item:
+    // - item só nas novas: INSERT; só nas gravadas: DELETE;
+    // - uma linha de cada lado com quantidade ou preço diferente: UPDATE; linhas iguais não são tocadas;
+    // - o mesmo item repetido em mais de uma linha (raro): as linhas desse item são apagadas e reinseridas.
+    // Cada tipo de comando vai num único comando ou batch: no máximo três idas ao banco, qualquer que seja o tamanho do pedido,
+    // e editar uma quantidade num pedido de 20 linhas escreve 1 linha de Pedido_Item em vez de 40.
+    private void sincronizarItensDoPedido(int idPedido, List<PedidoItem> itensGravados, List<PedidoItem> itensNovos, Connection conn) throws SQLException {
+        Map<Integer, List<PedidoItem>> gravadosPorItem = agruparPorItem(itensGravados);
+        Map<Integer, List<PedidoItem>> novosPorItem = agruparPorItem(itensNovos);
+
+        List<Integer> remover = new ArrayList<>();
+        List<PedidoItem> alterar = new ArrayList<>();
+        List<PedidoItem> inserir = new ArrayList<>();
+        for (Map.Entry<Integer, List<PedidoItem>> entrada : novosPorItem.entrySet()) {
+            List<PedidoItem> gravadas = gravadosPorItem.get(entrada.getKey());
+            List<PedidoItem> novas = entrada.getValue();
+            if (gravadas == null) {
+                inserir.addAll(novas);
+            } else if (gravadas.size() == 1 && novas.size() == 1) {
+                if (!gravadas.get(0).equals(novas.get(0))) {
+                    alterar.add(novas.get(0));
+                }
+            } else if (!gravadas.equals(novas)) {
+                remover.add(entrada.getKey());
+                inserir.addAll(novas);
+            }
+        }
+        for (Integer idItem : gravadosPorItem.keySet()) {
+            if (!novosPorItem.containsKey(idItem)) {
+                remover.add(idItem);
+            }
+        }
+
+        if (!remover.isEmpty()) {
+            StringBuilder sql = new StringBuilder("DELETE FROM Pedido_Item WHERE id_pedido = ? AND id_item IN (");
+            for (int i = 0; i < remover.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                stmt.setInt(1, idPedido);
+                int indice = 2;
+                for (Integer idItem : remover) {
+                    stmt.setInt(indice++, idItem);
+                }
+                stmt.executeUpdate();
+            }
         }
+        if (!alterar.isEmpty()) {
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE Pedido_Item SET quantidade = ?, preco_unitario = ? WHERE id_pedido = ? AND id_item = ?")) {
+                for (PedidoItem item : alterar) {
+                    stmt.setInt(1, item.getQuantidade());
+                    stmt.setBigDecimal(2, item.getPrecoUnitario());
+                    stmt.setInt(3, idPedido);
+                    stmt.setInt(4, item.getIdItem());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+        inserirItensDoPedido(idPedido, inserir, conn);
+        log.debug("Itens do pedido ID {}: {} itens removidos, {} alterados, {} linhas inseridas.", idPedido, remover.size(), alterar.size(), inserir.size());
     }
 
     private List<PedidoItem> getItensPorPedidoId(int idPedido, Connection conn) throws SQLException {
@@ -92,18 +164,25 @@ public class PedidoDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     pedido.setIdPedido(generatedKeys.getInt(1));
+                    pedido.setVersao(0); // valor padrão da coluna
                 } else {
                     throw new SQLException("Falha ao inserir pedido, não foi possível obter o ID gerado.");
                 }
             }
-            inserirItensDoPedido(pedido, conn);
+            inserirItensDoPedido(pedido.getIdPedido(), pedido.getItensDoPedido(), conn);
         }
-        System.out.println("Pedido ID " + pedido.getIdPedido() + " inserido.");
+        log.debug("Pedido ID {} inserido.", pedido.getIdPedido());
         return pedido;
     }
 
-    public boolean atualizar(Pedido pedido, Connection conn) throws SQLException {
-        String sql = "UPDATE Pedido SET id_garcom = ?, id_gerente = ?, id_mesa = ?, data_hora = ?, entregue = ?, pago = ?, desconto = ? WHERE id_pedido = ?";
+    // Compare-and-set pela versão: só grava se o pedido ainda está na versão pedido.getVersao() (a que foi lida).
+    // Retorna false se outra transação alterou (ou removeu) o pedido nesse meio-tempo; nesse caso os itens não são tocados.
+    // Em caso de sucesso, pedido.getVersao() passa a ser a nova versão.
+    // itensGravados: as linhas lidas junto com essa versão. Toda escrita de itens muda a versão, então,
+    // se o compare-and-set passou, elas ainda são as do banco e servem de base para gravar só a diferença.
+    public boolean atualizar(Pedido pedido, List<PedidoItem> itensGravados, Connection conn) throws SQLException {
+        String sql = "UPDATE Pedido SET id_garcom = ?, id_gerente = ?, id_mesa = ?, data_hora = ?, entregue = ?, pago = ?, desconto = ?, " +
+                "versao = versao + 1 WHERE id_pedido = ? AND versao = ?";
         int affectedRows;
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setObject(1, pedido.getIdGarcom(), Types.INTEGER);
@@ -114,13 +193,14 @@ public class PedidoDAO {
             stmt.setBoolean(6, pedido.isPago());
             stmt.setBigDecimal(7, pedido.getDesconto());
             stmt.setInt(8, pedido.getIdPedido());
+            stmt.setInt(9, pedido.getVersao());
             affectedRows = stmt.executeUpdate();
         }
 
         if (affectedRows > 0) {
-            deletarItensDoPedido(pedido.getIdPedido(), conn);
-            inserirItensDoPedido(pedido, conn);
-            System.out.println("Pedido ID " + pedido.getIdPedido() + " atualizado.");
+            pedido.setVersao(pedido.getVersao() + 1);
+            sincronizarItensDoPedido(pedido.getIdPedido(), itensGravados, pedido.getItensDoPedido(), conn);
+            log.debug("Pedido ID {} atualizado.", pedido.getIdPedido());
         }
         return affectedRows > 0;
     }
@@ -131,29 +211,20 @@ public class PedidoDAO {
             stmt.setInt(1, idPedido);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Pedido ID " + idPedido + " deletado.");
+                log.debug("Pedido ID {} deletado.", idPedido);
             }
             return affectedRows > 0;
         }
     }
 
     public Pedido buscarPorId(int idPedido, Connection conn) throws SQLException {
-        String sql = "SELECT id_pedido, id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto FROM Pedido WHERE id_pedido = ?";
+        String sql = "SELECT id_pedido, id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto, versao FROM Pedido WHERE id_pedido = ?";
         Pedido pedido = null;
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, idPedido);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    pedido = new Pedido(
-                            rs.getInt("id_pedido"),
-                            (Integer) rs.getObject("id_garcom"),
-                            (Integer) rs.getObject("id_gerente"),
-                            rs.getInt("id_mesa"),
-                            rs.getTimestamp("data_hora").toLocalDateTime(),
-                            rs.getBoolean("entregue"),
-                            rs.getBoolean("pago"),
-                            rs.getBigDecimal("desconto")
-                    );
+                    pedido = mapearPedido(rs);
                     pedido.setItensDoPedido(getItensPorPedidoId(idPedido, conn));
                 }
             }
@@ -169,7 +240,7 @@ public class PedidoDAO {
 
     public List<Pedido> listarTodos(Connection conn) throws SQLException {
         List<Pedido> pedidos = new ArrayList<>();
-        String sqlPedidos = "SELECT id_pedido, id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto FROM Pedido ORDER BY data_hora DESC";
+        String sqlPedidos = "SELECT id_pedido, id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto, versao FROM Pedido ORDER BY data_hora DESC";
 
         Map<Integer, List<PedidoItem>> todosOsItensDePedidos = new HashMap<>();
         String sqlItens = "SELECT pi.id_pedido, pi.id_item, i.nome AS nome_item, i.tipo AS tipo_item, pi.quantidade, pi.preco_unitario " +
@@ -194,16 +265,7 @@ public class PedidoDAO {
              ResultSet rsPedidos = stmtPedidos.executeQuery()) {
             while (rsPedidos.next()) {
                 int idPedido = rsPedidos.getInt("id_pedido");
-                Pedido pedido = new Pedido(
-                        idPedido,
-                        (Integer) rsPedidos.getObject("id_garcom"),
-                        (Integer) rsPedidos.getObject("id_gerente"),
-                        rsPedidos.getInt("id_mesa"),
-                        rsPedidos.getTimestamp("data_hora").toLocalDateTime(),
-                        rsPedidos.getBoolean("entregue"),
-                        rsPedidos.getBoolean("pago"),
-                        rsPedidos.getBigDecimal("desconto")
-                );
+                Pedido pedido = mapearPedido(rsPedidos);
                 pedido.setItensDoPedido(todosOsItensDePedidos.getOrDefault(idPedido, new ArrayList<Pedido.PedidoItem>()));
                 pedidos.add(pedido);
             }
@@ -217,13 +279,196 @@ public class PedidoDAO {
         }
     }
 
-    public boolean marcarComoPago(int idPedido, Connection conn) throws SQLException {
-        String sql = "UPDATE Pedido SET pago = TRUE WHERE id_pedido = ?";
+    private Pedido mapearPedido(ResultSet rs) throws SQLException {
+        Pedido pedido = new Pedido(
+                rs.getInt("id_pedido"),
+                (Integer) rs.getObject("id_garcom"),
+                (Integer) rs.getObject("id_gerente"),
+                rs.getInt("id_mesa"),
+                rs.getTimestamp("data_hora").toLocalDateTime(),
+                rs.getBoolean("entregue"),
+                rs.getBoolean("pago"),
+                rs.getBigDecimal("desconto")
+        );
+        pedido.setVersao(rs.getInt("versao"));
+        return pedido;
+    }
+
+    // Busca, numa única consulta, os itens apenas dos pedidos informados (WHERE id_pedido IN (...))
+    // e os distribui entre eles. Evita tanto o N+1 quanto carregar o Pedido_Item inteiro.
+    private void carregarItensDosPedidos(List<Pedido> pedidos, Connection conn) throws SQLException {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        Map<Integer, Pedido> pedidosPorId = new HashMap<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT pi.id_pedido, pi.id_item, i.nome AS nome_item, i.tipo AS tipo_item, pi.quantidade, pi.preco_unitario " +
+                "FROM Pedido_Item pi JOIN Item i ON pi.id_item = i.id_item " +
+                "WHERE pi.id_pedido IN (");
+        for (Pedido pedido : pedidos) {
+            sql.append(pedidosPorId.isEmpty() ? "?" : ", ?");
+            pedidosPorId.put(pedido.getIdPedido(), pedido);
+        }
+        sql.append(")");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int indice = 1;
+            for (Pedido pedido : pedidos) {
+                stmt.setInt(indice++, pedido.getIdPedido());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pedidosPorId.get(rs.getInt("id_pedido")).adicionarItem(new PedidoItem(
+                            rs.getInt("id_item"),
+                            rs.getString("nome_item"),
+                            rs.getString("tipo_item"),
+                            rs.getInt("quantidade"),
+                            rs.getBigDecimal("preco_unitario")
+                    ));
+                }
+            }
+        }
+    }
+
+    // Listagem paginada por cursor (keyset) sobre (data_hora, id_pedido), do mais recente para o mais antigo.
+    // Em vez de OFFSET, a próxima página começa logo depois do último pedido retornado, então o custo
+    // não cresce com o histórico. Filtros nulos são ignorados; o período é meio-aberto [dataInicial, dataFinal + 1 dia).
+    // Retorna até 'limite' pedidos, já com seus itens.
+    public List<Pedido> listarPagina(Integer idMesa, Integer idGarcom, Boolean entregue, Boolean pago,
+                                     LocalDate dataInicial, LocalDate dataFinal,
+                                     LocalDateTime cursorDataHora, Integer cursorIdPedido,
+                                     int limite, Connection conn) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id_pedido, id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto, versao FROM Pedido WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
+
+        if (idMesa != null) {
+            sql.append(" AND id_mesa = ?");
+            parametros.add(idMesa);
+        }
+        if (idGarcom != null) {
+            sql.append(" AND id_garcom = ?");
+            parametros.add(idGarcom);
+        }
+        if (entregue != null) {
+            sql.append(" AND entregue = ?");
+            parametros.add(entregue);
+        }
+        if (pago != null) {
+            sql.append(" AND pago = ?");
+            parametros.add(pago);
+        }
+        if (dataInicial != null) {
+            sql.append(" AND data_hora >= ?");
+            parametros.add(Timestamp.valueOf(dataInicial.atStartOfDay()));
+        }
+        if (dataFinal != null) {
+            sql.append(" AND data_hora < ?");
+            parametros.add(Timestamp.valueOf(dataFinal.plusDays(1).atStartOfDay()));
+        }
+        if (cursorDataHora != null && cursorIdPedido != null) {
+            sql.append(" AND (data_hora < ? OR (data_hora = ? AND id_pedido < ?))");
+            parametros.add(Timestamp.valueOf(cursorDataHora));
+            parametros.add(Timestamp.valueOf(cursorDataHora));
+            parametros.add(cursorIdPedido);
+        }
+        sql.append(" ORDER BY data_hora DESC, id_pedido DESC LIMIT ?");
+        parametros.add(limite);
+
+        List<Pedido> pedidos = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setObject(i + 1, parametros.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pedidos.add(mapearPedido(rs));
+                }
+            }
+        }
+        carregarItensDosPedidos(pedidos, conn);
+        return pedidos;
+    }
+
+    // Recebe cada pedido (já com seus itens) durante a exportação em streaming.
+    @FunctionalInterface
+    public interface ConsumidorPedido {
+        void aceitar(Pedido pedido) throws IOException;
+    }
+
+    // Percorre o histórico de pedidos em ordem de id com um cursor forward-only do MySQL
+    // (fetch size Integer.MIN_VALUE faz o driver trazer uma linha por vez em vez do resultado inteiro).
+    // Pedido e Pedido_Item vêm na mesma consulta; as linhas de um pedido são agrupadas em memória
+    // e o pedido é entregue ao consumidor assim que o próximo começa. Só um pedido fica em memória por vez.
+    // Período opcional e meio-aberto: [dataInicial, dataFinal + 1 dia).
+    public void percorrerPedidosComItens(LocalDate dataInicial, LocalDate dataFinal, ConsumidorPedido consumidor, Connection conn) throws SQLException, IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT p.id_pedido, p.id_garcom, p.id_gerente, p.id_mesa, p.data_hora, p.entregue, p.pago, p.desconto, p.versao, " +
+                "pi.id_item, i.nome AS nome_item, i.tipo AS tipo_item, pi.quantidade, pi.preco_unitario " +
+                "FROM Pedido p " +
+                "LEFT JOIN Pedido_Item pi ON pi.id_pedido = p.id_pedido " +
+                "LEFT JOIN Item i ON pi.id_item = i.id_item " +
+                "WHERE 1 = 1");
+        if (dataInicial != null) {
+            sql.append(" AND p.data_hora >= ?");
+        }
+        if (dataFinal != null) {
+            sql.append(" AND p.data_hora < ?");
+        }
+        sql.append(" ORDER BY p.id_pedido");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSizeStreaming(conn));
+            int indice = 1;
+            if (dataInicial != null) {
+                stmt.setTimestamp(indice++, Timestamp.valueOf(dataInicial.atStartOfDay()));
+            }
+            if (dataFinal != null) {
+                stmt.setTimestamp(indice, Timestamp.valueOf(dataFinal.plusDays(1).atStartOfDay()));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                Pedido atual = null;
+                while (rs.next()) {
+                    int idPedido = rs.getInt("id_pedido");
+                    if (atual == null || atual.getIdPedido() != idPedido) {
+                        if (atual != null) {
+                            consumidor.aceitar(atual);
+                        }
+                        atual = mapearPedido(rs);
+                    }
+                    int idItem = rs.getInt("id_item");
+                    if (!rs.wasNull()) {
+                        atual.adicionarItem(new PedidoItem(
+                                idItem,
+                                rs.getString("nome_item"),
+                                rs.getString("tipo_item"),
+                                rs.getInt("quantidade"),
+                                rs.getBigDecimal("preco_unitario")
+                        ));
+                    }
+                }
+                if (atual != null) {
+                    consumidor.aceitar(atual);
+                }
+            }
+        }
+    }
+
+    // Integer.MIN_VALUE é o sinal do Connector/J para trazer as linhas uma a uma em vez de carregar o
+    // resultado inteiro; outros drivers (o H2 dos testes) recusam valor negativo e usam o fetch size como lote.
+    private static int fetchSizeStreaming(Connection conn) throws SQLException {
+        return "MySQL".equals(conn.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : 1000;
+    }
+
+    // Compare-and-set pela versão, como em atualizar: false se o pedido mudou desde que foi lido na versão versaoEsperada.
+    public boolean marcarComoPago(int idPedido, int versaoEsperada, Connection conn) throws SQLException {
+        String sql = "UPDATE Pedido SET pago = TRUE, versao = versao + 1 WHERE id_pedido = ? AND versao = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, idPedido);
+            stmt.setInt(2, versaoEsperada);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Pedido ID " + idPedido + " marcado como pago.");
+                log.debug("Pedido ID {} marcado como pago.", idPedido);
             }
             return affectedRows > 0;
         }
@@ -240,10 +485,21 @@ public class PedidoDAO {
     }
 
     // --- NOVOS MÉTODOS PARA DASHBOARD E REQUISITOS DE PÁGINA ---
+    // As contagens por período vêm de Resumo_Vendas_Dia (ver ResumoVendasDAO): o custo depende
+    // do número de dias no intervalo, não do número de pedidos.
+
+    // Coluna do resumo diário correspondente à combinação entregue/pago.
+    private static String colunaResumoPorStatus(boolean entregue, boolean pago) {
+        if (entregue) {
+            return pago ? "pedidos_entregues_pagos" : "pedidos_entregues_nao_pagos";
+        }
+        return pago ? "pedidos_pagos_nao_entregues" : "pedidos_pendentes";
+    }
 
     public int countPedidosCriadosPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
-        String sql = "SELECT COUNT(id_pedido) FROM Pedido WHERE DATE(data_hora) BETWEEN ? AND ?";
+        String sql = "SELECT COALESCE(SUM(pedidos_criados), 0) FROM Resumo_Vendas_Dia WHERE dia BETWEEN ? AND ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
             stmt.setDate(1, Date.valueOf(dataInicial));
             stmt.setDate(2, Date.valueOf(dataFinal));
             try (ResultSet rs = stmt.executeQuery()) {
@@ -256,8 +512,9 @@ public class PedidoDAO {
     }
 
     public int countPedidosPagosPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
-        String sql = "SELECT COUNT(id_pedido) FROM Pedido WHERE pago = TRUE AND DATE(data_hora) BETWEEN ? AND ?";
+        String sql = "SELECT COALESCE(SUM(pedidos_pagos_nao_entregues + pedidos_entregues_pagos), 0) FROM Resumo_Vendas_Dia WHERE dia BETWEEN ? AND ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
             stmt.setDate(1, Date.valueOf(dataInicial));
             stmt.setDate(2, Date.valueOf(dataFinal));
             try (ResultSet rs = stmt.executeQuery()) {
@@ -270,10 +527,9 @@ public class PedidoDAO {
     }
 
     public BigDecimal sumQuantidadeItensVendidosPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
-        String sql = "SELECT SUM(pi.quantidade) FROM Pedido_Item pi " +
-                "JOIN Pedido p ON pi.id_pedido = p.id_pedido " +
-                "WHERE DATE(p.data_hora) BETWEEN ? AND ?";
+        String sql = "SELECT SUM(unidades_vendidas) FROM Resumo_Vendas_Dia WHERE dia BETWEEN ? AND ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
             stmt.setDate(1, Date.valueOf(dataInicial));
             stmt.setDate(2, Date.valueOf(dataFinal));
             try (ResultSet rs = stmt.executeQuery()) {
@@ -287,12 +543,10 @@ public class PedidoDAO {
     }
 
     public int countPedidosByStatusEPeriodo(boolean entregue, boolean pago, LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
-        String sql = "SELECT COUNT(id_pedido) FROM Pedido WHERE entregue = ? AND pago = ? AND DATE(data_hora) BETWEEN ? AND ?";
+        String sql = "SELECT COALESCE(SUM(" + colunaResumoPorStatus(entregue, pago) + "), 0) FROM Resumo_Vendas_Dia WHERE dia BETWEEN ? AND ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setBoolean(1, entregue);
-            stmt.setBoolean(2, pago);
-            stmt.setDate(3, Date.valueOf(dataInicial));
-            stmt.setDate(4, Date.valueOf(dataFinal));
+            stmt.setDate(1, Date.valueOf(dataInicial));
+            stmt.setDate(2, Date.valueOf(dataFinal));
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     return rs.getInt(1);
@@ -302,43 +556,113 @@ public class PedidoDAO {
         return 0;
     }
 
+    // Histograma entregue x pago do período numa única leitura do resumo diário.
+    // Chaves: PENDENTE, ENTREGUE_NAO_PAGO, PAGO_NAO_ENTREGUE, ENTREGUE_PAGO.
+    public Map<String, Integer> getHistogramaStatusPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(pedidos_pendentes), 0), COALESCE(SUM(pedidos_entregues_nao_pagos), 0), " +
+                "COALESCE(SUM(pedidos_pagos_nao_entregues), 0), COALESCE(SUM(pedidos_entregues_pagos), 0) " +
+                "FROM Resumo_Vendas_Dia WHERE dia BETWEEN ? AND ?";
+        Map<String, Integer> histograma = new LinkedHashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
+            stmt.setDate(1, Date.valueOf(dataInicial));
+            stmt.setDate(2, Date.valueOf(dataFinal));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                histograma.put("PENDENTE", rs.getInt(1));
+                histograma.put("ENTREGUE_NAO_PAGO", rs.getInt(2));
+                histograma.put("PAGO_NAO_ENTREGUE", rs.getInt(3));
+                histograma.put("ENTREGUE_PAGO", rs.getInt(4));
+            }
+        }
+        return histograma;
+    }
+
+    // Expressão SQL da chave de agrupamento de cada dimensão (valores fixos, nunca vindos do cliente).
+    private static String expressaoChave(FacetaPedidos.Dimensao dimensao) {
+        switch (dimensao) {
+            case STATUS:
+                return "CASE WHEN p.pago THEN (CASE WHEN p.entregue THEN 'ENTREGUE_PAGO' ELSE 'PAGO_NAO_ENTREGUE' END) " +
+                        "WHEN p.entregue THEN 'ENTREGUE_NAO_PAGO' ELSE 'PENDENTE' END";
+            case MESA:
+                return "p.id_mesa";
+            case GARCOM:
+                return "p.id_garcom";
+            case DIA:
+                return "DATE(p.data_hora)";
+            case HORA:
+                return "HOUR(p.data_hora)";
+            default:
+                throw new IllegalArgumentException("Dimensão de agrupamento não suportada: " + dimensao);
+        }
+    }
+
+    // Agrupa os pedidos do período pela dimensão pedida, com contagem, unidades e valor bruto por grupo,
+    // numa única passada sobre Pedido (range em idx_pedido_data_hora_status) e Pedido_Item.
+    public List<FacetaPedidos> agruparPedidosPorPeriodo(FacetaPedidos.Dimensao dimensao, LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
+        String sql = "SELECT " + expressaoChave(dimensao) + " AS chave, COUNT(*) AS pedidos, " +
+                "COALESCE(SUM(t.unidades), 0) AS unidades, COALESCE(SUM(t.valor), 0) AS valor " +
+                "FROM Pedido p " +
+                "LEFT JOIN (SELECT pi.id_pedido, SUM(pi.quantidade) AS unidades, SUM(pi.quantidade * pi.preco_unitario) AS valor " +
+                "FROM Pedido_Item pi JOIN Pedido px ON px.id_pedido = pi.id_pedido " +
+                "WHERE px.data_hora >= ? AND px.data_hora < ? GROUP BY pi.id_pedido) t ON t.id_pedido = p.id_pedido " +
+                "WHERE p.data_hora >= ? AND p.data_hora < ? " +
+                "GROUP BY chave ORDER BY chave";
+        Timestamp inicio = Timestamp.valueOf(dataInicial.atStartOfDay());
+        Timestamp fimExclusivo = Timestamp.valueOf(dataFinal.plusDays(1).atStartOfDay());
+        List<FacetaPedidos> facetas = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, inicio);
+            stmt.setTimestamp(2, fimExclusivo);
+            stmt.setTimestamp(3, inicio);
+            stmt.setTimestamp(4, fimExclusivo);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    facetas.add(new FacetaPedidos(
+                            rs.getString("chave"),
+                            rs.getInt("pedidos"),
+                            rs.getInt("unidades"),
+                            rs.getBigDecimal("valor")
+                    ));
+                }
+            }
+        }
+        return facetas;
+    }
+
     // Método para listagem por status específico para a "Aba de Pedidos"
     // Pode ou não incluir filtro de período, dependendo da necessidade da tela.
-    // Para simplificar, esta versão não filtra por período, mas poderia ser adicionado.
+    // Os itens de todos os pedidos vêm numa consulta só (carregarItensDosPedidos), não uma por pedido.
     public List<Pedido> listarPedidosByStatus(boolean entregue, boolean pago, Connection conn) throws SQLException {
         List<Pedido> pedidos = new ArrayList<>();
-        // Reutiliza a lógica de listarTodos e filtra, ou cria query SQL específica
-        // Criar query específica é mais eficiente se a lista for grande.
-        String sqlPedidos = "SELECT id_pedido, id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto " +
+        String sqlPedidos = "SELECT id_pedido, id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto, versao " +
                 "FROM Pedido WHERE entregue = ? AND pago = ? ORDER BY data_hora DESC";
 
-        // A lógica de buscar todos os itens para todos esses pedidos de uma vez (como em listarTodos)
-        // se torna mais complexa aqui se quisermos otimizar.
-        // Para simplificar o exemplo agora, vamos buscar os itens para cada pedido individualmente (N+1).
-        // Uma otimização seria buscar todos os IDs dos pedidos filtrados e depois buscar todos os seus itens.
-
         try (PreparedStatement stmtPedidos = conn.prepareStatement(sqlPedidos)) {
             stmtPedidos.setBoolean(1, entregue);
             stmtPedidos.setBoolean(2, pago);
-            try(ResultSet rsPedidos = stmtPedidos.executeQuery()) {
+            try (ResultSet rsPedidos = stmtPedidos.executeQuery()) {
                 while (rsPedidos.next()) {
-                    int idPedido = rsPedidos.getInt("id_pedido");
-                    Pedido pedido = new Pedido(
-                            idPedido,
-                            (Integer) rsPedidos.getObject("id_garcom"),
-                            (Integer) rsPedidos.getObject("id_gerente"),
-                            rsPedidos.getInt("id_mesa"),
-                            rsPedidos.getTimestamp("data_hora").toLocalDateTime(),
-                            rsPedidos.getBoolean("entregue"),
-                            rsPedidos.getBoolean("pago"),
-                            rsPedidos.getBigDecimal("desconto")
-                    );
-                    // Atenção: N+1 query aqui para os itens. Otimizar se necessário.
-                    pedido.setItensDoPedido(getItensPorPedidoId(idPedido, conn));
-                    pedidos.add(pedido);
+                    pedidos.add(mapearPedido(rsPedidos));
                 }
             }
         }
+        carregarItensDosPedidos(pedidos, conn);
+        return pedidos;
+    }
+
+    // Todos os pedidos ainda não pagos (entregues ou não), com itens: a carga do quadro de pedidos em aberto.
+    public List<Pedido> listarPedidosEmAberto(Connection conn) throws SQLException {
+        List<Pedido> pedidos = new ArrayList<>();
+        String sql = "SELECT id_pedido, id_garcom, id_gerente, id_mesa, data_hora, entregue, pago, desconto, versao " +
+                "FROM Pedido WHERE pago = FALSE ORDER BY data_hora DESC, id_pedido DESC";
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                pedidos.add(mapearPedido(rs));
+            }
+        }
+        carregarItensDosPedidos(pedidos, conn);
         return pedidos;
     }
 }
\ No newline at end of file
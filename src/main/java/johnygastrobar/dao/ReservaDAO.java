@@ -2,7 +2,11 @@ package johnygastrobar.dao;
 
 import johnygastrobar.model.Reserva;
 import johnygastrobar.util.ConnectionFactory;
+import johnygastrobar.util.InsercaoEmLote;
+import johnygastrobar.util.PrazoConsulta;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Connection;
@@ -15,12 +19,31 @@ import java.sql.Time;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public class ReservaDAO {
 
-    private static final int DURACAO_RESERVA_MINUTOS = 90;
+    private static final Logger log = LoggerFactory.getLogger(ReservaDAO.class);
+
+    // Duração de uma reserva; também usada pelo IndiceReservas para detectar conflitos em memória.
+    public static final int DURACAO_RESERVA_MINUTOS = 90;
+
+    private static final String SQL_SELECT_RESERVA =
+            "SELECT id_reserva, nome_responsavel, numero_pessoas, id_mesa, data_reserva, hora_reserva, observacao FROM Reserva";
+
+    private Reserva mapearReserva(ResultSet rs) throws SQLException {
+        return new Reserva(
+                rs.getInt("id_reserva"),
+                rs.getString("nome_responsavel"),
+                rs.getInt("numero_pessoas"),
+                rs.getInt("id_mesa"),
+                rs.getDate("data_reserva").toLocalDate(),
+                rs.getTime("hora_reserva").toLocalTime(),
+                rs.getString("observacao")
+        );
+    }
 
     public Reserva inserir(Reserva reserva, Connection conn) throws SQLException {
         String sql = "INSERT INTO Reserva (nome_responsavel, numero_pessoas, id_mesa, data_reserva, hora_reserva, observacao) VALUES (?, ?, ?, ?, ?, ?)";
@@ -45,10 +68,31 @@ public class ReservaDAO {
                 }
             }
         }
-        System.out.println("Reserva ID " + reserva.getIdReserva() + " inserida para " + reserva.getNomeResponsavel());
+        log.debug("Reserva ID {} inserida para {}", reserva.getIdReserva(), reserva.getNomeResponsavel());
         return reserva;
     }
 
+    // Insere várias reservas com INSERTs de várias linhas e preenche os ids gerados (na mesma ordem da lista).
+    public void inserirEmLote(List<Reserva> reservas, Connection conn) throws SQLException {
+        if (reservas.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = InsercaoEmLote.inserirComChaves(
+                "INSERT INTO Reserva (nome_responsavel, numero_pessoas, id_mesa, data_reserva, hora_reserva, observacao)", 6, reservas,
+                (stmt, i, reserva) -> {
+                    stmt.setString(i, reserva.getNomeResponsavel());
+                    stmt.setInt(i + 1, reserva.getNumeroPessoas());
+                    stmt.setInt(i + 2, reserva.getIdMesa());
+                    stmt.setDate(i + 3, Date.valueOf(reserva.getDataReserva()));
+                    stmt.setTime(i + 4, Time.valueOf(reserva.getHoraReserva()));
+                    stmt.setString(i + 5, reserva.getObservacao());
+                }, conn);
+        for (int r = 0; r < reservas.size(); r++) {
+            reservas.get(r).setIdReserva(ids.get(r));
+        }
+        log.debug("{} reservas inseridas em lote.", reservas.size());
+    }
+
     public boolean atualizar(Reserva reserva, Connection conn) throws SQLException {
         String sql = "UPDATE Reserva SET nome_responsavel = ?, numero_pessoas = ?, id_mesa = ?, data_reserva = ?, hora_reserva = ?, observacao = ? WHERE id_reserva = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -62,7 +106,7 @@ public class ReservaDAO {
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Reserva ID " + reserva.getIdReserva() + " atualizada.");
+                log.debug("Reserva ID {} atualizada.", reserva.getIdReserva());
             }
             return affectedRows > 0;
         }
@@ -74,28 +118,20 @@ public class ReservaDAO {
             stmt.setInt(1, idReserva);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
-                System.out.println("Reserva ID " + idReserva + " deletada.");
+                log.debug("Reserva ID {} deletada.", idReserva);
             }
             return affectedRows > 0;
         }
     }
 
     public Reserva buscarPorId(int idReserva, Connection conn) throws SQLException {
-        String sql = "SELECT id_reserva, nome_responsavel, numero_pessoas, id_mesa, data_reserva, hora_reserva, observacao FROM Reserva WHERE id_reserva = ?";
+        String sql = SQL_SELECT_RESERVA + " WHERE id_reserva = ?";
         Reserva reserva = null;
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, idReserva);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    reserva = new Reserva(
-                            rs.getInt("id_reserva"),
-                            rs.getString("nome_responsavel"),
-                            rs.getInt("numero_pessoas"),
-                            rs.getInt("id_mesa"),
-                            rs.getDate("data_reserva").toLocalDate(),
-                            rs.getTime("hora_reserva").toLocalTime(),
-                            rs.getString("observacao")
-                    );
+                    reserva = mapearReserva(rs);
                 }
             }
         }
@@ -110,19 +146,11 @@ public class ReservaDAO {
 
     public List<Reserva> listarTodos(Connection conn) throws SQLException {
         List<Reserva> lista = new ArrayList<>();
-        String sql = "SELECT id_reserva, nome_responsavel, numero_pessoas, id_mesa, data_reserva, hora_reserva, observacao FROM Reserva ORDER BY data_reserva, hora_reserva";
+        String sql = SQL_SELECT_RESERVA + " ORDER BY data_reserva, hora_reserva";
         try (PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                lista.add(new Reserva(
-                        rs.getInt("id_reserva"),
-                        rs.getString("nome_responsavel"),
-                        rs.getInt("numero_pessoas"),
-                        rs.getInt("id_mesa"),
-                        rs.getDate("data_reserva").toLocalDate(),
-                        rs.getTime("hora_reserva").toLocalTime(),
-                        rs.getString("observacao")
-                ));
+                lista.add(mapearReserva(rs));
             }
         }
         return lista;
@@ -134,43 +162,160 @@ public class ReservaDAO {
         }
     }
 
-    public boolean verificarConflito(int idMesa, LocalDate dataReserva, LocalTime horaReserva, int idReservaExcluir, Connection conn) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM Reserva " +
-                "WHERE id_mesa = ? AND data_reserva = ? " +
-                "AND id_reserva != ? " +
-                "AND hora_reserva < ADDTIME(?, SEC_TO_TIME(? * 60)) " +
-                "AND ADDTIME(hora_reserva, SEC_TO_TIME(? * 60)) > ? ";
-
+    // Reservas de uma data em diante, para a carga do índice de reservas em memória.
+    public List<Reserva> listarAPartirDe(LocalDate data, Connection conn) throws SQLException {
+        List<Reserva> lista = new ArrayList<>();
+        String sql = SQL_SELECT_RESERVA + " WHERE data_reserva >= ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, idMesa);
-            stmt.setDate(2, Date.valueOf(dataReserva));
-            stmt.setInt(3, idReservaExcluir);
+            stmt.setDate(1, Date.valueOf(data));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearReserva(rs));
+                }
+            }
+        }
+        return lista;
+    }
 
-            stmt.setTime(4, Time.valueOf(horaReserva));
-            stmt.setInt(5, DURACAO_RESERVA_MINUTOS);
+    // Reservas das mesas e datas informadas, numa única consulta, para checar em memória os conflitos de um lote.
+    // Filtra por data_reserva IN (...) e id_mesa IN (...): pode trazer combinações (mesa, data) que o chamador
+    // não pediu, que ele simplesmente ignora. Leitura com FOR UPDATE, como em verificarConflito: deve ser
+    // chamada com as mesas já travadas por MesaDAO.bloquearParaReserva.
+    public List<Reserva> listarPorMesasEDatas(Collection<Integer> idsMesas, Collection<LocalDate> datas, Connection conn) throws SQLException {
+        List<Reserva> lista = new ArrayList<>();
+        if (idsMesas.isEmpty() || datas.isEmpty()) {
+            return lista;
+        }
+        StringBuilder sql = new StringBuilder(SQL_SELECT_RESERVA).append(" WHERE data_reserva IN (");
+        for (int i = 0; i < datas.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") AND id_mesa IN (");
+        for (int i = 0; i < idsMesas.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") FOR UPDATE");
 
-            stmt.setInt(6, DURACAO_RESERVA_MINUTOS);
-            stmt.setTime(7, Time.valueOf(horaReserva));
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int indice = 1;
+            for (LocalDate data : datas) {
+                stmt.setDate(indice++, Date.valueOf(data));
+            }
+            for (Integer idMesa : idsMesas) {
+                stmt.setInt(indice++, idMesa);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearReserva(rs));
+                }
+            }
+        }
+        return lista;
+    }
 
+    // Reservas de um período [dataInicial, dataFinal] (datas inclusivas), opcionalmente de uma mesa,
+    // em ordem de data/hora. Range scan em idx_reserva_data_hora: o custo é proporcional às reservas do período.
+    public List<Reserva> listarPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Integer idMesa, Connection conn) throws SQLException {
+        StringBuilder sql = new StringBuilder(SQL_SELECT_RESERVA).append(" WHERE data_reserva >= ? AND data_reserva <= ?");
+        if (idMesa != null) {
+            sql.append(" AND id_mesa = ?");
+        }
+        sql.append(" ORDER BY data_reserva, hora_reserva, id_reserva");
+
+        List<Reserva> lista = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            stmt.setDate(1, Date.valueOf(dataInicial));
+            stmt.setDate(2, Date.valueOf(dataFinal));
+            if (idMesa != null) {
+                stmt.setInt(3, idMesa);
+            }
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
+                while (rs.next()) {
+                    lista.add(mapearReserva(rs));
                 }
             }
         }
-        return false;
+        return lista;
     }
 
-    public boolean verificarConflito(int idMesa, LocalDate dataReserva, LocalTime horaReserva, int idReservaExcluir) throws SQLException {
+    public List<Reserva> listarPorPeriodo(LocalDate dataInicial, LocalDate dataFinal, Integer idMesa) throws SQLException {
         try (Connection conn = ConnectionFactory.getConnection()) {
-            return verificarConflito(idMesa, dataReserva, horaReserva, idReservaExcluir, conn);
+            return listarPorPeriodo(dataInicial, dataFinal, idMesa, conn);
+        }
+    }
+
+    // Listagem paginada por cursor (keyset) sobre (data_reserva, hora_reserva, id_reserva), em ordem cronológica.
+    // A próxima página começa logo depois da última reserva retornada, sem OFFSET. Filtros nulos são ignorados.
+    public List<Reserva> listarPagina(Integer idMesa, LocalDate dataInicial, LocalDate dataFinal,
+                                      LocalDate cursorData, LocalTime cursorHora, Integer cursorIdReserva,
+                                      int limite, Connection conn) throws SQLException {
+        StringBuilder sql = new StringBuilder(SQL_SELECT_RESERVA).append(" WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
+
+        if (idMesa != null) {
+            sql.append(" AND id_mesa = ?");
+            parametros.add(idMesa);
+        }
+        if (dataInicial != null) {
+            sql.append(" AND data_reserva >= ?");
+            parametros.add(Date.valueOf(dataInicial));
+        }
+        if (dataFinal != null) {
+            sql.append(" AND data_reserva <= ?");
+            parametros.add(Date.valueOf(dataFinal));
+        }
+        if (cursorData != null && cursorHora != null && cursorIdReserva != null) {
+            sql.append(" AND (data_reserva > ? OR (data_reserva = ? AND (hora_reserva > ? OR (hora_reserva = ? AND id_reserva > ?))))");
+            parametros.add(Date.valueOf(cursorData));
+            parametros.add(Date.valueOf(cursorData));
+            parametros.add(Time.valueOf(cursorHora));
+            parametros.add(Time.valueOf(cursorHora));
+            parametros.add(cursorIdReserva);
+        }
+        sql.append(" ORDER BY data_reserva, hora_reserva, id_reserva LIMIT ?");
+        parametros.add(limite);
+
+        List<Reserva> lista = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setObject(i + 1, parametros.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearReserva(rs));
+                }
+            }
+        }
+        return lista;
+    }
+
+    // Checagem de conflito no banco, dentro da transação de escrita e depois de MesaDAO.bloquearParaReserva:
+    // lê as reservas da mesa no dia com FOR UPDATE (leitura travada, que enxerga o último commit e não o
+    // snapshot da transação) e compara os horários aqui, com a mesma regra do IndiceReservas.
+    // É a garantia entre instâncias e contra um índice em memória desatualizado.
+    public boolean verificarConflito(int idMesa, LocalDate dataReserva, LocalTime horaReserva, int idReservaExcluir, Connection conn) throws SQLException {
+        String sql = "SELECT id_reserva, hora_reserva FROM Reserva WHERE id_mesa = ? AND data_reserva = ? FOR UPDATE";
+        int inicio = horaReserva.toSecondOfDay();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, idMesa);
+            stmt.setDate(2, Date.valueOf(dataReserva));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getInt("id_reserva") != idReservaExcluir
+                            && Math.abs(rs.getTime("hora_reserva").toLocalTime().toSecondOfDay() - inicio) < DURACAO_RESERVA_MINUTOS * 60) {
+                        return true;
+                    }
+                }
+            }
         }
+        return false;
     }
 
     // --- NOVOS MÉTODOS PARA DASHBOARD ---
     public int countReservasParaData(LocalDate data, Connection conn) throws SQLException {
         String sql = "SELECT COUNT(id_reserva) FROM Reserva WHERE data_reserva = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
             stmt.setDate(1, Date.valueOf(data));
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -184,6 +329,7 @@ public class ReservaDAO {
     public int sumPessoasReservasParaData(LocalDate data, Connection conn) throws SQLException {
         String sql = "SELECT SUM(numero_pessoas) FROM Reserva WHERE data_reserva = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            PrazoConsulta.aplicar(stmt);
             stmt.setDate(1, Date.valueOf(data));
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -0,0 +1,189 @@
+package johnygastrobar.dao;
+
+import johnygastrobar.model.Pagamento;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+import johnygastrobar.util.InsercaoEmLote;
+
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+// Tabelas de resumo diário de vendas, lidas pelo dashboard no lugar de Pedido/Pedido_Item/Pagamento_realiza.
+// Resumo_Vendas_Dia: uma linha por dia com contagem de pedidos por status, unidades, valores e pagamentos.
+// Resumo_Vendas_Item_Dia: uma linha por dia e item com quantidade e faturamento.
+// O dia de um pedido é o de data_hora; o de um pagamento é o de data_pagamento.
+// As tabelas são criadas pela migração V3__resumo_vendas.sql.
+@Repository
+public class ResumoVendasDAO {
+
+    private static final String SQL_SOMAR_DIA = "INSERT INTO Resumo_Vendas_Dia " +
+            "(dia, pedidos_criados, pedidos_pendentes, pedidos_entregues_nao_pagos, pedidos_pagos_nao_entregues, pedidos_entregues_pagos, " +
+            "unidades_vendidas, valor_itens, valor_pedidos, pagamentos, valor_pagamentos) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "pedidos_criados = pedidos_criados + VALUES(pedidos_criados), " +
+            "pedidos_pendentes = pedidos_pendentes + VALUES(pedidos_pendentes), " +
+            "pedidos_entregues_nao_pagos = pedidos_entregues_nao_pagos + VALUES(pedidos_entregues_nao_pagos), " +
+            "pedidos_pagos_nao_entregues = pedidos_pagos_nao_entregues + VALUES(pedidos_pagos_nao_entregues), " +
+            "pedidos_entregues_pagos = pedidos_entregues_pagos + VALUES(pedidos_entregues_pagos), " +
+            "unidades_vendidas = unidades_vendidas + VALUES(unidades_vendidas), " +
+            "valor_itens = valor_itens + VALUES(valor_itens), " +
+            "valor_pedidos = valor_pedidos + VALUES(valor_pedidos), " +
+            "pagamentos = pagamentos + VALUES(pagamentos), " +
+            "valor_pagamentos = valor_pagamentos + VALUES(valor_pagamentos)";
+
+    // Gravado com InsercaoEmLote: um INSERT de várias linhas por pedido, não um por item.
+    private static final String SQL_INSERIR_ITEM_DIA = "INSERT INTO Resumo_Vendas_Item_Dia (dia, id_item, quantidade, faturamento)";
+    private static final String SQL_SOMAR_ITEM_DIA_EXISTENTE =
+            "ON DUPLICATE KEY UPDATE quantidade = quantidade + VALUES(quantidade), faturamento = faturamento + VALUES(faturamento)";
+
+    // --- ATUALIZAÇÃO INCREMENTAL (dentro da transação de quem escreveu) ---
+
+    // Soma (sinal = 1) ou retira (sinal = -1) a contribuição de um pedido no resumo do seu dia.
+    // Os incrementos são comutativos, então transações concorrentes no mesmo dia não perdem atualizações.
+    public void aplicarPedido(Pedido pedido, int sinal, Connection conn) throws SQLException {
+        Date dia = Date.valueOf(pedido.getDataHora().toLocalDate());
+        BigDecimal fator = BigDecimal.valueOf(sinal);
+        int unidades = 0;
+        for (PedidoItem item : pedido.getItensDoPedido()) {
+            unidades += item.getQuantidade();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_SOMAR_DIA)) {
+            stmt.setDate(1, dia);
+            stmt.setInt(2, sinal);
+            stmt.setInt(3, !pedido.isEntregue() && !pedido.isPago() ? sinal : 0);
+            stmt.setInt(4, pedido.isEntregue() && !pedido.isPago() ? sinal : 0);
+            stmt.setInt(5, !pedido.isEntregue() && pedido.isPago() ? sinal : 0);
+            stmt.setInt(6, pedido.isEntregue() && pedido.isPago() ? sinal : 0);
+            stmt.setInt(7, unidades * sinal);
+            stmt.setBigDecimal(8, pedido.getValorTotalSemDesconto().multiply(fator));
+            stmt.setBigDecimal(9, pedido.getValorTotalComDesconto().multiply(fator));
+            stmt.setInt(10, 0);
+            stmt.setBigDecimal(11, BigDecimal.ZERO);
+            stmt.executeUpdate();
+        }
+
+        if (pedido.getItensDoPedido().isEmpty()) {
+            return;
+        }
+        InsercaoEmLote.inserir(SQL_INSERIR_ITEM_DIA, 4, SQL_SOMAR_ITEM_DIA_EXISTENTE, pedido.getItensDoPedido(),
+                (stmt, i, item) -> {
+                    stmt.setDate(i, dia);
+                    stmt.setInt(i + 1, item.getIdItem());
+                    stmt.setInt(i + 2, item.getQuantidade() * sinal);
+                    stmt.setBigDecimal(i + 3, item.getSubtotal().multiply(fator));
+                }, conn);
+    }
+
+    public void aplicarPagamento(Pagamento pagamento, int sinal, Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_SOMAR_DIA)) {
+            stmt.setDate(1, Date.valueOf(pagamento.getDataPagamento().toLocalDate()));
+            for (int i = 2; i <= 7; i++) {
+                stmt.setInt(i, 0);
+            }
+            stmt.setBigDecimal(8, BigDecimal.ZERO);
+            stmt.setBigDecimal(9, BigDecimal.ZERO);
+            stmt.setInt(10, sinal);
+            stmt.setBigDecimal(11, pagamento.getValorTotal().multiply(BigDecimal.valueOf(sinal)));
+            stmt.executeUpdate();
+        }
+    }
+
+    // --- RECONSTRUÇÃO (backfill) ---
+
+    // Recalcula os resumos de [dataInicial, dataFinal] a partir das tabelas de origem, de forma set-based.
+    // Deve rodar numa transação: as linhas do período são apagadas e reinseridas.
+    public void reconstruirPeriodo(LocalDate dataInicial, LocalDate dataFinal, Connection conn) throws SQLException {
+        Timestamp inicio = Timestamp.valueOf(dataInicial.atStartOfDay());
+        Timestamp fimExclusivo = Timestamp.valueOf(dataFinal.plusDays(1).atStartOfDay());
+
+        for (String tabela : new String[] {"Resumo_Vendas_Dia", "Resumo_Vendas_Item_Dia"}) {
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + tabela + " WHERE dia BETWEEN ? AND ?")) {
+                stmt.setDate(1, Date.valueOf(dataInicial));
+                stmt.setDate(2, Date.valueOf(dataFinal));
+                stmt.executeUpdate();
+            }
+        }
+
+        // valor_pedidos reproduz Pedido.getValorTotalComDesconto(): desconto percentual em (0, 100], arredondado a 2 casas.
+        String sqlPedidos = "INSERT INTO Resumo_Vendas_Dia " +
+                "(dia, pedidos_criados, pedidos_pendentes, pedidos_entregues_nao_pagos, pedidos_pagos_nao_entregues, pedidos_entregues_pagos, " +
+                "unidades_vendidas, valor_itens, valor_pedidos) " +
+                "SELECT DATE(p.data_hora), COUNT(*), " +
+                "SUM(NOT p.entregue AND NOT p.pago), SUM(p.entregue AND NOT p.pago), " +
+                "SUM(NOT p.entregue AND p.pago), SUM(p.entregue AND p.pago), " +
+                "COALESCE(SUM(t.unidades), 0), COALESCE(SUM(t.valor), 0), " +
+                "COALESCE(SUM(CASE WHEN p.desconto > 0 AND p.desconto <= 100 " +
+                "THEN ROUND(COALESCE(t.valor, 0) * (1 - ROUND(p.desconto / 100, 2)), 2) " +
+                "ELSE ROUND(COALESCE(t.valor, 0), 2) END), 0) " +
+                "FROM Pedido p " +
+                "LEFT JOIN (SELECT pi.id_pedido, SUM(pi.quantidade) AS unidades, SUM(pi.quantidade * pi.preco_unitario) AS valor " +
+                "FROM Pedido_Item pi JOIN Pedido px ON px.id_pedido = pi.id_pedido " +
+                "WHERE px.data_hora >= ? AND px.data_hora < ? GROUP BY pi.id_pedido) t ON t.id_pedido = p.id_pedido " +
+                "WHERE p.data_hora >= ? AND p.data_hora < ? " +
+                "GROUP BY DATE(p.data_hora)";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlPedidos)) {
+            stmt.setTimestamp(1, inicio);
+            stmt.setTimestamp(2, fimExclusivo);
+            stmt.setTimestamp(3, inicio);
+            stmt.setTimestamp(4, fimExclusivo);
+            stmt.executeUpdate();
+        }
+
+        String sqlPagamentos = "INSERT INTO Resumo_Vendas_Dia (dia, pagamentos, valor_pagamentos) " +
+                "SELECT DATE(data_pagamento), COUNT(*), SUM(valor_total) FROM Pagamento_realiza " +
+                "WHERE data_pagamento >= ? AND data_pagamento < ? " +
+                "GROUP BY DATE(data_pagamento) " +
+                "ON DUPLICATE KEY UPDATE pagamentos = VALUES(pagamentos), valor_pagamentos = VALUES(valor_pagamentos)";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlPagamentos)) {
+            stmt.setTimestamp(1, inicio);
+            stmt.setTimestamp(2, fimExclusivo);
+            stmt.executeUpdate();
+        }
+
+        String sqlItens = "INSERT INTO Resumo_Vendas_Item_Dia (dia, id_item, quantidade, faturamento) " +
+                "SELECT DATE(p.data_hora), pi.id_item, SUM(pi.quantidade), SUM(pi.quantidade * pi.preco_unitario) " +
+                "FROM Pedido_Item pi JOIN Pedido p ON pi.id_pedido = p.id_pedido " +
+                "WHERE p.data_hora >= ? AND p.data_hora < ? " +
+                "GROUP BY DATE(p.data_hora), pi.id_item";
+        try (PreparedStatement stmt = conn.prepareStatement(sqlItens)) {
+            stmt.setTimestamp(1, inicio);
+            stmt.setTimestamp(2, fimExclusivo);
+            stmt.executeUpdate();
+        }
+    }
+
+    public boolean estaVazio(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM Resumo_Vendas_Dia LIMIT 1")) {
+            return !rs.next();
+        }
+    }
+
+    // Primeiro e último dia com pedidos ou pagamentos; null se não houver histórico.
+    public LocalDate[] buscarPeriodoDoHistorico(Connection conn) throws SQLException {
+        String sql = "SELECT MIN(dia), MAX(dia) FROM (" +
+                "SELECT MIN(data_hora) AS dia FROM Pedido UNION ALL SELECT MAX(data_hora) FROM Pedido " +
+                "UNION ALL SELECT MIN(data_pagamento) FROM Pagamento_realiza UNION ALL SELECT MAX(data_pagamento) FROM Pagamento_realiza) d";
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next() && rs.getTimestamp(1) != null) {
+                return new LocalDate[] {
+                        rs.getTimestamp(1).toLocalDateTime().toLocalDate(),
+                        rs.getTimestamp(2).toLocalDateTime().toLocalDate()
+                };
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,12 @@
+package johnygastrobar.exception;
+
+// O recurso foi alterado por outra requisição entre a leitura e a escrita (versão diferente da esperada).
+public class ConflitoConcorrenciaException extends ServiceException {
+    public ConflitoConcorrenciaException(String message) {
+        super(message);
+    }
+
+    public ConflitoConcorrenciaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,7 @@
 package johnygastrobar.exception;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,12 +15,14 @@ import org.springframework.web.context.request.WebRequest;
 @ControllerAdvice // Esta anotação torna a classe um manipulador global de exceções
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     // Manipulador para ResourceNotFoundException
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Object> handleResourceNotFoundException(
             ResourceNotFoundException ex, WebRequest request) {
 
-        System.err.println("ResourceNotFoundException: " + ex.getMessage()); // Log do erro no servidor
+        log.info("ResourceNotFoundException: {}", ex.getMessage()); // Log do erro no servidor
 
         // Corpo da resposta de erro simples (apenas a mensagem da exceção)
         // String responseBody = ex.getMessage();
@@ -33,14 +37,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    // Manipulador para ConflitoConcorrenciaException (pedido alterado por outra requisição entre a leitura e a escrita)
+    @ExceptionHandler(ConflitoConcorrenciaException.class)
+    public ResponseEntity<Object> handleConflitoConcorrenciaException(
+            ConflitoConcorrenciaException ex, WebRequest request) {
+
+        log.info("ConflitoConcorrenciaException: {}", ex.getMessage());
+
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT); // 409: o cliente deve reler o pedido e tentar de novo
+    }
+
     // Manipulador para ServiceException (erros de negócio ou acesso a dados não específicos)
     @ExceptionHandler(ServiceException.class)
     public ResponseEntity<Object> handleServiceException(
             ServiceException ex, WebRequest request) {
 
-        System.err.println("ServiceException: " + ex.getMessage());
         if (ex.getCause() != null) {
-            System.err.println("Causa: " + ex.getCause().getMessage());
+            log.warn("ServiceException: {} (causa: {})", ex.getMessage(), ex.getCause().getMessage());
+        } else {
+            log.warn("ServiceException: {}", ex.getMessage());
         }
 
         ApiErrorResponse errorResponse = new ApiErrorResponse(
@@ -60,7 +80,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Object> handleIllegalArgumentException(
             IllegalArgumentException ex, WebRequest request) {
 
-        System.err.println("IllegalArgumentException: " + ex.getMessage());
+        log.info("IllegalArgumentException: {}", ex.getMessage());
 
         ApiErrorResponse errorResponse = new ApiErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
@@ -76,8 +96,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Object> handleGenericException(
             Exception ex, WebRequest request) {
 
-        System.err.println("Exception Genérica: " + ex.getMessage());
-        ex.printStackTrace(); // Importante para depurar erros inesperados
+        log.error("Exception Genérica: {}", ex.getMessage(), ex); // stack trace é importante para depurar erros inesperados
 
         ApiErrorResponse errorResponse = new ApiErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
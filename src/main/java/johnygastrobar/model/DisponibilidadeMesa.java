@@ -0,0 +1,63 @@
+package johnygastrobar.model;
+
+import java.time.LocalTime;
+import java.util.List;
+
+// Horários de início livres de uma mesa numa data (GET /api/reservas/disponibilidade).
+public class DisponibilidadeMesa {
+    private int idMesa;
+    private int capacidade;
+    private String localizacao;
+    private List<LocalTime> horariosLivres;
+
+    public DisponibilidadeMesa(int idMesa, int capacidade, String localizacao, List<LocalTime> horariosLivres) {
+        this.idMesa = idMesa;
+        this.capacidade = capacidade;
+        this.localizacao = localizacao;
+        this.horariosLivres = horariosLivres;
+    }
+
+    // Getters
+    public int getIdMesa() {
+        return idMesa;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public String getLocalizacao() {
+        return localizacao;
+    }
+
+    public List<LocalTime> getHorariosLivres() {
+        return horariosLivres;
+    }
+
+    // Setters
+    public void setIdMesa(int idMesa) {
+        this.idMesa = idMesa;
+    }
+
+    public void setCapacidade(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public void setLocalizacao(String localizacao) {
+        this.localizacao = localizacao;
+    }
+
+    public void setHorariosLivres(List<LocalTime> horariosLivres) {
+        this.horariosLivres = horariosLivres;
+    }
+
+    @Override
+    public String toString() {
+        return "DisponibilidadeMesa{" +
+                "idMesa=" + idMesa +
+                ", capacidade=" + capacidade +
+                ", localizacao='" + localizacao + '\'' +
+                ", horariosLivres=" + horariosLivres +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package johnygastrobar.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Evento enviado às telas da cozinha/bar (GET /api/pedidos/eventos) quando um pedido muda.
+// Cada evento carrega o estado atual do pedido visto pela estação (só os itens dela), então
+// aplicar o mesmo evento duas vezes não muda o resultado.
+public class EventoPedido {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        PAGO,
+        REMOVIDO
+    }
+
+    // Estação que recebe o evento: a cozinha vê os itens que não são do bar, o bar só os dele.
+    public enum Estacao {
+        TODAS,
+        COZINHA,
+        BAR
+    }
+
+    private long sequencia;
+    private Tipo tipo;
+    private int idPedido;
+    private int idMesa;
+    private boolean entregue;
+    private boolean pago;
+    private LocalDateTime momento;
+    private List<Pedido.PedidoItem> itens; // vazio em REMOVIDO
+
+    public EventoPedido(long sequencia, Tipo tipo, int idPedido, int idMesa, boolean entregue, boolean pago,
+                        LocalDateTime momento, List<Pedido.PedidoItem> itens) {
+        this.sequencia = sequencia;
+        this.tipo = tipo;
+        this.idPedido = idPedido;
+        this.idMesa = idMesa;
+        this.entregue = entregue;
+        this.pago = pago;
+        this.momento = momento;
+        this.itens = itens;
+    }
+
+    // Getters
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public int getIdPedido() {
+        return idPedido;
+    }
+
+    public int getIdMesa() {
+        return idMesa;
+    }
+
+    public boolean isEntregue() {
+        return entregue;
+    }
+
+    public boolean isPago() {
+        return pago;
+    }
+
+    public LocalDateTime getMomento() {
+        return momento;
+    }
+
+    public List<Pedido.PedidoItem> getItens() {
+        return itens;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoPedido{" +
+                "sequencia=" + sequencia +
+                ", tipo=" + tipo +
+                ", idPedido=" + idPedido +
+                ", itens=" + (itens != null ? itens.size() : 0) +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package johnygastrobar.model;
+
+import java.math.BigDecimal;
+
+// Um grupo ("balde") de pedidos de um período, agregado por uma dimensão.
+public class FacetaPedidos {
+
+    // Dimensões pelas quais os pedidos podem ser agrupados.
+    public enum Dimensao {
+        STATUS,  // PENDENTE, ENTREGUE_NAO_PAGO, PAGO_NAO_ENTREGUE, ENTREGUE_PAGO
+        MESA,    // id_mesa
+        GARCOM,  // id_garcom (null para pedidos sem garçom)
+        DIA,     // data do pedido (yyyy-MM-dd)
+        HORA     // hora do dia (0-23)
+    }
+
+    private String chave;
+    private int quantidadePedidos;
+    private int unidadesVendidas;
+    private BigDecimal valorBruto; // Soma de quantidade * preço unitário, sem desconto
+
+    public FacetaPedidos(String chave, int quantidadePedidos, int unidadesVendidas, BigDecimal valorBruto) {
+        this.chave = chave;
+        this.quantidadePedidos = quantidadePedidos;
+        this.unidadesVendidas = unidadesVendidas;
+        this.valorBruto = valorBruto;
+    }
+
+    // Getters
+    public String getChave() {
+        return chave;
+    }
+
+    public int getQuantidadePedidos() {
+        return quantidadePedidos;
+    }
+
+    public int getUnidadesVendidas() {
+        return unidadesVendidas;
+    }
+
+    public BigDecimal getValorBruto() {
+        return valorBruto;
+    }
+
+    // Setters
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public void setQuantidadePedidos(int quantidadePedidos) {
+        this.quantidadePedidos = quantidadePedidos;
+    }
+
+    public void setUnidadesVendidas(int unidadesVendidas) {
+        this.unidadesVendidas = unidadesVendidas;
+    }
+
+    public void setValorBruto(BigDecimal valorBruto) {
+        this.valorBruto = valorBruto;
+    }
+
+    @Override
+    public String toString() {
+        return "FacetaPedidos{" +
+                "chave='" + chave + '\'' +
+                ", quantidadePedidos=" + quantidadePedidos +
+                ", unidadesVendidas=" + unidadesVendidas +
+                ", valorBruto=" + (valorBruto != null ? valorBruto.toPlainString() : "N/A") +
+                '}';
+    }
+}
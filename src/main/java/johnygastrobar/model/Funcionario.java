@@ -1,5 +1,6 @@
 package johnygastrobar.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import java.math.BigDecimal; // IMPORT ADICIONADO
@@ -33,11 +34,14 @@ public class Funcionario {
     private String estado;
     private String cep;
 
+    // Nulos (e omitidos do JSON) quando o funcionário vem da listagem resumida, que não carrega telefones/dependentes.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<String> telefones;
 
     private Integer idSupervisor;
     private String nomeSupervisor;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<Dependente> dependentes;
 
     public Funcionario(int id, String nome, String cpf, BigDecimal salario, LocalDate dataContratacao,
@@ -116,6 +120,10 @@ public class Funcionario {
     public void setNomeSupervisor(String nomeSupervisor) { this.nomeSupervisor = nomeSupervisor; }
     public void setDependentes(List<Dependente> dependentes) { this.dependentes = (dependentes != null) ? dependentes : new ArrayList<>(); }
 
+    // Marca telefones/dependentes como não carregados (listagem resumida).
+    public void omitirTelefones() { this.telefones = null; }
+    public void omitirDependentes() { this.dependentes = null; }
+
     public void addTelefone(String telefone) {
         if (this.telefones == null) this.telefones = new ArrayList<>();
         if (telefone != null && !telefone.trim().isEmpty() && !this.telefones.contains(telefone.trim())) {
@@ -0,0 +1,58 @@
+package johnygastrobar.model;
+
+import java.time.LocalDateTime;
+
+// Total de um item do cardápio que ainda falta entregar, somando os pedidos em aberto
+// (GET /api/pedidos/abertos/itens-nao-entregues).
+public class ItemNaoEntregue {
+    private int idItem;
+    private String nomeItem;
+    private String tipoItem;
+    private int quantidade;
+    private int pedidos;
+    private LocalDateTime pedidoMaisAntigo;
+
+    public ItemNaoEntregue(int idItem, String nomeItem, String tipoItem, int quantidade, int pedidos, LocalDateTime pedidoMaisAntigo) {
+        this.idItem = idItem;
+        this.nomeItem = nomeItem;
+        this.tipoItem = tipoItem;
+        this.quantidade = quantidade;
+        this.pedidos = pedidos;
+        this.pedidoMaisAntigo = pedidoMaisAntigo;
+    }
+
+    // Getters
+    public int getIdItem() {
+        return idItem;
+    }
+
+    public String getNomeItem() {
+        return nomeItem;
+    }
+
+    public String getTipoItem() {
+        return tipoItem;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public int getPedidos() {
+        return pedidos;
+    }
+
+    public LocalDateTime getPedidoMaisAntigo() {
+        return pedidoMaisAntigo;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemNaoEntregue{" +
+                "idItem=" + idItem +
+                ", nome='" + nomeItem + '\'' +
+                ", quantidade=" + quantidade +
+                ", pedidos=" + pedidos +
+                '}';
+    }
+}
@@ -1,5 +1,7 @@
 package johnygastrobar.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal; // IMPORT ADICIONADO
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -11,6 +13,10 @@ public class Pagamento {
     private BigDecimal valorTotal; // ALTERADO PARA BigDecimal
     private String metodoPagamento;
     private LocalDateTime dataPagamento;
+    // Versão do pedido que o caixa viu ao fechar a conta (opcional, só na requisição; não é gravada).
+    // Se o pedido foi editado depois disso, o pagamento é recusado com 409 em vez de cobrar o valor antigo.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer versaoPedido;
 
     public Pagamento(int idPagamento, int idPedido, BigDecimal valorTotal, String metodoPagamento, LocalDateTime dataPagamento) { // TIPO ALTERADO
         this.idPagamento = idPagamento;
@@ -37,6 +43,7 @@ public class Pagamento {
     public BigDecimal getValorTotal() { return valorTotal; } // TIPO ALTERADO
     public String getMetodoPagamento() { return metodoPagamento; }
     public LocalDateTime getDataPagamento() { return dataPagamento; }
+    public Integer getVersaoPedido() { return versaoPedido; }
 
     // Setters
     public void setIdPagamento(int idPagamento) { this.idPagamento = idPagamento; }
@@ -44,6 +51,7 @@ public class Pagamento {
     public void setValorTotal(BigDecimal valorTotal) { this.valorTotal = valorTotal; } // TIPO ALTERADO
     public void setMetodoPagamento(String metodoPagamento) { this.metodoPagamento = metodoPagamento; }
     public void setDataPagamento(LocalDateTime dataPagamento) { this.dataPagamento = dataPagamento; }
+    public void setVersaoPedido(Integer versaoPedido) { this.versaoPedido = versaoPedido; }
 
     @Override
     public String toString() {
@@ -0,0 +1,39 @@
+package johnygastrobar.model;
+
+import java.util.List;
+
+public class PaginaPedidos {
+    private List<Pedido> pedidos;
+    private String proximoCursor; // null quando não há mais páginas
+
+    public PaginaPedidos(List<Pedido> pedidos, String proximoCursor) {
+        this.pedidos = pedidos;
+        this.proximoCursor = proximoCursor;
+    }
+
+    // Getters
+    public List<Pedido> getPedidos() {
+        return pedidos;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    // Setters
+    public void setPedidos(List<Pedido> pedidos) {
+        this.pedidos = pedidos;
+    }
+
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "PaginaPedidos{" +
+                "quantidade=" + (pedidos != null ? pedidos.size() : 0) +
+                ", proximoCursor='" + proximoCursor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package johnygastrobar.model;
+
+import java.util.List;
+
+public class PaginaReservas {
+    private List<Reserva> reservas;
+    private String proximoCursor; // null quando não há mais páginas
+
+    public PaginaReservas(List<Reserva> reservas, String proximoCursor) {
+        this.reservas = reservas;
+        this.proximoCursor = proximoCursor;
+    }
+
+    // Getters
+    public List<Reserva> getReservas() {
+        return reservas;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    // Setters
+    public void setReservas(List<Reserva> reservas) {
+        this.reservas = reservas;
+    }
+
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "PaginaReservas{" +
+                "quantidade=" + (reservas != null ? reservas.size() : 0) +
+                ", proximoCursor='" + proximoCursor + '\'' +
+                '}';
+    }
+}
@@ -17,6 +17,7 @@ public class Pedido {
     private boolean entregue;
     private boolean pago;
     private BigDecimal desconto; // ALTERADO PARA BigDecimal
+    private Integer versao; // Controle de concorrência otimista; null no corpo = versão lida pelo servidor
 
     private List<PedidoItem> itensDoPedido;
 
@@ -60,6 +61,7 @@ public class Pedido {
     public boolean isEntregue() { return entregue; }
     public boolean isPago() { return pago; }
     public BigDecimal getDesconto() { return desconto; }
+    public Integer getVersao() { return versao; }
     public List<PedidoItem> getItensDoPedido() { return itensDoPedido; }
 
     // Setters
@@ -71,6 +73,7 @@ public class Pedido {
     public void setEntregue(boolean entregue) { this.entregue = entregue; }
     public void setPago(boolean pago) { this.pago = pago; }
     public void setDesconto(BigDecimal desconto) { this.desconto = desconto; }
+    public void setVersao(Integer versao) { this.versao = versao; }
     public void setItensDoPedido(List<PedidoItem> itensDoPedido) {
         this.itensDoPedido = (itensDoPedido != null) ? itensDoPedido : new ArrayList<>();
     }
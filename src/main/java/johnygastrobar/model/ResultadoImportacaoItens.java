@@ -0,0 +1,72 @@
+package johnygastrobar.model;
+
+import java.util.List;
+
+// Resultado da importação do cardápio: quantos itens foram criados, alterados ou já estavam iguais,
+// e as linhas recusadas com o motivo.
+public class ResultadoImportacaoItens {
+    private int inseridos;
+    private int atualizados;
+    private int inalterados;
+    private List<LinhaRecusada> recusadas;
+
+    public ResultadoImportacaoItens(int inseridos, int atualizados, int inalterados, List<LinhaRecusada> recusadas) {
+        this.inseridos = inseridos;
+        this.atualizados = atualizados;
+        this.inalterados = inalterados;
+        this.recusadas = recusadas;
+    }
+
+    // Linha não importada. 'linha' é a posição no arquivo: no CSV conta o cabeçalho como linha 1,
+    // no JSON é a posição no array a partir de 1.
+    public static class LinhaRecusada {
+        private int linha;
+        private String nome;
+        private String motivo;
+
+        public LinhaRecusada(int linha, String nome, String motivo) {
+            this.linha = linha;
+            this.nome = nome;
+            this.motivo = motivo;
+        }
+
+        public int getLinha() {
+            return linha;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+    }
+
+    // Getters
+    public int getInseridos() {
+        return inseridos;
+    }
+
+    public int getAtualizados() {
+        return atualizados;
+    }
+
+    public int getInalterados() {
+        return inalterados;
+    }
+
+    public List<LinhaRecusada> getRecusadas() {
+        return recusadas;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoImportacaoItens{" +
+                "inseridos=" + inseridos +
+                ", atualizados=" + atualizados +
+                ", inalterados=" + inalterados +
+                ", recusadas=" + (recusadas != null ? recusadas.size() : 0) +
+                '}';
+    }
+}
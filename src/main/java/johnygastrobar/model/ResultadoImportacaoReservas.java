@@ -0,0 +1,73 @@
+package johnygastrobar.model;
+
+import java.util.List;
+
+// Resultado da importação de reservas com mesa definida: uma linha por reserva enviada, na mesma ordem,
+// dizendo se foi aceita (com o id gravado) ou recusada (com o motivo).
+public class ResultadoImportacaoReservas {
+    private List<LinhaReserva> linhas;
+    private int aceitas;
+    private int recusadas;
+
+    public ResultadoImportacaoReservas(List<LinhaReserva> linhas) {
+        this.linhas = linhas;
+        for (LinhaReserva linha : linhas) {
+            if (linha.isAceita()) {
+                aceitas++;
+            } else {
+                recusadas++;
+            }
+        }
+    }
+
+    public static class LinhaReserva {
+        private int indice;
+        private boolean aceita;
+        private Reserva reserva;
+        private String motivo;
+
+        public LinhaReserva(int indice, boolean aceita, Reserva reserva, String motivo) {
+            this.indice = indice;
+            this.aceita = aceita;
+            this.reserva = reserva;
+            this.motivo = motivo;
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public boolean isAceita() {
+            return aceita;
+        }
+
+        public Reserva getReserva() {
+            return reserva;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+    }
+
+    // Getters
+    public List<LinhaReserva> getLinhas() {
+        return linhas;
+    }
+
+    public int getAceitas() {
+        return aceitas;
+    }
+
+    public int getRecusadas() {
+        return recusadas;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoImportacaoReservas{" +
+                "aceitas=" + aceitas +
+                ", recusadas=" + recusadas +
+                '}';
+    }
+}
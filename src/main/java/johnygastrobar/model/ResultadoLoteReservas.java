@@ -0,0 +1,74 @@
+package johnygastrobar.model;
+
+import java.util.List;
+
+// Resultado da alocação em lote: reservas gravadas (já com a mesa escolhida) e solicitações que não couberam.
+public class ResultadoLoteReservas {
+    private List<Reserva> reservas;
+    private List<NaoAlocada> naoAlocadas;
+    private int pessoasAcomodadas;
+    private int pessoasNaoAcomodadas;
+
+    public ResultadoLoteReservas(List<Reserva> reservas, List<NaoAlocada> naoAlocadas) {
+        this.reservas = reservas;
+        this.naoAlocadas = naoAlocadas;
+        for (Reserva reserva : reservas) {
+            pessoasAcomodadas += reserva.getNumeroPessoas();
+        }
+        for (NaoAlocada naoAlocada : naoAlocadas) {
+            pessoasNaoAcomodadas += naoAlocada.getSolicitacao().getNumeroPessoas();
+        }
+    }
+
+    // Solicitação não atendida, com sua posição na lista enviada e o motivo.
+    public static class NaoAlocada {
+        private int indice;
+        private SolicitacaoReserva solicitacao;
+        private String motivo;
+
+        public NaoAlocada(int indice, SolicitacaoReserva solicitacao, String motivo) {
+            this.indice = indice;
+            this.solicitacao = solicitacao;
+            this.motivo = motivo;
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public SolicitacaoReserva getSolicitacao() {
+            return solicitacao;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+    }
+
+    // Getters
+    public List<Reserva> getReservas() {
+        return reservas;
+    }
+
+    public List<NaoAlocada> getNaoAlocadas() {
+        return naoAlocadas;
+    }
+
+    public int getPessoasAcomodadas() {
+        return pessoasAcomodadas;
+    }
+
+    public int getPessoasNaoAcomodadas() {
+        return pessoasNaoAcomodadas;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoLoteReservas{" +
+                "reservas=" + (reservas != null ? reservas.size() : 0) +
+                ", naoAlocadas=" + (naoAlocadas != null ? naoAlocadas.size() : 0) +
+                ", pessoasAcomodadas=" + pessoasAcomodadas +
+                ", pessoasNaoAcomodadas=" + pessoasNaoAcomodadas +
+                '}';
+    }
+}
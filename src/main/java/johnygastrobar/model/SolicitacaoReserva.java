@@ -0,0 +1,89 @@
+package johnygastrobar.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Pedido de reserva sem mesa definida, para a alocação em lote (POST /api/reservas/lote).
+public class SolicitacaoReserva {
+    private String nomeResponsavel;
+    private int numeroPessoas;
+    private LocalDate dataReserva;
+    private LocalTime horaReserva;
+    private String localizacaoPreferida; // opcional; se nenhuma mesa livre tiver essa localização, usa outra
+    private String observacao;
+
+    public SolicitacaoReserva(String nomeResponsavel, int numeroPessoas, LocalDate dataReserva, LocalTime horaReserva,
+                              String localizacaoPreferida, String observacao) {
+        this.nomeResponsavel = nomeResponsavel;
+        this.numeroPessoas = numeroPessoas;
+        this.dataReserva = dataReserva;
+        this.horaReserva = horaReserva;
+        this.localizacaoPreferida = localizacaoPreferida;
+        this.observacao = observacao;
+    }
+
+    // Construtor vazio
+    public SolicitacaoReserva() {
+    }
+
+    // Getters
+    public String getNomeResponsavel() {
+        return nomeResponsavel;
+    }
+
+    public int getNumeroPessoas() {
+        return numeroPessoas;
+    }
+
+    public LocalDate getDataReserva() {
+        return dataReserva;
+    }
+
+    public LocalTime getHoraReserva() {
+        return horaReserva;
+    }
+
+    public String getLocalizacaoPreferida() {
+        return localizacaoPreferida;
+    }
+
+    public String getObservacao() {
+        return observacao;
+    }
+
+    // Setters
+    public void setNomeResponsavel(String nomeResponsavel) {
+        this.nomeResponsavel = nomeResponsavel;
+    }
+
+    public void setNumeroPessoas(int numeroPessoas) {
+        this.numeroPessoas = numeroPessoas;
+    }
+
+    public void setDataReserva(LocalDate dataReserva) {
+        this.dataReserva = dataReserva;
+    }
+
+    public void setHoraReserva(LocalTime horaReserva) {
+        this.horaReserva = horaReserva;
+    }
+
+    public void setLocalizacaoPreferida(String localizacaoPreferida) {
+        this.localizacaoPreferida = localizacaoPreferida;
+    }
+
+    public void setObservacao(String observacao) {
+        this.observacao = observacao;
+    }
+
+    @Override
+    public String toString() {
+        return "SolicitacaoReserva{" +
+                "nomeResponsavel='" + nomeResponsavel + '\'' +
+                ", numeroPessoas=" + numeroPessoas +
+                ", dataReserva=" + dataReserva +
+                ", horaReserva=" + horaReserva +
+                ", localizacaoPreferida='" + localizacaoPreferida + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,161 @@
+package johnygastrobar.service;
+
+import johnygastrobar.dao.ReservaDAO;
+import johnygastrobar.model.Mesa;
+import johnygastrobar.model.SolicitacaoReserva;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Escolhe mesas para um lote de solicitações de reserva, tentando acomodar o máximo de pessoas.
+// Cada mesa, em cada data, é uma linha do tempo em que as reservas (de duração fixa) não podem se sobrepor.
+// Heurística em duas fases, O(solicitações x mesas) com checagens em memória:
+// 1. Grupos maiores primeiro (desempate por horário), cada um na menor mesa livre que o comporte
+//    (best fit), preferindo a localização pedida. Grupos grandes são os que mais perdem se ficarem sem mesa,
+//    e a menor mesa suficiente guarda as mesas grandes para eles.
+// 2. Reparo: para cada grupo que sobrou, procura uma mesa em que ele só não cabe por causa de UM grupo
+//    deste lote que poderia ir para outra mesa livre; move esse grupo e encaixa o que sobrou.
+public final class AlocadorMesas {
+
+    private static final int DURACAO_RESERVA_SEGUNDOS = ReservaDAO.DURACAO_RESERVA_MINUTOS * 60;
+
+    // Ocupação que já existe fora do lote (reservas gravadas).
+    @FunctionalInterface
+    public interface Ocupacao {
+        boolean estaLivre(int idMesa, LocalDate data, LocalTime hora) throws SQLException;
+    }
+
+    private final List<SolicitacaoReserva> solicitacoes;
+    private final Mesa[] mesas;
+    private final Ocupacao ocupacao;
+    private final int[] mesaPorSolicitacao; // índice em 'mesas', ou -1
+    // Solicitações do lote já colocadas em cada (mesa, data).
+    private final Map<String, List<Integer>> alocadasPorMesaEData = new HashMap<>();
+
+    private AlocadorMesas(List<SolicitacaoReserva> solicitacoes, List<Mesa> mesas, Ocupacao ocupacao) {
+        this.solicitacoes = solicitacoes;
+        this.mesas = mesas.toArray(new Mesa[0]);
+        Arrays.sort(this.mesas, Comparator.comparingInt(Mesa::getCapacidade).thenComparingInt(Mesa::getIdMesa));
+        this.ocupacao = ocupacao;
+        this.mesaPorSolicitacao = new int[solicitacoes.size()];
+        Arrays.fill(mesaPorSolicitacao, -1);
+    }
+
+    // Retorna, para cada solicitação (mesma ordem da lista), a mesa escolhida ou null se não coube.
+    public static Mesa[] alocar(List<SolicitacaoReserva> solicitacoes, List<Mesa> mesas, Ocupacao ocupacao) throws SQLException {
+        AlocadorMesas alocador = new AlocadorMesas(solicitacoes, mesas, ocupacao);
+        alocador.alocarPorTamanho();
+        alocador.repararNaoAlocadas();
+        Mesa[] resultado = new Mesa[solicitacoes.size()];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = (alocador.mesaPorSolicitacao[i] >= 0) ? alocador.mesas[alocador.mesaPorSolicitacao[i]] : null;
+        }
+        return resultado;
+    }
+
+    private void alocarPorTamanho() throws SQLException {
+        Integer[] ordem = new Integer[solicitacoes.size()];
+        for (int i = 0; i < ordem.length; i++) {
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, Comparator.<Integer>comparingInt(i -> -solicitacoes.get(i).getNumeroPessoas())
+                .thenComparing(i -> solicitacoes.get(i).getDataReserva())
+                .thenComparing(i -> solicitacoes.get(i).getHoraReserva()));
+        for (int s : ordem) {
+            int mesa = melhorMesaLivre(s, -1);
+            if (mesa >= 0) {
+                colocar(s, mesa);
+            }
+        }
+    }
+
+    private void repararNaoAlocadas() throws SQLException {
+        for (int s = 0; s < solicitacoes.size(); s++) {
+            if (mesaPorSolicitacao[s] >= 0) {
+                continue;
+            }
+            SolicitacaoReserva solicitacao = solicitacoes.get(s);
+            for (int m = 0; m < mesas.length && mesaPorSolicitacao[s] < 0; m++) {
+                if (mesas[m].getCapacidade() < solicitacao.getNumeroPessoas()
+                        || !ocupacao.estaLivre(mesas[m].getIdMesa(), solicitacao.getDataReserva(), solicitacao.getHoraReserva())) {
+                    continue;
+                }
+                List<Integer> conflitantes = conflitantesNoLote(s, m);
+                if (conflitantes.size() != 1) {
+                    continue;
+                }
+                int outra = conflitantes.get(0);
+                retirar(outra);
+                int novaMesa = melhorMesaLivre(outra, m);
+                if (novaMesa >= 0) {
+                    colocar(outra, novaMesa);
+                    colocar(s, m);
+                } else {
+                    colocar(outra, m);
+                }
+            }
+        }
+    }
+
+    // Menor mesa que comporta o grupo e está livre no horário, preferindo a localização pedida. -1 se nenhuma.
+    private int melhorMesaLivre(int s, int mesaExcluida) throws SQLException {
+        SolicitacaoReserva solicitacao = solicitacoes.get(s);
+        String preferida = solicitacao.getLocalizacaoPreferida();
+        int melhorOutraLocalizacao = -1;
+        for (int m = 0; m < mesas.length; m++) {
+            if (m == mesaExcluida || mesas[m].getCapacidade() < solicitacao.getNumeroPessoas()) {
+                continue;
+            }
+            boolean localizacaoPreferida = preferida == null || preferida.trim().isEmpty()
+                    || preferida.trim().equalsIgnoreCase(mesas[m].getLocalizacao());
+            if (!localizacaoPreferida && melhorOutraLocalizacao >= 0) {
+                continue;
+            }
+            if (!conflitantesNoLote(s, m).isEmpty()
+                    || !ocupacao.estaLivre(mesas[m].getIdMesa(), solicitacao.getDataReserva(), solicitacao.getHoraReserva())) {
+                continue;
+            }
+            if (localizacaoPreferida) {
+                return m; // mesas em ordem de capacidade: a primeira livre é a de melhor encaixe
+            }
+            melhorOutraLocalizacao = m;
+        }
+        return melhorOutraLocalizacao;
+    }
+
+    private List<Integer> conflitantesNoLote(int s, int m) {
+        SolicitacaoReserva solicitacao = solicitacoes.get(s);
+        List<Integer> conflitantes = new ArrayList<>();
+        List<Integer> alocadas = alocadasPorMesaEData.get(chave(m, solicitacao.getDataReserva()));
+        if (alocadas != null) {
+            int inicio = solicitacao.getHoraReserva().toSecondOfDay();
+            for (int outra : alocadas) {
+                if (Math.abs(solicitacoes.get(outra).getHoraReserva().toSecondOfDay() - inicio) < DURACAO_RESERVA_SEGUNDOS) {
+                    conflitantes.add(outra);
+                }
+            }
+        }
+        return conflitantes;
+    }
+
+    private void colocar(int s, int m) {
+        mesaPorSolicitacao[s] = m;
+        alocadasPorMesaEData.computeIfAbsent(chave(m, solicitacoes.get(s).getDataReserva()), k -> new ArrayList<>()).add(s);
+    }
+
+    private void retirar(int s) {
+        alocadasPorMesaEData.get(chave(mesaPorSolicitacao[s], solicitacoes.get(s).getDataReserva())).remove(Integer.valueOf(s));
+        mesaPorSolicitacao[s] = -1;
+    }
+
+    private static String chave(int m, LocalDate data) {
+        return m + "|" + data;
+    }
+}
@@ -3,17 +3,19 @@ package johnygastrobar.service;
 import johnygastrobar.dao.AutorizaDAO;
 import johnygastrobar.dao.PedidoDAO; // Para validar se o pedido existe
 import johnygastrobar.dao.FuncionarioDAO; // Para validar se o gerente existe e é gerente
+import johnygastrobar.dao.FuncionarioDAO.PapelFuncionario;
 import johnygastrobar.exception.ServiceException;
 import johnygastrobar.exception.ResourceNotFoundException;
 import johnygastrobar.model.Autoriza;
 import johnygastrobar.model.Pedido;
-import johnygastrobar.model.Funcionario; // Para verificar se é Gerente
-import johnygastrobar.model.Gerente;   // Para verificar se é Gerente
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -22,15 +24,41 @@ import java.util.List;
 @Service
 public class AutorizaService {
 
+    private static final Logger log = LoggerFactory.getLogger(AutorizaService.class);
+
     private final AutorizaDAO autorizaDAO;
     private final PedidoDAO pedidoDAO;
     private final FuncionarioDAO funcionarioDAO;
+    private final IndicePapeisFuncionarios indicePapeis;
 
     @Autowired
-    public AutorizaService(AutorizaDAO autorizaDAO, PedidoDAO pedidoDAO, FuncionarioDAO funcionarioDAO) {
+    public AutorizaService(AutorizaDAO autorizaDAO, PedidoDAO pedidoDAO, FuncionarioDAO funcionarioDAO,
+                           IndicePapeisFuncionarios indicePapeis) {
         this.autorizaDAO = autorizaDAO;
         this.pedidoDAO = pedidoDAO;
         this.funcionarioDAO = funcionarioDAO;
+        this.indicePapeis = indicePapeis;
+    }
+
+    // O funcionário precisa ser gerente com limite de desconto que cubra o desconto do pedido.
+    // Checa pelo índice em memória; se o índice não confirmar (funcionário recém-criado por fora
+    // da aplicação, índice desatualizado), confirma no banco com uma única consulta, que também dá o motivo da recusa.
+    private void validarGerente(int idGerente, Pedido pedido, Connection conn) throws SQLException, ServiceException, ResourceNotFoundException {
+        BigDecimal desconto = pedido.getDesconto();
+        if (indicePapeis.isGerenteComLimiteMinimo(idGerente, desconto)) {
+            return;
+        }
+        PapelFuncionario papel = funcionarioDAO.buscarPapel(idGerente, conn);
+        if (papel == null) {
+            throw new ResourceNotFoundException("Gerente com ID " + idGerente + " não encontrado.");
+        }
+        if (!"Gerente".equals(papel.getTipo())) {
+            throw new ServiceException("Funcionário com ID " + idGerente + " não é um gerente válido.");
+        }
+        if (!IndicePapeisFuncionarios.atendeLimite(papel, desconto)) {
+            throw new ServiceException("Desconto do pedido ID " + pedido.getIdPedido() + " (" + desconto + ") acima do limite de desconto do gerente ID "
+                    + idGerente + " (" + (papel.getLimiteDesconto() != null ? papel.getLimiteDesconto() : BigDecimal.ZERO) + ").");
+        }
     }
 
     public Autoriza criarAutorizacao(Autoriza autoriza) throws ServiceException, ResourceNotFoundException {
@@ -54,18 +82,8 @@ public class AutorizaService {
                 throw new ResourceNotFoundException("Pedido com ID " + autoriza.getIdPedido() + " não encontrado.");
             }
 
-            Funcionario gerente = funcionarioDAO.buscarPorId(autoriza.getIdGerente(), conn);
-            if (gerente == null) {
-                throw new ResourceNotFoundException("Gerente com ID " + autoriza.getIdGerente() + " não encontrado.");
-            }
-            // Verifica se o funcionário é realmente um Gerente
-            // O método getTipoFuncionario no FuncionarioDAO pode ser usado, ou instanceof se buscarPorId retornar a subclasse
-            if (!(gerente instanceof Gerente)) {
-                String tipoFuncionario = funcionarioDAO.getTipoFuncionario(autoriza.getIdGerente(), conn);
-                if (!"Gerente".equalsIgnoreCase(tipoFuncionario)) {
-                    throw new ServiceException("Funcionário com ID " + autoriza.getIdGerente() + " não é um gerente válido.");
-                }
-            }
+            // Verifica se o funcionário existe, é realmente um Gerente e pode autorizar o desconto, sem carregar o funcionário inteiro
+            validarGerente(autoriza.getIdGerente(), pedido, conn);
 
 
             if (autoriza.getDataAutorizacao() == null) {
@@ -80,14 +98,14 @@ public class AutorizaService {
         } catch (SQLException e) {
             if (conn != null) {
                 try { conn.rollback(); } catch (SQLException exRollback) {
-                    System.err.println("CRÍTICO: Erro ao tentar reverter transação de criar autorização: " + exRollback.getMessage());
+                    log.error("Erro ao tentar reverter transação de criar autorização: {}", exRollback.getMessage());
                 }
             }
             throw new ServiceException("Erro ao criar autorização no banco de dados: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
                 try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
-                    System.err.println("Erro ao fechar conexão após criar autorização: " + e.getMessage());
+                    log.warn("Erro ao fechar conexão após criar autorização: {}", e.getMessage());
                 }
             }
         }
@@ -153,17 +171,12 @@ public class AutorizaService {
             }
 
             // Validar pedido e gerente novamente se eles puderem ser alterados na autorização
-            if (existente.getIdPedido() != autoriza.getIdPedido()) {
+            if (existente.getIdPedido() != autoriza.getIdPedido() || existente.getIdGerente() != autoriza.getIdGerente()) {
                 Pedido pedido = pedidoDAO.buscarPorId(autoriza.getIdPedido(), conn);
                 if (pedido == null) {
                     throw new ResourceNotFoundException("Novo Pedido com ID " + autoriza.getIdPedido() + " não encontrado.");
                 }
-            }
-            if (existente.getIdGerente() != autoriza.getIdGerente()) {
-                Funcionario gerente = funcionarioDAO.buscarPorId(autoriza.getIdGerente(), conn);
-                if (gerente == null || !(gerente instanceof Gerente)) { // Ou usar getTipoFuncionario
-                    throw new ResourceNotFoundException("Novo Gerente com ID " + autoriza.getIdGerente() + " não é válido.");
-                }
+                validarGerente(autoriza.getIdGerente(), pedido, conn);
             }
 
 
@@ -177,12 +190,12 @@ public class AutorizaService {
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da atualização de autorização: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da atualização de autorização: {}", ex.getMessage());}
             }
             throw new ServiceException("Erro ao atualizar autorização: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da atualização de autorização: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da atualização de autorização: {}", ex.getMessage());}
             }
         }
     }
@@ -208,16 +221,16 @@ public class AutorizaService {
             }
 
             conn.commit();
-            System.out.println("Autorização ID " + id + " deletada com sucesso (serviço).");
+            log.info("Autorização ID {} deletada com sucesso (serviço).", id);
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da deleção de autorização: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da deleção de autorização: {}", ex.getMessage());}
             }
             throw new ServiceException("Erro ao deletar autorização: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da deleção de autorização: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da deleção de autorização: {}", ex.getMessage());}
             }
         }
     }
@@ -0,0 +1,198 @@
+package johnygastrobar.service;
+
+import johnygastrobar.dao.ItemDAO;
+import johnygastrobar.model.Item;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Cópia em memória do cardápio (tabela Item), que é pequena e lida em todo pedido.
+// Cada carga gera um Snapshot imutável com número de versão, trocado de forma atômica:
+// leitores nunca veem um catálogo pela metade e não precisam de lock.
+// O ItemService recarrega o snapshot depois de cada escrita confirmada (write-through), e o TTL
+// garante que alterações feitas direto no banco apareçam depois de alguns segundos: vencido o TTL,
+// a recarga roda na thread "catalogo-itens" e os leitores seguem com o snapshot anterior até ela terminar.
+@Component
+public class CatalogoItensCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoItensCache.class);
+
+    private final ItemDAO itemDAO;
+    private final long ttlMillis;
+
+    private final AtomicReference<Snapshot> atual = new AtomicReference<>();
+    private final ReentrantLock lockCarga = new ReentrantLock();
+    private long ultimaVersao = 0;
+    private final ExecutorService recarregador;
+    private final AtomicBoolean recargaAgendada = new AtomicBoolean(false);
+
+    @Autowired
+    public CatalogoItensCache(ItemDAO itemDAO, @Value("${catalogo.itens.ttl-segundos:60}") long ttlSegundos) {
+        this.itemDAO = itemDAO;
+        this.ttlMillis = ttlSegundos * 1000;
+        this.recarregador = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "catalogo-itens");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Snapshot imutável do catálogo. Os objetos Item são compartilhados entre requisições
+    // e não devem ser alterados por quem os recebe.
+    public static final class Snapshot {
+        private final long versao;
+        private final long carregadoEmMillis;
+        private final Item[] porId;
+        private final List<Item> ordenadosPorNome;
+
+        private Snapshot(long versao, long carregadoEmMillis, List<Item> itensOrdenadosPorNome) {
+            this.versao = versao;
+            this.carregadoEmMillis = carregadoEmMillis;
+            int maiorId = 0;
+            for (Item item : itensOrdenadosPorNome) {
+                maiorId = Math.max(maiorId, item.getIdItem());
+            }
+            this.porId = new Item[maiorId + 1];
+            for (Item item : itensOrdenadosPorNome) {
+                porId[item.getIdItem()] = item;
+            }
+            this.ordenadosPorNome = Collections.unmodifiableList(itensOrdenadosPorNome);
+        }
+
+        public long getVersao() { return versao; }
+
+        public Item buscarPorId(int idItem) {
+            return (idItem > 0 && idItem < porId.length) ? porId[idItem] : null;
+        }
+
+        public List<Item> listarTodos() { return ordenadosPorNome; }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaInicializacao() {
+        try {
+            recarregar();
+        } catch (SQLException e) {
+            log.warn("Erro ao carregar catálogo de itens na inicialização (será carregado no primeiro uso): {}", e.getMessage());
+        }
+    }
+
+    // Retorna o snapshot atual; com o TTL vencido, agenda a recarga e devolve o anterior.
+    // Sem snapshot (antes da carga inicial ou depois de uma recarga após escrita que falhou) carrega na
+    // thread de quem chama, numa conexão própria do pool: quem já segura uma conexão de transação deve
+    // usar getSnapshotSemCarga, para não pegar uma segunda.
+    // As cargas (inicial, pelo TTL e esta) usam conexão própria em autocommit: na conexão de uma transação
+    // aberta, a leitura veria o snapshot REPEATABLE READ dela e publicaria para todas as threads um catálogo
+    // sem as alterações confirmadas depois. Só a recarga após escrita reaproveita a conexão de quem escreveu.
+    public Snapshot getSnapshot() throws SQLException {
+        Snapshot snapshot = getSnapshotSemCarga();
+        return (snapshot != null) ? snapshot : recarregar();
+    }
+
+    // Nunca lê o banco na thread de quem chama: devolve o snapshot atual, mesmo vencido, ou null se o
+    // catálogo ainda não foi carregado. Nos dois casos a carga é agendada em segundo plano.
+    public Snapshot getSnapshotSemCarga() {
+        Snapshot snapshot = atual.get();
+        if (snapshot == null || vencido(snapshot)) {
+            agendarRecarga();
+        }
+        return snapshot;
+    }
+
+    private boolean vencido(Snapshot snapshot) {
+        return System.currentTimeMillis() - snapshot.carregadoEmMillis > ttlMillis;
+    }
+
+    // No máximo uma recarga na fila; se uma escrita já recarregou nesse meio-tempo, não lê de novo.
+    private void agendarRecarga() {
+        if (!recargaAgendada.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            recarregador.execute(() -> {
+                try {
+                    Snapshot snapshot = atual.get();
+                    if (snapshot == null || vencido(snapshot)) {
+                        recarregar();
+                    }
+                } catch (SQLException e) {
+                    Snapshot snapshot = atual.get();
+                    log.warn("Erro ao atualizar catálogo de itens em segundo plano, mantendo versão {}: {}",
+                            (snapshot != null) ? snapshot.versao : 0, e.getMessage());
+                } finally {
+                    recargaAgendada.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            recargaAgendada.set(false); // encerrando
+        }
+    }
+
+    public Item buscarPorId(int idItem) throws SQLException {
+        return getSnapshot().buscarPorId(idItem);
+    }
+
+    public List<Item> listarTodos() throws SQLException {
+        return getSnapshot().listarTodos();
+    }
+
+    // Recarrega o catálogo do banco e publica um novo snapshot.
+    public Snapshot recarregar() throws SQLException {
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            return recarregar(conn);
+        }
+    }
+
+    public Snapshot recarregar(Connection conn) throws SQLException {
+        lockCarga.lock();
+        try {
+            return carregar(conn);
+        } finally {
+            lockCarga.unlock();
+        }
+    }
+
+    // Chamado após o commit de escritas na tabela Item, reaproveitando a conexão de quem escreveu.
+    // Se a recarga falhar, descarta o snapshot para que a próxima leitura busque do banco
+    // em vez de servir dados que sabemos estar velhos.
+    public void recarregarAposEscrita(Connection conn) {
+        try {
+            recarregar(conn);
+        } catch (SQLException e) {
+            atual.set(null);
+            log.warn("Erro ao recarregar catálogo de itens após escrita: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot carregar(Connection conn) throws SQLException {
+        List<Item> itens = itemDAO.listarTodos(conn);
+        Snapshot novo = new Snapshot(++ultimaVersao, System.currentTimeMillis(), itens);
+        atual.set(novo);
+        return novo;
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        recarregador.shutdownNow();
+        recarregador.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
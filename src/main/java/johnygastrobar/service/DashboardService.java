@@ -0,0 +1,180 @@
+package johnygastrobar.service;
+
+import johnygastrobar.util.ContextoLog;
+import johnygastrobar.util.PrazoConsulta;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Monta o resumo completo do dashboard numa única chamada.
+// Cada métrica roda em paralelo num executor de tamanho fixo (o que também limita quantas conexões
+// do pool o dashboard ocupa ao mesmo tempo) e tem seu próprio timeout: o tempo total fica próximo
+// ao da métrica mais lenta, e uma métrica que falhar ou estourar o tempo volta como null
+// e é listada em "metricasIndisponiveis", sem derrubar as demais. O mesmo timeout vale como
+// prazo das consultas (PrazoConsulta): uma consulta lenta é cancelada no banco e devolve a
+// conexão ao pool, em vez de continuar rodando depois que a métrica foi abandonada.
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private final PagamentoService pagamentoService;
+    private final PedidoService pedidoService;
+    private final ItemService itemService;
+    private final ReservaService reservaService;
+    private final FeedbackPedidoService feedbackPedidoService;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    @Autowired
+    public DashboardService(PagamentoService pagamentoService,
+                            PedidoService pedidoService,
+                            ItemService itemService,
+                            ReservaService reservaService,
+                            FeedbackPedidoService feedbackPedidoService,
+                            @Value("${dashboard.resumo.threads:6}") int threads,
+                            @Value("${dashboard.resumo.fila:64}") int tamanhoFila,
+                            @Value("${dashboard.resumo.timeout-ms:3000}") long timeoutMillis) {
+        this.pagamentoService = pagamentoService;
+        this.pedidoService = pedidoService;
+        this.itemService = itemService;
+        this.reservaService = reservaService;
+        this.feedbackPedidoService = feedbackPedidoService;
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger contador = new AtomicInteger();
+        // Fila limitada: se o dashboard estiver sobrecarregado, as métricas excedentes são recusadas
+        // (e aparecem como indisponíveis) em vez de acumular trabalho sem fim.
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "dashboard-resumo-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, Object> getResumo(LocalDate dataInicial, LocalDate dataFinal, int limiteTopItens) {
+        if (dataInicial == null || dataFinal == null || dataInicial.isAfter(dataFinal)) {
+            throw new IllegalArgumentException("Datas inválidas para o resumo do dashboard.");
+        }
+        if (limiteTopItens <= 0) {
+            throw new IllegalArgumentException("O limite de itens deve ser positivo.");
+        }
+        LocalDate hoje = LocalDate.now();
+        LocalDate amanha = hoje.plusDays(1);
+
+        Map<String, CompletableFuture<?>> metricas = new LinkedHashMap<>();
+        disparar(metricas, "financeiro.faturamentoBrutoTotal",
+                () -> pagamentoService.getFaturamentoTotalPorPeriodo(dataInicial, dataFinal));
+        disparar(metricas, "financeiro.totalPedidosPagos",
+                () -> pedidoService.countPedidosPagosPorPeriodo(dataInicial, dataFinal));
+        disparar(metricas, "vendas.topItensMaisVendidos",
+                () -> itemService.getTopItensMaisVendidosPorQuantidade(dataInicial, dataFinal, limiteTopItens));
+        disparar(metricas, "vendas.topItensMaisRentaveis",
+                () -> itemService.getTopItensMaisRentaveis(dataInicial, dataFinal, limiteTopItens));
+        disparar(metricas, "vendas.totalUnidadesVendidas",
+                () -> pedidoService.sumQuantidadeItensVendidosPorPeriodo(dataInicial, dataFinal));
+        disparar(metricas, "pedidos.totalCriados",
+                () -> pedidoService.countPedidosCriadosPorPeriodo(dataInicial, dataFinal));
+        disparar(metricas, "pedidos.contagemPorStatus",
+                () -> pedidoService.getContagemPedidosPorStatus(dataInicial, dataFinal));
+        disparar(metricas, "reservas.totalReservasHoje", () -> reservaService.getTotalReservasParaData(hoje));
+        disparar(metricas, "reservas.totalPessoasEsperadasHoje", () -> reservaService.getTotalPessoasEsperadasParaData(hoje));
+        disparar(metricas, "reservas.totalReservasAmanha", () -> reservaService.getTotalReservasParaData(amanha));
+        disparar(metricas, "reservas.totalPessoasEsperadasAmanha", () -> reservaService.getTotalPessoasEsperadasParaData(amanha));
+        disparar(metricas, "qualidade.notaMediaComida",
+                () -> feedbackPedidoService.getNotaMediaComidaPorPeriodo(dataInicial, dataFinal));
+        disparar(metricas, "qualidade.notaMediaAtendimento",
+                () -> feedbackPedidoService.getNotaMediaAtendimentoPorPeriodo(dataInicial, dataFinal));
+        disparar(metricas, "qualidade.totalFeedbacksRecebidos",
+                () -> feedbackPedidoService.getTotalFeedbacksPorPeriodo(dataInicial, dataFinal));
+
+        // Cada future já tem seu timeout, então esta espera termina em no máximo timeoutMillis.
+        CompletableFuture.allOf(metricas.values().toArray(new CompletableFuture<?>[0]))
+                .exceptionally(ex -> null)
+                .join();
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        List<String> indisponiveis = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<?>> metrica : metricas.entrySet()) {
+            Object valor = resultadoOuNull(metrica.getKey(), metrica.getValue(), indisponiveis);
+            String[] partes = metrica.getKey().split("\\.", 2);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> secao = (Map<String, Object>) resumo.computeIfAbsent(partes[0], k -> new LinkedHashMap<String, Object>());
+            secao.put(partes[1], valor);
+        }
+
+        // Ticket médio depende de duas métricas; só é calculado se ambas estiverem disponíveis.
+        @SuppressWarnings("unchecked")
+        Map<String, Object> financeiro = (Map<String, Object>) resumo.get("financeiro");
+        BigDecimal valorFaturamento = (BigDecimal) financeiro.get("faturamentoBrutoTotal");
+        Integer valorPedidosPagos = (Integer) financeiro.get("totalPedidosPagos");
+        BigDecimal ticketMedio = null;
+        if (valorFaturamento != null && valorPedidosPagos != null) {
+            ticketMedio = BigDecimal.ZERO;
+            if (valorPedidosPagos > 0 && valorFaturamento.compareTo(BigDecimal.ZERO) > 0) {
+                ticketMedio = valorFaturamento.divide(new BigDecimal(valorPedidosPagos), 2, RoundingMode.HALF_UP);
+            }
+        }
+        financeiro.put("ticketMedioPorPedido", ticketMedio);
+
+        resumo.put("metricasIndisponiveis", indisponiveis);
+        return resumo;
+    }
+
+    private <T> CompletableFuture<T> disparar(Map<String, CompletableFuture<?>> metricas, String nome, Supplier<T> calculo) {
+        CompletableFuture<T> future;
+        try {
+            // Leva o id da requisição para os logs das consultas feitas nas threads do executor.
+            Supplier<T> tarefa = ContextoLog.comContextoAtual(PrazoConsulta.comPrazo(timeoutMillis, calculo));
+            future = CompletableFuture.supplyAsync(tarefa, executor).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // RejectedExecutionException: fila do executor cheia.
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        metricas.put(nome, future);
+        return future;
+    }
+
+    private Object resultadoOuNull(String nome, CompletableFuture<?> future, List<String> indisponiveis) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable causa = (e.getCause() != null) ? e.getCause() : e;
+            String motivo = (causa instanceof TimeoutException) ? "timeout de " + timeoutMillis + " ms" : causa.getMessage();
+            log.warn("Métrica '{}' do resumo do dashboard indisponível: {}", nome, motivo);
+            indisponiveis.add(nome);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package johnygastrobar.service;
+
+import johnygastrobar.model.EventoPedido;
+import johnygastrobar.model.EventoPedido.Estacao;
+import johnygastrobar.model.EventoPedido.Tipo;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Canal de eventos (Server-Sent Events) para as telas da cozinha e do bar, no lugar do polling em
+// GET /api/pedidos/nao-pagos. PedidoService e PagamentoService chamam publicar* depois do commit;
+// cada evento ganha um número de sequência e vai para as estações que têm itens no pedido.
+//
+// A distribuição roda numa única thread (despachante): a ordem de entrega é a ordem de publicação,
+// quem escreveu o pedido não espera pelas telas, e a lista de assinantes e o histórico não precisam
+// de lock. O despachante só enfileira: cada tela tem a sua fila, limitada, esvaziada por uma tarefa no
+// pool de envio (no máximo uma por tela, então a ordem se mantém). Uma tela que para de ler sem fechar
+// a conexão trava só a própria tarefa; se a fila dela enche, ou um envio passa de prazo-envio-ms,
+// ela é desconectada e retoma pelo Last-Event-ID (ou recebe "reinicio") quando voltar.
+// O histórico guarda os últimos eventos para que uma tela que reconectar
+// (EventSource manda o cabeçalho Last-Event-ID) receba só o que perdeu.
+//
+// Protocolo para a tela:
+// - ao conectar sem Last-Event-ID (ou se o que ela perdeu já saiu do histórico) chega um evento
+//   "inicio"/"reinicio": a tela carrega GET /api/pedidos/nao-pagos uma vez e passa a aplicar os eventos;
+// - eventos CRIADO/ATUALIZADO/PAGO/REMOVIDO trazem o estado do pedido para a estação e podem ser
+//   aplicados mais de uma vez sem efeito colateral.
+@Service
+public class EventosPedidoService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventosPedidoService.class);
+
+    // Identifica esta execução do servidor no id dos eventos: depois de um restart a sequência recomeça,
+    // e um Last-Event-ID de outra execução leva a um "reinicio" em vez de um replay errado.
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Set<String> tiposBar = new HashSet<>();
+    private final int tamanhoHistorico;
+    private final long timeoutMillis;
+    private final int limiteFilaPorTela;
+    private final long prazoEnvioMillis;
+    private final ScheduledExecutorService despachante;
+    private final ExecutorService envios;
+
+    // Acessados só pela thread do despachante.
+    private final List<Assinante> assinantes = new ArrayList<>();
+    private final ArrayDeque<Publicado> historico = new ArrayDeque<>();
+    private long ultimaSequencia = 0;
+
+    @Autowired
+    public EventosPedidoService(@Value("${pedidos.eventos.tipos-bar:BEBIDA}") String tiposBar,
+                                @Value("${pedidos.eventos.historico:1000}") int tamanhoHistorico,
+                                @Value("${pedidos.eventos.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${pedidos.eventos.heartbeat-segundos:15}") long heartbeatSegundos,
+                                @Value("${pedidos.eventos.fila-por-tela:256}") int limiteFilaPorTela,
+                                @Value("${pedidos.eventos.prazo-envio-ms:10000}") long prazoEnvioMillis) {
+        for (String tipo : tiposBar.split(",")) {
+            if (!tipo.trim().isEmpty()) {
+                this.tiposBar.add(tipo.trim().toUpperCase());
+            }
+        }
+        this.tamanhoHistorico = tamanhoHistorico;
+        this.timeoutMillis = timeoutMillis;
+        this.limiteFilaPorTela = limiteFilaPorTela;
+        this.prazoEnvioMillis = prazoEnvioMillis;
+        // Threads sob demanda: no máximo uma por tela com envio em andamento.
+        this.envios = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "eventos-pedidos-envio");
+            t.setDaemon(true);
+            return t;
+        });
+        this.despachante = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eventos-pedidos");
+            t.setDaemon(true);
+            return t;
+        });
+        // Comentário SSE periódico: mantém a conexão viva em proxies e descobre telas que caíram
+        // ou que estão com um envio parado há mais de prazo-envio-ms.
+        this.despachante.scheduleAtFixedRate(this::enviarHeartbeat, heartbeatSegundos, heartbeatSegundos, TimeUnit.SECONDS);
+    }
+
+    private static final class Assinante {
+        private final SseEmitter emitter;
+        private final Estacao estacao;
+        // Guardados pelo lock do próprio Assinante (despachante enfileira, pool de envio esvazia).
+        private final ArrayDeque<SseEmitter.SseEventBuilder> fila = new ArrayDeque<>();
+        private boolean enviando;
+        private long enviandoDesdeMillis;
+        private boolean descartado;
+
+        private Assinante(SseEmitter emitter, Estacao estacao) {
+            this.emitter = emitter;
+            this.estacao = estacao;
+        }
+    }
+
+    // Um evento publicado, já na visão de cada estação (ausente para estações sem itens no pedido).
+    private static final class Publicado {
+        private final long sequencia;
+        private final Map<Estacao, EventoPedido> porEstacao;
+
+        private Publicado(long sequencia, Map<Estacao, EventoPedido> porEstacao) {
+            this.sequencia = sequencia;
+            this.porEstacao = porEstacao;
+        }
+    }
+
+    public void publicarCriado(Pedido pedido) {
+        publicar(Tipo.CRIADO, null, pedido);
+    }
+
+    public void publicarAtualizado(Pedido antes, Pedido depois) {
+        publicar(Tipo.ATUALIZADO, antes, depois);
+    }
+
+    public void publicarPago(Pedido pedido) {
+        publicar(Tipo.PAGO, pedido, pedido);
+    }
+
+    public void publicarRemovido(Pedido pedido) {
+        publicar(Tipo.REMOVIDO, pedido, null);
+    }
+
+    // Chamado depois do commit: só enfileira, nunca lança exceção para quem escreveu o pedido.
+    private void publicar(Tipo tipo, Pedido antes, Pedido depois) {
+        LocalDateTime momento = LocalDateTime.now();
+        try {
+            despachante.execute(() -> despachar(tipo, antes, depois, momento));
+        } catch (RejectedExecutionException e) {
+            log.warn("Evento de pedido descartado (despachante encerrado): {}", tipo);
+        }
+    }
+
+    public Estacao converterEstacao(String estacao) {
+        if (estacao == null || estacao.trim().isEmpty()) {
+            return Estacao.TODAS;
+        }
+        try {
+            return Estacao.valueOf(estacao.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Estação desconhecida: " + estacao + ". Use TODAS, COZINHA ou BAR.");
+        }
+    }
+
+    // Abre o canal de uma tela. ultimoEventoId é o Last-Event-ID do navegador (null na primeira conexão).
+    public SseEmitter assinar(Estacao estacao, String ultimoEventoId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Assinante assinante = new Assinante(emitter, estacao);
+        Runnable remover = () -> {
+            synchronized (assinante) {
+                assinante.descartado = true;
+                assinante.fila.clear();
+            }
+            executarNoDespachante(() -> assinantes.remove(assinante));
+        };
+        emitter.onCompletion(remover);
+        emitter.onTimeout(remover);
+        emitter.onError(e -> remover.run());
+        executarNoDespachante(() -> registrar(assinante, ultimoEventoId));
+        return emitter;
+    }
+
+    private void registrar(Assinante assinante, String ultimoEventoId) {
+        Long ultimaRecebida = sequenciaDoId(ultimoEventoId);
+        boolean podeRetomar = ultimaRecebida != null && ultimaRecebida <= ultimaSequencia
+                && (ultimaRecebida == ultimaSequencia || (!historico.isEmpty() && historico.peekFirst().sequencia <= ultimaRecebida + 1));
+        List<EventoPedido> perdidos = new ArrayList<>();
+        if (podeRetomar) {
+            for (Publicado publicado : historico) {
+                EventoPedido evento = publicado.porEstacao.get(assinante.estacao);
+                if (publicado.sequencia > ultimaRecebida && evento != null) {
+                    perdidos.add(evento);
+                }
+            }
+        }
+        assinantes.add(assinante);
+        // Mais eventos perdidos do que cabem na fila: sai mais barato a tela recarregar a lista.
+        if (!podeRetomar || perdidos.size() > limiteFilaPorTela) {
+            enfileirar(assinante, SseEmitter.event()
+                    .id(idDoEvento(ultimaSequencia))
+                    .name(ultimoEventoId == null ? "inicio" : "reinicio")
+                    .data(Collections.singletonMap("sequencia", ultimaSequencia), MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (EventoPedido evento : perdidos) {
+            enfileirar(assinante, evento(evento));
+        }
+    }
+
+    private void despachar(Tipo tipo, Pedido antes, Pedido depois, LocalDateTime momento) {
+        long sequencia = ++ultimaSequencia;
+        Map<Estacao, EventoPedido> porEstacao = new EnumMap<>(Estacao.class);
+        for (Estacao estacao : Estacao.values()) {
+            EventoPedido evento = visaoDaEstacao(sequencia, tipo, antes, depois, momento, estacao);
+            if (evento != null) {
+                porEstacao.put(estacao, evento);
+            }
+        }
+        historico.addLast(new Publicado(sequencia, porEstacao));
+        while (historico.size() > tamanhoHistorico) {
+            historico.removeFirst();
+        }
+
+        for (Assinante assinante : new ArrayList<>(assinantes)) {
+            EventoPedido evento = porEstacao.get(assinante.estacao);
+            if (evento != null) {
+                enfileirar(assinante, evento(evento));
+            }
+        }
+    }
+
+    // O pedido como a estação o vê. null se a estação não tem (nem tinha) itens nele.
+    private EventoPedido visaoDaEstacao(long sequencia, Tipo tipo, Pedido antes, Pedido depois, LocalDateTime momento, Estacao estacao) {
+        Pedido atual = (depois != null) ? depois : antes;
+        List<PedidoItem> itensAgora = (tipo == Tipo.REMOVIDO) ? Collections.emptyList() : itensDaEstacao(atual, estacao);
+        boolean tinhaItens = antes != null && !itensDaEstacao(antes, estacao).isEmpty();
+        if (itensAgora.isEmpty() && !tinhaItens) {
+            return null;
+        }
+        return new EventoPedido(sequencia, tipo, atual.getIdPedido(), atual.getIdMesa(), atual.isEntregue(), atual.isPago(),
+                momento, itensAgora);
+    }
+
+    private List<PedidoItem> itensDaEstacao(Pedido pedido, Estacao estacao) {
+        List<PedidoItem> itens = (pedido.getItensDoPedido() != null) ? pedido.getItensDoPedido() : Collections.emptyList();
+        if (estacao == Estacao.TODAS) {
+            return itens;
+        }
+        List<PedidoItem> daEstacao = new ArrayList<>();
+        for (PedidoItem item : itens) {
+            boolean doBar = item.getTipoItem() != null && tiposBar.contains(item.getTipoItem().toUpperCase());
+            if (doBar == (estacao == Estacao.BAR)) {
+                daEstacao.add(item);
+            }
+        }
+        return daEstacao;
+    }
+
+    private SseEmitter.SseEventBuilder evento(EventoPedido evento) {
+        return SseEmitter.event()
+                .id(idDoEvento(evento.getSequencia()))
+                .name(evento.getTipo().name())
+                .data(evento, MediaType.APPLICATION_JSON);
+    }
+
+    // Chamado pelo despachante. Fila cheia: a tela não está acompanhando e é desconectada.
+    private void enfileirar(Assinante assinante, SseEmitter.SseEventBuilder evento) {
+        synchronized (assinante) {
+            if (assinante.descartado) {
+                return;
+            }
+            if (assinante.fila.size() < limiteFilaPorTela) {
+                assinante.fila.addLast(evento);
+                if (!assinante.enviando) {
+                    assinante.enviando = true;
+                    assinante.enviandoDesdeMillis = System.currentTimeMillis();
+                    iniciarEnvio(assinante);
+                }
+                return;
+            }
+        }
+        descartar(assinante, new IOException("Fila de eventos da tela cheia (" + limiteFilaPorTela + ")."));
+    }
+
+    // Deve ser chamado com o lock do assinante.
+    private void iniciarEnvio(Assinante assinante) {
+        try {
+            envios.execute(() -> esvaziarFila(assinante));
+        } catch (RejectedExecutionException e) {
+            assinante.enviando = false; // aplicação encerrando
+        }
+    }
+
+    // Roda no pool de envio: manda os eventos da fila em ordem, um envio bloqueante por vez.
+    private void esvaziarFila(Assinante assinante) {
+        while (true) {
+            SseEmitter.SseEventBuilder evento;
+            synchronized (assinante) {
+                evento = assinante.fila.pollFirst();
+                if (evento == null || assinante.descartado) {
+                    assinante.enviando = false;
+                    return;
+                }
+                assinante.enviandoDesdeMillis = System.currentTimeMillis();
+            }
+            try {
+                assinante.emitter.send(evento);
+            } catch (IOException | IllegalStateException e) {
+                descartar(assinante, e); // tela desconectada; ela retoma pelo Last-Event-ID quando voltar
+                return;
+            }
+        }
+    }
+
+    // Desconecta a tela: para de enfileirar para ela e a tira da lista de assinantes.
+    private void descartar(Assinante assinante, Exception motivo) {
+        synchronized (assinante) {
+            if (assinante.descartado) {
+                return;
+            }
+            assinante.descartado = true;
+            assinante.fila.clear();
+        }
+        log.info("Tela de eventos ({}) desconectada: {}", assinante.estacao, motivo.getMessage());
+        executarNoDespachante(() -> assinantes.remove(assinante));
+        // send e completeWithError sincronizam no emitter: com um envio parado, completar aqui travaria
+        // quem chamou (o despachante, no caso do heartbeat e da fila cheia).
+        try {
+            envios.execute(() -> assinante.emitter.completeWithError(motivo));
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando; as conexões são fechadas em encerrar().
+        }
+    }
+
+    // Roda no despachante: ping para as telas em dia e desconexão das que estão com um envio parado.
+    private void enviarHeartbeat() {
+        long agora = System.currentTimeMillis();
+        for (Assinante assinante : new ArrayList<>(assinantes)) {
+            boolean parado;
+            synchronized (assinante) {
+                parado = assinante.enviando && agora - assinante.enviandoDesdeMillis > prazoEnvioMillis;
+            }
+            if (parado) {
+                descartar(assinante, new IOException("Envio parado há mais de " + prazoEnvioMillis + " ms."));
+            } else {
+                synchronized (assinante) {
+                    if (!assinante.fila.isEmpty()) {
+                        continue; // já tem envio pendente, que serve de sinal de vida
+                    }
+                }
+                enfileirar(assinante, SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    private String idDoEvento(long sequencia) {
+        return instancia + ":" + sequencia;
+    }
+
+    // Sequência contida num Last-Event-ID desta execução do servidor, ou null.
+    private Long sequenciaDoId(String idEvento) {
+        if (idEvento == null || !idEvento.startsWith(instancia + ":")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(idEvento.substring(instancia.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void executarNoDespachante(Runnable tarefa) {
+        try {
+            despachante.execute(tarefa);
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando; as conexões são fechadas em encerrar().
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        despachante.submit(() -> {
+            for (Assinante assinante : assinantes) {
+                synchronized (assinante) {
+                    assinante.descartado = true;
+                    assinante.fila.clear();
+                }
+                assinante.emitter.complete();
+            }
+            assinantes.clear();
+        });
+        despachante.shutdown();
+        despachante.awaitTermination(5, TimeUnit.SECONDS);
+        envios.shutdownNow();
+    }
+}
@@ -0,0 +1,151 @@
+package johnygastrobar.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.exception.ServiceException;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+// Exportação do histórico de pedidos para contabilidade/análise.
+// Os pedidos são lidos do banco em streaming e escritos direto na saída, um por vez,
+// então o uso de memória não cresce com o tamanho do histórico.
+@Service
+public class ExportacaoPedidoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacaoPedidoService.class);
+
+    public static final String FORMATO_NDJSON = "ndjson";
+    public static final String FORMATO_CSV = "csv";
+
+    private static final String CABECALHO_CSV = "id_pedido,data_hora,id_mesa,id_garcom,id_gerente,entregue,pago,desconto," +
+            "valor_total_sem_desconto,valor_total_com_desconto,id_item,nome_item,tipo_item,quantidade,preco_unitario,subtotal";
+
+    private final PedidoDAO pedidoDAO;
+    private final ObjectWriter escritorJson;
+
+    @Autowired
+    public ExportacaoPedidoService(PedidoDAO pedidoDAO, ObjectMapper objectMapper) {
+        this.pedidoDAO = pedidoDAO;
+        // Sem flush a cada pedido: quem controla o flush é o buffer da resposta.
+        this.escritorJson = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Normaliza e valida o formato. Deve ser chamado antes de começar a escrever a resposta,
+    // para que um formato inválido ainda possa virar um 400.
+    public String validarFormato(String formato) {
+        String normalizado = (formato == null) ? FORMATO_NDJSON : formato.trim().toLowerCase();
+        if (!FORMATO_NDJSON.equals(normalizado) && !FORMATO_CSV.equals(normalizado)) {
+            throw new IllegalArgumentException("Formato de exportação inválido: " + formato + ". Use ndjson ou csv.");
+        }
+        return normalizado;
+    }
+
+    public void validarPeriodo(LocalDate dataInicial, LocalDate dataFinal) {
+        if (dataInicial != null && dataFinal != null && dataInicial.isAfter(dataFinal)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final.");
+        }
+    }
+
+    public void exportarPedidos(String formato, LocalDate dataInicial, LocalDate dataFinal, OutputStream saida) throws IOException {
+        String formatoValido = validarFormato(formato);
+        validarPeriodo(dataInicial, dataFinal);
+        // Pool próprio: a conexão fica emprestada durante todo o streaming (ver DataSourceConfig).
+        try (Connection conn = ConnectionFactory.getConnectionExportacao()) {
+            if (FORMATO_CSV.equals(formatoValido)) {
+                exportarCsv(dataInicial, dataFinal, saida, conn);
+            } else {
+                exportarNdjson(dataInicial, dataFinal, saida, conn);
+            }
+        } catch (SQLException e) {
+            log.error("Erro SQL ao exportar pedidos: {}", e.getMessage());
+            throw new ServiceException("Erro ao exportar pedidos.", e);
+        }
+    }
+
+    // Um objeto JSON por linha, no mesmo formato do GET /api/pedidos/{id}.
+    private void exportarNdjson(LocalDate dataInicial, LocalDate dataFinal, OutputStream saida, Connection conn) throws SQLException, IOException {
+        JsonGenerator gerador = escritorJson.getFactory().createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        pedidoDAO.percorrerPedidosComItens(dataInicial, dataFinal, pedido -> {
+            escritorJson.writeValue(gerador, pedido);
+            gerador.writeRaw('\n');
+        }, conn);
+        gerador.flush();
+    }
+
+    // Uma linha por item do pedido, repetindo os dados do pedido; pedidos sem itens geram uma linha com as colunas de item vazias.
+    private void exportarCsv(LocalDate dataInicial, LocalDate dataFinal, OutputStream saida, Connection conn) throws SQLException, IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        escritor.write(CABECALHO_CSV);
+        escritor.write('\n');
+        pedidoDAO.percorrerPedidosComItens(dataInicial, dataFinal, pedido -> {
+            String colunasPedido = colunasPedidoCsv(pedido);
+            if (pedido.getItensDoPedido().isEmpty()) {
+                escritor.write(colunasPedido);
+                escritor.write(",,,,,,\n");
+                return;
+            }
+            for (PedidoItem item : pedido.getItensDoPedido()) {
+                escritor.write(colunasPedido);
+                escritor.write(',');
+                escritor.write(String.valueOf(item.getIdItem()));
+                escritor.write(',');
+                escritor.write(campoCsv(item.getNomeItem()));
+                escritor.write(',');
+                escritor.write(campoCsv(item.getTipoItem()));
+                escritor.write(',');
+                escritor.write(String.valueOf(item.getQuantidade()));
+                escritor.write(',');
+                escritor.write(campoCsv(item.getPrecoUnitario()));
+                escritor.write(',');
+                escritor.write(campoCsv(item.getSubtotal()));
+                escritor.write('\n');
+            }
+        }, conn);
+        escritor.flush();
+    }
+
+    private String colunasPedidoCsv(Pedido pedido) {
+        return pedido.getIdPedido() + "," +
+                campoCsv(pedido.getDataHora()) + "," +
+                pedido.getIdMesa() + "," +
+                campoCsv(pedido.getIdGarcom()) + "," +
+                campoCsv(pedido.getIdGerente()) + "," +
+                pedido.isEntregue() + "," +
+                pedido.isPago() + "," +
+                campoCsv(pedido.getDesconto()) + "," +
+                campoCsv(pedido.getValorTotalSemDesconto()) + "," +
+                campoCsv(pedido.getValorTotalComDesconto());
+    }
+
+    // Escapa o valor conforme RFC 4180 (aspas quando há vírgula, aspas ou quebra de linha).
+    private String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+}
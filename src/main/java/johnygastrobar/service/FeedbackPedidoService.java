@@ -10,6 +10,8 @@ import johnygastrobar.model.Pedido;
 import johnygastrobar.model.Mesa;
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -23,6 +25,8 @@ import java.util.List;
 @Service
 public class FeedbackPedidoService {
 
+    private static final Logger log = LoggerFactory.getLogger(FeedbackPedidoService.class);
+
     private final FeedbackPedidoDAO feedbackPedidoDAO;
     private final PedidoDAO pedidoDAO;
     private final MesaDAO mesaDAO;
@@ -93,14 +97,14 @@ public class FeedbackPedidoService {
         } catch (SQLException e) {
             if (conn != null) {
                 try { conn.rollback(); } catch (SQLException exRollback) {
-                    System.err.println("CRÍTICO: Erro ao tentar reverter transação de criar feedback: " + exRollback.getMessage());
+                    log.error("Erro ao tentar reverter transação de criar feedback: {}", exRollback.getMessage());
                 }
             }
             throw new ServiceException("Erro ao criar feedback no banco de dados: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
                 try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
-                    System.err.println("Erro ao fechar conexão após criar feedback: " + e.getMessage());
+                    log.warn("Erro ao fechar conexão após criar feedback: {}", e.getMessage());
                 }
             }
         }
@@ -174,12 +178,12 @@ public class FeedbackPedidoService {
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da atualização de feedback: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da atualização de feedback: {}", ex.getMessage());}
             }
             throw new ServiceException("Erro ao atualizar feedback: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da atualização de feedback: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da atualização de feedback: {}", ex.getMessage());}
             }
         }
     }
@@ -205,16 +209,16 @@ public class FeedbackPedidoService {
             }
 
             conn.commit();
-            System.out.println("Feedback ID " + id + " deletado com sucesso (serviço).");
+            log.info("Feedback ID {} deletado com sucesso (serviço).", id);
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da deleção de feedback: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da deleção de feedback: {}", ex.getMessage());}
             }
             throw new ServiceException("Erro ao deletar feedback: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da deleção de feedback: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da deleção de feedback: {}", ex.getMessage());}
             }
         }
     }
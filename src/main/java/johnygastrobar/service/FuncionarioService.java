@@ -6,6 +6,8 @@ import johnygastrobar.exception.ResourceNotFoundException;
 import johnygastrobar.model.Funcionario; // Incluindo subclasses se forem referenciadas diretamente
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,11 +18,15 @@ import java.util.List;
 @Service
 public class FuncionarioService {
 
+    private static final Logger log = LoggerFactory.getLogger(FuncionarioService.class);
+
     private final FuncionarioDAO funcionarioDAO;
+    private final IndicePapeisFuncionarios indicePapeis;
 
     @Autowired
-    public FuncionarioService(FuncionarioDAO funcionarioDAO) {
+    public FuncionarioService(FuncionarioDAO funcionarioDAO, IndicePapeisFuncionarios indicePapeis) {
         this.funcionarioDAO = funcionarioDAO;
+        this.indicePapeis = indicePapeis;
     }
 
     public Funcionario criarFuncionario(Funcionario funcionario) throws ServiceException {
@@ -40,6 +46,7 @@ public class FuncionarioService {
             Funcionario novoFuncionario = funcionarioDAO.inserir(funcionario, conn);
 
             conn.commit();
+            indicePapeis.recarregarAposEscrita(conn);
             return novoFuncionario;
 
         } catch (SQLException e) {
@@ -48,7 +55,7 @@ public class FuncionarioService {
                     conn.rollback();
                 } catch (SQLException exRollback) {
                     // Logar exRollback
-                    System.err.println("CRÍTICO: Erro ao tentar reverter transação de criar funcionário: " + exRollback.getMessage());
+                    log.error("Erro ao tentar reverter transação de criar funcionário: {}", exRollback.getMessage());
                 }
             }
             // Verificar se o erro é de CPF duplicado (exemplo, depende da mensagem do seu BD/Driver)
@@ -63,7 +70,7 @@ public class FuncionarioService {
                     conn.close();
                 } catch (SQLException e) {
                     // Logar
-                    System.err.println("Erro ao fechar conexão após criar funcionário: " + e.getMessage());
+                    log.warn("Erro ao fechar conexão após criar funcionário: {}", e.getMessage());
                 }
             }
         }
@@ -85,9 +92,30 @@ public class FuncionarioService {
     }
 
     public List<Funcionario> listarTodosFuncionarios() throws ServiceException {
+        return listarTodosFuncionarios("telefones,dependentes");
+    }
+
+    // Listagem resumida por padrão; "expand" (separado por vírgulas) pede as coleções extras:
+    // "telefones" e/ou "dependentes".
+    public List<Funcionario> listarTodosFuncionarios(String expand) throws ServiceException {
+        boolean incluirTelefones = false;
+        boolean incluirDependentes = false;
+        if (expand != null) {
+            for (String parte : expand.split(",")) {
+                String campo = parte.trim().toLowerCase();
+                if (campo.isEmpty()) continue;
+                if ("telefones".equals(campo)) {
+                    incluirTelefones = true;
+                } else if ("dependentes".equals(campo)) {
+                    incluirDependentes = true;
+                } else {
+                    throw new IllegalArgumentException("Valor inválido para expand: " + parte.trim() + ". Use telefones e/ou dependentes.");
+                }
+            }
+        }
         try {
             // Chama a versão do DAO que gerencia sua própria conexão
-            return funcionarioDAO.listarTodos();
+            return funcionarioDAO.listarTodos(incluirTelefones, incluirDependentes);
         } catch (SQLException e) {
             throw new ServiceException("Erro ao listar todos os funcionários: " + e.getMessage(), e);
         }
@@ -113,11 +141,12 @@ public class FuncionarioService {
             // }
 
             conn.commit();
+            indicePapeis.recarregarAposEscrita(conn);
             return funcionarioAtualizado; // Retorna o funcionário com os dados atualizados
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da atualização de funcionário: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da atualização de funcionário: {}", ex.getMessage());}
             }
             // Exemplo de como tratar erro de "não encontrado" se o DAO lançar SQLException específica
             if (e.getMessage() != null && e.getMessage().toLowerCase().contains("não encontrado")) {
@@ -126,7 +155,7 @@ public class FuncionarioService {
             throw new ServiceException("Erro ao atualizar funcionário: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da atualização de funcionário: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da atualização de funcionário: {}", ex.getMessage());}
             }
         }
     }
@@ -144,11 +173,12 @@ public class FuncionarioService {
             funcionarioDAO.deletar(id, conn);
 
             conn.commit();
-            System.out.println("Funcionário ID " + id + " deletado com sucesso (serviço).");
+            indicePapeis.recarregarAposEscrita(conn);
+            log.info("Funcionário ID {} deletado com sucesso (serviço).", id);
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da deleção de funcionário: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da deleção de funcionário: {}", ex.getMessage());}
             }
             if (e.getMessage() != null && e.getMessage().toLowerCase().contains("não encontrado para deleção")) {
                 throw new ResourceNotFoundException("Funcionário com ID " + id + " não encontrado para deleção.", e);
@@ -156,7 +186,7 @@ public class FuncionarioService {
             throw new ServiceException("Erro ao deletar funcionário: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da deleção de funcionário: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da deleção de funcionário: {}", ex.getMessage());}
             }
         }
     }
@@ -0,0 +1,120 @@
+package johnygastrobar.service;
+
+import johnygastrobar.dao.FuncionarioDAO;
+import johnygastrobar.dao.FuncionarioDAO.PapelFuncionario;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Índice em memória id do funcionário -> papel (Garcom, Cozinheiro, Bartender, Gerente, FuncionarioBase),
+// com o limite de desconto dos gerentes. Serve checagens de papel sem ir ao banco.
+// Mesmo esquema do CatalogoItensCache: snapshot imutável trocado de forma atômica, recarregado
+// pelo FuncionarioService após cada escrita confirmada e pelo TTL para alterações feitas direto no banco.
+// O AutorizaService confere aqui se o gerente pode autorizar o desconto do pedido.
+@Component
+public class IndicePapeisFuncionarios {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicePapeisFuncionarios.class);
+
+    private final FuncionarioDAO funcionarioDAO;
+    private final long ttlMillis;
+
+    private final AtomicReference<Snapshot> atual = new AtomicReference<>();
+    private final ReentrantLock lockCarga = new ReentrantLock();
+
+    @Autowired
+    public IndicePapeisFuncionarios(FuncionarioDAO funcionarioDAO, @Value("${funcionarios.papeis.ttl-segundos:60}") long ttlSegundos) {
+        this.funcionarioDAO = funcionarioDAO;
+        this.ttlMillis = ttlSegundos * 1000;
+    }
+
+    private static final class Snapshot {
+        private final long carregadoEmMillis;
+        private final Map<Integer, PapelFuncionario> papeis;
+
+        private Snapshot(long carregadoEmMillis, Map<Integer, PapelFuncionario> papeis) {
+            this.carregadoEmMillis = carregadoEmMillis;
+            this.papeis = Collections.unmodifiableMap(papeis);
+        }
+    }
+
+    // Gerente cujo limite de desconto é pelo menos limiteMinimo (limite nulo é tratado como zero).
+    public boolean isGerenteComLimiteMinimo(int idFuncionario, BigDecimal limiteMinimo) throws SQLException {
+        return atendeLimite(getSnapshot().papeis.get(idFuncionario), limiteMinimo);
+    }
+
+    public static boolean atendeLimite(PapelFuncionario papel, BigDecimal limiteMinimo) {
+        if (papel == null || !"Gerente".equals(papel.getTipo())) {
+            return false;
+        }
+        BigDecimal limite = (papel.getLimiteDesconto() != null) ? papel.getLimiteDesconto() : BigDecimal.ZERO;
+        return limiteMinimo == null || limite.compareTo(limiteMinimo) >= 0;
+    }
+
+    // Se o TTL venceu, uma única thread recarrega enquanto as demais usam o snapshot anterior.
+    // A carga (primeira e pelo TTL) usa sempre uma conexão própria em autocommit, nunca a transação de quem
+    // chamou: o snapshot REPEATABLE READ dela não veria promoções, rebaixamentos e demissões confirmados
+    // depois, e o índice desatualizado seria publicado para todas as threads.
+    private Snapshot getSnapshot() throws SQLException {
+        Snapshot snapshot = atual.get();
+        if (snapshot == null) {
+            try (Connection conn = ConnectionFactory.getConnection()) {
+                return recarregar(conn);
+            }
+        }
+        if (System.currentTimeMillis() - snapshot.carregadoEmMillis > ttlMillis && lockCarga.tryLock()) {
+            try {
+                if (atual.get() == snapshot) {
+                    try (Connection conn = ConnectionFactory.getConnection()) {
+                        return carregar(conn);
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Erro ao atualizar índice de papéis de funcionários pelo TTL: {}", e.getMessage());
+            } finally {
+                lockCarga.unlock();
+            }
+        }
+        // Uma recarga após escrita que falhou pode ter descartado o índice entretanto: carrega de novo.
+        Snapshot resultado = atual.get();
+        return (resultado != null) ? resultado : getSnapshot();
+    }
+
+    private Snapshot recarregar(Connection conn) throws SQLException {
+        lockCarga.lock();
+        try {
+            return carregar(conn);
+        } finally {
+            lockCarga.unlock();
+        }
+    }
+
+    // Chamado após o commit de escritas em Funcionario e especializações, reaproveitando a conexão de quem escreveu.
+    // Se a recarga falhar, descarta o índice para que a próxima consulta busque do banco.
+    public void recarregarAposEscrita(Connection conn) {
+        try {
+            recarregar(conn);
+        } catch (SQLException e) {
+            atual.set(null);
+            log.warn("Erro ao recarregar índice de papéis de funcionários após escrita: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot carregar(Connection conn) throws SQLException {
+        Snapshot novo = new Snapshot(System.currentTimeMillis(), funcionarioDAO.listarPapeis(conn));
+        atual.set(novo);
+        return novo;
+    }
+}
@@ -0,0 +1,351 @@
+package johnygastrobar.service;
+
+import johnygastrobar.dao.MesaDAO;
+import johnygastrobar.dao.ReservaDAO;
+import johnygastrobar.model.DisponibilidadeMesa;
+import johnygastrobar.model.Mesa;
+import johnygastrobar.model.Reserva;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Agenda em memória das reservas de hoje em diante, por (data, mesa), para detectar conflitos de horário
+// sem a consulta com ADDTIME/SEC_TO_TIME do ReservaDAO e para responder a disponibilidade das mesas.
+//
+// Consistência com o banco:
+// - carga completa na inicialização, pelo TTL e após escritas em Mesa;
+// - o ReservaService bloqueia o horário aqui ANTES de gravar (bloquear) e, depois do commit,
+//   troca o bloqueio pela reserva definitiva (confirmar) ou o desfaz em caso de erro (liberar).
+//   Como a checagem e o bloqueio são atômicos por agenda, duas requisições simultâneas não
+//   conseguem reservar o mesmo horário da mesma mesa nesta instância.
+// Recargas seguram o lock de escrita; bloqueios ainda pendentes são copiados para a agenda nova.
+// A carga (primeira e pelo TTL) usa sempre uma conexão própria em autocommit, nunca a transação de quem chamou:
+// o snapshot REPEATABLE READ dela não veria reservas confirmadas depois e a agenda nova as perderia.
+// O índice evita a maior parte das idas ao banco, mas não é a garantia final: o ReservaService ainda trava
+// a mesa e confere os conflitos no banco (ReservaDAO.verificarConflito) dentro da transação de escrita,
+// o que cobre outras instâncias e reservas gravadas direto no banco.
+@Component
+public class IndiceReservas {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceReservas.class);
+
+    private static final int DURACAO_RESERVA_SEGUNDOS = ReservaDAO.DURACAO_RESERVA_MINUTOS * 60;
+
+    private final ReservaDAO reservaDAO;
+    private final MesaDAO mesaDAO;
+    private final long ttlMillis;
+    private final int aberturaSegundos;
+    private final int ultimoHorarioSegundos;
+    private final int intervaloSegundos;
+
+    private final AtomicReference<Estado> atual = new AtomicReference<>();
+    private final ReentrantReadWriteLock lockEstado = new ReentrantReadWriteLock();
+    private final Map<Integer, Bloqueio> bloqueiosPendentes = new ConcurrentHashMap<>();
+    private final AtomicInteger sequenciaBloqueios = new AtomicInteger();
+
+    @Autowired
+    public IndiceReservas(ReservaDAO reservaDAO, MesaDAO mesaDAO,
+                          @Value("${reservas.indice.ttl-segundos:300}") long ttlSegundos,
+                          @Value("${reservas.disponibilidade.abertura:11:00}") String abertura,
+                          @Value("${reservas.disponibilidade.ultimo-horario:22:30}") String ultimoHorario,
+                          @Value("${reservas.disponibilidade.intervalo-minutos:30}") int intervaloMinutos) {
+        this.reservaDAO = reservaDAO;
+        this.mesaDAO = mesaDAO;
+        this.ttlMillis = ttlSegundos * 1000;
+        this.aberturaSegundos = LocalTime.parse(abertura).toSecondOfDay();
+        this.ultimoHorarioSegundos = LocalTime.parse(ultimoHorario).toSecondOfDay();
+        if (intervaloMinutos <= 0) {
+            throw new IllegalArgumentException("reservas.disponibilidade.intervalo-minutos deve ser positivo.");
+        }
+        this.intervaloSegundos = intervaloMinutos * 60;
+    }
+
+    // Horário de uma mesa reservado provisoriamente enquanto a transação de quem o pediu não termina.
+    public static final class Bloqueio {
+        private final int idTemporario;
+        private final int idMesa;
+        private final LocalDate data;
+        private final int inicioSegundos;
+
+        private Bloqueio(int idTemporario, int idMesa, LocalDate data, int inicioSegundos) {
+            this.idTemporario = idTemporario;
+            this.idMesa = idMesa;
+            this.data = data;
+            this.inicioSegundos = inicioSegundos;
+        }
+    }
+
+    // Reservas de uma mesa num dia. Cada chave junta o início (segundos do dia, 32 bits altos)
+    // e o id da reserva (32 bits baixos): a ordem do TreeSet é a ordem de horário e
+    // duas reservas no mesmo horário (gravadas direto no banco) não se sobrescrevem.
+    private static final class Agenda {
+        private final TreeSet<Long> reservas = new TreeSet<>();
+
+        private static long chave(int inicioSegundos, int idReserva) {
+            return ((long) inicioSegundos << 32) | (idReserva & 0xFFFFFFFFL);
+        }
+
+        // Existe reserva (diferente de idExcluir) cujo intervalo de DURACAO_RESERVA_SEGUNDOS cruza o que começa em inicioSegundos?
+        private boolean temConflito(int inicioSegundos, int idExcluir) {
+            long de = chave(inicioSegundos - DURACAO_RESERVA_SEGUNDOS + 1, 0);
+            long ate = chave(inicioSegundos + DURACAO_RESERVA_SEGUNDOS, 0);
+            for (Long chave : reservas.subSet(de, true, ate, false)) {
+                if ((int) chave.longValue() != idExcluir) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized boolean adicionarSeLivre(int inicioSegundos, int idReserva, int idExcluir) {
+            if (temConflito(inicioSegundos, idExcluir)) {
+                return false;
+            }
+            reservas.add(chave(inicioSegundos, idReserva));
+            return true;
+        }
+
+        synchronized boolean estaLivre(int inicioSegundos) {
+            return !temConflito(inicioSegundos, 0);
+        }
+
+        synchronized void adicionar(int inicioSegundos, int idReserva) {
+            reservas.add(chave(inicioSegundos, idReserva));
+        }
+
+        synchronized void remover(int inicioSegundos, int idReserva) {
+            reservas.remove(chave(inicioSegundos, idReserva));
+        }
+
+        synchronized List<LocalTime> horariosLivres(int deSegundos, int ateSegundos, int passoSegundos) {
+            List<LocalTime> livres = new ArrayList<>();
+            for (int inicio = deSegundos; inicio <= ateSegundos; inicio += passoSegundos) {
+                if (!temConflito(inicio, 0)) {
+                    livres.add(LocalTime.ofSecondOfDay(inicio));
+                }
+            }
+            return livres;
+        }
+    }
+
+    private static final class Estado {
+        private final long carregadoEmMillis;
+        private final List<Mesa> mesas;
+        private final Map<LocalDate, Map<Integer, Agenda>> agendas = new ConcurrentHashMap<>();
+
+        private Estado(long carregadoEmMillis, List<Mesa> mesas) {
+            this.carregadoEmMillis = carregadoEmMillis;
+            this.mesas = Collections.unmodifiableList(mesas);
+        }
+
+        private Agenda agenda(int idMesa, LocalDate data) {
+            return agendas.computeIfAbsent(data, d -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(idMesa, m -> new Agenda());
+        }
+
+        private Agenda agendaSeExistir(int idMesa, LocalDate data) {
+            Map<Integer, Agenda> doDia = agendas.get(data);
+            return (doDia != null) ? doDia.get(idMesa) : null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaInicializacao() {
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            recarregar(conn);
+        } catch (SQLException e) {
+            log.warn("Erro ao carregar índice de reservas na inicialização (será carregado no primeiro uso): {}", e.getMessage());
+        }
+    }
+
+    // Reserva provisoriamente o horário, se estiver livre. Retorna null se houver conflito.
+    // idReservaExcluir é a própria reserva numa atualização (0 numa criação).
+    public Bloqueio bloquear(int idMesa, LocalDate data, LocalTime hora, int idReservaExcluir) throws SQLException {
+        Bloqueio bloqueio = new Bloqueio(-sequenciaBloqueios.incrementAndGet(), idMesa, data, hora.toSecondOfDay());
+        while (true) {
+            getEstado();
+            lockEstado.readLock().lock();
+            try {
+                Estado estado = atual.get();
+                if (estado == null) {
+                    continue; // índice descartado entre a carga e o lock; carrega de novo
+                }
+                if (!estado.agenda(idMesa, data).adicionarSeLivre(bloqueio.inicioSegundos, bloqueio.idTemporario, idReservaExcluir)) {
+                    return null;
+                }
+                bloqueiosPendentes.put(bloqueio.idTemporario, bloqueio);
+                return bloqueio;
+            } finally {
+                lockEstado.readLock().unlock();
+            }
+        }
+    }
+
+    // Chamado após o commit: troca o bloqueio pela reserva gravada e, numa atualização,
+    // tira da agenda o horário antigo da reserva.
+    public void confirmar(Bloqueio bloqueio, Reserva gravada, Reserva anterior) {
+        lockEstado.readLock().lock();
+        try {
+            Estado estado = atual.get();
+            removerBloqueio(estado, bloqueio);
+            if (estado == null) {
+                return;
+            }
+            if (anterior != null) {
+                Agenda agendaAnterior = estado.agendaSeExistir(anterior.getIdMesa(), anterior.getDataReserva());
+                if (agendaAnterior != null) {
+                    agendaAnterior.remover(anterior.getHoraReserva().toSecondOfDay(), anterior.getIdReserva());
+                }
+            }
+            estado.agenda(gravada.getIdMesa(), gravada.getDataReserva())
+                    .adicionar(gravada.getHoraReserva().toSecondOfDay(), gravada.getIdReserva());
+        } finally {
+            lockEstado.readLock().unlock();
+        }
+    }
+
+    // Desfaz um bloqueio cuja transação não foi confirmada.
+    public void liberar(Bloqueio bloqueio) {
+        lockEstado.readLock().lock();
+        try {
+            removerBloqueio(atual.get(), bloqueio);
+        } finally {
+            lockEstado.readLock().unlock();
+        }
+    }
+
+    // Chamado após o commit da remoção de uma reserva.
+    public void remover(Reserva reserva) {
+        lockEstado.readLock().lock();
+        try {
+            Estado estado = atual.get();
+            Agenda agenda = (estado != null) ? estado.agendaSeExistir(reserva.getIdMesa(), reserva.getDataReserva()) : null;
+            if (agenda != null) {
+                agenda.remover(reserva.getHoraReserva().toSecondOfDay(), reserva.getIdReserva());
+            }
+        } finally {
+            lockEstado.readLock().unlock();
+        }
+    }
+
+    private void removerBloqueio(Estado estado, Bloqueio bloqueio) {
+        bloqueiosPendentes.remove(bloqueio.idTemporario);
+        Agenda agenda = (estado != null) ? estado.agendaSeExistir(bloqueio.idMesa, bloqueio.data) : null;
+        if (agenda != null) {
+            agenda.remover(bloqueio.inicioSegundos, bloqueio.idTemporario);
+        }
+    }
+
+    // Horários de início livres de cada mesa com capacidade para 'pessoas' na data, respondido só da memória.
+    public List<DisponibilidadeMesa> listarDisponibilidade(LocalDate data, int pessoas) throws SQLException {
+        Estado estado = getEstado();
+        List<DisponibilidadeMesa> disponibilidade = new ArrayList<>();
+        for (Mesa mesa : estado.mesas) {
+            if (mesa.getCapacidade() < pessoas) {
+                continue;
+            }
+            Agenda agenda = estado.agendaSeExistir(mesa.getIdMesa(), data);
+            List<LocalTime> livres = (agenda != null)
+                    ? agenda.horariosLivres(aberturaSegundos, ultimoHorarioSegundos, intervaloSegundos)
+                    : new Agenda().horariosLivres(aberturaSegundos, ultimoHorarioSegundos, intervaloSegundos);
+            disponibilidade.add(new DisponibilidadeMesa(mesa.getIdMesa(), mesa.getCapacidade(), mesa.getLocalizacao(), livres));
+        }
+        return disponibilidade;
+    }
+
+    // Mesas conhecidas pelo índice, em ordem de id.
+    public List<Mesa> listarMesas() throws SQLException {
+        return getEstado().mesas;
+    }
+
+    // O horário está livre na mesa agora? Consulta sem bloquear; quem for gravar ainda precisa chamar bloquear.
+    public boolean estaLivre(int idMesa, LocalDate data, LocalTime hora) throws SQLException {
+        Agenda agenda = getEstado().agendaSeExistir(idMesa, data);
+        return agenda == null || agenda.estaLivre(hora.toSecondOfDay());
+    }
+
+    // Estado atual, carregando na primeira vez. Se o TTL venceu, uma única thread recarrega
+    // (sem esperar por bloqueios em andamento) enquanto as demais seguem com o estado atual.
+    private Estado getEstado() throws SQLException {
+        Estado estado = atual.get();
+        if (estado == null) {
+            try (Connection conn = ConnectionFactory.getConnection()) {
+                return recarregar(conn);
+            }
+        }
+        if (System.currentTimeMillis() - estado.carregadoEmMillis > ttlMillis && lockEstado.writeLock().tryLock()) {
+            try {
+                if (atual.get() == estado) {
+                    try (Connection conn = ConnectionFactory.getConnection()) {
+                        return carregar(conn);
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Erro ao atualizar índice de reservas pelo TTL, mantendo a carga anterior: {}", e.getMessage());
+            } finally {
+                lockEstado.writeLock().unlock();
+            }
+        }
+        Estado resultado = atual.get();
+        return (resultado != null) ? resultado : getEstado();
+    }
+
+    private Estado recarregar(Connection conn) throws SQLException {
+        lockEstado.writeLock().lock();
+        try {
+            return carregar(conn);
+        } finally {
+            lockEstado.writeLock().unlock();
+        }
+    }
+
+    // Chamado após o commit de escritas em Mesa, reaproveitando a conexão de quem escreveu.
+    // Se a recarga falhar, descarta o índice para que o próximo uso carregue do banco.
+    public void recarregarAposEscrita(Connection conn) {
+        try {
+            recarregar(conn);
+        } catch (SQLException e) {
+            lockEstado.writeLock().lock();
+            try {
+                atual.set(null);
+            } finally {
+                lockEstado.writeLock().unlock();
+            }
+            log.warn("Erro ao recarregar índice de reservas após escrita: {}", e.getMessage());
+        }
+    }
+
+    // Deve ser chamado com o lock de escrita.
+    private Estado carregar(Connection conn) throws SQLException {
+        Estado novo = new Estado(System.currentTimeMillis(), mesaDAO.listarTodos(conn));
+        for (Reserva reserva : reservaDAO.listarAPartirDe(LocalDate.now(), conn)) {
+            novo.agenda(reserva.getIdMesa(), reserva.getDataReserva())
+                    .adicionar(reserva.getHoraReserva().toSecondOfDay(), reserva.getIdReserva());
+        }
+        for (Bloqueio bloqueio : bloqueiosPendentes.values()) {
+            novo.agenda(bloqueio.idMesa, bloqueio.data).adicionar(bloqueio.inicioSegundos, bloqueio.idTemporario);
+        }
+        atual.set(novo);
+        return novo;
+    }
+}
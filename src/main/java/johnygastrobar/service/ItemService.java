@@ -4,9 +4,13 @@ import johnygastrobar.dao.ItemDAO;
 import johnygastrobar.exception.ServiceException;
 import johnygastrobar.exception.ResourceNotFoundException;
 import johnygastrobar.model.Item;
+import johnygastrobar.model.ResultadoImportacaoItens;
+import johnygastrobar.model.ResultadoImportacaoItens.LinhaRecusada;
 import johnygastrobar.model.TopItemInfo; // IMPORT ADICIONADO
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -14,16 +18,33 @@ import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate; // IMPORT ADICIONADO
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class ItemService {
 
+    private static final Logger log = LoggerFactory.getLogger(ItemService.class);
+
+    private static final int LIMITE_ITENS_IMPORTACAO = 10000;
+    private static final int TAMANHO_MAXIMO_NOME = 100;
+    private static final int TAMANHO_MAXIMO_TIPO = 50;
+    // preco é DECIMAL(10,2): um valor maior derrubaria a transação da importação inteira.
+    private static final BigDecimal PRECO_LIMITE = new BigDecimal("100000000");
+
     private final ItemDAO itemDAO;
+    private final CatalogoItensCache catalogo;
 
     @Autowired
-    public ItemService(ItemDAO itemDAO) {
+    public ItemService(ItemDAO itemDAO, CatalogoItensCache catalogo) {
         this.itemDAO = itemDAO;
+        this.catalogo = catalogo;
     }
 
     public Item criarItem(Item item) throws ServiceException {
@@ -44,12 +65,13 @@ public class ItemService {
 
             Item novoItem = itemDAO.inserir(item, conn);
             conn.commit();
+            catalogo.recarregarAposEscrita(conn);
             return novoItem;
 
         } catch (SQLException e) {
             if (conn != null) {
                 try { conn.rollback(); } catch (SQLException exRollback) {
-                    System.err.println("CRÍTICO: Erro ao tentar reverter transação de criar item: " + exRollback.getMessage());
+                    log.error("Erro ao tentar reverter transação de criar item: {}", exRollback.getMessage());
                 }
             }
             if (e.getMessage() != null && e.getMessage().toLowerCase().contains("duplicate entry") && e.getMessage().toLowerCase().contains("nome")) {
@@ -59,7 +81,7 @@ public class ItemService {
         } finally {
             if (conn != null) {
                 try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
-                    System.err.println("Erro ao fechar conexão após criar item: " + e.getMessage());
+                    log.warn("Erro ao fechar conexão após criar item: {}", e.getMessage());
                 }
             }
         }
@@ -67,7 +89,11 @@ public class ItemService {
 
     public Item buscarItemPorId(int id) throws ResourceNotFoundException, ServiceException {
         try {
-            Item item = itemDAO.buscarPorId(id);
+            Item item = catalogo.buscarPorId(id);
+            if (item == null) {
+                // Pode ter sido criado direto no banco depois da última carga do catálogo.
+                item = itemDAO.buscarPorId(id);
+            }
             if (item == null) {
                 throw new ResourceNotFoundException("Item com ID " + id + " não encontrado.");
             }
@@ -79,7 +105,8 @@ public class ItemService {
 
     public List<Item> listarTodosItens() throws ServiceException {
         try {
-            return itemDAO.listarTodos();
+            // Servido do snapshot em memória: sem consulta ao banco e sem montar uma nova lista.
+            return catalogo.listarTodos();
         } catch (SQLException e) {
             throw new ServiceException("Erro ao listar todos os itens: " + e.getMessage(), e);
         }
@@ -113,11 +140,13 @@ public class ItemService {
             }
 
             conn.commit();
-            return itemDAO.buscarPorId(item.getIdItem(), conn);
+            Item itemAtualizado = itemDAO.buscarPorId(item.getIdItem(), conn);
+            catalogo.recarregarAposEscrita(conn);
+            return itemAtualizado;
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da atualização de item: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da atualização de item: {}", ex.getMessage());}
             }
             if (e.getMessage() != null && e.getMessage().toLowerCase().contains("duplicate entry") && e.getMessage().toLowerCase().contains("nome")) {
                 throw new ServiceException("Erro ao atualizar item: Nome '" + item.getNome() + "' já cadastrado para outro item.", e);
@@ -125,7 +154,7 @@ public class ItemService {
             throw new ServiceException("Erro ao atualizar item: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da atualização de item: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da atualização de item: {}", ex.getMessage());}
             }
         }
     }
@@ -151,11 +180,12 @@ public class ItemService {
             }
 
             conn.commit();
-            System.out.println("Item ID " + id + " deletado com sucesso (serviço).");
+            catalogo.recarregarAposEscrita(conn);
+            log.info("Item ID {} deletado com sucesso (serviço).", id);
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da deleção de item: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da deleção de item: {}", ex.getMessage());}
             }
             if (e.getMessage() != null && (e.getMessage().toLowerCase().contains("foreign key constraint fails") || e.getErrorCode() == 1451)) {
                 throw new ServiceException("Não é possível deletar o item ID " + id + " pois ele está associado a um ou mais pedidos.", e);
@@ -163,11 +193,353 @@ public class ItemService {
             throw new ServiceException("Erro ao deletar item: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da deleção de item: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da deleção de item: {}", ex.getMessage());}
+            }
+        }
+    }
+
+    // Importação do cardápio (troca sazonal) a partir de um array JSON. Ver importar.
+    public ResultadoImportacaoItens importarItens(List<Item> itens) throws ServiceException {
+        if (itens == null || itens.isEmpty()) {
+            throw new IllegalArgumentException("A lista de itens para importação não pode ser vazia.");
+        }
+        List<LinhaImportacao> linhas = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            linhas.add(new LinhaImportacao(i + 1, itens.get(i), null));
+        }
+        return importar(linhas);
+    }
+
+    // Importação do cardápio a partir de um CSV exportado de planilha. Ver lerCsv e importar.
+    public ResultadoImportacaoItens importarItensCsv(String csv) throws ServiceException {
+        return importar(lerCsv(csv));
+    }
+
+    // Linha lida do arquivo: o item, ou o motivo por que a linha não pôde ser lida.
+    private static final class LinhaImportacao {
+        private final int linha;
+        private final Item item;
+        private final String erroLeitura;
+
+        private LinhaImportacao(int linha, Item item, String erroLeitura) {
+            this.linha = linha;
+            this.item = item;
+            this.erroLeitura = erroLeitura;
+        }
+    }
+
+    // Valida todas as linhas em memória contra o cardápio atual (lido numa única consulta, dentro da transação)
+    // e grava as válidas de uma vez: alterações e inclusões com INSERTs de várias linhas, em vez de um
+    // PUT /api/itens/{id} (transação e conexão próprias) por item. Linhas inválidas são recusadas com o motivo,
+    // sem impedir as demais. O catálogo em memória é recarregado uma vez, depois do commit.
+    // Linha com idItem altera esse item; sem id, altera o item de mesmo nome (sem diferenciar maiúsculas) ou cria um novo.
+    private ResultadoImportacaoItens importar(List<LinhaImportacao> linhas) throws ServiceException {
+        if (linhas.size() > LIMITE_ITENS_IMPORTACAO) {
+            throw new IllegalArgumentException("No máximo " + LIMITE_ITENS_IMPORTACAO + " itens por importação.");
+        }
+
+        Connection conn = null;
+        try {
+            conn = ConnectionFactory.getConnection();
+            conn.setAutoCommit(false);
+
+            Map<Integer, Item> atuaisPorId = new HashMap<>();
+            Map<String, Integer> idPorNome = new HashMap<>();
+            for (Item atual : itemDAO.listarTodos(conn)) {
+                atuaisPorId.put(atual.getIdItem(), atual);
+                idPorNome.put(chaveNome(atual.getNome()), atual.getIdItem());
+            }
+
+            List<LinhaRecusada> recusadas = new ArrayList<>();
+            List<Item> novos = new ArrayList<>();
+            List<Item> alterados = new ArrayList<>();
+            Map<Integer, LinhaImportacao> linhaDoAlterado = new HashMap<>();
+            int inalterados = 0;
+            // Linha do arquivo que já usou cada id / nome: o mesmo item duas vezes no arquivo é recusado na segunda.
+            Map<Integer, Integer> linhaPorId = new HashMap<>();
+            Map<String, Integer> linhaPorNome = new HashMap<>();
+            for (LinhaImportacao linha : linhas) {
+                Item item = linha.item;
+                String motivo = (linha.erroLeitura != null) ? linha.erroLeitura : validarItemImportado(item);
+                String nome = null;
+                int id = 0;
+                if (motivo == null) {
+                    nome = item.getNome().trim();
+                    String chave = chaveNome(nome);
+                    Integer donoDoNome = idPorNome.get(chave);
+                    id = (item.getIdItem() > 0) ? item.getIdItem() : (donoDoNome != null ? donoDoNome : 0);
+                    if (item.getIdItem() > 0 && !atuaisPorId.containsKey(id)) {
+                        motivo = "Item com ID " + id + " não encontrado.";
+                    } else if (id > 0 && linhaPorId.containsKey(id)) {
+                        motivo = "Item ID " + id + " já aparece na linha " + linhaPorId.get(id) + ".";
+                    } else if (linhaPorNome.containsKey(chave)) {
+                        motivo = "Nome '" + nome + "' já aparece na linha " + linhaPorNome.get(chave) + ".";
+                    } else if (donoDoNome != null && donoDoNome != id) {
+                        motivo = "Nome '" + nome + "' já cadastrado para o item ID " + donoDoNome + ".";
+                    } else {
+                        linhaPorNome.put(chave, linha.linha);
+                    }
+                }
+                if (motivo != null) {
+                    recusadas.add(new LinhaRecusada(linha.linha, item != null ? item.getNome() : null, motivo));
+                    continue;
+                }
+
+                String tipo = (item.getTipo() == null || item.getTipo().trim().isEmpty()) ? null : item.getTipo().trim();
+                Item importado = new Item(id, nome, tipo, item.getPreco());
+                if (id == 0) {
+                    novos.add(importado);
+                    continue;
+                }
+                linhaPorId.put(id, linha.linha);
+                Item atual = atuaisPorId.get(id);
+                if (atual.getNome().equals(nome) && Objects.equals(atual.getTipo(), tipo)
+                        && atual.getPreco().compareTo(importado.getPreco()) == 0) {
+                    inalterados++;
+                } else {
+                    alterados.add(importado);
+                    linhaDoAlterado.put(id, linha);
+                }
+            }
+
+            // Item deletado por outra transação depois da leitura acima: a linha é recusada, não recria o item.
+            Set<Integer> removidos = itemDAO.atualizarEmLote(alterados, conn);
+            if (!removidos.isEmpty()) {
+                for (Integer id : removidos) {
+                    LinhaImportacao linha = linhaDoAlterado.get(id);
+                    recusadas.add(new LinhaRecusada(linha.linha, linha.item.getNome(), "Item com ID " + id + " não encontrado."));
+                }
+                recusadas.sort(Comparator.comparingInt(LinhaRecusada::getLinha));
+                alterados.removeIf(item -> removidos.contains(item.getIdItem()));
+            }
+            itemDAO.inserirEmLote(novos, conn);
+            conn.commit();
+            if (!alterados.isEmpty() || !novos.isEmpty()) {
+                catalogo.recarregarAposEscrita(conn);
+            }
+            log.info("Importação de itens: {} inseridos, {} atualizados, {} inalterados, {} recusados.",
+                    novos.size(), alterados.size(), inalterados, recusadas.size());
+            return new ResultadoImportacaoItens(novos.size(), alterados.size(), inalterados, recusadas);
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException exRollback) {
+                    log.error("Erro ao tentar reverter transação de importação de itens: {}", exRollback.getMessage());
+                }
+            }
+            if (e.getMessage() != null && e.getMessage().toLowerCase().contains("duplicate entry")) {
+                throw new ServiceException("Erro ao importar itens: nome já cadastrado (" + e.getMessage() + ").", e);
+            }
+            throw new ServiceException("Erro ao importar itens no banco de dados: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
+                    log.warn("Erro ao fechar conexão após importar itens: {}", e.getMessage());
+                }
             }
         }
     }
 
+    // Mesmas regras do criarItem/atualizarItem, mais os limites das colunas; retorna o motivo da recusa ou null.
+    private String validarItemImportado(Item item) {
+        if (item == null) {
+            return "Item nulo.";
+        }
+        if (item.getIdItem() < 0) {
+            return "ID do item inválido.";
+        }
+        if (item.getNome() == null || item.getNome().trim().isEmpty()) {
+            return "Nome do item é obrigatório.";
+        }
+        if (item.getNome().trim().length() > TAMANHO_MAXIMO_NOME) {
+            return "Nome do item deve ter no máximo " + TAMANHO_MAXIMO_NOME + " caracteres.";
+        }
+        if (item.getTipo() != null && item.getTipo().trim().length() > TAMANHO_MAXIMO_TIPO) {
+            return "Tipo do item deve ter no máximo " + TAMANHO_MAXIMO_TIPO + " caracteres.";
+        }
+        if (item.getPreco() == null || item.getPreco().compareTo(BigDecimal.ZERO) < 0) {
+            return "Preço do item não pode ser nulo ou negativo.";
+        }
+        if (item.getPreco().compareTo(PRECO_LIMITE) >= 0) {
+            return "Preço do item acima do máximo permitido.";
+        }
+        return null;
+    }
+
+    // Nomes são únicos sem diferenciar maiúsculas (collation padrão do MySQL).
+    private static String chaveNome(String nome) {
+        return nome.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Registro do CSV com a linha do arquivo em que começa (um campo entre aspas pode ocupar várias linhas).
+    private static final class RegistroCsv {
+        private final int linha;
+        private final List<String> campos;
+
+        private RegistroCsv(int linha, List<String> campos) {
+            this.linha = linha;
+            this.campos = campos;
+        }
+
+        private String campo(int coluna) {
+            return (coluna < 0 || coluna >= campos.size()) ? null : campos.get(coluna).trim();
+        }
+    }
+
+    // Cabeçalho com as colunas nome e preco (id_item e tipo opcionais, em qualquer ordem). O separador é ','
+    // ou ';' (o do Excel em português), escolhido pelo que mais aparece no cabeçalho. Campos entre aspas
+    // podem conter o separador e quebras de linha, com "" para aspas. O preço aceita "12.90", "12,90" e "1.234,50".
+    // Uma linha que não pode ser lida (id ou preço malformado) vira uma linha recusada, não um erro do arquivo.
+    private static List<LinhaImportacao> lerCsv(String csv) {
+        if (csv == null || csv.trim().isEmpty()) {
+            throw new IllegalArgumentException("O arquivo CSV de importação está vazio.");
+        }
+        String texto = (csv.charAt(0) == '\uFEFF') ? csv.substring(1) : csv; // BOM gravado pelo Excel
+        int fimPrimeiraLinha = texto.indexOf('\n');
+        String primeiraLinha = (fimPrimeiraLinha < 0) ? texto : texto.substring(0, fimPrimeiraLinha);
+        char separador = (contar(primeiraLinha, ';') > contar(primeiraLinha, ',')) ? ';' : ',';
+
+        List<RegistroCsv> registros = separarRegistros(texto, separador);
+        if (registros.isEmpty()) {
+            throw new IllegalArgumentException("O arquivo CSV de importação está vazio.");
+        }
+        RegistroCsv cabecalho = registros.get(0);
+        int colunaId = -1;
+        int colunaNome = -1;
+        int colunaTipo = -1;
+        int colunaPreco = -1;
+        for (int c = 0; c < cabecalho.campos.size(); c++) {
+            switch (cabecalho.campo(c).toLowerCase(Locale.ROOT)) {
+                case "id_item":
+                case "iditem":
+                case "id":
+                    colunaId = c;
+                    break;
+                case "nome":
+                    colunaNome = c;
+                    break;
+                case "tipo":
+                    colunaTipo = c;
+                    break;
+                case "preco":
+                case "preço":
+                    colunaPreco = c;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (colunaNome < 0 || colunaPreco < 0) {
+            throw new IllegalArgumentException("O cabeçalho do CSV deve ter as colunas nome e preco (id_item e tipo são opcionais).");
+        }
+
+        List<LinhaImportacao> linhas = new ArrayList<>(registros.size() - 1);
+        for (RegistroCsv registro : registros.subList(1, registros.size())) {
+            Item item = new Item();
+            item.setNome(registro.campo(colunaNome));
+            item.setTipo(registro.campo(colunaTipo));
+            String erroLeitura = null;
+            String id = registro.campo(colunaId);
+            if (id != null && !id.isEmpty()) {
+                try {
+                    item.setIdItem(Integer.parseInt(id));
+                } catch (NumberFormatException e) {
+                    erroLeitura = "ID do item inválido: '" + id + "'.";
+                }
+            }
+            String preco = registro.campo(colunaPreco);
+            if (preco != null && !preco.isEmpty()) {
+                item.setPreco(lerPreco(preco));
+                if (item.getPreco() == null && erroLeitura == null) {
+                    erroLeitura = "Preço do item inválido: '" + preco + "'.";
+                }
+            }
+            linhas.add(new LinhaImportacao(registro.linha, item, erroLeitura));
+        }
+        return linhas;
+    }
+
+    private static List<RegistroCsv> separarRegistros(String texto, char separador) {
+        List<RegistroCsv> registros = new ArrayList<>();
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        int linhaAtual = 1;
+        int inicioRegistro = 1;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    if (c == '\n') {
+                        linhaAtual++;
+                    }
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < texto.length() && texto.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                campos.add(campo.toString());
+                campo.setLength(0);
+                adicionarRegistro(registros, inicioRegistro, campos);
+                campos = new ArrayList<>();
+                linhaAtual++;
+                inicioRegistro = linhaAtual;
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("CSV com aspas não fechadas no registro que começa na linha " + inicioRegistro + ".");
+        }
+        campos.add(campo.toString());
+        adicionarRegistro(registros, inicioRegistro, campos);
+        return registros;
+    }
+
+    // Linhas em branco (comuns no fim de planilhas exportadas) são ignoradas.
+    private static void adicionarRegistro(List<RegistroCsv> registros, int linha, List<String> campos) {
+        for (String campo : campos) {
+            if (!campo.trim().isEmpty()) {
+                registros.add(new RegistroCsv(linha, campos));
+                return;
+            }
+        }
+    }
+
+    private static int contar(String texto, char caractere) {
+        int total = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == caractere) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    // "12.90", "12,90", "1.234,50" ou "R$ 12,90"; null se não for um número.
+    private static BigDecimal lerPreco(String texto) {
+        String valor = texto.replace("R$", "").trim();
+        if (valor.indexOf(',') >= 0) {
+            valor = valor.replace(".", "").replace(',', '.');
+        }
+        try {
+            return new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     // --- NOVOS MÉTODOS PARA DASHBOARD ---
     public List<TopItemInfo> getTopItensMaisVendidosPorQuantidade(LocalDate dataInicial, LocalDate dataFinal, int limite) throws ServiceException {
         if (dataInicial == null || dataFinal == null || dataInicial.isAfter(dataFinal) || limite <= 0) {
@@ -6,6 +6,8 @@ import johnygastrobar.exception.ResourceNotFoundException;
 import johnygastrobar.model.Mesa;
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,11 +18,15 @@ import java.util.List;
 @Service
 public class MesaService {
 
+    private static final Logger log = LoggerFactory.getLogger(MesaService.class);
+
     private final MesaDAO mesaDAO;
+    private final IndiceReservas indiceReservas;
 
     @Autowired
-    public MesaService(MesaDAO mesaDAO) {
+    public MesaService(MesaDAO mesaDAO, IndiceReservas indiceReservas) {
         this.mesaDAO = mesaDAO;
+        this.indiceReservas = indiceReservas;
     }
 
     public Mesa criarMesa(Mesa mesa) throws ServiceException {
@@ -43,19 +49,20 @@ public class MesaService {
             Mesa novaMesa = mesaDAO.inserir(mesa, conn);
 
             conn.commit();
+            indiceReservas.recarregarAposEscrita(conn);
             return novaMesa;
 
         } catch (SQLException e) {
             if (conn != null) {
                 try { conn.rollback(); } catch (SQLException exRollback) {
-                    System.err.println("CRÍTICO: Erro ao tentar reverter transação de criar mesa: " + exRollback.getMessage());
+                    log.error("Erro ao tentar reverter transação de criar mesa: {}", exRollback.getMessage());
                 }
             }
             throw new ServiceException("Erro ao criar mesa no banco de dados: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
                 try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
-                    System.err.println("Erro ao fechar conexão após criar mesa: " + e.getMessage());
+                    log.warn("Erro ao fechar conexão após criar mesa: {}", e.getMessage());
                 }
             }
         }
@@ -109,16 +116,17 @@ public class MesaService {
             }
 
             conn.commit();
+            indiceReservas.recarregarAposEscrita(conn);
             return mesa;
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da atualização de mesa: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da atualização de mesa: {}", ex.getMessage());}
             }
             throw new ServiceException("Erro ao atualizar mesa: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da atualização de mesa: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da atualização de mesa: {}", ex.getMessage());}
             }
         }
     }
@@ -148,11 +156,12 @@ public class MesaService {
             }
 
             conn.commit();
-            System.out.println("Mesa ID " + id + " deletada com sucesso (serviço).");
+            indiceReservas.recarregarAposEscrita(conn);
+            log.info("Mesa ID {} deletada com sucesso (serviço).", id);
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da deleção de mesa: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da deleção de mesa: {}", ex.getMessage());}
             }
             // Verificar erro de FK (ex: se a mesa está em uso em Pedidos e há ON DELETE RESTRICT)
             // Código de erro 1451 para MySQL: "Cannot delete or update a parent row: a foreign key constraint fails"
@@ -162,7 +171,7 @@ public class MesaService {
             throw new ServiceException("Erro ao deletar mesa: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da deleção de mesa: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da deleção de mesa: {}", ex.getMessage());}
             }
         }
     }
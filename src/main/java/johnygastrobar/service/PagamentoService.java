@@ -2,12 +2,15 @@ package johnygastrobar.service;
 
 import johnygastrobar.dao.PagamentoDAO;
 import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.exception.ConflitoConcorrenciaException;
 import johnygastrobar.exception.ServiceException;
 import johnygastrobar.exception.ResourceNotFoundException;
 import johnygastrobar.model.Pagamento;
 import johnygastrobar.model.Pedido;
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,23 +19,42 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate; // Para o novo método
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
 public class PagamentoService {
 
+    private static final Logger log = LoggerFactory.getLogger(PagamentoService.class);
+
     private final PagamentoDAO pagamentoDAO;
     private final PedidoDAO pedidoDAO;
     private final PedidoService pedidoService;
+    private final ResumoVendasService resumoVendas;
+    private final EventosPedidoService eventosPedido;
+    private final QuadroPedidosAbertos quadroPedidos;
+    private final RegistroIdempotencia idempotencia;
 
     @Autowired
-    public PagamentoService(PagamentoDAO pagamentoDAO, PedidoDAO pedidoDAO, PedidoService pedidoService) {
+    public PagamentoService(PagamentoDAO pagamentoDAO, PedidoDAO pedidoDAO, PedidoService pedidoService,
+                            ResumoVendasService resumoVendas, EventosPedidoService eventosPedido,
+                            QuadroPedidosAbertos quadroPedidos, RegistroIdempotencia idempotencia) {
         this.pagamentoDAO = pagamentoDAO;
         this.pedidoDAO = pedidoDAO;
         this.pedidoService = pedidoService;
+        this.resumoVendas = resumoVendas;
+        this.eventosPedido = eventosPedido;
+        this.quadroPedidos = quadroPedidos;
+        this.idempotencia = idempotencia;
     }
 
     public Pagamento registrarPagamento(Pagamento pagamento) throws ServiceException, ResourceNotFoundException {
+        return registrarPagamento(pagamento, null);
+    }
+
+    // chaveIdempotencia: cabeçalho Idempotency-Key (null se ausente). Repetições com a mesma chave
+    // devolvem o pagamento registrado pela primeira requisição em vez de falhar com "já foi pago".
+    public Pagamento registrarPagamento(Pagamento pagamento, String chaveIdempotencia) throws ServiceException, ResourceNotFoundException {
         if (pagamento == null) {
             throw new IllegalArgumentException("Objeto pagamento não pode ser nulo.");
         }
@@ -45,12 +67,31 @@ public class PagamentoService {
         if (pagamento.getMetodoPagamento() == null || pagamento.getMetodoPagamento().trim().isEmpty()) {
             throw new ServiceException("Método de pagamento é obrigatório.");
         }
+        String chave = idempotencia.validarChave(chaveIdempotencia);
+        String resumoRequisicao = null;
+        if (chave != null) {
+            // data_pagamento fica de fora: sem ela no corpo, cada reenvio chega com a hora atual.
+            resumoRequisicao = idempotencia.resumir(Arrays.asList(pagamento.getIdPedido(), pagamento.getValorTotal(),
+                    pagamento.getMetodoPagamento(), pagamento.getVersaoPedido()));
+            Pagamento original = idempotencia.respostaEmMemoria(RegistroIdempotencia.OPERACAO_REGISTRAR_PAGAMENTO, chave, resumoRequisicao, Pagamento.class);
+            if (original != null) {
+                return original;
+            }
+        }
 
         Connection conn = null;
         try {
             conn = ConnectionFactory.getConnection();
             conn.setAutoCommit(false);
 
+            if (chave != null) {
+                Pagamento original = pagamentoRegistradoPelaChave(chave, resumoRequisicao, conn);
+                if (original != null) {
+                    conn.rollback();
+                    return original;
+                }
+            }
+
             Pedido pedido = pedidoDAO.buscarPorId(pagamento.getIdPedido(), conn);
             if (pedido == null) {
                 throw new ResourceNotFoundException("Pedido com ID " + pagamento.getIdPedido() + " não encontrado para registrar pagamento.");
@@ -59,6 +100,11 @@ public class PagamentoService {
             if (pedido.isPago()) {
                 throw new ServiceException("Pedido com ID " + pagamento.getIdPedido() + " já foi pago anteriormente.");
             }
+            // O caixa fechou a conta sobre outra versão do pedido (um garçom editou depois): não cobra o valor antigo.
+            if (pagamento.getVersaoPedido() != null && !pagamento.getVersaoPedido().equals(pedido.getVersao())) {
+                throw new ConflitoConcorrenciaException("O pedido ID " + pagamento.getIdPedido() + " foi alterado depois do fechamento da conta " +
+                        "(versão " + pagamento.getVersaoPedido() + ", atual " + pedido.getVersao() + "). Recarregue o pedido e tente novamente.");
+            }
 
             if (pagamento.getDataPagamento() == null) {
                 pagamento.setDataPagamento(LocalDateTime.now());
@@ -66,15 +112,44 @@ public class PagamentoService {
 
             Pagamento novoPagamento = pagamentoDAO.inserir(pagamento, conn);
 
-            pedidoService.marcarPedidoComoPago(novoPagamento.getIdPedido(), conn);
+            Pedido pedidoPago = pedidoService.marcarPedidoComoPago(novoPagamento.getIdPedido(), pedido.getVersao(), conn);
+            resumoVendas.registrarPagamento(novoPagamento, conn);
+            if (chave != null) {
+                idempotencia.gravar(RegistroIdempotencia.OPERACAO_REGISTRAR_PAGAMENTO, chave, resumoRequisicao, novoPagamento.getIdPagamento(), conn);
+            }
 
             conn.commit();
+            if (chave != null) {
+                idempotencia.lembrar(RegistroIdempotencia.OPERACAO_REGISTRAR_PAGAMENTO, chave, resumoRequisicao, novoPagamento);
+            }
+            quadroPedidos.registrar(pedidoPago);
+            eventosPedido.publicarPago(pedidoPago);
             return novoPagamento;
 
+        } catch (ServiceException e) {
+            // Ex.: conflito de versão ao marcar o pedido como pago, depois de o pagamento já ter sido inserido.
+            // Sem o rollback, o setAutoCommit(true) do finally confirmaria o pagamento órfão.
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException exRollback) {
+                    log.error("Erro ao tentar reverter transação de registrar pagamento: {}", exRollback.getMessage());
+                }
+            }
+            throw e;
         } catch (SQLException e) {
             if (conn != null) {
                 try { conn.rollback(); } catch (SQLException exRollback) {
-                    System.err.println("CRÍTICO: Erro ao tentar reverter transação de registrar pagamento: " + exRollback.getMessage());
+                    log.error("Erro ao tentar reverter transação de registrar pagamento: {}", exRollback.getMessage());
+                }
+                // Outra requisição com a mesma chave confirmou antes (chave duplicada): devolve o pagamento dela.
+                if (chave != null) {
+                    try {
+                        Pagamento original = pagamentoRegistradoPelaChave(chave, resumoRequisicao, conn);
+                        if (original != null) {
+                            return original;
+                        }
+                    } catch (SQLException exChave) {
+                        log.warn("Erro ao consultar Idempotency-Key após falha ao registrar pagamento: {}", exChave.getMessage());
+                    }
                 }
             }
             if (e.getMessage() != null && e.getMessage().toLowerCase().contains("pagamento_realiza_id_pedido_key")) {
@@ -84,12 +159,26 @@ public class PagamentoService {
         } finally {
             if (conn != null) {
                 try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
-                    System.err.println("Erro ao fechar conexão após registrar pagamento: " + e.getMessage());
+                    log.warn("Erro ao fechar conexão após registrar pagamento: {}", e.getMessage());
                 }
             }
         }
     }
 
+    // Pagamento já registrado com a chave (consultando a tabela de chaves), ou null se a chave é nova.
+    private Pagamento pagamentoRegistradoPelaChave(String chave, String resumoRequisicao, Connection conn) throws SQLException {
+        Integer idPagamento = idempotencia.idGravado(RegistroIdempotencia.OPERACAO_REGISTRAR_PAGAMENTO, chave, resumoRequisicao, conn);
+        if (idPagamento == null) {
+            return null;
+        }
+        Pagamento original = pagamentoDAO.buscarPorId(idPagamento, conn);
+        if (original == null) {
+            throw new ServiceException("O pagamento registrado com esta Idempotency-Key (ID " + idPagamento + ") foi removido.");
+        }
+        idempotencia.lembrar(RegistroIdempotencia.OPERACAO_REGISTRAR_PAGAMENTO, chave, resumoRequisicao, original);
+        return original;
+    }
+
     public Pagamento buscarPagamentoPorId(int id) throws ResourceNotFoundException, ServiceException {
         try {
             Pagamento pagamento = pagamentoDAO.buscarPorId(id);
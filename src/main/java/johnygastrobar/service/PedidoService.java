@@ -3,23 +3,32 @@ package johnygastrobar.service;
 import johnygastrobar.dao.PedidoDAO;
 import johnygastrobar.dao.ItemDAO;
 import johnygastrobar.dao.MesaDAO;
+import johnygastrobar.exception.ConflitoConcorrenciaException;
 import johnygastrobar.exception.ServiceException;
 import johnygastrobar.exception.ResourceNotFoundException;
+import johnygastrobar.model.FacetaPedidos;
 import johnygastrobar.model.Item;
+import johnygastrobar.model.ItemNaoEntregue;
 import johnygastrobar.model.Mesa;
+import johnygastrobar.model.PaginaPedidos;
 import johnygastrobar.model.Pedido;
 import johnygastrobar.model.Pedido.PedidoItem;
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate; // Para os novos métodos
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap; // Para DTO de contagem de status
 import java.util.List;
 import java.util.Map; // Para DTO de contagem de status
@@ -28,18 +37,64 @@ import java.util.Map; // Para DTO de contagem de status
 @Service
 public class PedidoService {
 
+    private static final Logger log = LoggerFactory.getLogger(PedidoService.class);
+
+    private static final int LIMITE_PADRAO_PAGINA = 50;
+    private static final int LIMITE_MAXIMO_PAGINA = 200;
+    private static final int TENTATIVAS_ALTERACAO_ITEM = 3;
+
     private final PedidoDAO pedidoDAO;
     private final ItemDAO itemDAO;
     private final MesaDAO mesaDAO;
+    private final CatalogoItensCache catalogoItens;
+    private final ResumoVendasService resumoVendas;
+    private final EventosPedidoService eventosPedido;
+    private final QuadroPedidosAbertos quadroPedidos;
+    private final RegistroIdempotencia idempotencia;
 
     @Autowired
-    public PedidoService(PedidoDAO pedidoDAO, ItemDAO itemDAO, MesaDAO mesaDAO) {
+    public PedidoService(PedidoDAO pedidoDAO, ItemDAO itemDAO, MesaDAO mesaDAO, CatalogoItensCache catalogoItens,
+                         ResumoVendasService resumoVendas, EventosPedidoService eventosPedido,
+                         QuadroPedidosAbertos quadroPedidos, RegistroIdempotencia idempotencia) {
         this.pedidoDAO = pedidoDAO;
         this.itemDAO = itemDAO;
         this.mesaDAO = mesaDAO;
+        this.catalogoItens = catalogoItens;
+        this.resumoVendas = resumoVendas;
+        this.eventosPedido = eventosPedido;
+        this.quadroPedidos = quadroPedidos;
+        this.idempotencia = idempotencia;
+    }
+
+    // Resolve os itens do catálogo pelo snapshot em memória; só os IDs que não estão nele
+    // (ex.: itens criados direto no banco desde a última carga) são buscados, numa única consulta.
+    // O snapshot nunca é carregado aqui: com o catálogo ainda vazio, todos os IDs vêm do banco pela
+    // conexão da transação, sem pegar uma segunda conexão do pool.
+    private Map<Integer, Item> resolverItensDoCatalogo(List<Integer> idsItens, Connection conn) throws SQLException {
+        CatalogoItensCache.Snapshot snapshot = catalogoItens.getSnapshotSemCarga();
+        Map<Integer, Item> itens = new HashMap<>();
+        List<Integer> idsAusentes = new ArrayList<>();
+        for (Integer idItem : idsItens) {
+            Item item = (snapshot != null) ? snapshot.buscarPorId(idItem) : null;
+            if (item != null) {
+                itens.put(idItem, item);
+            } else {
+                idsAusentes.add(idItem);
+            }
+        }
+        if (!idsAusentes.isEmpty()) {
+            itens.putAll(itemDAO.buscarPorIds(idsAusentes, conn));
+        }
+        return itens;
     }
 
     public Pedido criarPedido(Pedido pedido) throws ServiceException, ResourceNotFoundException {
+        return criarPedido(pedido, null);
+    }
+
+    // chaveIdempotencia: cabeçalho Idempotency-Key (null se ausente). Repetições com a mesma chave
+    // devolvem o pedido criado pela primeira requisição em vez de criar outro.
+    public Pedido criarPedido(Pedido pedido, String chaveIdempotencia) throws ServiceException, ResourceNotFoundException {
         if (pedido == null) {
             throw new IllegalArgumentException("Objeto pedido não pode ser nulo.");
         }
@@ -49,23 +104,47 @@ public class PedidoService {
         if (pedido.getItensDoPedido() == null || pedido.getItensDoPedido().isEmpty()) {
             throw new ServiceException("Um pedido deve conter pelo menos um item.");
         }
+        String chave = idempotencia.validarChave(chaveIdempotencia);
+        String resumoRequisicao = null;
+        if (chave != null) {
+            resumoRequisicao = idempotencia.resumir(conteudoParaIdempotencia(pedido));
+            Pedido original = idempotencia.respostaEmMemoria(RegistroIdempotencia.OPERACAO_CRIAR_PEDIDO, chave, resumoRequisicao, Pedido.class);
+            if (original != null) {
+                return original;
+            }
+        }
 
         Connection conn = null;
         try {
             conn = ConnectionFactory.getConnection();
             conn.setAutoCommit(false);
 
+            if (chave != null) {
+                Pedido original = pedidoCriadoPelaChave(chave, resumoRequisicao, conn);
+                if (original != null) {
+                    conn.rollback();
+                    return original;
+                }
+            }
+
             Mesa mesa = mesaDAO.buscarPorId(pedido.getIdMesa(), conn);
             if (mesa == null) {
                 throw new ResourceNotFoundException("Mesa com ID " + pedido.getIdMesa() + " não encontrada.");
             }
 
-            List<PedidoItem> itensValidados = new ArrayList<>();
+            List<Integer> idsItens = new ArrayList<>();
             for (PedidoItem pi : pedido.getItensDoPedido()) {
                 if (pi.getIdItem() <= 0 || pi.getQuantidade() <= 0) {
                     throw new ServiceException("Item inválido no pedido: ID e quantidade devem ser positivos.");
                 }
-                Item itemDeCatalogo = itemDAO.buscarPorId(pi.getIdItem(), conn);
+                idsItens.add(pi.getIdItem());
+            }
+            // Preços vêm do catálogo em memória; no máximo uma consulta, independente do número de linhas do pedido.
+            Map<Integer, Item> catalogo = resolverItensDoCatalogo(idsItens, conn);
+
+            List<PedidoItem> itensValidados = new ArrayList<>();
+            for (PedidoItem pi : pedido.getItensDoPedido()) {
+                Item itemDeCatalogo = catalogo.get(pi.getIdItem());
                 if (itemDeCatalogo == null) {
                     throw new ResourceNotFoundException("Item com ID " + pi.getIdItem() + " não encontrado no catálogo.");
                 }
@@ -84,26 +163,71 @@ public class PedidoService {
             }
 
             Pedido novoPedido = pedidoDAO.inserir(pedido, conn);
+            resumoVendas.registrarPedidoCriado(novoPedido, conn);
+            if (chave != null) {
+                idempotencia.gravar(RegistroIdempotencia.OPERACAO_CRIAR_PEDIDO, chave, resumoRequisicao, novoPedido.getIdPedido(), conn);
+            }
 
             conn.commit();
+            if (chave != null) {
+                idempotencia.lembrar(RegistroIdempotencia.OPERACAO_CRIAR_PEDIDO, chave, resumoRequisicao, novoPedido);
+            }
+            quadroPedidos.registrar(novoPedido);
+            eventosPedido.publicarCriado(novoPedido);
             return novoPedido;
 
         } catch (SQLException e) {
             if (conn != null) {
                 try { conn.rollback(); } catch (SQLException exRollback) {
-                    System.err.println("CRÍTICO: Erro ao tentar reverter transação de criar pedido: " + exRollback.getMessage());
+                    log.error("Erro ao tentar reverter transação de criar pedido: {}", exRollback.getMessage());
+                }
+                // Outra requisição com a mesma chave confirmou antes (chave duplicada): devolve o pedido dela.
+                if (chave != null) {
+                    try {
+                        Pedido original = pedidoCriadoPelaChave(chave, resumoRequisicao, conn);
+                        if (original != null) {
+                            return original;
+                        }
+                    } catch (SQLException exChave) {
+                        log.warn("Erro ao consultar Idempotency-Key após falha ao criar pedido: {}", exChave.getMessage());
+                    }
                 }
             }
             throw new ServiceException("Erro ao criar pedido no banco de dados: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
                 try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
-                    System.err.println("Erro ao fechar conexão após criar pedido: " + e.getMessage());
+                    log.warn("Erro ao fechar conexão após criar pedido: {}", e.getMessage());
                 }
             }
         }
     }
 
+    // Campos definidos pelo cliente. data_hora fica de fora: sem ela no corpo, cada reenvio chega com a hora atual.
+    private static List<Object> conteudoParaIdempotencia(Pedido pedido) {
+        List<Object> conteudo = new ArrayList<>(Arrays.asList(pedido.getIdGarcom(), pedido.getIdGerente(), pedido.getIdMesa(), pedido.getDesconto()));
+        for (PedidoItem item : pedido.getItensDoPedido()) {
+            conteudo.add(item.getIdItem());
+            conteudo.add(item.getQuantidade());
+            conteudo.add(item.getPrecoUnitario());
+        }
+        return conteudo;
+    }
+
+    // Pedido já criado com a chave (consultando a tabela de chaves), ou null se a chave é nova.
+    private Pedido pedidoCriadoPelaChave(String chave, String resumoRequisicao, Connection conn) throws SQLException {
+        Integer idPedido = idempotencia.idGravado(RegistroIdempotencia.OPERACAO_CRIAR_PEDIDO, chave, resumoRequisicao, conn);
+        if (idPedido == null) {
+            return null;
+        }
+        Pedido original = pedidoDAO.buscarPorId(idPedido, conn);
+        if (original == null) {
+            throw new ServiceException("O pedido criado com esta Idempotency-Key (ID " + idPedido + ") foi removido.");
+        }
+        idempotencia.lembrar(RegistroIdempotencia.OPERACAO_CRIAR_PEDIDO, chave, resumoRequisicao, original);
+        return original;
+    }
+
     public Pedido buscarPedidoPorId(int id) throws ResourceNotFoundException, ServiceException {
         try {
             Pedido pedido = pedidoDAO.buscarPorId(id);
@@ -124,15 +248,94 @@ public class PedidoService {
         }
     }
 
+    // Listagem paginada por cursor, com filtros opcionais. O cursor é opaco para o cliente:
+    // codifica (data_hora, id_pedido) do último pedido da página anterior.
+    public PaginaPedidos listarPedidosPaginado(Integer limite, String cursor, Integer idMesa, Integer idGarcom, String status,
+                                               LocalDate dataInicial, LocalDate dataFinal) throws ServiceException {
+        int tamanhoPagina = (limite == null) ? LIMITE_PADRAO_PAGINA : limite;
+        if (tamanhoPagina <= 0 || tamanhoPagina > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("O limite da página deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA + ".");
+        }
+        if (dataInicial != null && dataFinal != null && dataInicial.isAfter(dataFinal)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final.");
+        }
+
+        Boolean entregue = null;
+        Boolean pago = null;
+        if (status != null && !status.trim().isEmpty()) {
+            switch (status.trim().toUpperCase()) {
+                case "PENDENTE": // Não entregue E não pago
+                    entregue = false;
+                    pago = false;
+                    break;
+                case "ENTREGUE": // Entregue E não pago
+                    entregue = true;
+                    pago = false;
+                    break;
+                case "PAGO": // Pago, independente de entregue (mesma regra da contagem por status)
+                    pago = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Status de pedido desconhecido: " + status);
+            }
+        }
+
+        LocalDateTime cursorDataHora = null;
+        Integer cursorIdPedido = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorDataHora = LocalDateTime.parse(partes[0]);
+                cursorIdPedido = Integer.parseInt(partes[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+        }
+
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            // Busca um registro a mais só para saber se existe próxima página.
+            List<Pedido> pedidos = pedidoDAO.listarPagina(idMesa, idGarcom, entregue, pago, dataInicial, dataFinal,
+                    cursorDataHora, cursorIdPedido, tamanhoPagina + 1, conn);
+
+            String proximoCursor = null;
+            if (pedidos.size() > tamanhoPagina) {
+                pedidos = new ArrayList<>(pedidos.subList(0, tamanhoPagina));
+                Pedido ultimo = pedidos.get(pedidos.size() - 1);
+                String chave = ultimo.getDataHora() + "|" + ultimo.getIdPedido();
+                proximoCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+            }
+            return new PaginaPedidos(pedidos, proximoCursor);
+        } catch (SQLException e) {
+            throw new ServiceException("Erro ao listar pedidos paginados: " + e.getMessage(), e);
+        }
+    }
+
+    // Pedidos não entregues e não pagos, servidos pelo quadro em memória (sem consultar o banco).
     public List<Pedido> listarPedidosNaoPagos() throws ServiceException {
         try {
-            // Este método no DAO foi ajustado para chamar listarPedidosByStatus(false, false, conn)
-            return pedidoDAO.listarPedidosNaoPagos();
+            return quadroPedidos.listarAbertosPorEntrega(false);
         } catch (SQLException e) {
             throw new ServiceException("Erro ao listar pedidos não pagos: " + e.getMessage(), e);
         }
     }
 
+    // Todos os pedidos não pagos (entregues ou não), opcionalmente de uma mesa, a partir do quadro em memória.
+    public List<Pedido> listarPedidosAbertos(Integer idMesa) throws ServiceException {
+        try {
+            return (idMesa != null) ? quadroPedidos.listarAbertosPorMesa(idMesa) : quadroPedidos.listarAbertos();
+        } catch (SQLException e) {
+            throw new ServiceException("Erro ao listar pedidos em aberto: " + e.getMessage(), e);
+        }
+    }
+
+    public List<ItemNaoEntregue> listarItensNaoEntregues() throws ServiceException {
+        try {
+            return quadroPedidos.listarItensNaoEntregues();
+        } catch (SQLException e) {
+            throw new ServiceException("Erro ao listar itens não entregues: " + e.getMessage(), e);
+        }
+    }
+
     // NOVO: Método para listar pedidos por status específico para a "Aba de Pedidos"
     public List<Pedido> listarPedidosPorStatus(String status) throws ServiceException {
         boolean entregue;
@@ -156,6 +359,14 @@ public class PedidoService {
                 throw new IllegalArgumentException("Status de pedido desconhecido: " + status);
         }
 
+        // Pedidos ainda não pagos estão no quadro em memória; só o histórico de pagos vai ao banco.
+        if (!pago) {
+            try {
+                return quadroPedidos.listarAbertosPorEntrega(entregue);
+            } catch (SQLException e) {
+                throw new ServiceException("Erro ao listar pedidos por status '" + status + "': " + e.getMessage(), e);
+            }
+        }
         try (Connection conn = ConnectionFactory.getConnection()){
             return pedidoDAO.listarPedidosByStatus(entregue, pago, conn);
         } catch (SQLException e) {
@@ -164,6 +375,9 @@ public class PedidoService {
     }
 
 
+    // Controle otimista: o pedido só é gravado se ainda estiver na versão que o cliente leu (pedido.getVersao();
+    // sem versão no corpo, vale a versão lida aqui). Se outro tablet editou ou pagou o pedido antes, responde 409
+    // e nada é gravado; o cliente relê o pedido e decide. Nenhuma linha fica bloqueada enquanto o garçom edita.
     public Pedido atualizarPedido(Pedido pedido) throws ResourceNotFoundException, ServiceException {
         if (pedido == null || pedido.getIdPedido() <= 0) {
             throw new IllegalArgumentException("Dados do pedido inválidos para atualização ou ID não fornecido.");
@@ -186,13 +400,26 @@ public class PedidoService {
                 throw new ServiceException("Não é possível atualizar um pedido que já foi pago (ID: " + pedido.getIdPedido() + ").");
             }
 
+            if (pedido.getVersao() == null) {
+                pedido.setVersao(pedidoExistente.getVersao());
+            } else if (!pedido.getVersao().equals(pedidoExistente.getVersao())) {
+                conn.rollback();
+                throw conflitoDeVersao(pedido.getIdPedido());
+            }
+
             if (pedido.getItensDoPedido() != null && !pedido.getItensDoPedido().isEmpty()) {
-                List<PedidoItem> itensValidadosAtualizacao = new ArrayList<>();
+                List<Integer> idsItens = new ArrayList<>();
                 for (PedidoItem pi : pedido.getItensDoPedido()) {
                     if (pi.getIdItem() <= 0 || pi.getQuantidade() <= 0) {
                         throw new ServiceException("Item inválido no pedido: ID e quantidade devem ser positivos.");
                     }
-                    Item itemDeCatalogo = itemDAO.buscarPorId(pi.getIdItem(), conn);
+                    idsItens.add(pi.getIdItem());
+                }
+                Map<Integer, Item> catalogo = resolverItensDoCatalogo(idsItens, conn);
+
+                List<PedidoItem> itensValidadosAtualizacao = new ArrayList<>();
+                for (PedidoItem pi : pedido.getItensDoPedido()) {
+                    Item itemDeCatalogo = catalogo.get(pi.getIdItem());
                     if (itemDeCatalogo == null) {
                         throw new ResourceNotFoundException("Item com ID " + pi.getIdItem() + " não encontrado no catálogo para atualização do pedido.");
                     }
@@ -217,27 +444,144 @@ public class PedidoService {
                 pedido.setItensDoPedido(new ArrayList<>());
             }
 
-            boolean atualizado = pedidoDAO.atualizar(pedido, conn);
+            boolean atualizado = pedidoDAO.atualizar(pedido, pedidoExistente.getItensDoPedido(), conn);
             if (!atualizado) {
-                throw new ServiceException("Falha ao atualizar o pedido ID " + pedido.getIdPedido() + ".");
+                // Outra transação confirmou uma alteração entre a leitura acima e o UPDATE.
+                conn.rollback();
+                throw conflitoDeVersao(pedido.getIdPedido());
             }
+            resumoVendas.registrarPedidoAlterado(pedidoExistente, pedido, conn);
 
             conn.commit();
-            return pedidoDAO.buscarPorId(pedido.getIdPedido(), conn);
+            Pedido pedidoAtualizado = pedidoDAO.buscarPorId(pedido.getIdPedido(), conn);
+            quadroPedidos.registrar(pedidoAtualizado);
+            eventosPedido.publicarAtualizado(pedidoExistente, pedidoAtualizado);
+            return pedidoAtualizado;
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da atualização de pedido: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da atualização de pedido: {}", ex.getMessage());}
             }
             throw new ServiceException("Erro ao atualizar pedido: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da atualização de pedido: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da atualização de pedido: {}", ex.getMessage());}
+            }
+        }
+    }
+
+    // PATCH de uma linha da conta aberta: soma 'quantidade' unidades do item (negativa retira; chegando a zero,
+    // a linha sai do pedido). Item novo entra com o preço do catálogo. Só a linha afetada é gravada.
+    // Sem versaoEsperada, um conflito com outra edição é resolvido aqui mesmo: a alteração é relativa,
+    // então basta reaplicá-la sobre o pedido relido. Com versaoEsperada, o conflito volta ao cliente (409).
+    public Pedido alterarItemDoPedido(int idPedido, int idItem, int quantidade, Integer versaoEsperada) throws ResourceNotFoundException, ServiceException {
+        if (idPedido <= 0 || idItem <= 0) {
+            throw new IllegalArgumentException("ID do pedido e do item devem ser positivos.");
+        }
+        if (quantidade == 0) {
+            throw new IllegalArgumentException("A quantidade a adicionar ou retirar não pode ser zero.");
+        }
+        for (int tentativa = 1; ; tentativa++) {
+            Pedido pedidoAlterado = tentarAlterarItemDoPedido(idPedido, idItem, quantidade, versaoEsperada);
+            if (pedidoAlterado != null) {
+                return pedidoAlterado;
+            }
+            if (versaoEsperada != null || tentativa == TENTATIVAS_ALTERACAO_ITEM) {
+                throw conflitoDeVersao(idPedido);
+            }
+            log.info("Conflito de versão ao alterar item do pedido ID {}; reaplicando (tentativa {}).", idPedido, tentativa + 1);
+        }
+    }
+
+    // null quando o compare-and-set perdeu para outra transação.
+    private Pedido tentarAlterarItemDoPedido(int idPedido, int idItem, int quantidade, Integer versaoEsperada) throws ResourceNotFoundException, ServiceException {
+        Connection conn = null;
+        try {
+            conn = ConnectionFactory.getConnection();
+            conn.setAutoCommit(false);
+
+            Pedido pedidoExistente = pedidoDAO.buscarPorId(idPedido, conn);
+            if (pedidoExistente == null) {
+                conn.rollback();
+                throw new ResourceNotFoundException("Pedido com ID " + idPedido + " não encontrado.");
+            }
+            if (pedidoExistente.isPago()) {
+                conn.rollback();
+                throw new ServiceException("Não é possível alterar itens de um pedido que já foi pago (ID: " + idPedido + ").");
+            }
+            if (versaoEsperada != null && !versaoEsperada.equals(pedidoExistente.getVersao())) {
+                conn.rollback();
+                throw conflitoDeVersao(idPedido);
+            }
+
+            List<PedidoItem> itens = new ArrayList<>();
+            PedidoItem linhaDoItem = null;
+            for (PedidoItem pi : pedidoExistente.getItensDoPedido()) {
+                PedidoItem copia = new PedidoItem(pi.getIdItem(), pi.getNomeItem(), pi.getTipoItem(), pi.getQuantidade(), pi.getPrecoUnitario());
+                if (linhaDoItem == null && pi.getIdItem() == idItem) {
+                    linhaDoItem = copia;
+                }
+                itens.add(copia);
+            }
+            if (linhaDoItem == null) {
+                if (quantidade < 0) {
+                    conn.rollback();
+                    throw new ServiceException("O item ID " + idItem + " não está no pedido ID " + idPedido + ".");
+                }
+                Item itemDeCatalogo = resolverItensDoCatalogo(Arrays.asList(idItem), conn).get(idItem);
+                if (itemDeCatalogo == null) {
+                    conn.rollback();
+                    throw new ResourceNotFoundException("Item com ID " + idItem + " não encontrado no catálogo.");
+                }
+                itens.add(new PedidoItem(itemDeCatalogo.getIdItem(), itemDeCatalogo.getNome(), itemDeCatalogo.getTipo(),
+                        quantidade, itemDeCatalogo.getPreco()));
+            } else {
+                int novaQuantidade = linhaDoItem.getQuantidade() + quantidade;
+                if (novaQuantidade < 0) {
+                    conn.rollback();
+                    throw new ServiceException("O pedido ID " + idPedido + " tem só " + linhaDoItem.getQuantidade()
+                            + " unidade(s) do item ID " + idItem + ".");
+                }
+                if (novaQuantidade == 0) {
+                    itens.remove(linhaDoItem);
+                } else {
+                    linhaDoItem.setQuantidade(novaQuantidade);
+                }
+            }
+
+            Pedido pedidoAlterado = new Pedido(pedidoExistente.getIdPedido(), pedidoExistente.getIdGarcom(), pedidoExistente.getIdGerente(),
+                    pedidoExistente.getIdMesa(), pedidoExistente.getDataHora(), pedidoExistente.isEntregue(), false, pedidoExistente.getDesconto());
+            pedidoAlterado.setVersao(pedidoExistente.getVersao());
+            pedidoAlterado.setItensDoPedido(itens);
+            if (!pedidoDAO.atualizar(pedidoAlterado, pedidoExistente.getItensDoPedido(), conn)) {
+                conn.rollback();
+                return null;
+            }
+            resumoVendas.registrarPedidoAlterado(pedidoExistente, pedidoAlterado, conn);
+
+            conn.commit();
+            quadroPedidos.registrar(pedidoAlterado);
+            eventosPedido.publicarAtualizado(pedidoExistente, pedidoAlterado);
+            return pedidoAlterado;
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da alteração de item do pedido: {}", ex.getMessage());}
+            }
+            throw new ServiceException("Erro ao alterar item do pedido: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da alteração de item do pedido: {}", ex.getMessage());}
             }
         }
     }
 
     public Pedido marcarPedidoComoPago(int idPedido, Connection conn) throws ResourceNotFoundException, ServiceException {
+        return marcarPedidoComoPago(idPedido, null, conn);
+    }
+
+    // versaoEsperada: versão do pedido sobre a qual o pagamento foi calculado (null = a versão lida aqui).
+    public Pedido marcarPedidoComoPago(int idPedido, Integer versaoEsperada, Connection conn) throws ResourceNotFoundException, ServiceException {
         if (idPedido <= 0) {
             throw new IllegalArgumentException("ID do pedido inválido.");
         }
@@ -252,22 +596,34 @@ public class PedidoService {
             }
 
             if (pedido.isPago()) {
-                System.out.println("INFO: Pedido ID " + idPedido + " já está marcado como pago. Nenhuma alteração realizada.");
+                log.info("Pedido ID {} já está marcado como pago. Nenhuma alteração realizada.", idPedido);
                 return pedido;
             }
 
-            boolean sucesso = pedidoDAO.marcarComoPago(idPedido, conn);
+            if (versaoEsperada != null && !versaoEsperada.equals(pedido.getVersao())) {
+                throw conflitoDeVersao(idPedido);
+            }
+            // Compare-and-set com a versão lida acima: se uma edição foi confirmada no meio-tempo, o pagamento
+            // (calculado sobre o pedido antigo) é recusado. Quem chamou faz o rollback.
+            boolean sucesso = pedidoDAO.marcarComoPago(idPedido, pedido.getVersao(), conn);
             if (!sucesso) {
-                throw new ServiceException("Não foi possível marcar o pedido ID " + idPedido + " como pago (DAO retornou falha).");
+                throw conflitoDeVersao(idPedido);
             }
 
-            return pedidoDAO.buscarPorId(idPedido, conn);
+            Pedido pedidoPago = pedidoDAO.buscarPorId(idPedido, conn);
+            resumoVendas.registrarPedidoAlterado(pedido, pedidoPago, conn);
+            return pedidoPago;
 
         } catch (SQLException e) {
             throw new ServiceException("Erro ao marcar pedido como pago: " + e.getMessage(), e);
         }
     }
 
+    private static ConflitoConcorrenciaException conflitoDeVersao(int idPedido) {
+        return new ConflitoConcorrenciaException("O pedido ID " + idPedido + " foi alterado por outra requisição. " +
+                "Recarregue o pedido e tente novamente.");
+    }
+
     public void deletarPedido(int id) throws ResourceNotFoundException, ServiceException {
         if (id <= 0) {
             throw new IllegalArgumentException("ID do pedido inválido para deleção.");
@@ -287,14 +643,17 @@ public class PedidoService {
             if (!deletado) {
                 throw new ServiceException("Falha ao deletar o pedido ID " + id + ".");
             }
+            resumoVendas.registrarPedidoRemovido(pedidoExistente, conn);
 
             conn.commit();
-            System.out.println("Pedido ID " + id + " deletado com sucesso (serviço).");
+            quadroPedidos.remover(id);
+            eventosPedido.publicarRemovido(pedidoExistente);
+            log.info("Pedido ID {} deletado com sucesso (serviço).", id);
 
         } catch (SQLException e) {
             if (conn != null) {
                 try { conn.rollback(); } catch (SQLException ex) {
-                    System.err.println("CRÍTICO: Erro no rollback da deleção de pedido: " + ex.getMessage());
+                    log.error("Erro no rollback da deleção de pedido: {}", ex.getMessage());
                 }
             }
             if (e.getErrorCode() == 1451 || (e.getMessage() != null && e.getMessage().toLowerCase().contains("foreign key constraint fails"))) {
@@ -304,7 +663,7 @@ public class PedidoService {
         } finally {
             if (conn != null) {
                 try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) {
-                    System.err.println("Erro ao fechar conexão da deleção de pedido: " + ex.getMessage());
+                    log.warn("Erro ao fechar conexão da deleção de pedido: {}", ex.getMessage());
                 }
             }
         }
@@ -351,17 +710,37 @@ public class PedidoService {
         }
         Map<String, Integer> contagens = new HashMap<>();
         try (Connection conn = ConnectionFactory.getConnection()) {
+            // Histograma entregue x pago completo numa única consulta.
+            Map<String, Integer> histograma = pedidoDAO.getHistogramaStatusPorPeriodo(dataInicial, dataFinal, conn);
             // Definição dos status:
             // Pendente: não entregue E não pago
-            contagens.put("PENDENTE", pedidoDAO.countPedidosByStatusEPeriodo(false, false, dataInicial, dataFinal, conn));
+            contagens.put("PENDENTE", histograma.get("PENDENTE"));
             // Entregue (e não pago): entregue E não pago
-            contagens.put("ENTREGUE_NAO_PAGO", pedidoDAO.countPedidosByStatusEPeriodo(true, false, dataInicial, dataFinal, conn));
+            contagens.put("ENTREGUE_NAO_PAGO", histograma.get("ENTREGUE_NAO_PAGO"));
             // Pago: pago (independente de entregue, mas geralmente entregue)
-            contagens.put("PAGO", pedidoDAO.countPedidosByStatusEPeriodo(true, true, dataInicial, dataFinal, conn) +
-                    pedidoDAO.countPedidosByStatusEPeriodo(false, true, dataInicial, dataFinal, conn)); // Soma pago&entregue + pago&nãoEntregue
+            contagens.put("PAGO", histograma.get("ENTREGUE_PAGO") + histograma.get("PAGO_NAO_ENTREGUE"));
         } catch (SQLException e) {
             throw new ServiceException("Erro ao buscar contagem de pedidos por status: " + e.getMessage(), e);
         }
         return contagens;
     }
+
+    // Facetas de pedidos do período: um grupo por valor da dimensão (status, mesa, garçom, dia ou hora),
+    // cada um com quantidade de pedidos, unidades vendidas e valor bruto. Uma única consulta agrupada.
+    public List<FacetaPedidos> getFacetasPedidos(String dimensao, LocalDate dataInicial, LocalDate dataFinal) throws ServiceException {
+        if (dataInicial == null || dataFinal == null || dataInicial.isAfter(dataFinal)) {
+            throw new IllegalArgumentException("Datas inválidas para consulta de facetas de pedidos.");
+        }
+        FacetaPedidos.Dimensao dimensaoValida;
+        try {
+            dimensaoValida = FacetaPedidos.Dimensao.valueOf(dimensao == null ? "STATUS" : dimensao.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Dimensão inválida: " + dimensao + ". Use STATUS, MESA, GARCOM, DIA ou HORA.");
+        }
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            return pedidoDAO.agruparPedidosPorPeriodo(dimensaoValida, dataInicial, dataFinal, conn);
+        } catch (SQLException e) {
+            throw new ServiceException("Erro ao buscar facetas de pedidos: " + e.getMessage(), e);
+        }
+    }
 }
\ No newline at end of file
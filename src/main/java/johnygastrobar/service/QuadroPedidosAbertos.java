@@ -0,0 +1,336 @@
+package johnygastrobar.service;
+
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.model.ItemNaoEntregue;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Quadro em memória dos pedidos em aberto (não pagos), por pedido e por mesa, para as telas do salão,
+// da cozinha e do bar: GET /api/pedidos/nao-pagos, /abertos e a listagem por status PENDENTE/ENTREGUE
+// saem daqui sem consultar o banco.
+//
+// Carregado uma vez na inicialização e mantido pelas escritas de PedidoService e PagamentoService,
+// que chamam registrar/remover depois do commit. Cada alteração gera um Snapshot imutável novo
+// (cópia na escrita, sob lockEscrita) trocado de forma atômica: leitores nunca esperam nem veem
+// um quadro pela metade. O número de pedidos em aberto é pequeno, então copiar é barato.
+//
+// Pedidos que saem do quadro (pagos ou deletados) deixam uma marca com a última versão vista: um
+// registrar atrasado de uma edição anterior ao pagamento tem versão menor ou igual e é ignorado, em vez
+// de devolver ao quadro um pedido já pago. As marcas duram de um a dois ciclos de reconciliação.
+//
+// A reconciliação periódica relê os pedidos em aberto do banco, registra no log o que estava
+// divergente (escritas feitas direto no banco, ou duas atualizações do mesmo pedido aplicadas fora
+// da ordem do commit) e passa a servir o estado do banco.
+@Component
+public class QuadroPedidosAbertos {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadroPedidosAbertos.class);
+
+    private static final Comparator<Pedido> MAIS_RECENTES_PRIMEIRO = Comparator
+            .comparing(Pedido::getDataHora, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingInt(Pedido::getIdPedido).reversed());
+
+    private final PedidoDAO pedidoDAO;
+    private final AtomicReference<Snapshot> atual = new AtomicReference<>();
+    private final ReentrantLock lockEscrita = new ReentrantLock();
+    // Guardados por lockEscrita: idPedido -> marca de saída do quadro, e o ciclo de reconciliação atual.
+    private final Map<Integer, Removido> removidos = new HashMap<>();
+    private long cicloReconciliacao;
+    private final ScheduledExecutorService reconciliador;
+
+    @Autowired
+    public QuadroPedidosAbertos(PedidoDAO pedidoDAO,
+                                @Value("${pedidos.quadro.reconciliacao-segundos:60}") long reconciliacaoSegundos) {
+        this.pedidoDAO = pedidoDAO;
+        this.reconciliador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "quadro-pedidos");
+            t.setDaemon(true);
+            return t;
+        });
+        if (reconciliacaoSegundos > 0) {
+            this.reconciliador.scheduleWithFixedDelay(this::reconciliar, reconciliacaoSegundos, reconciliacaoSegundos, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class Removido {
+        private final int versao;
+        private final long ciclo;
+
+        private Removido(int versao, long ciclo) {
+            this.versao = versao;
+            this.ciclo = ciclo;
+        }
+    }
+
+    // Snapshot imutável. Os objetos Pedido são compartilhados entre requisições e não devem ser alterados.
+    private static final class Snapshot {
+        private final Map<Integer, Pedido> porId;
+        private final List<Pedido> ordenados; // mais recentes primeiro
+        private final Map<Integer, List<Pedido>> porMesa;
+        private final List<ItemNaoEntregue> itensNaoEntregues;
+
+        private Snapshot(Collection<Pedido> pedidos) {
+            List<Pedido> lista = new ArrayList<>(pedidos);
+            lista.sort(MAIS_RECENTES_PRIMEIRO);
+            Map<Integer, Pedido> indice = new HashMap<>();
+            Map<Integer, List<Pedido>> mesas = new HashMap<>();
+            for (Pedido pedido : lista) {
+                indice.put(pedido.getIdPedido(), pedido);
+                mesas.computeIfAbsent(pedido.getIdMesa(), k -> new ArrayList<>()).add(pedido);
+            }
+            for (Map.Entry<Integer, List<Pedido>> mesa : mesas.entrySet()) {
+                mesa.setValue(Collections.unmodifiableList(mesa.getValue()));
+            }
+            this.porId = indice;
+            this.ordenados = Collections.unmodifiableList(lista);
+            this.porMesa = mesas;
+            this.itensNaoEntregues = somarItensNaoEntregues(lista);
+        }
+
+        private static List<ItemNaoEntregue> somarItensNaoEntregues(List<Pedido> pedidos) {
+            Map<Integer, int[]> totais = new LinkedHashMap<>(); // idItem -> {quantidade, pedidos}
+            Map<Integer, PedidoItem> exemplo = new HashMap<>();
+            Map<Integer, LocalDateTime> maisAntigo = new HashMap<>();
+            for (Pedido pedido : pedidos) {
+                if (pedido.isEntregue() || pedido.getItensDoPedido() == null) {
+                    continue;
+                }
+                for (PedidoItem item : pedido.getItensDoPedido()) {
+                    int[] total = totais.computeIfAbsent(item.getIdItem(), k -> new int[2]);
+                    total[0] += item.getQuantidade();
+                    total[1]++;
+                    exemplo.putIfAbsent(item.getIdItem(), item);
+                    // pedidos vêm dos mais recentes para os mais antigos
+                    if (pedido.getDataHora() != null) {
+                        maisAntigo.put(item.getIdItem(), pedido.getDataHora());
+                    }
+                }
+            }
+            List<ItemNaoEntregue> itens = new ArrayList<>(totais.size());
+            for (Map.Entry<Integer, int[]> total : totais.entrySet()) {
+                PedidoItem item = exemplo.get(total.getKey());
+                itens.add(new ItemNaoEntregue(total.getKey(), item.getNomeItem(), item.getTipoItem(),
+                        total.getValue()[0], total.getValue()[1], maisAntigo.get(total.getKey())));
+            }
+            // o que espera há mais tempo primeiro
+            itens.sort(Comparator.comparing(ItemNaoEntregue::getPedidoMaisAntigo, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparingInt(ItemNaoEntregue::getIdItem));
+            return Collections.unmodifiableList(itens);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaInicializacao() {
+        try {
+            carregar();
+        } catch (SQLException e) {
+            log.warn("Erro ao carregar quadro de pedidos em aberto na inicialização (será carregado no primeiro uso): {}", e.getMessage());
+        }
+    }
+
+    // Todos os pedidos não pagos, mais recentes primeiro.
+    public List<Pedido> listarAbertos() throws SQLException {
+        return getSnapshot().ordenados;
+    }
+
+    public List<Pedido> listarAbertosPorMesa(int idMesa) throws SQLException {
+        return getSnapshot().porMesa.getOrDefault(idMesa, Collections.emptyList());
+    }
+
+    // Pedidos não pagos com o status de entrega pedido (PENDENTE = não entregue, ENTREGUE = entregue).
+    public List<Pedido> listarAbertosPorEntrega(boolean entregue) throws SQLException {
+        List<Pedido> pedidos = new ArrayList<>();
+        for (Pedido pedido : getSnapshot().ordenados) {
+            if (pedido.isEntregue() == entregue) {
+                pedidos.add(pedido);
+            }
+        }
+        return pedidos;
+    }
+
+    public List<ItemNaoEntregue> listarItensNaoEntregues() throws SQLException {
+        return getSnapshot().itensNaoEntregues;
+    }
+
+    // Chamado depois do commit com o estado gravado do pedido: entra (ou é substituído) no quadro
+    // enquanto não está pago e sai quando é pago.
+    public void registrar(Pedido pedido) {
+        if (pedido == null) {
+            return;
+        }
+        if (pedido.isPago()) {
+            alterar(pedido.getIdPedido(), null, pedido.getVersao());
+        } else {
+            alterar(pedido.getIdPedido(), pedido, null);
+        }
+    }
+
+    // Chamado depois do commit da deleção do pedido. O id não volta a ser usado, então nenhuma versão o traz de volta.
+    public void remover(int idPedido) {
+        alterar(idPedido, null, Integer.MAX_VALUE);
+    }
+
+    private void alterar(int idPedido, Pedido novoEstado, Integer versaoRemovida) {
+        lockEscrita.lock();
+        try {
+            Snapshot snapshot = atual.get();
+            if (snapshot == null) {
+                return; // ainda não carregado: a carga vai ler o estado já confirmado no banco
+            }
+            Pedido estadoAtual = snapshot.porId.get(idPedido);
+            if (novoEstado == null) {
+                // Marca a saída mesmo que o pedido já não esteja no quadro: o registrar da edição anterior pode chegar depois.
+                int versao = versaoRemovida != null ? versaoRemovida
+                        : (estadoAtual != null && estadoAtual.getVersao() != null ? estadoAtual.getVersao() : Integer.MAX_VALUE);
+                Removido anterior = removidos.get(idPedido);
+                if (anterior == null || anterior.versao < versao) {
+                    removidos.put(idPedido, new Removido(versao, cicloReconciliacao));
+                }
+            } else {
+                // Pedido que já saiu do quadro: só volta com uma versão posterior à da saída.
+                Removido removido = removidos.get(idPedido);
+                if (removido != null && (novoEstado.getVersao() == null || novoEstado.getVersao() <= removido.versao)) {
+                    return;
+                }
+                // Duas edições concorrentes podem chegar aqui fora da ordem dos commits: a versão mais nova prevalece.
+                if (estadoAtual != null && estadoAtual.getVersao() != null && novoEstado.getVersao() != null
+                        && estadoAtual.getVersao() > novoEstado.getVersao()) {
+                    return;
+                }
+                removidos.remove(idPedido);
+            }
+            Map<Integer, Pedido> pedidos = new HashMap<>(snapshot.porId);
+            if (novoEstado != null) {
+                pedidos.put(idPedido, novoEstado);
+            } else if (pedidos.remove(idPedido) == null) {
+                return;
+            }
+            atual.set(new Snapshot(pedidos.values()));
+        } finally {
+            lockEscrita.unlock();
+        }
+    }
+
+    private Snapshot getSnapshot() throws SQLException {
+        Snapshot snapshot = atual.get();
+        return (snapshot != null) ? snapshot : carregar();
+    }
+
+    private Snapshot carregar() throws SQLException {
+        lockEscrita.lock();
+        try {
+            Snapshot snapshot = atual.get();
+            if (snapshot != null) {
+                return snapshot;
+            }
+            try (Connection conn = ConnectionFactory.getConnection()) {
+                snapshot = new Snapshot(pedidoDAO.listarPedidosEmAberto(conn));
+            }
+            atual.set(snapshot);
+            return snapshot;
+        } finally {
+            lockEscrita.unlock();
+        }
+    }
+
+    // Relê o banco com o lock de escrita: um commit cujo registrar ainda não rodou é reaplicado
+    // depois da troca, com o mesmo estado que a consulta já viu (registrar é idempotente).
+    void reconciliar() {
+        lockEscrita.lock();
+        try {
+            Snapshot snapshot = atual.get();
+            if (snapshot == null) {
+                carregar();
+                return;
+            }
+            List<Pedido> doBanco;
+            try (Connection conn = ConnectionFactory.getConnection()) {
+                doBanco = pedidoDAO.listarPedidosEmAberto(conn);
+            }
+            int faltando = 0;
+            int diferentes = 0;
+            Map<Integer, Pedido> sobrando = new HashMap<>(snapshot.porId);
+            for (Pedido pedido : doBanco) {
+                Pedido emMemoria = sobrando.remove(pedido.getIdPedido());
+                if (emMemoria == null) {
+                    faltando++;
+                } else if (!mesmoEstado(emMemoria, pedido)) {
+                    diferentes++;
+                }
+            }
+            if (faltando > 0 || diferentes > 0 || !sobrando.isEmpty()) {
+                log.warn("Quadro de pedidos em aberto divergia do banco (corrigido): {} faltando, {} já pagos/removidos {}, {} desatualizados.", faltando, sobrando.size(), sobrando.keySet(), diferentes);
+            }
+            atual.set(new Snapshot(doBanco));
+            // Marcas de antes do ciclo anterior já não têm registrar atrasado pendente; as de pedidos que o banco
+            // mostra em aberto perdem o sentido (o banco prevalece).
+            for (Pedido pedido : doBanco) {
+                removidos.remove(pedido.getIdPedido());
+            }
+            long cicloAnterior = cicloReconciliacao++;
+            removidos.values().removeIf(removido -> removido.ciclo < cicloAnterior);
+        } catch (SQLException e) {
+            log.warn("Erro na reconciliação do quadro de pedidos em aberto, mantendo o estado atual: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            // Não deixa uma falha inesperada cancelar as próximas execuções agendadas.
+            log.error("Erro inesperado na reconciliação do quadro de pedidos em aberto", e);
+        } finally {
+            lockEscrita.unlock();
+        }
+    }
+
+    private static boolean mesmoEstado(Pedido a, Pedido b) {
+        return a.getIdMesa() == b.getIdMesa()
+                && a.isEntregue() == b.isEntregue()
+                && Objects.equals(a.getIdGarcom(), b.getIdGarcom())
+                && Objects.equals(a.getIdGerente(), b.getIdGerente())
+                && (a.getDesconto() == null ? b.getDesconto() == null
+                    : b.getDesconto() != null && a.getDesconto().compareTo(b.getDesconto()) == 0)
+                && quantidadesPorItem(a).equals(quantidadesPorItem(b));
+    }
+
+    // Itens como idItem -> quantidade, independente da ordem das linhas.
+    private static Map<Integer, Integer> quantidadesPorItem(Pedido pedido) {
+        Map<Integer, Integer> quantidades = new HashMap<>();
+        if (pedido.getItensDoPedido() != null) {
+            for (PedidoItem item : pedido.getItensDoPedido()) {
+                quantidades.merge(item.getIdItem(), item.getQuantidade(), Integer::sum);
+            }
+        }
+        return quantidades;
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        reconciliador.shutdownNow();
+        reconciliador.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,188 @@
+package johnygastrobar.service;
+
+import johnygastrobar.dao.ChaveIdempotenciaDAO;
+import johnygastrobar.dao.ChaveIdempotenciaDAO.ChaveGravada;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Idempotência de POST /api/pedidos e POST /api/pagamentos (cabeçalho Idempotency-Key).
+// Um tablet que repete a requisição (Wi-Fi instável) recebe a resposta original em vez de criar outro recurso.
+//
+// Duas camadas:
+// - memória: chave -> resposta original, limitada (idempotencia.maximo-em-memoria) e com TTL; uma repetição
+//   custa uma busca no mapa, sem conexão com o banco;
+// - tabela Chave_Idempotencia: gravada na mesma transação do recurso, vale depois de um restart, para chaves que
+//   já saíram da memória e para duas requisições simultâneas com a mesma chave (a chave primária faz a segunda
+//   esperar a primeira e falhar com chave duplicada; o service então devolve o recurso da primeira).
+// A mesma chave com outro conteúdo é recusada, comparando o SHA-256 dos campos enviados pelo cliente.
+@Component
+public class RegistroIdempotencia {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroIdempotencia.class);
+
+    public static final String OPERACAO_CRIAR_PEDIDO = "CRIAR_PEDIDO";
+    public static final String OPERACAO_REGISTRAR_PAGAMENTO = "REGISTRAR_PAGAMENTO";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    private final ChaveIdempotenciaDAO chaveIdempotenciaDAO;
+    private final long ttlMillis;
+    private final int maximoEmMemoria;
+    private final ScheduledExecutorService limpeza;
+
+    // Leituras sem lock; inserções e remoções (depois de commits) sob o lock de 'ordemDeChegada'.
+    private final ConcurrentHashMap<String, Lembrada> emMemoria = new ConcurrentHashMap<>();
+    private final ArrayDeque<String> ordemDeChegada = new ArrayDeque<>();
+
+    @Autowired
+    public RegistroIdempotencia(ChaveIdempotenciaDAO chaveIdempotenciaDAO,
+                                @Value("${idempotencia.ttl-horas:24}") long ttlHoras,
+                                @Value("${idempotencia.maximo-em-memoria:10000}") int maximoEmMemoria,
+                                @Value("${idempotencia.limpeza-minutos:60}") long limpezaMinutos) {
+        this.chaveIdempotenciaDAO = chaveIdempotenciaDAO;
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHoras);
+        this.maximoEmMemoria = maximoEmMemoria;
+        this.limpeza = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "limpeza-idempotencia");
+            t.setDaemon(true);
+            return t;
+        });
+        if (limpezaMinutos > 0) {
+            this.limpeza.scheduleWithFixedDelay(this::removerChavesVencidas, limpezaMinutos, limpezaMinutos, TimeUnit.MINUTES);
+        }
+    }
+
+    private static final class Lembrada {
+        private final String resumoRequisicao;
+        private final Object resposta;
+        private final long criadaEmMillis;
+
+        private Lembrada(String resumoRequisicao, Object resposta, long criadaEmMillis) {
+            this.resumoRequisicao = resumoRequisicao;
+            this.resposta = resposta;
+            this.criadaEmMillis = criadaEmMillis;
+        }
+    }
+
+    // Valida o cabeçalho; null quando o cliente não mandou chave (requisição sem idempotência).
+    public String validarChave(String chave) {
+        if (chave == null) {
+            return null;
+        }
+        String limpa = chave.trim();
+        if (limpa.isEmpty() || limpa.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException("Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+        return limpa;
+    }
+
+    // SHA-256, em hexadecimal, dos campos que o cliente enviou. O service escolhe os campos: o corpo inteiro
+    // não serve porque o construtor usado na desserialização preenche a data com a hora de chegada.
+    public String resumir(List<?> conteudo) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Não foi possível calcular o resumo da requisição.", e);
+        }
+    }
+
+    // Resposta original guardada em memória, ou null se a chave não está (mais) na memória.
+    public <T> T respostaEmMemoria(String operacao, String chave, String resumoRequisicao, Class<T> tipo) {
+        Lembrada lembrada = emMemoria.get(operacao + ":" + chave);
+        if (lembrada == null || System.currentTimeMillis() - lembrada.criadaEmMillis > ttlMillis) {
+            return null;
+        }
+        conferirResumo(chave, lembrada.resumoRequisicao, resumoRequisicao);
+        return tipo.cast(lembrada.resposta);
+    }
+
+    // Id do recurso criado pela chave, segundo a tabela, ou null se a chave ainda não foi usada.
+    // Uma chave vencida que a limpeza ainda não apagou é removida aqui, na transação de quem vai reutilizá-la.
+    public Integer idGravado(String operacao, String chave, String resumoRequisicao, Connection conn) throws SQLException {
+        ChaveGravada gravada = chaveIdempotenciaDAO.buscar(operacao, chave, conn);
+        if (gravada == null) {
+            return null;
+        }
+        if (gravada.getCriadoEm().isBefore(LocalDateTime.now().minus(Duration.ofMillis(ttlMillis)))) {
+            chaveIdempotenciaDAO.deletar(operacao, chave, conn);
+            return null;
+        }
+        conferirResumo(chave, gravada.getResumoRequisicao(), resumoRequisicao);
+        return gravada.getIdRecurso();
+    }
+
+    // Dentro da transação que criou o recurso, antes do commit.
+    public void gravar(String operacao, String chave, String resumoRequisicao, int idRecurso, Connection conn) throws SQLException {
+        chaveIdempotenciaDAO.inserir(operacao, chave, resumoRequisicao, idRecurso, conn);
+    }
+
+    // Depois do commit (ou ao reencontrar a chave na tabela): as próximas repetições respondem da memória.
+    public void lembrar(String operacao, String chave, String resumoRequisicao, Object resposta) {
+        long agora = System.currentTimeMillis();
+        String chaveMemoria = operacao + ":" + chave;
+        synchronized (ordemDeChegada) {
+            if (emMemoria.put(chaveMemoria, new Lembrada(resumoRequisicao, resposta, agora)) == null) {
+                ordemDeChegada.addLast(chaveMemoria);
+            }
+            // A ordem de chegada é a de vencimento: as mais antigas saem primeiro, por TTL ou por limite de tamanho.
+            while (!ordemDeChegada.isEmpty()) {
+                String maisAntiga = ordemDeChegada.peekFirst();
+                Lembrada lembrada = emMemoria.get(maisAntiga);
+                if (lembrada != null && emMemoria.size() <= maximoEmMemoria && agora - lembrada.criadaEmMillis <= ttlMillis) {
+                    break;
+                }
+                ordemDeChegada.pollFirst();
+                emMemoria.remove(maisAntiga);
+            }
+        }
+    }
+
+    private static void conferirResumo(String chave, String resumoOriginal, String resumoRequisicao) {
+        if (!resumoOriginal.equals(resumoRequisicao)) {
+            throw new IllegalArgumentException("A Idempotency-Key '" + chave + "' já foi usada com outro conteúdo.");
+        }
+    }
+
+    private void removerChavesVencidas() {
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            int removidas = chaveIdempotenciaDAO.removerCriadasAntesDe(
+                    LocalDateTime.now().minus(Duration.ofMillis(ttlMillis)), conn);
+            if (removidas > 0) {
+                log.info("{} chaves de idempotência vencidas removidas.", removidas);
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Erro ao remover chaves de idempotência vencidas: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        limpeza.shutdownNow();
+        limpeza.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
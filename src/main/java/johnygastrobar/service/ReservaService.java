@@ -4,30 +4,57 @@ import johnygastrobar.dao.ReservaDAO;
 import johnygastrobar.dao.MesaDAO;
 import johnygastrobar.exception.ServiceException;
 import johnygastrobar.exception.ResourceNotFoundException;
+import johnygastrobar.model.DisponibilidadeMesa;
 import johnygastrobar.model.Mesa;
+import johnygastrobar.model.PaginaReservas;
 import johnygastrobar.model.Reserva;
+import johnygastrobar.model.ResultadoImportacaoReservas;
+import johnygastrobar.model.ResultadoImportacaoReservas.LinhaReserva;
+import johnygastrobar.model.ResultadoLoteReservas;
+import johnygastrobar.model.SolicitacaoReserva;
 import johnygastrobar.util.ConnectionFactory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 public class ReservaService {
 
+    private static final Logger log = LoggerFactory.getLogger(ReservaService.class);
+
+    private static final int LIMITE_PADRAO_PAGINA = 50;
+    private static final int LIMITE_MAXIMO_PAGINA = 200;
+    private static final int LIMITE_SOLICITACOES_LOTE = 500;
+    private static final int LIMITE_RESERVAS_IMPORTACAO = 2000;
+    private static final int DURACAO_RESERVA_SEGUNDOS = ReservaDAO.DURACAO_RESERVA_MINUTOS * 60;
+
     private final ReservaDAO reservaDAO;
     private final MesaDAO mesaDAO;
+    private final IndiceReservas indiceReservas;
 
     @Autowired
-    public ReservaService(ReservaDAO reservaDAO, MesaDAO mesaDAO) {
+    public ReservaService(ReservaDAO reservaDAO, MesaDAO mesaDAO, IndiceReservas indiceReservas) {
         this.reservaDAO = reservaDAO;
         this.mesaDAO = mesaDAO;
+        this.indiceReservas = indiceReservas;
     }
 
     public Reserva criarReserva(Reserva reserva) throws ServiceException, ResourceNotFoundException {
@@ -48,11 +75,13 @@ public class ReservaService {
         }
 
         Connection conn = null;
+        IndiceReservas.Bloqueio bloqueio = null;
         try {
             conn = ConnectionFactory.getConnection();
             conn.setAutoCommit(false);
 
-            Mesa mesa = mesaDAO.buscarPorId(reserva.getIdMesa(), conn);
+            // Trava a mesa: outra gravação na mesma mesa (desta ou de outra instância) espera este commit
+            Mesa mesa = mesaDAO.bloquearParaReserva(Collections.singletonList(reserva.getIdMesa()), conn).get(reserva.getIdMesa());
             if (mesa == null) {
                 throw new ResourceNotFoundException("Mesa com ID " + reserva.getIdMesa() + " não encontrada.");
             }
@@ -60,31 +89,310 @@ public class ReservaService {
                 throw new ServiceException("Mesa selecionada não comporta " + reserva.getNumeroPessoas() + " pessoas (capacidade: " + mesa.getCapacidade() + ").");
             }
 
-            if (reservaDAO.verificarConflito(reserva.getIdMesa(), reserva.getDataReserva(), reserva.getHoraReserva(), 0, conn)) {
+            // Checa o conflito na agenda em memória e já segura o horário até o commit
+            bloqueio = indiceReservas.bloquear(reserva.getIdMesa(), reserva.getDataReserva(), reserva.getHoraReserva(), 0);
+            if (bloqueio == null || reservaDAO.verificarConflito(reserva.getIdMesa(), reserva.getDataReserva(), reserva.getHoraReserva(), 0, conn)) {
                 throw new ServiceException("Conflito de horário: Já existe uma reserva para esta mesa neste dia/horário.");
             }
 
             Reserva novaReserva = reservaDAO.inserir(reserva, conn);
 
             conn.commit();
+            indiceReservas.confirmar(bloqueio, novaReserva, null);
+            bloqueio = null;
             return novaReserva;
 
         } catch (SQLException e) {
             if (conn != null) {
                 try { conn.rollback(); } catch (SQLException exRollback) {
-                    System.err.println("CRÍTICO: Erro ao tentar reverter transação de criar reserva: " + exRollback.getMessage());
+                    log.error("Erro ao tentar reverter transação de criar reserva: {}", exRollback.getMessage());
                 }
             }
             throw new ServiceException("Erro ao criar reserva no banco de dados: " + e.getMessage(), e);
         } finally {
+            if (bloqueio != null) {
+                indiceReservas.liberar(bloqueio);
+            }
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
+                    log.warn("Erro ao fechar conexão após criar reserva: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Recebe várias solicitações sem mesa (ex.: noite de evento), escolhe as mesas com o AlocadorMesas
+    // tentando acomodar o máximo de pessoas e grava todas as reservas alocadas numa única transação.
+    // Solicitações inválidas ou que não couberem voltam em naoAlocadas, com o motivo.
+    public ResultadoLoteReservas criarReservasEmLote(List<SolicitacaoReserva> solicitacoes) throws ServiceException {
+        if (solicitacoes == null || solicitacoes.isEmpty()) {
+            throw new IllegalArgumentException("A lista de solicitações de reserva não pode ser vazia.");
+        }
+        if (solicitacoes.size() > LIMITE_SOLICITACOES_LOTE) {
+            throw new IllegalArgumentException("No máximo " + LIMITE_SOLICITACOES_LOTE + " solicitações por lote.");
+        }
+
+        List<ResultadoLoteReservas.NaoAlocada> naoAlocadas = new ArrayList<>();
+        List<SolicitacaoReserva> validas = new ArrayList<>();
+        List<Integer> indicesValidas = new ArrayList<>();
+        for (int i = 0; i < solicitacoes.size(); i++) {
+            String motivo = validarSolicitacao(solicitacoes.get(i));
+            if (motivo != null) {
+                naoAlocadas.add(new ResultadoLoteReservas.NaoAlocada(i, solicitacoes.get(i), motivo));
+            } else {
+                validas.add(solicitacoes.get(i));
+                indicesValidas.add(i);
+            }
+        }
+
+        Connection conn = null;
+        List<IndiceReservas.Bloqueio> bloqueios = new ArrayList<>();
+        try {
+            Mesa[] mesas = AlocadorMesas.alocar(validas, indiceReservas.listarMesas(), indiceReservas::estaLivre);
+
+            conn = ConnectionFactory.getConnection();
+            conn.setAutoCommit(false);
+
+            // Confere no banco, com as mesas travadas, o que a alocação decidiu pela agenda em memória
+            Set<Integer> idsMesas = new LinkedHashSet<>();
+            Set<LocalDate> datas = new LinkedHashSet<>();
+            for (int i = 0; i < validas.size(); i++) {
+                if (mesas[i] != null) {
+                    idsMesas.add(mesas[i].getIdMesa());
+                    datas.add(validas.get(i).getDataReserva());
+                }
+            }
+            Map<LocalDate, Map<Integer, TreeMap<Integer, Integer>>> gravadas = carregarAgendasGravadas(idsMesas, datas, conn);
+
+            List<Reserva> reservas = new ArrayList<>();
+            for (int i = 0; i < validas.size(); i++) {
+                SolicitacaoReserva solicitacao = validas.get(i);
+                IndiceReservas.Bloqueio bloqueio = (mesas[i] != null)
+                        ? indiceReservas.bloquear(mesas[i].getIdMesa(), solicitacao.getDataReserva(), solicitacao.getHoraReserva(), 0)
+                        : null;
+                if (bloqueio != null && conflitoComGravada(gravadas, mesas[i].getIdMesa(), solicitacao.getDataReserva(), solicitacao.getHoraReserva()) != null) {
+                    indiceReservas.liberar(bloqueio);
+                    bloqueio = null;
+                }
+                if (bloqueio == null) {
+                    // Sem mesa livre, ou o horário foi ocupado por outra requisição entre a alocação e o bloqueio
+                    naoAlocadas.add(new ResultadoLoteReservas.NaoAlocada(indicesValidas.get(i), solicitacao,
+                            "Nenhuma mesa com capacidade para " + solicitacao.getNumeroPessoas() + " pessoas livre neste dia/horário."));
+                    continue;
+                }
+                bloqueios.add(bloqueio);
+                reservas.add(new Reserva(solicitacao.getNomeResponsavel(), solicitacao.getNumeroPessoas(), mesas[i].getIdMesa(),
+                        solicitacao.getDataReserva(), solicitacao.getHoraReserva(), solicitacao.getObservacao()));
+            }
+
+            reservaDAO.inserirEmLote(reservas, conn);
+
+            conn.commit();
+            for (int i = 0; i < reservas.size(); i++) {
+                indiceReservas.confirmar(bloqueios.get(i), reservas.get(i), null);
+            }
+            bloqueios.clear();
+
+            naoAlocadas.sort((a, b) -> Integer.compare(a.getIndice(), b.getIndice()));
+            return new ResultadoLoteReservas(reservas, naoAlocadas);
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException exRollback) {
+                    log.error("Erro ao tentar reverter transação de reservas em lote: {}", exRollback.getMessage());
+                }
+            }
+            throw new ServiceException("Erro ao criar reservas em lote no banco de dados: " + e.getMessage(), e);
+        } finally {
+            for (IndiceReservas.Bloqueio bloqueio : bloqueios) {
+                indiceReservas.liberar(bloqueio);
+            }
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
+                    log.warn("Erro ao fechar conexão após criar reservas em lote: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Mesmas regras do criarReserva; retorna o motivo da recusa ou null se a solicitação é válida.
+    private String validarSolicitacao(SolicitacaoReserva solicitacao) {
+        if (solicitacao == null) {
+            return "Solicitação nula.";
+        }
+        return validarDadosReserva(solicitacao.getNomeResponsavel(), solicitacao.getNumeroPessoas(),
+                solicitacao.getDataReserva(), solicitacao.getHoraReserva());
+    }
+
+    private String validarDadosReserva(String nomeResponsavel, int numeroPessoas, LocalDate dataReserva, LocalTime horaReserva) {
+        if (nomeResponsavel == null || nomeResponsavel.trim().isEmpty()) {
+            return "Nome do responsável pela reserva é obrigatório.";
+        }
+        if (numeroPessoas <= 0) {
+            return "Número de pessoas para a reserva deve ser positivo.";
+        }
+        if (dataReserva == null || dataReserva.isBefore(LocalDate.now())) {
+            return "Data da reserva inválida ou no passado.";
+        }
+        if (horaReserva == null) {
+            return "Hora da reserva é obrigatória.";
+        }
+        return null;
+    }
+
+    // Importação de reservas já com mesa (planilhas de eventos e grupos). Em vez de um criarReserva por linha,
+    // carrega numa única consulta as reservas existentes das (mesa, data) envolvidas e checa todos os conflitos
+    // em memória, inclusive entre linhas do próprio lote (a primeira linha fica com o horário). As linhas aceitas
+    // também são bloqueadas no IndiceReservas, como no criarReserva, para que uma requisição simultânea nesta
+    // instância não reserve o mesmo horário, e são gravadas com INSERTs de várias linhas numa única transação.
+    public ResultadoImportacaoReservas importarReservas(List<Reserva> reservas) throws ServiceException {
+        if (reservas == null || reservas.isEmpty()) {
+            throw new IllegalArgumentException("A lista de reservas para importação não pode ser vazia.");
+        }
+        if (reservas.size() > LIMITE_RESERVAS_IMPORTACAO) {
+            throw new IllegalArgumentException("No máximo " + LIMITE_RESERVAS_IMPORTACAO + " reservas por importação.");
+        }
+
+        LinhaReserva[] linhas = new LinhaReserva[reservas.size()];
+        for (int i = 0; i < reservas.size(); i++) {
+            Reserva reserva = reservas.get(i);
+            String motivo = (reserva == null) ? "Reserva nula."
+                    : validarDadosReserva(reserva.getNomeResponsavel(), reserva.getNumeroPessoas(), reserva.getDataReserva(), reserva.getHoraReserva());
+            if (motivo != null) {
+                linhas[i] = new LinhaReserva(i, false, reserva, motivo);
+            }
+        }
+
+        Connection conn = null;
+        List<IndiceReservas.Bloqueio> bloqueios = new ArrayList<>();
+        try {
+            conn = ConnectionFactory.getConnection();
+            conn.setAutoCommit(false);
+
+            Map<Integer, Mesa> mesas = new HashMap<>();
+            for (Mesa mesa : mesaDAO.listarTodos(conn)) {
+                mesas.put(mesa.getIdMesa(), mesa);
+            }
+            Set<Integer> idsMesas = new LinkedHashSet<>();
+            Set<LocalDate> datas = new LinkedHashSet<>();
+            for (int i = 0; i < linhas.length; i++) {
+                if (linhas[i] != null) {
+                    continue;
+                }
+                Reserva reserva = reservas.get(i);
+                Mesa mesa = mesas.get(reserva.getIdMesa());
+                if (mesa == null) {
+                    linhas[i] = new LinhaReserva(i, false, reserva, "Mesa com ID " + reserva.getIdMesa() + " não encontrada.");
+                } else if (mesa.getCapacidade() < reserva.getNumeroPessoas()) {
+                    linhas[i] = new LinhaReserva(i, false, reserva, "Mesa selecionada não comporta " + reserva.getNumeroPessoas()
+                            + " pessoas (capacidade: " + mesa.getCapacidade() + ").");
+                } else {
+                    idsMesas.add(reserva.getIdMesa());
+                    datas.add(reserva.getDataReserva());
+                }
+            }
+
+            // Agendas por data e mesa, de início (segundos do dia) para o id da reserva gravada ou, em doLote,
+            // para o índice da linha aceita: o motivo da recusa diz com quem houve conflito.
+            Map<LocalDate, Map<Integer, TreeMap<Integer, Integer>>> gravadas = carregarAgendasGravadas(idsMesas, datas, conn);
+            Map<LocalDate, Map<Integer, TreeMap<Integer, Integer>>> doLote = new HashMap<>();
+
+            List<Reserva> aceitas = new ArrayList<>();
+            for (int i = 0; i < linhas.length; i++) {
+                if (linhas[i] != null) {
+                    continue;
+                }
+                Reserva reserva = reservas.get(i);
+                int inicio = reserva.getHoraReserva().toSecondOfDay();
+                Integer idConflitante = conflitoComGravada(gravadas, reserva.getIdMesa(), reserva.getDataReserva(), reserva.getHoraReserva());
+                if (idConflitante != null) {
+                    linhas[i] = new LinhaReserva(i, false, reserva, "Conflito de horário com a reserva ID " + idConflitante + ".");
+                    continue;
+                }
+                TreeMap<Integer, Integer> agendaDoLote = doLote.computeIfAbsent(reserva.getDataReserva(), d -> new HashMap<>())
+                        .computeIfAbsent(reserva.getIdMesa(), m -> new TreeMap<>());
+                Integer linhaConflitante = conflito(agendaDoLote, inicio);
+                if (linhaConflitante != null) {
+                    linhas[i] = new LinhaReserva(i, false, reserva, "Conflito de horário com a linha " + linhaConflitante + " do lote.");
+                    continue;
+                }
+                IndiceReservas.Bloqueio bloqueio = indiceReservas.bloquear(reserva.getIdMesa(), reserva.getDataReserva(), reserva.getHoraReserva(), 0);
+                if (bloqueio == null) {
+                    // Horário ocupado por outra requisição desta instância ainda não confirmada
+                    linhas[i] = new LinhaReserva(i, false, reserva, "Conflito de horário: Já existe uma reserva para esta mesa neste dia/horário.");
+                    continue;
+                }
+                bloqueios.add(bloqueio);
+                agendaDoLote.put(inicio, i);
+                Reserva nova = new Reserva(reserva.getNomeResponsavel(), reserva.getNumeroPessoas(), reserva.getIdMesa(),
+                        reserva.getDataReserva(), reserva.getHoraReserva(), reserva.getObservacao());
+                aceitas.add(nova);
+                linhas[i] = new LinhaReserva(i, true, nova, null);
+            }
+
+            reservaDAO.inserirEmLote(aceitas, conn);
+
+            conn.commit();
+            for (int i = 0; i < aceitas.size(); i++) {
+                indiceReservas.confirmar(bloqueios.get(i), aceitas.get(i), null);
+            }
+            bloqueios.clear();
+
+            ResultadoImportacaoReservas resultado = new ResultadoImportacaoReservas(Arrays.asList(linhas));
+            log.info("Importação de reservas: {} aceitas, {} recusadas.", resultado.getAceitas(), resultado.getRecusadas());
+            return resultado;
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException exRollback) {
+                    log.error("Erro ao tentar reverter transação de importação de reservas: {}", exRollback.getMessage());
+                }
+            }
+            throw new ServiceException("Erro ao importar reservas no banco de dados: " + e.getMessage(), e);
+        } finally {
+            for (IndiceReservas.Bloqueio bloqueio : bloqueios) {
+                indiceReservas.liberar(bloqueio);
+            }
             if (conn != null) {
                 try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
-                    System.err.println("Erro ao fechar conexão após criar reserva: " + e.getMessage());
+                    log.warn("Erro ao fechar conexão após importar reservas: {}", e.getMessage());
                 }
             }
         }
     }
 
+    // Trava as mesas (MesaDAO.bloquearParaReserva) e carrega numa consulta as reservas já gravadas nelas nas datas
+    // informadas, por data e mesa, de início (segundos do dia) para o id da reserva. É a checagem no banco dos
+    // lotes: enxerga reservas confirmadas por outras instâncias e que o índice em memória ainda não tem.
+    private Map<LocalDate, Map<Integer, TreeMap<Integer, Integer>>> carregarAgendasGravadas(Set<Integer> idsMesas, Set<LocalDate> datas,
+                                                                                        Connection conn) throws SQLException {
+        Map<LocalDate, Map<Integer, TreeMap<Integer, Integer>>> gravadas = new HashMap<>();
+        mesaDAO.bloquearParaReserva(idsMesas, conn);
+        for (Reserva existente : reservaDAO.listarPorMesasEDatas(idsMesas, datas, conn)) {
+            gravadas.computeIfAbsent(existente.getDataReserva(), d -> new HashMap<>())
+                    .computeIfAbsent(existente.getIdMesa(), m -> new TreeMap<>())
+                    .put(existente.getHoraReserva().toSecondOfDay(), existente.getIdReserva());
+        }
+        return gravadas;
+    }
+
+    // Id de uma reserva gravada que conflita com o horário, ou null.
+    private static Integer conflitoComGravada(Map<LocalDate, Map<Integer, TreeMap<Integer, Integer>>> gravadas,
+                                              int idMesa, LocalDate data, LocalTime hora) {
+        Map<Integer, TreeMap<Integer, Integer>> doDia = gravadas.get(data);
+        return conflito(doDia != null ? doDia.get(idMesa) : null, hora.toSecondOfDay());
+    }
+
+    // Valor (id da reserva ou índice da linha) de um horário da agenda cujo intervalo de DURACAO_RESERVA_MINUTOS
+    // cruza o que começa em inicioSegundos, ou null se não há conflito. Mesma regra do IndiceReservas.
+    private static Integer conflito(TreeMap<Integer, Integer> agenda, int inicioSegundos) {
+        if (agenda == null) {
+            return null;
+        }
+        Map.Entry<Integer, Integer> vizinho = agenda.ceilingEntry(inicioSegundos - DURACAO_RESERVA_SEGUNDOS + 1);
+        return (vizinho != null && vizinho.getKey() < inicioSegundos + DURACAO_RESERVA_SEGUNDOS) ? vizinho.getValue() : null;
+    }
+
     public Reserva buscarReservaPorId(int id) throws ResourceNotFoundException, ServiceException {
         try {
             Reserva reserva = reservaDAO.buscarPorId(id);
@@ -105,30 +413,66 @@ public class ReservaService {
         }
     }
 
-    public List<Reserva> listarReservasPorData(LocalDate data) throws ServiceException {
+    // Listagem paginada por cursor, com filtros opcionais. O cursor é opaco para o cliente:
+    // codifica (data_reserva, hora_reserva, id_reserva) da última reserva da página anterior.
+    public PaginaReservas listarReservasPaginado(Integer limite, String cursor, Integer idMesa,
+                                                 LocalDate dataInicial, LocalDate dataFinal) throws ServiceException {
+        int tamanhoPagina = (limite == null) ? LIMITE_PADRAO_PAGINA : limite;
+        if (tamanhoPagina <= 0 || tamanhoPagina > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("O limite da página deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA + ".");
+        }
+        if (dataInicial != null && dataFinal != null && dataInicial.isAfter(dataFinal)) {
+            throw new IllegalArgumentException("Data inicial não pode ser posterior à data final.");
+        }
+
+        LocalDate cursorData = null;
+        LocalTime cursorHora = null;
+        Integer cursorIdReserva = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorData = LocalDate.parse(partes[0]);
+                cursorHora = LocalTime.parse(partes[1]);
+                cursorIdReserva = Integer.parseInt(partes[2]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+        }
+
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            // Busca um registro a mais só para saber se existe próxima página.
+            List<Reserva> reservas = reservaDAO.listarPagina(idMesa, dataInicial, dataFinal,
+                    cursorData, cursorHora, cursorIdReserva, tamanhoPagina + 1, conn);
+
+            String proximoCursor = null;
+            if (reservas.size() > tamanhoPagina) {
+                reservas = new ArrayList<>(reservas.subList(0, tamanhoPagina));
+                Reserva ultima = reservas.get(reservas.size() - 1);
+                String chave = ultima.getDataReserva() + "|" + ultima.getHoraReserva() + "|" + ultima.getIdReserva();
+                proximoCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+            }
+            return new PaginaReservas(reservas, proximoCursor);
+        } catch (SQLException e) {
+            throw new ServiceException("Erro ao listar reservas paginadas: " + e.getMessage(), e);
+        }
+    }
+
+    // Reservas de uma data (opcionalmente de uma mesa), filtradas no banco pelo índice (data_reserva, hora_reserva).
+    public List<Reserva> listarReservasPorData(LocalDate data, Integer idMesa) throws ServiceException {
         if (data == null) {
             throw new IllegalArgumentException("A data para consulta não pode ser nula.");
         }
-        Connection conn = null;
         try {
-            conn = ConnectionFactory.getConnection();
-            List<Reserva> todas = reservaDAO.listarTodos(conn);
-            List<Reserva> filtradas = new ArrayList<>();
-            for (Reserva r : todas) {
-                if (r.getDataReserva().equals(data)) {
-                    filtradas.add(r);
-                }
-            }
-            return filtradas;
+            return reservaDAO.listarPorPeriodo(data, data, idMesa);
         } catch (SQLException e) {
             throw new ServiceException("Erro ao listar reservas por data: " + e.getMessage(), e);
-        } finally {
-            if (conn != null) {
-                try { conn.close(); } catch (SQLException e) { System.err.println("Erro ao fechar conexão ao listar reservas por data: " + e.getMessage());}
-            }
         }
     }
 
+    public List<Reserva> listarReservasPorData(LocalDate data) throws ServiceException {
+        return listarReservasPorData(data, null);
+    }
+
     public Reserva atualizarReserva(Reserva reserva) throws ResourceNotFoundException, ServiceException {
         if (reserva == null || reserva.getIdReserva() <= 0) {
             throw new IllegalArgumentException("Dados da reserva inválidos para atualização ou ID não fornecido.");
@@ -150,6 +494,7 @@ public class ReservaService {
         }
 
         Connection conn = null;
+        IndiceReservas.Bloqueio bloqueio = null;
         try {
             conn = ConnectionFactory.getConnection();
             conn.setAutoCommit(false);
@@ -160,8 +505,8 @@ public class ReservaService {
                 throw new ResourceNotFoundException("Reserva com ID " + reserva.getIdReserva() + " não encontrada para atualização.");
             }
 
+            Mesa mesaParaReserva = mesaDAO.bloquearParaReserva(Collections.singletonList(reserva.getIdMesa()), conn).get(reserva.getIdMesa());
             if (reservaExistente.getIdMesa() != reserva.getIdMesa() || reserva.getNumeroPessoas() != reservaExistente.getNumeroPessoas()) {
-                Mesa mesaParaReserva = mesaDAO.buscarPorId(reserva.getIdMesa(), conn);
                 if (mesaParaReserva == null) {
                     throw new ResourceNotFoundException("Mesa com ID " + reserva.getIdMesa() + " não encontrada para a reserva.");
                 }
@@ -170,7 +515,8 @@ public class ReservaService {
                 }
             }
 
-            if (reservaDAO.verificarConflito(reserva.getIdMesa(), reserva.getDataReserva(), reserva.getHoraReserva(), reserva.getIdReserva(), conn)) {
+            bloqueio = indiceReservas.bloquear(reserva.getIdMesa(), reserva.getDataReserva(), reserva.getHoraReserva(), reserva.getIdReserva());
+            if (bloqueio == null || reservaDAO.verificarConflito(reserva.getIdMesa(), reserva.getDataReserva(), reserva.getHoraReserva(), reserva.getIdReserva(), conn)) {
                 throw new ServiceException("Conflito de horário: Já existe outra reserva para esta mesa neste dia/horário.");
             }
 
@@ -180,16 +526,22 @@ public class ReservaService {
             }
 
             conn.commit();
-            return reservaDAO.buscarPorId(reserva.getIdReserva(), conn);
+            Reserva reservaAtualizada = reservaDAO.buscarPorId(reserva.getIdReserva(), conn);
+            indiceReservas.confirmar(bloqueio, reservaAtualizada, reservaExistente);
+            bloqueio = null;
+            return reservaAtualizada;
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da atualização de reserva: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da atualização de reserva: {}", ex.getMessage());}
             }
             throw new ServiceException("Erro ao atualizar reserva: " + e.getMessage(), e);
         } finally {
+            if (bloqueio != null) {
+                indiceReservas.liberar(bloqueio);
+            }
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da atualização de reserva: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da atualização de reserva: {}", ex.getMessage());}
             }
         }
     }
@@ -215,20 +567,39 @@ public class ReservaService {
             }
 
             conn.commit();
-            System.out.println("Reserva ID " + id + " deletada com sucesso (serviço).");
+            indiceReservas.remover(reservaExistente);
+            log.info("Reserva ID {} deletada com sucesso (serviço).", id);
 
         } catch (SQLException e) {
             if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { System.err.println("CRÍTICO: Erro no rollback da deleção de reserva: " + ex.getMessage());}
+                try { conn.rollback(); } catch (SQLException ex) { log.error("Erro no rollback da deleção de reserva: {}", ex.getMessage());}
             }
             throw new ServiceException("Erro ao deletar reserva: " + e.getMessage(), e);
         } finally {
             if (conn != null) {
-                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { System.err.println("Erro ao fechar conexão da deleção de reserva: " + ex.getMessage());}
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ex) { log.warn("Erro ao fechar conexão da deleção de reserva: {}", ex.getMessage());}
             }
         }
     }
 
+    // Horários livres de todas as mesas (com capacidade para 'pessoas') numa data, a partir do índice em memória.
+    public List<DisponibilidadeMesa> listarDisponibilidade(LocalDate data, int pessoas) throws ServiceException {
+        if (data == null) {
+            throw new IllegalArgumentException("A data para consulta de disponibilidade não pode ser nula.");
+        }
+        if (data.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("A data para consulta de disponibilidade não pode estar no passado.");
+        }
+        if (pessoas < 0) {
+            throw new IllegalArgumentException("Número de pessoas não pode ser negativo.");
+        }
+        try {
+            return indiceReservas.listarDisponibilidade(data, pessoas);
+        } catch (SQLException e) {
+            throw new ServiceException("Erro ao consultar disponibilidade de mesas: " + e.getMessage(), e);
+        }
+    }
+
     // --- NOVOS MÉTODOS PARA DASHBOARD ---
     public int getTotalReservasParaData(LocalDate data) throws ServiceException {
         if (data == null) {
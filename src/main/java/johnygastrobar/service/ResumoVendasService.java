@@ -0,0 +1,125 @@
+package johnygastrobar.service;
+
+import johnygastrobar.dao.ResumoVendasDAO;
+import johnygastrobar.exception.ServiceException;
+import johnygastrobar.model.Pagamento;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+// Mantém as tabelas de resumo diário de vendas (ver ResumoVendasDAO).
+// PedidoService e PagamentoService chamam os métodos registrar* dentro da própria transação,
+// logo antes do commit: o resumo muda junto com os dados de origem ou não muda.
+@Service
+public class ResumoVendasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumoVendasService.class);
+
+    // A reconstrução é feita em blocos de um mês, cada um na sua transação, para não segurar locks por muito tempo.
+    private static final int MESES_POR_BLOCO = 1;
+
+    private final ResumoVendasDAO resumoVendasDAO;
+
+    @Autowired
+    public ResumoVendasService(ResumoVendasDAO resumoVendasDAO) {
+        this.resumoVendasDAO = resumoVendasDAO;
+    }
+
+    public void registrarPedidoCriado(Pedido pedido, Connection conn) throws SQLException {
+        resumoVendasDAO.aplicarPedido(pedido, 1, conn);
+    }
+
+    // Retira a contribuição do estado anterior e soma a do novo (o dia pode ter mudado).
+    public void registrarPedidoAlterado(Pedido antes, Pedido depois, Connection conn) throws SQLException {
+        resumoVendasDAO.aplicarPedido(antes, -1, conn);
+        resumoVendasDAO.aplicarPedido(depois, 1, conn);
+    }
+
+    public void registrarPedidoRemovido(Pedido pedido, Connection conn) throws SQLException {
+        resumoVendasDAO.aplicarPedido(pedido, -1, conn);
+    }
+
+    public void registrarPagamento(Pagamento pagamento, Connection conn) throws SQLException {
+        resumoVendasDAO.aplicarPagamento(pagamento, 1, conn);
+    }
+
+    // Na primeira subida com as tabelas de resumo vazias, preenche a partir de todo o histórico.
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepararResumos() {
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            if (!resumoVendasDAO.estaVazio(conn)) {
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("Erro ao verificar tabelas de resumo de vendas: {}", e.getMessage());
+            return;
+        }
+        try {
+            reconstruirHistoricoCompleto();
+        } catch (ServiceException e) {
+            log.warn("Erro na carga inicial dos resumos de vendas: {}", e.getMessage());
+        }
+    }
+
+    public void reconstruirHistoricoCompleto() throws ServiceException {
+        LocalDate[] periodo;
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            periodo = resumoVendasDAO.buscarPeriodoDoHistorico(conn);
+        } catch (SQLException e) {
+            throw new ServiceException("Erro ao consultar período do histórico de vendas: " + e.getMessage(), e);
+        }
+        if (periodo != null) {
+            reconstruirPeriodo(periodo[0], periodo[1]);
+        }
+    }
+
+    // Backfill: recalcula os resumos do período a partir das tabelas de origem.
+    public void reconstruirPeriodo(LocalDate dataInicial, LocalDate dataFinal) throws ServiceException {
+        if (dataInicial == null || dataFinal == null || dataInicial.isAfter(dataFinal)) {
+            throw new IllegalArgumentException("Datas inválidas para reconstrução dos resumos de vendas.");
+        }
+        LocalDate inicioBloco = dataInicial;
+        while (!inicioBloco.isAfter(dataFinal)) {
+            LocalDate fimBloco = inicioBloco.plusMonths(MESES_POR_BLOCO).minusDays(1);
+            if (fimBloco.isAfter(dataFinal)) {
+                fimBloco = dataFinal;
+            }
+            reconstruirBloco(inicioBloco, fimBloco);
+            inicioBloco = fimBloco.plusDays(1);
+        }
+        log.info("Resumos de vendas reconstruídos de {} a {}.", dataInicial, dataFinal);
+    }
+
+    private void reconstruirBloco(LocalDate dataInicial, LocalDate dataFinal) throws ServiceException {
+        Connection conn = null;
+        try {
+            conn = ConnectionFactory.getConnection();
+            conn.setAutoCommit(false);
+            resumoVendasDAO.reconstruirPeriodo(dataInicial, dataFinal, conn);
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException exRollback) {
+                    log.error("Erro ao reverter reconstrução dos resumos de vendas: {}", exRollback.getMessage());
+                }
+            }
+            throw new ServiceException("Erro ao reconstruir resumos de vendas de " + dataInicial + " a " + dataFinal + ": " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {
+                    log.warn("Erro ao fechar conexão após reconstruir resumos de vendas: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -1,15 +1,56 @@
 package johnygastrobar.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+@Component
 public class ConnectionFactory {
+
+    // DataSource com pool (HikariCP) montado a partir do application.properties (ver DataSourceConfig).
+    // Fica estático para que DAOs e services continuem chamando ConnectionFactory.getConnection();
+    // o conn.close() que eles já fazem devolve a conexão ao pool em vez de fechar o socket.
+    private static DataSource dataSource;
+    // Pool separado das exportações em streaming; sem ele (testes, benchmarks) elas usam o principal.
+    private static DataSource dataSourceExportacao;
+    // Quando presente, as conexões saem embrulhadas para medir as consultas (ver MetricasJdbc).
+    private static MetricasJdbc metricas;
+
+    public ConnectionFactory(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    public ConnectionFactory(DataSource dataSource, MetricasJdbc metricasJdbc) {
+        this(dataSource, metricasJdbc, null);
+    }
+
+    @Autowired
+    public ConnectionFactory(DataSource dataSource, MetricasJdbc metricasJdbc,
+                             @Qualifier("dataSourceExportacao") DataSource dataSourceExportacao) {
+        ConnectionFactory.dataSource = dataSource;
+        ConnectionFactory.metricas = metricasJdbc;
+        ConnectionFactory.dataSourceExportacao = dataSourceExportacao;
+    }
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-                "jdbc:mysql://localhost:3306/johny_gastrobar", // Sua URL de conexão
-                "root",       // Seu usuário do banco
-                "admin123"    // Sua senha do banco
-        );
+        return emprestar(dataSource);
+    }
+
+    // Para quem segura a conexão por minutos (exportações): não conta contra o pool principal
+    // nem dispara a detecção de vazamento dele.
+    public static Connection getConnectionExportacao() throws SQLException {
+        return emprestar(dataSourceExportacao != null ? dataSourceExportacao : dataSource);
+    }
+
+    private static Connection emprestar(DataSource origem) throws SQLException {
+        if (origem == null) {
+            throw new SQLException("Pool de conexões ainda não foi inicializado pelo Spring.");
+        }
+        Connection conn = origem.getConnection();
+        return (metricas != null) ? metricas.instrumentar(conn) : conn;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package johnygastrobar.util;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Contexto de log (MDC) da requisição. O MDC é por thread: trabalho entregue a um executor
+// precisa levar o contexto junto para que os logs dele saiam com o mesmo id de requisição.
+public final class ContextoLog {
+
+    public static final String CHAVE_ID_REQUISICAO = "idRequisicao";
+
+    private ContextoLog() {
+    }
+
+    public static <T> Supplier<T> comContextoAtual(Supplier<T> tarefa) {
+        Map<String, String> contexto = MDC.getCopyOfContextMap();
+        if (contexto == null) {
+            return tarefa;
+        }
+        return () -> {
+            Map<String, String> anterior = MDC.getCopyOfContextMap();
+            MDC.setContextMap(contexto);
+            try {
+                return tarefa.get();
+            } finally {
+                if (anterior != null) {
+                    MDC.setContextMap(anterior);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+}
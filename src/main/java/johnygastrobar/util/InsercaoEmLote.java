@@ -0,0 +1,124 @@
+package johnygastrobar.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// INSERT de várias linhas num único comando: INSERT INTO T (a, b) VALUES (?, ?), (?, ?), ...
+// Sem rewriteBatchedStatements, o driver do MySQL executa um batch de PreparedStatement como um INSERT
+// por linha (uma ida e volta cada); aqui cada bloco de até LINHAS_POR_BLOCO linhas vai num comando só.
+// Os blocos cheios reaproveitam o mesmo PreparedStatement; só o último, menor, prepara outro SQL.
+// Usado pelos DAOs que gravam linhas filhas (itens do pedido, telefones, dependentes, reservas em lote).
+public final class InsercaoEmLote {
+
+    // Mantém cada comando bem abaixo de max_allowed_packet e do limite de 65.535 parâmetros por statement.
+    static final int LINHAS_POR_BLOCO = 500;
+    private static final int MAXIMO_PARAMETROS = 65535;
+
+    private InsercaoEmLote() {
+    }
+
+    @FunctionalInterface
+    public interface PreenchimentoLinha<T> {
+        // Preenche os parâmetros de uma linha a partir de 'primeiro' (base 1), na ordem das colunas do INSERT.
+        void preencher(PreparedStatement stmt, int primeiro, T linha) throws SQLException;
+    }
+
+    // insercao: "INSERT INTO Tabela (col1, ..., colN)"; colunas: N. Retorna as linhas afetadas.
+    public static <T> int inserir(String insercao, int colunas, List<T> linhas, PreenchimentoLinha<T> preenchimento,
+                                  Connection conn) throws SQLException {
+        return executar(insercao, colunas, "", linhas, preenchimento, null, conn);
+    }
+
+    // complemento: texto depois do VALUES, ex.: "ON DUPLICATE KEY UPDATE quantidade = quantidade + VALUES(quantidade)".
+    public static <T> int inserir(String insercao, int colunas, String complemento, List<T> linhas,
+                                  PreenchimentoLinha<T> preenchimento, Connection conn) throws SQLException {
+        return executar(insercao, colunas, " " + complemento, linhas, preenchimento, null, conn);
+    }
+
+    // Retorna os ids gerados (AUTO_INCREMENT) na mesma ordem das linhas. Um INSERT de várias linhas recebe
+    // valores consecutivos do InnoDB (é um "simple insert", com o número de linhas conhecido), e é assim que
+    // o Connector/J monta o getGeneratedKeys a partir do LAST_INSERT_ID.
+    public static <T> List<Integer> inserirComChaves(String insercao, int colunas, List<T> linhas,
+                                                     PreenchimentoLinha<T> preenchimento, Connection conn) throws SQLException {
+        List<Integer> chaves = new ArrayList<>(linhas.size());
+        executar(insercao, colunas, "", linhas, preenchimento, chaves, conn);
+        if (chaves.size() != linhas.size()) {
+            throw new SQLException("Inserção em lote retornou " + chaves.size() + " ids gerados para " + linhas.size() + " linhas.");
+        }
+        return chaves;
+    }
+
+    private static <T> int executar(String insercao, int colunas, String complemento, List<T> linhas,
+                                    PreenchimentoLinha<T> preenchimento, List<Integer> chaves, Connection conn) throws SQLException {
+        if (linhas.isEmpty()) {
+            return 0;
+        }
+        int porBloco = Math.min(LINHAS_POR_BLOCO, MAXIMO_PARAMETROS / colunas);
+        int afetadas = 0;
+        PreparedStatement blocoCheio = null;
+        try {
+            for (int inicio = 0; inicio < linhas.size(); inicio += porBloco) {
+                List<T> bloco = linhas.subList(inicio, Math.min(inicio + porBloco, linhas.size()));
+                if (bloco.size() == porBloco) {
+                    if (blocoCheio == null) {
+                        blocoCheio = preparar(insercao, colunas, porBloco, complemento, chaves != null, conn);
+                    }
+                    afetadas += executarBloco(blocoCheio, colunas, bloco, preenchimento, chaves);
+                } else {
+                    try (PreparedStatement stmt = preparar(insercao, colunas, bloco.size(), complemento, chaves != null, conn)) {
+                        afetadas += executarBloco(stmt, colunas, bloco, preenchimento, chaves);
+                    }
+                }
+            }
+        } finally {
+            if (blocoCheio != null) {
+                blocoCheio.close();
+            }
+        }
+        return afetadas;
+    }
+
+    private static PreparedStatement preparar(String insercao, int colunas, int linhas, String complemento,
+                                              boolean comChaves, Connection conn) throws SQLException {
+        StringBuilder linha = new StringBuilder("(");
+        for (int c = 0; c < colunas; c++) {
+            linha.append(c == 0 ? "?" : ", ?");
+        }
+        linha.append(")");
+        StringBuilder sql = new StringBuilder(insercao.length() + linhas * (linha.length() + 2) + complemento.length() + 8);
+        sql.append(insercao).append(" VALUES ");
+        for (int l = 0; l < linhas; l++) {
+            if (l > 0) {
+                sql.append(", ");
+            }
+            sql.append(linha);
+        }
+        sql.append(complemento);
+        return comChaves
+                ? conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)
+                : conn.prepareStatement(sql.toString());
+    }
+
+    private static <T> int executarBloco(PreparedStatement stmt, int colunas, List<T> bloco,
+                                         PreenchimentoLinha<T> preenchimento, List<Integer> chaves) throws SQLException {
+        int primeiro = 1;
+        for (T linha : bloco) {
+            preenchimento.preencher(stmt, primeiro, linha);
+            primeiro += colunas;
+        }
+        int afetadas = stmt.executeUpdate();
+        if (chaves != null) {
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    chaves.add(generatedKeys.getInt(1));
+                }
+            }
+        }
+        return afetadas;
+    }
+}
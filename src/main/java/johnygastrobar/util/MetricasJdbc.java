@@ -0,0 +1,241 @@
+package johnygastrobar.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Métricas das consultas feitas pelos DAOs, sem alterar os DAOs: a ConnectionFactory entrega a conexão
+// do pool embrulhada num proxy que mede cada execução de Statement/PreparedStatement.
+// - jdbc.consultas (timer) e jdbc.linhas (linhas lidas ou afetadas), com a tag "consulta" = método do DAO
+//   que preparou o SQL (ex.: PedidoDAO.buscarPorId);
+// - jdbc.transacoes (contador), com a tag "resultado" = commit/rollback;
+// - consultas acima de metricas.jdbc.consulta-lenta-ms vão para o log com o nome e o número de parâmetros.
+// O tempo de espera por uma conexão do pool é publicado pelo próprio Hikari (hikaricp.connections.acquire).
+@Component
+public class MetricasJdbc {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricasJdbc.class);
+
+    // SQLs montados na hora (listas IN com N parâmetros) não entram no cache indefinidamente.
+    private static final int MAXIMO_SQLS_EM_CACHE = 2000;
+    private static final StackWalker PILHA = StackWalker.getInstance();
+
+    private final MeterRegistry registry;
+    private final long consultaLentaNanos;
+    private final Counter commits;
+    private final Counter rollbacks;
+    private final ConcurrentHashMap<String, String> nomePorSql = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Medidores> medidoresPorNome = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MetricasJdbc(MeterRegistry registry, @Value("${metricas.jdbc.consulta-lenta-ms:200}") long consultaLentaMillis) {
+        this.registry = registry;
+        this.consultaLentaNanos = TimeUnit.MILLISECONDS.toNanos(consultaLentaMillis);
+        this.commits = Counter.builder("jdbc.transacoes").tag("resultado", "commit")
+                .description("Transações confirmadas").register(registry);
+        this.rollbacks = Counter.builder("jdbc.transacoes").tag("resultado", "rollback")
+                .description("Transações revertidas").register(registry);
+    }
+
+    private static final class Medidores {
+        private final Timer tempo;
+        private final DistributionSummary linhas;
+
+        private Medidores(Timer tempo, DistributionSummary linhas) {
+            this.tempo = tempo;
+            this.linhas = linhas;
+        }
+    }
+
+    public Connection instrumentar(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConexaoMedida(conn));
+    }
+
+    private final class ConexaoMedida implements InvocationHandler {
+        private final Connection conn;
+
+        private ConexaoMedida(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object resultado = chamar(conn, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    String sql = (String) args[0];
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[]{PreparedStatement.class}, new ComandoMedido((Statement) resultado, sql, nomeDaConsulta(sql)));
+                case "createStatement":
+                    return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                            new Class<?>[]{Statement.class}, new ComandoMedido((Statement) resultado, null, null));
+                case "commit":
+                    commits.increment();
+                    return resultado;
+                case "rollback":
+                    rollbacks.increment();
+                    return resultado;
+                default:
+                    return resultado;
+            }
+        }
+    }
+
+    private final class ComandoMedido implements InvocationHandler {
+        private final Statement stmt;
+        private final String sqlPreparado;
+        private final String nomePreparado;
+        private int parametros = 0;
+
+        private ComandoMedido(Statement stmt, String sqlPreparado, String nomePreparado) {
+            this.stmt = stmt;
+            this.sqlPreparado = sqlPreparado;
+            this.nomePreparado = nomePreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nomeMetodo = method.getName();
+            if (!nomeMetodo.startsWith("execute")) {
+                if (nomeMetodo.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parametros = Math.max(parametros, (Integer) args[0]);
+                }
+                return chamar(stmt, method, args);
+            }
+
+            // Statement simples: o SQL vem na própria chamada de execute.
+            String nome = nomePreparado;
+            if (nome == null) {
+                nome = (args != null && args.length > 0 && args[0] instanceof String) ? nomeDaConsulta((String) args[0]) : "desconhecida";
+            }
+            Medidores medidores = medidores(nome);
+            long inicio = System.nanoTime();
+            Object resultado = chamar(stmt, method, args);
+            long duracao = System.nanoTime() - inicio;
+            medidores.tempo.record(duracao, TimeUnit.NANOSECONDS);
+            if (duracao >= consultaLentaNanos) {
+                log.warn("Consulta lenta: {} levou {} ms ({} parâmetros)", nome, TimeUnit.NANOSECONDS.toMillis(duracao), parametros);
+            }
+
+            if (resultado instanceof ResultSet) {
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class}, new LeituraMedida((ResultSet) resultado, medidores.linhas));
+            } else if (resultado instanceof Integer) {
+                medidores.linhas.record(Math.max(0, (Integer) resultado));
+            } else if (resultado instanceof Long) {
+                medidores.linhas.record(Math.max(0, (Long) resultado));
+            } else if (resultado instanceof int[]) {
+                long afetadas = 0;
+                for (int linhas : (int[]) resultado) {
+                    afetadas += Math.max(0, linhas);
+                }
+                medidores.linhas.record(afetadas);
+            }
+            return resultado;
+        }
+    }
+
+    // Conta as linhas lidas e registra o total ao chegar no fim do ResultSet (ou ao fechá-lo antes).
+    private static final class LeituraMedida implements InvocationHandler {
+        private final ResultSet rs;
+        private final DistributionSummary linhas;
+        private long lidas = 0;
+        private boolean registrado = false;
+
+        private LeituraMedida(ResultSet rs, DistributionSummary linhas) {
+            this.rs = rs;
+            this.linhas = linhas;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object resultado = chamar(rs, method, args);
+            String nomeMetodo = method.getName();
+            if ("next".equals(nomeMetodo)) {
+                if ((Boolean) resultado) {
+                    lidas++;
+                } else {
+                    registrar();
+                }
+            } else if ("close".equals(nomeMetodo)) {
+                registrar();
+            }
+            return resultado;
+        }
+
+        private void registrar() {
+            if (!registrado) {
+                registrado = true;
+                linhas.record(lidas);
+            }
+        }
+    }
+
+    private static Object chamar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Medidores medidores(String nome) {
+        return medidoresPorNome.computeIfAbsent(nome, n -> new Medidores(
+                Timer.builder("jdbc.consultas").tag("consulta", n)
+                        .description("Tempo de execução das consultas SQL").register(registry),
+                DistributionSummary.builder("jdbc.linhas").tag("consulta", n)
+                        .description("Linhas lidas ou afetadas por consulta").register(registry)));
+    }
+
+    // Nome estável da consulta: o método do DAO que preparou o SQL. Descoberto pela pilha só na primeira vez
+    // que o SQL aparece; fora de um DAO, cai no comando e na tabela (ex.: "SELECT Pedido").
+    private String nomeDaConsulta(String sql) {
+        String nome = nomePorSql.get(sql);
+        if (nome != null) {
+            return nome;
+        }
+        nome = PILHA.walk(frames -> frames
+                        .filter(f -> f.getClassName().startsWith("johnygastrobar.dao."))
+                        .findFirst())
+                .map(f -> f.getClassName().substring("johnygastrobar.dao.".length()) + "." + f.getMethodName())
+                .orElseGet(() -> nomePeloSql(sql));
+        if (nomePorSql.size() < MAXIMO_SQLS_EM_CACHE) {
+            nomePorSql.put(sql, nome);
+        }
+        return nome;
+    }
+
+    private static String nomePeloSql(String sql) {
+        String[] palavras = sql.trim().split("\\s+");
+        String comando = palavras.length > 0 ? palavras[0].toUpperCase(Locale.ROOT) : "";
+        Optional<String> tabela = Optional.empty();
+        for (int i = 0; i < palavras.length - 1 && !tabela.isPresent(); i++) {
+            String palavra = palavras[i].toUpperCase(Locale.ROOT);
+            if (palavra.equals("FROM") || palavra.equals("INTO") || palavra.equals("UPDATE")) {
+                tabela = Optional.of(palavras[i + 1].replaceAll("[^A-Za-z0-9_]", ""));
+            }
+        }
+        return tabela.map(t -> comando + " " + t).orElse(comando);
+    }
+}
@@ -0,0 +1,41 @@
+package johnygastrobar.util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+// Prazo (Statement.setQueryTimeout) das consultas feitas pela thread atual. O timeout de um CompletableFuture
+// só abandona o resultado: sem o prazo no JDBC a consulta continuaria rodando no banco e segurando a conexão
+// do pool. Quem dispara o trabalho embrulha a tarefa com comPrazo; os DAOs chamam aplicar depois de preparar o SQL.
+public final class PrazoConsulta {
+
+    private static final ThreadLocal<Integer> SEGUNDOS = new ThreadLocal<>();
+
+    private PrazoConsulta() {
+    }
+
+    // setQueryTimeout é em segundos: o prazo é arredondado para cima (mínimo 1 s).
+    public static <T> Supplier<T> comPrazo(long prazoMillis, Supplier<T> tarefa) {
+        int segundos = (int) Math.max(1, (prazoMillis + 999) / 1000);
+        return () -> {
+            Integer anterior = SEGUNDOS.get();
+            SEGUNDOS.set(segundos);
+            try {
+                return tarefa.get();
+            } finally {
+                if (anterior != null) {
+                    SEGUNDOS.set(anterior);
+                } else {
+                    SEGUNDOS.remove();
+                }
+            }
+        };
+    }
+
+    public static void aplicar(Statement stmt) throws SQLException {
+        Integer segundos = SEGUNDOS.get();
+        if (segundos != null) {
+            stmt.setQueryTimeout(segundos);
+        }
+    }
+}
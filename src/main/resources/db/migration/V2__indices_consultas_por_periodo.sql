@@ -0,0 +1,13 @@
+-- Índices para as consultas por período (dashboard, listagens filtradas por data).
+-- As consultas usam intervalos meio-abertos direto na coluna (col >= ? AND col < ?),
+-- o que permite range scan nestes índices.
+
+-- Pedidos por período e status: cobre COUNT por (entregue, pago) sem ir à tabela.
+CREATE INDEX idx_pedido_data_hora_status ON Pedido (data_hora, pago, entregue);
+
+CREATE INDEX idx_pagamento_data ON Pagamento_realiza (data_pagamento);
+
+CREATE INDEX idx_feedback_data ON Feedback_Pedido (data_feedback);
+
+-- Itens de um conjunto de pedidos (carga dos itens das páginas de pedidos, exportação, reconstrução dos resumos).
+CREATE INDEX idx_pedido_item_pedido_item ON Pedido_Item (id_pedido, id_item);
@@ -0,0 +1,24 @@
+-- Resumos diários de vendas lidos pelo dashboard (ver ResumoVendasDAO).
+-- IF NOT EXISTS: versões anteriores criavam estas tabelas pelo código.
+
+CREATE TABLE IF NOT EXISTS Resumo_Vendas_Dia (
+    dia DATE NOT NULL PRIMARY KEY,
+    pedidos_criados INT NOT NULL DEFAULT 0,
+    pedidos_pendentes INT NOT NULL DEFAULT 0,
+    pedidos_entregues_nao_pagos INT NOT NULL DEFAULT 0,
+    pedidos_pagos_nao_entregues INT NOT NULL DEFAULT 0,
+    pedidos_entregues_pagos INT NOT NULL DEFAULT 0,
+    unidades_vendidas INT NOT NULL DEFAULT 0,
+    valor_itens DECIMAL(14,2) NOT NULL DEFAULT 0,
+    valor_pedidos DECIMAL(14,2) NOT NULL DEFAULT 0,
+    pagamentos INT NOT NULL DEFAULT 0,
+    valor_pagamentos DECIMAL(14,2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS Resumo_Vendas_Item_Dia (
+    dia DATE NOT NULL,
+    id_item INT NOT NULL,
+    quantidade INT NOT NULL DEFAULT 0,
+    faturamento DECIMAL(14,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (dia, id_item)
+);
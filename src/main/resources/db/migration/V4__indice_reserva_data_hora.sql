@@ -0,0 +1,4 @@
+-- Reservas por data (GET /api/reservas/por-data, listagem paginada, carga do índice de reservas em memória).
+-- As consultas filtram data_reserva por intervalo e ordenam por (data_reserva, hora_reserva, id_reserva);
+-- o id_reserva já vem no índice secundário do InnoDB, então a ordenação sai do próprio índice.
+CREATE INDEX idx_reserva_data_hora ON Reserva (data_reserva, hora_reserva);
@@ -0,0 +1,13 @@
+-- Chaves de idempotência (cabeçalho Idempotency-Key) de POST /api/pedidos e POST /api/pagamentos.
+-- A linha é gravada na mesma transação do pedido/pagamento: se o recurso existe, a chave também.
+-- resumo_requisicao é o SHA-256 do corpo enviado, para recusar a mesma chave com outro conteúdo.
+-- Linhas mais antigas que o TTL (idempotencia.ttl-horas) são apagadas periodicamente pelo índice de criado_em.
+CREATE TABLE IF NOT EXISTS Chave_Idempotencia (
+    operacao VARCHAR(30) NOT NULL,
+    chave VARCHAR(100) NOT NULL,
+    resumo_requisicao CHAR(64) NOT NULL,
+    id_recurso INT NOT NULL,
+    criado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (operacao, chave),
+    INDEX idx_chave_idempotencia_criado_em (criado_em)
+);
@@ -0,0 +1,5 @@
+-- Controle de concorrência otimista do Pedido: toda escrita em Pedido (edição, pagamento) faz
+-- "UPDATE ... SET versao = versao + 1 WHERE id_pedido = ? AND versao = ?". Se outra requisição alterou o
+-- pedido depois da leitura, nenhuma linha é afetada e a API responde 409 em vez de sobrescrever a alteração.
+-- Pedidos existentes começam na versão 0.
+ALTER TABLE Pedido ADD COLUMN versao INT NOT NULL DEFAULT 0;
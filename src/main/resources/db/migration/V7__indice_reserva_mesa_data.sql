@@ -0,0 +1,4 @@
+-- Checagem de conflito de reserva no banco (ReservaDAO.verificarConflito e listarPorMesasEDatas):
+-- SELECT ... WHERE id_mesa = ? AND data_reserva = ? FOR UPDATE. Com este índice a leitura travada percorre
+-- e trava só as reservas daquela mesa naquele dia, em vez de todas as do dia ou todas as da mesa.
+CREATE INDEX idx_reserva_mesa_data ON Reserva (id_mesa, data_reserva);
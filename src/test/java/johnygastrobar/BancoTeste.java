@@ -0,0 +1,113 @@
+package johnygastrobar;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.util.ConnectionFactory;
+import org.flywaydb.core.Flyway;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Banco H2 em memória (modo MySQL) para os testes de DAO e serviço: o schema base do MySQL (que não está
+// nas migrações) mais as migrações do Flyway, e uma massa fixa de mesas e itens; funcionários e pedidos
+// ficam por conta de cada teste.
+// Registra o DataSource no ConnectionFactory, como o Spring faz na aplicação.
+public final class BancoTeste {
+
+    public static final int MESAS = 30;
+    public static final int ITENS = 80;
+
+    // Schema base (o V1, que não está versionado), sem nada do que as migrações V2+ criam.
+    private static final String[] DDL = {
+            "CREATE TABLE Mesa (id_mesa INT AUTO_INCREMENT PRIMARY KEY, capacidade INT NOT NULL, localizacao VARCHAR(100))",
+            "CREATE TABLE Item (id_item INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL, tipo VARCHAR(50), preco DECIMAL(10,2) NOT NULL)",
+            "CREATE TABLE Funcionario (id_funcionario INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL, cpf VARCHAR(14), " +
+                    "salario DECIMAL(10,2), data_contratacao DATE, rua VARCHAR(100), numero VARCHAR(10), bairro VARCHAR(50), " +
+                    "cidade VARCHAR(50), estado VARCHAR(2), cep VARCHAR(9), id_supervisor INT)",
+            "CREATE TABLE Garcom (id_funcionario INT PRIMARY KEY, setor_atendimento VARCHAR(50))",
+            "CREATE TABLE Cozinheiro (id_funcionario INT PRIMARY KEY, espec_cul VARCHAR(50))",
+            "CREATE TABLE Bartender (id_funcionario INT PRIMARY KEY, espec_bar VARCHAR(50))",
+            "CREATE TABLE Gerente (id_funcionario INT PRIMARY KEY, nivel_acesso VARCHAR(20), limite_desconto DECIMAL(5,2))",
+            "CREATE TABLE Funcionario_Telefones (id_funcionario INT NOT NULL, numero_telefone VARCHAR(20) NOT NULL)",
+            "CREATE TABLE Dependente (id_funcionario INT NOT NULL, nome_dependente VARCHAR(100) NOT NULL, data_nascimento DATE, parentesco VARCHAR(30))",
+            "CREATE TABLE Pedido (id_pedido INT AUTO_INCREMENT PRIMARY KEY, id_garcom INT, id_gerente INT, id_mesa INT NOT NULL, " +
+                    "data_hora TIMESTAMP NOT NULL, entregue BOOLEAN NOT NULL, pago BOOLEAN NOT NULL, desconto DECIMAL(5,2))",
+            "CREATE TABLE Pedido_Item (id_pedido INT NOT NULL, id_item INT NOT NULL, quantidade INT NOT NULL, preco_unitario DECIMAL(10,2) NOT NULL)",
+            "CREATE TABLE Pagamento_realiza (id_pagamento INT AUTO_INCREMENT PRIMARY KEY, id_pedido INT NOT NULL, " +
+                    "valor_total DECIMAL(10,2) NOT NULL, metodo_pagamento VARCHAR(50) NOT NULL, data_pagamento TIMESTAMP NOT NULL, " +
+                    "CONSTRAINT pagamento_realiza_id_pedido_key UNIQUE (id_pedido))",
+            "CREATE TABLE Feedback_Pedido (id_feedback INT AUTO_INCREMENT PRIMARY KEY, id_pedido INT, id_mesa INT, " +
+                    "nome_cliente_feedback VARCHAR(100), nota_comida INT, nota_atendimento INT, comentario_texto VARCHAR(500), " +
+                    "data_feedback TIMESTAMP NOT NULL)",
+            "CREATE TABLE Autoriza (id_autorizacao INT AUTO_INCREMENT PRIMARY KEY, id_pedido INT NOT NULL, id_gerente INT NOT NULL, " +
+                    "data_autorizacao TIMESTAMP NOT NULL, observacao_autorizacao VARCHAR(255))",
+            "CREATE TABLE Reserva (id_reserva INT AUTO_INCREMENT PRIMARY KEY, nome_responsavel VARCHAR(100) NOT NULL, " +
+                    "numero_pessoas INT NOT NULL, id_mesa INT NOT NULL, data_reserva DATE NOT NULL, hora_reserva TIME NOT NULL, observacao VARCHAR(255))"
+    };
+
+    private BancoTeste() {
+    }
+
+    // Cria um banco novo (nome único, para que cada classe de teste comece do zero).
+    // Mesas: capacidade 2 + id % 6. Itens: "Item <id>", preço 10 + id.
+    public static HikariDataSource criar() throws SQLException {
+        return criar("mem:teste" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    // Mesmo banco, gravado em disco: para massas que não cabem no heap do teste junto com os dados.
+    public static HikariDataSource criarEmArquivo(Path diretorio) throws SQLException {
+        return criar("file:" + diretorio.resolve("teste").toAbsolutePath());
+    }
+
+    private static HikariDataSource criar(String banco) throws SQLException {
+        // Sem o application.properties o Logback fica em DEBUG e o log do Hikari polui a saída dos testes.
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        HikariConfig config = new HikariConfig();
+        // LOCK_TIMEOUT acima do padrão do H2 (1 s): os testes de concorrência disputam a mesma linha.
+        config.setJdbcUrl("jdbc:h2:" + banco + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000");
+        config.setMaximumPoolSize(12);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        new ConnectionFactory(dataSource);
+
+        try (Connection conn = dataSource.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                for (String ddl : DDL) {
+                    stmt.execute(ddl);
+                }
+            }
+            // As migrações de verdade (db/migration), como o Spring Boot aplica na aplicação: os índices
+            // e tabelas que os testes enxergam são os que vão para produção.
+            Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).load().migrate();
+            popular(conn);
+        }
+        return dataSource;
+    }
+
+    private static void popular(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO Mesa (capacidade, localizacao) VALUES (?, ?)")) {
+            for (int i = 1; i <= MESAS; i++) {
+                stmt.setInt(1, 2 + i % 6);
+                stmt.setString(2, i % 2 == 0 ? "Salão" : "Varanda");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        String[] tipos = {"COMIDA", "BEBIDA", "SOBREMESA"};
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO Item (nome, tipo, preco) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= ITENS; i++) {
+                stmt.setString(1, "Item " + i);
+                stmt.setString(2, tipos[i % tipos.length]);
+                stmt.setBigDecimal(3, new BigDecimal(10 + i).setScale(2));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package johnygastrobar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceConfigTest {
+
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(DataSourceConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:config;MODE=MySQL",
+                    "spring.datasource.hikari.pool-name=Principal",
+                    "spring.datasource.hikari.leak-detection-threshold=10000",
+                    "exportacao.datasource.hikari.pool-name=Exportacao",
+                    "exportacao.datasource.hikari.maximum-pool-size=2",
+                    "exportacao.datasource.hikari.leak-detection-threshold=660000");
+
+    // O pool principal (o que DAOs e Flyway recebem) fica com a detecção de vazamento curta;
+    // só o das exportações tem o limite acima da janela do streaming.
+    @Test
+    void exportacaoTemPoolProprioComLimiteDeVazamentoLongo() {
+        contexto.run(ctx -> {
+            HikariDataSource principal = (HikariDataSource) ctx.getBean(DataSource.class);
+            HikariDataSource exportacao = ctx.getBean("dataSourceExportacao", HikariDataSource.class);
+
+            assertThat(principal.getPoolName()).isEqualTo("Principal");
+            assertThat(principal.getLeakDetectionThreshold()).isEqualTo(10000);
+            assertThat(exportacao.getPoolName()).isEqualTo("Exportacao");
+            assertThat(exportacao.getLeakDetectionThreshold()).isEqualTo(660000);
+            assertThat(exportacao.getMaximumPoolSize()).isEqualTo(2);
+            assertThat(exportacao.getJdbcUrl()).isEqualTo(principal.getJdbcUrl());
+        });
+    }
+}
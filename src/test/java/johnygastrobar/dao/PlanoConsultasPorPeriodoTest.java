@@ -0,0 +1,176 @@
+package johnygastrobar.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.BancoTeste;
+import johnygastrobar.model.FacetaPedidos;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cada consulta por período tem que chegar às linhas pelo índice (range scan), nunca varrendo a tabela.
+// O teste roda o método do DAO numa conexão que, antes de cada execução, pede ao H2 o EXPLAIN do mesmo SQL
+// com os mesmos parâmetros; qualquer varredura completa (da tabela ou de um índice inteiro) reprova.
+// Índices e tabelas são os das migrações (BancoTeste aplica o Flyway), e a massa cobre um ano para que
+// o otimizador tenha o que escolher.
+class PlanoConsultasPorPeriodoTest {
+
+    private static final LocalDate INICIO_HISTORICO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate INICIO = LocalDate.of(2024, 6, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 6, 7);
+
+    // No plano do H2 cada acesso a tabela vem como "/* public.<índice>: <condição> */". Sem condição é
+    // varredura completa: "/* public.<tabela>.tableScan */" ou o índice inteiro, "/* public.<índice> */".
+    private static final Pattern VARREDURA_COMPLETA = Pattern.compile("/\\* public\\.[\\w.]+ \\*/");
+
+    private static HikariDataSource dataSource;
+
+    @FunctionalInterface
+    interface ConsultaPorPeriodo {
+        void executar(Connection conn) throws Exception;
+    }
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        dataSource = BancoTeste.criar();
+        String dataHora = "DATEADD('MINUTE', MOD(n * 37, 1440), CAST(DATEADD('DAY', MOD(n, 366), DATE '" + INICIO_HISTORICO + "') AS TIMESTAMP))";
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Pedido (id_garcom, id_mesa, data_hora, entregue, pago, desconto) " +
+                    "SELECT 1, MOD(n, " + BancoTeste.MESAS + ") + 1, " + dataHora + ", MOD(n, 2) = 0, MOD(n, 3) = 0, 0 " +
+                    "FROM SYSTEM_RANGE(1, 20000) r(n)");
+            stmt.execute("INSERT INTO Pedido_Item (id_pedido, id_item, quantidade, preco_unitario) " +
+                    "SELECT (n + 1) / 2, MOD(n, " + BancoTeste.ITENS + ") + 1, 1, 10.00 FROM SYSTEM_RANGE(1, 40000) r(n)");
+            stmt.execute("INSERT INTO Pagamento_realiza (id_pedido, valor_total, metodo_pagamento, data_pagamento) " +
+                    "SELECT id_pedido, 20.00, 'PIX', data_hora FROM Pedido WHERE pago");
+            stmt.execute("INSERT INTO Feedback_Pedido (id_pedido, id_mesa, nome_cliente_feedback, nota_comida, nota_atendimento, data_feedback) " +
+                    "SELECT id_pedido, id_mesa, 'Cliente', 4, 5, data_hora FROM Pedido WHERE MOD(id_pedido, 4) = 0");
+            stmt.execute("INSERT INTO Reserva (nome_responsavel, numero_pessoas, id_mesa, data_reserva, hora_reserva) " +
+                    "SELECT 'Cliente', 2, MOD(n, " + BancoTeste.MESAS + ") + 1, DATEADD('DAY', MOD(n, 366), DATE '" + INICIO_HISTORICO + "'), " +
+                    "DATEADD('MINUTE', MOD(n, 20) * 30, TIME '12:00:00') FROM SYSTEM_RANGE(1, 10000) r(n)");
+            stmt.execute("INSERT INTO Resumo_Vendas_Dia (dia, pedidos_criados, unidades_vendidas, valor_pagamentos) " +
+                    "SELECT DATE(data_hora), COUNT(*), 2 * COUNT(*), 20 * COUNT(*) FROM Pedido GROUP BY DATE(data_hora)");
+            stmt.execute("INSERT INTO Resumo_Vendas_Item_Dia (dia, id_item, quantidade, faturamento) " +
+                    "SELECT DATE(p.data_hora), pi.id_item, SUM(pi.quantidade), SUM(pi.quantidade * pi.preco_unitario) " +
+                    "FROM Pedido_Item pi JOIN Pedido p ON p.id_pedido = pi.id_pedido GROUP BY DATE(p.data_hora), pi.id_item");
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void encerrar() {
+        dataSource.close();
+    }
+
+    static Stream<Arguments> consultasPorPeriodo() {
+        PedidoDAO pedidoDAO = new PedidoDAO();
+        PagamentoDAO pagamentoDAO = new PagamentoDAO();
+        FeedbackPedidoDAO feedbackDAO = new FeedbackPedidoDAO();
+        ItemDAO itemDAO = new ItemDAO();
+        ReservaDAO reservaDAO = new ReservaDAO();
+        ResumoVendasDAO resumoDAO = new ResumoVendasDAO();
+        return Stream.of(
+                consulta("PedidoDAO.countPedidosCriadosPorPeriodo", conn -> pedidoDAO.countPedidosCriadosPorPeriodo(INICIO, FIM, conn)),
+                consulta("PedidoDAO.countPedidosPagosPorPeriodo", conn -> pedidoDAO.countPedidosPagosPorPeriodo(INICIO, FIM, conn)),
+                consulta("PedidoDAO.sumQuantidadeItensVendidosPorPeriodo", conn -> pedidoDAO.sumQuantidadeItensVendidosPorPeriodo(INICIO, FIM, conn)),
+                consulta("PedidoDAO.countPedidosByStatusEPeriodo", conn -> pedidoDAO.countPedidosByStatusEPeriodo(true, false, INICIO, FIM, conn)),
+                consulta("PedidoDAO.getHistogramaStatusPorPeriodo", conn -> pedidoDAO.getHistogramaStatusPorPeriodo(INICIO, FIM, conn)),
+                consulta("PedidoDAO.agruparPedidosPorPeriodo", conn -> pedidoDAO.agruparPedidosPorPeriodo(FacetaPedidos.Dimensao.STATUS, INICIO, FIM, conn)),
+                consulta("PedidoDAO.listarPagina", conn -> pedidoDAO.listarPagina(null, null, null, null, INICIO, FIM, null, null, 50, conn)),
+                consulta("PedidoDAO.percorrerPedidosComItens", conn -> pedidoDAO.percorrerPedidosComItens(INICIO, FIM, pedido -> { }, conn)),
+                consulta("PagamentoDAO.sumValorTotalPorPeriodo", conn -> pagamentoDAO.sumValorTotalPorPeriodo(INICIO, FIM, conn)),
+                consulta("FeedbackPedidoDAO.avgNotaComidaPorPeriodo", conn -> feedbackDAO.avgNotaComidaPorPeriodo(INICIO, FIM, conn)),
+                consulta("FeedbackPedidoDAO.avgNotaAtendimentoPorPeriodo", conn -> feedbackDAO.avgNotaAtendimentoPorPeriodo(INICIO, FIM, conn)),
+                consulta("FeedbackPedidoDAO.countFeedbacksPorPeriodo", conn -> feedbackDAO.countFeedbacksPorPeriodo(INICIO, FIM, conn)),
+                consulta("ItemDAO.getTopItensMaisVendidosPorQuantidade", conn -> itemDAO.getTopItensMaisVendidosPorQuantidade(INICIO, FIM, 5, conn)),
+                consulta("ItemDAO.getTopItensMaisRentaveis", conn -> itemDAO.getTopItensMaisRentaveis(INICIO, FIM, 5, conn)),
+                consulta("ReservaDAO.listarPorPeriodo", conn -> reservaDAO.listarPorPeriodo(INICIO, FIM, null, conn)),
+                consulta("ReservaDAO.listarPagina", conn -> reservaDAO.listarPagina(null, INICIO, FIM, null, null, null, 50, conn)),
+                consulta("ReservaDAO.countReservasParaData", conn -> reservaDAO.countReservasParaData(INICIO, conn)),
+                consulta("ResumoVendasDAO.reconstruirPeriodo", conn -> resumoDAO.reconstruirPeriodo(INICIO, FIM, conn)));
+    }
+
+    private static Arguments consulta(String nome, ConsultaPorPeriodo consulta) {
+        return Arguments.of(nome, consulta);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultasPorPeriodo")
+    void consultaPorPeriodoUsaIndice(String nome, ConsultaPorPeriodo consulta) throws Exception {
+        List<String> planos = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false); // reconstruirPeriodo reescreve o resumo: desfeito no fim
+            try {
+                consulta.executar(explicando(conn, planos));
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+
+        assertThat(planos).isNotEmpty();
+        assertThat(planos).allSatisfy(plano -> assertThat(plano).doesNotContainPattern(VARREDURA_COMPLETA));
+    }
+
+    // Conexão que guarda o plano (EXPLAIN, com os mesmos parâmetros) de cada PreparedStatement antes de executá-lo.
+    private static Connection explicando(Connection conn, List<String> planos) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = chamar(conn, metodo, args);
+                    if (!"prepareStatement".equals(metodo.getName())) {
+                        return resultado;
+                    }
+                    String sql = (String) args[0];
+                    List<Object[]> parametros = new ArrayList<>();
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                            (proxyStmt, metodoStmt, argsStmt) -> {
+                                String nome = metodoStmt.getName();
+                                if (nome.startsWith("set") && argsStmt != null && argsStmt.length == 2 && argsStmt[0] instanceof Integer) {
+                                    parametros.add(new Object[]{metodoStmt, argsStmt});
+                                } else if (nome.startsWith("execute")) {
+                                    planos.add(explicar(conn, sql, parametros));
+                                }
+                                return chamar(resultado, metodoStmt, argsStmt);
+                            });
+                });
+    }
+
+    private static String explicar(Connection conn, String sql, List<Object[]> parametros) throws Throwable {
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (Object[] parametro : parametros) {
+                chamar(stmt, (Method) parametro[0], (Object[]) parametro[1]);
+            }
+            StringBuilder plano = new StringBuilder();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plano.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plano.toString();
+        }
+    }
+
+    private static Object chamar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
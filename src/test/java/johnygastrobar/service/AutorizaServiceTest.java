@@ -0,0 +1,83 @@
+package johnygastrobar.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.BancoTeste;
+import johnygastrobar.dao.AutorizaDAO;
+import johnygastrobar.dao.FuncionarioDAO;
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.exception.ResourceNotFoundException;
+import johnygastrobar.exception.ServiceException;
+import johnygastrobar.model.Autoriza;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AutorizaServiceTest {
+
+    private HikariDataSource dataSource;
+    private AutorizaService autorizaService;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        dataSource = BancoTeste.criar();
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            // 1: gerente com limite de 10, 2: garçom
+            stmt.execute("INSERT INTO Funcionario (nome) VALUES ('Gerente'), ('Garçom')");
+            stmt.execute("INSERT INTO Gerente (id_funcionario, nivel_acesso, limite_desconto) VALUES (1, 'TOTAL', 10.00)");
+            stmt.execute("INSERT INTO Garcom (id_funcionario, setor_atendimento) VALUES (2, 'Salão')");
+            // 1: desconto de 5, 2: desconto de 15
+            stmt.execute("INSERT INTO Pedido (id_garcom, id_mesa, data_hora, entregue, pago, desconto) VALUES " +
+                    "(2, 1, CURRENT_TIMESTAMP, FALSE, FALSE, 5.00), (2, 1, CURRENT_TIMESTAMP, FALSE, FALSE, 15.00)");
+        }
+        FuncionarioDAO funcionarioDAO = new FuncionarioDAO();
+        autorizaService = new AutorizaService(new AutorizaDAO(), new PedidoDAO(), funcionarioDAO,
+                new IndicePapeisFuncionarios(funcionarioDAO, 60));
+    }
+
+    @AfterEach
+    void encerrar() {
+        dataSource.close();
+    }
+
+    @Test
+    void gerenteAutorizaDescontoDentroDoLimite() {
+        Autoriza criada = autorizaService.criarAutorizacao(new Autoriza(1, 1, null, null));
+
+        assertThat(criada.getIdAutorizacao()).isPositive();
+    }
+
+    @Test
+    void descontoAcimaDoLimiteDoGerenteERecusado() {
+        assertThatThrownBy(() -> autorizaService.criarAutorizacao(new Autoriza(2, 1, null, null)))
+                .isInstanceOf(ServiceException.class)
+                .hasMessageContaining("acima do limite");
+    }
+
+    @Test
+    void funcionarioQueNaoEGerenteERecusado() {
+        assertThatThrownBy(() -> autorizaService.criarAutorizacao(new Autoriza(1, 2, null, null)))
+                .isInstanceOf(ServiceException.class)
+                .hasMessageContaining("não é um gerente");
+        assertThatThrownBy(() -> autorizaService.criarAutorizacao(new Autoriza(1, 99, null, null)))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    // Gerente contratado direto no banco depois da carga do índice: o índice não confirma, o banco sim.
+    @Test
+    void gerenteForaDoIndiceEConfirmadoNoBanco() throws Exception {
+        autorizaService.criarAutorizacao(new Autoriza(1, 1, null, null)); // carrega o índice
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Funcionario (nome) VALUES ('Gerente novo')");
+            stmt.execute("INSERT INTO Gerente (id_funcionario, nivel_acesso, limite_desconto) VALUES (3, 'TOTAL', 20.00)");
+        }
+
+        assertThat(autorizaService.criarAutorizacao(new Autoriza(2, 3, null, null)).getIdAutorizacao()).isPositive();
+    }
+}
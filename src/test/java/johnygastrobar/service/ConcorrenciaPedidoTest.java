@@ -0,0 +1,161 @@
+package johnygastrobar.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.BancoTeste;
+import johnygastrobar.dao.ChaveIdempotenciaDAO;
+import johnygastrobar.dao.ItemDAO;
+import johnygastrobar.dao.MesaDAO;
+import johnygastrobar.dao.PagamentoDAO;
+import johnygastrobar.dao.PedidoDAO;
+import johnygastrobar.dao.ResumoVendasDAO;
+import johnygastrobar.exception.ConflitoConcorrenciaException;
+import johnygastrobar.exception.ServiceException;
+import johnygastrobar.model.Pagamento;
+import johnygastrobar.model.Pedido;
+import johnygastrobar.model.Pedido.PedidoItem;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Controle otimista do Pedido sob disputa: garçons fazem ler-alterar-gravar (quantidade + 1) repetindo em caso
+// de 409, enquanto caixas tentam pagar o mesmo pedido depois das primeiras edições. Ao fim da rodada:
+// - quantidade final = inicial + edições confirmadas (nenhuma edição perdida ou sobrescrita);
+// - versão final = edições confirmadas + 1 pagamento (nenhuma escrita fora do compare-and-set);
+// - exatamente um pagamento confirmado, com o valor do pedido final.
+class ConcorrenciaPedidoTest {
+
+    private static final int GARCONS = 8;
+    private static final int CAIXAS = 2;
+    private static final int EDICOES_ANTES_DO_PAGAMENTO = 20;
+    private static final int TENTATIVAS_POR_GARCOM = 100;
+
+    private static HikariDataSource dataSource;
+    private static PedidoService pedidoService;
+    private static PagamentoService pagamentoService;
+    private static EventosPedidoService eventosPedido;
+    private static QuadroPedidosAbertos quadroPedidos;
+    private static RegistroIdempotencia idempotencia;
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        dataSource = BancoTeste.criar();
+        ItemDAO itemDAO = new ItemDAO();
+        PedidoDAO pedidoDAO = new PedidoDAO();
+        ResumoVendasService resumoVendas = new ResumoVendasService(new ResumoVendasDAO());
+        eventosPedido = new EventosPedidoService("BEBIDA", 1000, 1800000, 15, 256, 10000);
+        quadroPedidos = new QuadroPedidosAbertos(pedidoDAO, 0);
+        idempotencia = new RegistroIdempotencia(new ChaveIdempotenciaDAO(), 24, 10000, 0);
+        pedidoService = new PedidoService(pedidoDAO, itemDAO, new MesaDAO(), new CatalogoItensCache(itemDAO, 60),
+                resumoVendas, eventosPedido, quadroPedidos, idempotencia);
+        pagamentoService = new PagamentoService(new PagamentoDAO(), pedidoDAO, pedidoService, resumoVendas,
+                eventosPedido, quadroPedidos, idempotencia);
+        executor = Executors.newFixedThreadPool(GARCONS + CAIXAS);
+    }
+
+    @AfterAll
+    static void encerrar() throws Exception {
+        executor.shutdownNow();
+        eventosPedido.encerrar();
+        quadroPedidos.encerrar();
+        idempotencia.encerrar();
+        dataSource.close();
+    }
+
+    @RepeatedTest(3)
+    void edicoesEPagamentoConcorrentesNaoPerdemEscritas() throws Exception {
+        Pedido novo = new Pedido(2, null, 1, null, BigDecimal.ZERO);
+        novo.adicionarItem(new PedidoItem(1, null, null, 1, null));
+        novo.adicionarItem(new PedidoItem(2, null, null, 1, null));
+        int idPedido = pedidoService.criarPedido(novo).getIdPedido();
+
+        AtomicInteger edicoes = new AtomicInteger();
+        AtomicInteger pagamentos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int g = 0; g < GARCONS; g++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int t = 0; t < TENTATIVAS_POR_GARCOM; t++) {
+                    Pedido lido = pedidoService.buscarPedidoPorId(idPedido);
+                    if (lido.isPago()) {
+                        return null;
+                    }
+                    PedidoItem linha = lido.getItensDoPedido().get(0);
+                    linha.setQuantidade(linha.getQuantidade() + 1);
+                    try {
+                        pedidoService.atualizarPedido(lido);
+                        edicoes.incrementAndGet();
+                    } catch (ConflitoConcorrenciaException e) {
+                        // outro garçom ou o caixa gravou antes; relê e tenta de novo
+                    } catch (ServiceException e) {
+                        // "já foi pago": o caixa confirmou entre a leitura acima e a da edição.
+                        if (!pedidoService.buscarPedidoPorId(idPedido).isPago()) {
+                            throw e;
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int c = 0; c < CAIXAS; c++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                while (edicoes.get() < EDICOES_ANTES_DO_PAGAMENTO) {
+                    Thread.onSpinWait();
+                }
+                while (true) {
+                    Pedido lido = pedidoService.buscarPedidoPorId(idPedido);
+                    if (lido.isPago()) {
+                        return null;
+                    }
+                    try {
+                        Pagamento pagamento = new Pagamento(idPedido, lido.getValorTotalComDesconto(), "PIX", null);
+                        pagamento.setVersaoPedido(lido.getVersao());
+                        pagamentoService.registrarPagamento(pagamento);
+                        pagamentos.incrementAndGet();
+                        return null;
+                    } catch (ConflitoConcorrenciaException e) {
+                        // um garçom editou depois da leitura; relê e tenta de novo
+                    } catch (ServiceException e) {
+                        // O outro caixa pagou primeiro (pedido já pago ou pagamento duplicado recusado).
+                        if (!pedidoService.buscarPedidoPorId(idPedido).isPago()) {
+                            throw e;
+                        }
+                    }
+                }
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+
+        Pedido fim = pedidoService.buscarPedidoPorId(idPedido);
+        int quantidadeFinal = fim.getItensDoPedido().stream().filter(i -> i.getIdItem() == 1).findFirst()
+                .map(PedidoItem::getQuantidade).orElse(-1);
+        assertThat(quantidadeFinal).as("quantidade final").isEqualTo(1 + edicoes.get());
+        assertThat(pagamentos.get()).as("pagamentos confirmados").isEqualTo(1);
+        assertThat(fim.isPago()).isTrue();
+        assertThat(fim.getVersao()).as("versão final").isEqualTo(edicoes.get() + 1);
+        assertThat(pagamentoService.buscarPagamentoPorIdPedido(idPedido).getValorTotal())
+                .as("valor pago")
+                .isEqualByComparingTo(fim.getValorTotalComDesconto());
+        // O quadro em memória não traz de volta o pedido pago, mesmo com registrar de edições chegando fora de ordem.
+        assertThat(quadroPedidos.listarAbertos()).extracting(Pedido::getIdPedido).doesNotContain(idPedido);
+    }
+}
@@ -0,0 +1,94 @@
+package johnygastrobar.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.BancoTeste;
+import johnygastrobar.dao.PedidoDAO;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Roda na execução "memoria-limitada" do surefire (pom.xml), num JVM com -Xmx128m: o histórico de
+// 1 milhão de pedidos (2 milhões de itens) não caberia nesse heap se a exportação acumulasse pedidos.
+// O banco fica em disco para que os próprios dados não disputem o heap.
+@Tag("memoria-limitada")
+class ExportacaoPedidoTest {
+
+    private static final int PEDIDOS = 1_000_000;
+
+    // A massa é gerada uma vez para a classe: só leitura nos testes.
+    @TempDir
+    static Path diretorio;
+
+    private static HikariDataSource dataSource;
+    private static ExportacaoPedidoService exportacaoService;
+
+    @BeforeAll
+    static void preparar() throws Exception {
+        dataSource = BancoTeste.criarEmArquivo(diretorio);
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Pedido (id_garcom, id_mesa, data_hora, entregue, pago, desconto) " +
+                    "SELECT 1, MOD(n, " + BancoTeste.MESAS + ") + 1, DATEADD('MINUTE', n, TIMESTAMP '2020-01-01 00:00:00'), " +
+                    "TRUE, TRUE, 0 FROM SYSTEM_RANGE(1, " + PEDIDOS + ") r(n)");
+            // Dois itens por pedido.
+            stmt.execute("INSERT INTO Pedido_Item (id_pedido, id_item, quantidade, preco_unitario) " +
+                    "SELECT (n + 1) / 2, MOD(n, " + BancoTeste.ITENS + ") + 1, 1, 10.00 FROM SYSTEM_RANGE(1, " + (2 * PEDIDOS) + ") r(n)");
+        }
+        // Mesmos padrões do ObjectMapper que o Spring Boot injeta na aplicação.
+        exportacaoService = new ExportacaoPedidoService(new PedidoDAO(), Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @AfterAll
+    static void encerrar() {
+        dataSource.close();
+    }
+
+    @Test
+    void ndjsonDeUmMilhaoDePedidosComHeapPequeno() throws Exception {
+        ContadorLinhas saida = new ContadorLinhas();
+
+        exportacaoService.exportarPedidos("ndjson", null, null, saida);
+
+        assertThat(saida.linhas).isEqualTo(PEDIDOS);
+    }
+
+    @Test
+    void csvDeUmMilhaoDePedidosComHeapPequeno() throws Exception {
+        ContadorLinhas saida = new ContadorLinhas();
+
+        exportacaoService.exportarPedidos("csv", null, null, saida);
+
+        assertThat(saida.linhas).isEqualTo(1 + 2L * PEDIDOS); // cabeçalho + uma linha por item
+    }
+
+    // Descarta o conteúdo: só conta as linhas, para que a saída não ocupe o heap.
+    private static final class ContadorLinhas extends OutputStream {
+        long linhas;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                linhas++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    linhas++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package johnygastrobar.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.BancoTeste;
+import johnygastrobar.dao.ItemDAO;
+import johnygastrobar.model.Item;
+import johnygastrobar.model.ResultadoImportacaoItens;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportacaoItensTest {
+
+    private HikariDataSource dataSource;
+    private ItemDAO itemDAO;
+    private ItemService itemService;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        dataSource = BancoTeste.criar();
+        itemDAO = new ItemDAO();
+        itemService = new ItemService(itemDAO, new CatalogoItensCache(itemDAO, 60));
+    }
+
+    @AfterEach
+    void encerrar() {
+        dataSource.close();
+    }
+
+    @Test
+    void csvComLinhasInvalidasGeraRelatorioPorLinha() {
+        String csv = "id_item,nome,tipo,preco\r\n" +
+                ",\"Conferência, com vírgula\",Prato,\"1.234,50\"\r\n" +   // 2: novo
+                "1,Item 1,Prato,99.90\r\n" +                              // 3: altera o item 1
+                "2,Item 2,,\r\n" +                                        // 4: sem preço
+                "99999,Fantasma,Prato,10\r\n" +                           // 5: id inexistente
+                ",item 3,Bebida,5\r\n" +                                  // 6: mesmo nome do item 3 (altera o 3)
+                "4,Item 1,Prato,10\r\n" +                                 // 7: nome já usado pelo item 1
+                ",\"Conferência, com vírgula\",Prato,3\r\n" +             // 8: repete a linha 2
+                "\r\n" +
+                ",\"Quebra\nde linha\",Prato,abc\r\n";                    // 10: preço malformado (nome com quebra de linha)
+
+        ResultadoImportacaoItens resultado = itemService.importarItensCsv(csv);
+
+        assertThat(resultado.getInseridos()).isEqualTo(1);
+        assertThat(resultado.getAtualizados()).isEqualTo(2);
+        assertThat(resultado.getInalterados()).isZero();
+        assertThat(resultado.getRecusadas()).extracting(ResultadoImportacaoItens.LinhaRecusada::getLinha)
+                .containsExactly(4, 5, 7, 8, 10);
+        assertThat(itemService.listarTodosItens()).filteredOn(item -> item.getNome().equals("Conferência, com vírgula"))
+                .singleElement()
+                .satisfies(item -> assertThat(item.getPreco()).isEqualByComparingTo("1234.50"));
+        assertThat(itemService.buscarItemPorId(1).getPreco()).isEqualByComparingTo("99.90");
+        assertThat(itemService.buscarItemPorId(3).getNome()).isEqualTo("item 3");
+    }
+
+    @Test
+    void reimportarOMesmoArquivoNaoAlteraNada() {
+        String csv = "nome;tipo;preco\nItem 5;SOBREMESA;15,00\nItem 6;COMIDA;16,00\n";
+
+        ResultadoImportacaoItens resultado = itemService.importarItensCsv(csv);
+
+        assertThat(resultado.getInalterados()).isEqualTo(2);
+        assertThat(resultado.getAtualizados()).isZero();
+        assertThat(resultado.getInseridos()).isZero();
+    }
+
+    // Item deletado por outra transação depois da leitura da importação: o UPDATE não encontra a linha
+    // e o id volta como não encontrado, sem recriar o item.
+    @Test
+    void atualizacaoEmLoteNaoRecriaItemRemovido() throws Exception {
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            assertThat(itemDAO.deletar(7, conn)).isTrue();
+
+            Set<Integer> naoEncontrados = itemDAO.atualizarEmLote(Arrays.asList(
+                    new Item(6, "Item 6", "COMIDA", new BigDecimal("20.00")),
+                    new Item(7, "Item 7", "BEBIDA", new BigDecimal("21.00"))), conn);
+
+            assertThat(naoEncontrados).containsExactly(7);
+            assertThat(itemDAO.buscarPorId(7, conn)).isNull();
+            assertThat(itemDAO.buscarPorId(6, conn).getPreco()).isEqualByComparingTo("20.00");
+        }
+    }
+}
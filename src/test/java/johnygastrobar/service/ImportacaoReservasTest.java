@@ -0,0 +1,85 @@
+package johnygastrobar.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.BancoTeste;
+import johnygastrobar.dao.MesaDAO;
+import johnygastrobar.dao.ReservaDAO;
+import johnygastrobar.exception.ServiceException;
+import johnygastrobar.model.Reserva;
+import johnygastrobar.model.ResultadoImportacaoReservas;
+import johnygastrobar.model.ResultadoImportacaoReservas.LinhaReserva;
+import johnygastrobar.util.ConnectionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportacaoReservasTest {
+
+    private HikariDataSource dataSource;
+    private ReservaService reservaService;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        dataSource = BancoTeste.criar();
+        ReservaDAO reservaDAO = new ReservaDAO();
+        MesaDAO mesaDAO = new MesaDAO();
+        IndiceReservas indiceReservas = new IndiceReservas(reservaDAO, mesaDAO, 300, "11:00", "22:30", 30);
+        indiceReservas.carregarNaInicializacao();
+        reservaService = new ReservaService(reservaDAO, mesaDAO, indiceReservas);
+    }
+
+    @AfterEach
+    void encerrar() {
+        dataSource.close();
+    }
+
+    @Test
+    void loteComConflitosGeraRelatorioPorLinha() throws Exception {
+        LocalDate dia = LocalDate.now().plusDays(10);
+        Reserva existente = reservaService.criarReserva(new Reserva("Existente", 2, 1, dia, LocalTime.of(20, 0), null));
+        // Mesa 6 tem capacidade 2 (2 + 6 % 6).
+        List<Reserva> lote = Arrays.asList(
+                new Reserva("Conflita com a gravada", 2, 1, dia, LocalTime.of(19, 0), null),     // 0
+                new Reserva("Logo depois da gravada", 2, 1, dia, LocalTime.of(21, 30), null),    // 1: aceita
+                new Reserva("Primeira da mesa 2", 2, 2, dia, LocalTime.of(20, 0), null),         // 2: aceita
+                new Reserva("Conflita com a linha 2", 2, 2, dia, LocalTime.of(21, 0), null),     // 3
+                new Reserva("Grupo grande", 4, 6, dia, LocalTime.of(20, 0), null),               // 4
+                new Reserva("Mesa inexistente", 2, 999, dia, LocalTime.of(20, 0), null),         // 5
+                new Reserva(" ", 2, 3, dia, LocalTime.of(20, 0), null),                          // 6
+                new Reserva("Última da mesa 2", 2, 2, dia, LocalTime.of(22, 30), null));         // 7: aceita
+
+        ResultadoImportacaoReservas resultado = reservaService.importarReservas(lote);
+
+        assertThat(resultado.getLinhas()).filteredOn(LinhaReserva::isAceita).extracting(LinhaReserva::getIndice)
+                .containsExactly(1, 2, 7);
+        assertThat(resultado.getAceitas()).isEqualTo(3);
+        assertThat(resultado.getRecusadas()).isEqualTo(5);
+        assertThat(resultado.getLinhas().get(0).getMotivo()).contains("ID " + existente.getIdReserva());
+        assertThat(resultado.getLinhas().get(3).getMotivo()).contains("linha 2");
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            assertThat(new ReservaDAO().listarPorPeriodo(dia, dia, null, conn)).hasSize(4);
+        }
+    }
+
+    // As aceitas entram no índice em memória: uma reserva avulsa no mesmo horário é recusada.
+    @Test
+    void reservasImportadasBloqueiamOHorario() {
+        LocalDate dia = LocalDate.now().plusDays(11);
+        ResultadoImportacaoReservas resultado = reservaService.importarReservas(Arrays.asList(
+                new Reserva("Importada", 2, 2, dia, LocalTime.of(20, 0), null)));
+        assertThat(resultado.getAceitas()).isEqualTo(1);
+
+        assertThatThrownBy(() -> reservaService.criarReserva(new Reserva("Avulsa", 2, 2, dia, LocalTime.of(21, 0), null)))
+                .isInstanceOf(ServiceException.class);
+    }
+}
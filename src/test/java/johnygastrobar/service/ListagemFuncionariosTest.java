@@ -0,0 +1,121 @@
+package johnygastrobar.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import johnygastrobar.BancoTeste;
+import johnygastrobar.dao.FuncionarioDAO;
+import johnygastrobar.model.Funcionario;
+import johnygastrobar.util.ConnectionFactory;
+import johnygastrobar.util.MetricasJdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A listagem de funcionários faz um número fixo de consultas, qualquer que seja o número de funcionários:
+// conta as execuções registradas no timer jdbc.consultas (MetricasJdbc) com 10 e com 200 funcionários.
+class ListagemFuncionariosTest {
+
+    private HikariDataSource dataSource;
+    private SimpleMeterRegistry registry;
+    private FuncionarioService funcionarioService;
+    private int cadastrados = 0;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        dataSource = BancoTeste.criar();
+        registry = new SimpleMeterRegistry();
+        new ConnectionFactory(dataSource, new MetricasJdbc(registry, 200));
+        FuncionarioDAO funcionarioDAO = new FuncionarioDAO();
+        funcionarioService = new FuncionarioService(funcionarioDAO, new IndicePapeisFuncionarios(funcionarioDAO, 60));
+    }
+
+    @AfterEach
+    void encerrar() {
+        dataSource.close();
+    }
+
+    // Sem expand: só o SELECT polimórfico; cada coleção pedida soma uma consulta em lote.
+    @ParameterizedTest
+    @CsvSource(value = {
+            "NULL, 1",
+            "telefones, 2",
+            "dependentes, 2",
+            "'telefones,dependentes', 3"
+    }, nullValues = "NULL")
+    void numeroDeConsultasNaoDependeDoNumeroDeFuncionarios(String expand, long consultasEsperadas) throws Exception {
+        cadastrar(10);
+        assertThat(consultasAoListar(expand, 10)).isEqualTo(consultasEsperadas);
+
+        cadastrar(190);
+        assertThat(consultasAoListar(expand, 200)).isEqualTo(consultasEsperadas);
+    }
+
+    private long consultasAoListar(String expand, int funcionariosEsperados) {
+        long antes = consultasExecutadas();
+        List<Funcionario> funcionarios = funcionarioService.listarTodosFuncionarios(expand);
+        long consultas = consultasExecutadas() - antes;
+
+        assertThat(funcionarios).hasSize(funcionariosEsperados);
+        if (expand != null && expand.contains("telefones")) {
+            assertThat(funcionarios).allSatisfy(f -> assertThat(f.getTelefones()).hasSize(2));
+        } else {
+            assertThat(funcionarios).allSatisfy(f -> assertThat(f.getTelefones()).isNull());
+        }
+        if (expand != null && expand.contains("dependentes")) {
+            assertThat(funcionarios).allSatisfy(f -> assertThat(f.getDependentes()).hasSize(1));
+        } else {
+            assertThat(funcionarios).allSatisfy(f -> assertThat(f.getDependentes()).isNull());
+        }
+        return consultas;
+    }
+
+    private long consultasExecutadas() {
+        return registry.find("jdbc.consultas").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    // Cada funcionário com dois telefones e um dependente; metade garçons, metade cozinheiros.
+    // Direto no DataSource, para não entrar na contagem.
+    private void cadastrar(int quantidade) throws Exception {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement funcionario = conn.prepareStatement("INSERT INTO Funcionario (nome) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement telefone = conn.prepareStatement("INSERT INTO Funcionario_Telefones (id_funcionario, numero_telefone) VALUES (?, ?)");
+             PreparedStatement dependente = conn.prepareStatement("INSERT INTO Dependente (id_funcionario, nome_dependente, parentesco) VALUES (?, ?, 'Filho')");
+             PreparedStatement garcom = conn.prepareStatement("INSERT INTO Garcom (id_funcionario, setor_atendimento) VALUES (?, 'Salão')");
+             PreparedStatement cozinheiro = conn.prepareStatement("INSERT INTO Cozinheiro (id_funcionario, espec_cul) VALUES (?, 'Grelhados')")) {
+            for (int i = 0; i < quantidade; i++) {
+                int numero = ++cadastrados;
+                funcionario.setString(1, "Funcionário " + numero);
+                funcionario.executeUpdate();
+                int id;
+                try (ResultSet chaves = funcionario.getGeneratedKeys()) {
+                    chaves.next();
+                    id = chaves.getInt(1);
+                }
+                for (int t = 1; t <= 2; t++) {
+                    telefone.setInt(1, id);
+                    telefone.setString(2, "11 9000-" + numero + t);
+                    telefone.addBatch();
+                }
+                dependente.setInt(1, id);
+                dependente.setString(2, "Dependente " + numero);
+                dependente.addBatch();
+                PreparedStatement especializacao = (numero % 2 == 0) ? garcom : cozinheiro;
+                especializacao.setInt(1, id);
+                especializacao.executeUpdate();
+            }
+            telefone.executeBatch();
+            dependente.executeBatch();
+        }
+    }
+}
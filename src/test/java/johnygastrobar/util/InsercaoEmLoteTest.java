@@ -0,0 +1,82 @@
+package johnygastrobar.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import johnygastrobar.BancoTeste;
+import johnygastrobar.dao.ReservaDAO;
+import johnygastrobar.model.Reserva;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Os ids devolvidos por InsercaoEmLote.inserirComChaves (via ReservaDAO.inserirEmLote) batem com as linhas
+// gravadas, em lotes que cabem num bloco e que cruzam o limite de um bloco (500 linhas).
+class InsercaoEmLoteTest {
+
+    private static HikariDataSource dataSource;
+    private final ReservaDAO reservaDAO = new ReservaDAO();
+
+    @BeforeAll
+    static void criarBanco() throws Exception {
+        dataSource = BancoTeste.criar();
+    }
+
+    @AfterAll
+    static void fecharBanco() {
+        dataSource.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 499, 500, 501, 1234})
+    void idsGeradosCorrespondemAsLinhasGravadas(int tamanho) throws Exception {
+        String prefixo = "Lote " + tamanho;
+        List<Reserva> reservas = gerarReservas(prefixo, tamanho);
+        Map<Integer, String> gravadas = new HashMap<>();
+        try (Connection conn = ConnectionFactory.getConnection()) {
+            reservaDAO.inserirEmLote(reservas, conn);
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT id_reserva, nome_responsavel FROM Reserva WHERE nome_responsavel LIKE ?")) {
+                stmt.setString(1, prefixo + "-%");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        gravadas.put(rs.getInt("id_reserva"), rs.getString("nome_responsavel"));
+                    }
+                }
+            }
+        }
+
+        assertThat(gravadas).hasSize(tamanho);
+        for (Reserva reserva : reservas) {
+            assertThat(gravadas.get(reserva.getIdReserva()))
+                    .as("linha gravada com o id %d", reserva.getIdReserva())
+                    .isEqualTo(reserva.getNomeResponsavel());
+        }
+    }
+
+    private static List<Reserva> gerarReservas(String prefixo, int quantidade) {
+        LocalDate dia = LocalDate.now().plusDays(30);
+        List<Reserva> reservas = new ArrayList<>(quantidade);
+        for (int r = 0; r < quantidade; r++) {
+            Reserva reserva = new Reserva();
+            reserva.setNomeResponsavel(prefixo + "-" + r);
+            reserva.setNumeroPessoas(2 + r % 6);
+            reserva.setIdMesa(1 + r % BancoTeste.MESAS);
+            reserva.setDataReserva(dia.plusDays(r / 100));
+            reserva.setHoraReserva(LocalTime.of(12 + r % 10, 0));
+            reservas.add(reserva);
+        }
+        return reservas;
+    }
+}